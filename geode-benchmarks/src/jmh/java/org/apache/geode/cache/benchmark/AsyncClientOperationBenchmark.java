@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.client.internal.ServerRegionProxy;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.AvailablePort;
+
+/**
+ * Measures the throughput of asynchronous client gets with 10000 requests outstanding at once, all
+ * issued by one thread. Compares a pool that pipelines them on one connection, whose responses
+ * complete the futures, with a pool that runs each get on its async threads.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncClientOperationBenchmark {
+
+  private static final int OUTSTANDING = 10000;
+
+  private static final int KEYS = 1000;
+
+  @State(Scope.Benchmark)
+  public static class ClientState {
+
+    @Param({"false", "true"})
+    String pipelining;
+
+    Cache cache;
+
+    ServerRegionProxy proxy;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      System.setProperty("gemfire.PoolImpl.PIPELINING", this.pipelining);
+      System.setProperty("BridgeServer.PIPELINE_THREADS", "8");
+      this.cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      Region<Integer, byte[]> region =
+          this.cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL).create("region");
+      for (int i = 0; i < KEYS; i++) {
+        region.put(i, new byte[64]);
+      }
+      CacheServer server = this.cache.addCacheServer();
+      server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+      server.start();
+      PoolImpl pool = (PoolImpl) PoolManager.createFactory()
+          .addServer("localhost", server.getPort()).setMaxConnections(64)
+          .setReadTimeout(60000).setPRSingleHopEnabled(false).create("pool");
+      this.proxy = new ServerRegionProxy("/region", pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.cache.close();
+      System.clearProperty("gemfire.PoolImpl.PIPELINING");
+      System.clearProperty("BridgeServer.PIPELINE_THREADS");
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OUTSTANDING)
+  public void getAsync(ClientState state) throws Exception {
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[OUTSTANDING];
+    for (int i = 0; i < OUTSTANDING; i++) {
+      futures[i] = state.proxy.getAsync(i % KEYS, null, null);
+    }
+    CompletableFuture.allOf(futures).get();
+  }
+}
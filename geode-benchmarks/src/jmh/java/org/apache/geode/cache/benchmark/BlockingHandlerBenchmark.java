@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
+
+/**
+ * Compares a message pool with a fixed maximum size to one that compensates for blocked threads, as
+ * enabled for the distribution manager's pools by DistributionManager.ELASTIC_POOLS. Each batch
+ * submits handlers that wait for a reply followed by the handlers that send those replies, so a
+ * fixed pool stalls until the waits time out while a compensating pool keeps processing. A batch
+ * of handlers that never block shows the cost of compensation when it is not needed.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BlockingHandlerBenchmark {
+
+  /** How long a handler waits for its reply before giving up, like a reply wait timing out. */
+  private static final long REPLY_WAIT_MILLIS = 20;
+
+  @Param({"false", "true"})
+  public boolean compensate;
+
+  @Param({"4"})
+  public int maxThreads;
+
+  @Param({"16"})
+  public int handlers;
+
+  private PooledExecutorWithDMStats pool;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.pool = new PooledExecutorWithDMStats(new LinkedBlockingQueue<Runnable>(), this.maxThreads,
+        Executors.defaultThreadFactory());
+    this.pool.setCompensateBlockedThreads(this.compensate);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.pool.shutdownNow();
+  }
+
+  @Benchmark
+  public void blockingHandlers() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(this.handlers * 2);
+    final CountDownLatch[] replies = new CountDownLatch[this.handlers];
+    for (int i = 0; i < this.handlers; i++) {
+      final CountDownLatch reply = replies[i] = new CountDownLatch(1);
+      this.pool.execute(() -> {
+        PooledExecutorWithDMStats blockedPool = PooledExecutorWithDMStats.threadWillBlock();
+        try {
+          reply.await(REPLY_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          PooledExecutorWithDMStats.threadUnblocked(blockedPool);
+        }
+        done.countDown();
+      });
+    }
+    for (final CountDownLatch reply : replies) {
+      this.pool.execute(() -> {
+        reply.countDown();
+        done.countDown();
+      });
+    }
+    done.await();
+  }
+
+  @Benchmark
+  public void nonBlockingHandlers() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(this.handlers * 2);
+    for (int i = 0; i < this.handlers * 2; i++) {
+      this.pool.execute(done::countDown);
+    }
+    done.await();
+  }
+}
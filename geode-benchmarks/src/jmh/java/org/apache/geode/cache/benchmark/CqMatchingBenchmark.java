@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.internal.CqStateImpl;
+import org.apache.geode.cache.query.internal.cq.CqServiceImpl;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
+
+/**
+ * Measures the throughput of updates on a server region as the number of CQs registered on it
+ * grows. Each CQ selects the entries with one id, and every update changes an entry from one id to
+ * another. Compares evaluating every CQ on each event with gemfire.cq.INDEX_PREDICATES, which only
+ * evaluates the CQs whose predicate the old or new value satisfies.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CqMatchingBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class ServerState {
+
+    @Param({"false", "true"})
+    String indexPredicates;
+
+    @Param({"10", "100", "1000", "10000"})
+    int cqs;
+
+    @Param("1000")
+    int keys;
+
+    Cache cache;
+
+    Region<Integer, Value> region;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      System.setProperty(CqServiceImpl.INDEX_PREDICATES_PROPERTY_NAME, this.indexPredicates);
+      this.cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      CacheServer server = this.cache.addCacheServer();
+      server.setPort(0);
+      server.start();
+      this.region =
+          this.cache.<Integer, Value>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+      for (int i = 0; i < this.keys; i++) {
+        this.region.put(i, new Value(i % this.cqs));
+      }
+
+      CqServiceImpl cqService = (CqServiceImpl) ((InternalCache) this.cache).getCqService();
+      cqService.start();
+      ClientProxyMembershipID client =
+          new ClientProxyMembershipID(this.cache.getDistributedSystem().getDistributedMember());
+      for (int i = 0; i < this.cqs; i++) {
+        cqService.executeCq("cq" + i, "SELECT * FROM /region r WHERE r.id = " + i,
+            CqStateImpl.RUNNING, client, CacheClientNotifier.getInstance(), false, false, 0, null);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.cache.close();
+      System.clearProperty(CqServiceImpl.INDEX_PREDICATES_PROPERTY_NAME);
+    }
+  }
+
+  @Benchmark
+  public Object update(ServerState state) {
+    int i = state.next++;
+    return state.region.put(i % state.keys, new Value(i % state.cqs));
+  }
+
+  public static class Value implements Serializable {
+    private final int id;
+
+    public Value(int id) {
+      this.id = id;
+    }
+
+    public int getId() {
+      return id;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+
+/**
+ * Measures the throughput of creates in a region that is full, so that each create evicts an
+ * entry, with 64 writer threads. Compares the single LRU list with gemfire.lru.segments=0 with the
+ * segmented list.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LRUEvictionBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class RegionState {
+
+    @Param({"0", "16"})
+    String lruSegments;
+
+    @Param("100000")
+    int limit;
+
+    final AtomicLong nextThread = new AtomicLong(1);
+
+    Cache cache;
+
+    Region<Long, byte[]> region;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      System.setProperty("gemfire.lru.segments", this.lruSegments);
+      this.cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      this.region = this.cache.<Long, byte[]>createRegionFactory(RegionShortcut.LOCAL)
+          .setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes(this.limit))
+          .create("region");
+      byte[] value = new byte[16];
+      for (long i = 0; i < this.limit; i++) {
+        this.region.put(i, value);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.cache.close();
+      System.clearProperty("gemfire.lru.segments");
+    }
+  }
+
+  /** Each thread creates its own keys so that the writers share nothing but the region. */
+  @State(Scope.Thread)
+  public static class Writer {
+
+    final byte[] value = new byte[16];
+
+    long nextKey;
+
+    @Setup(Level.Trial)
+    public void setup(RegionState state) {
+      this.nextKey = state.nextThread.getAndIncrement() << 40;
+    }
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void createAndEvict(RegionState state, Writer writer) {
+    state.region.put(writer.nextKey++, writer.value);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+
+/**
+ * Measures what the entries of a region cost the Java heap when its values are stored on the heap
+ * and when they are stored off-heap. Only the values move off-heap: keys, region entries, version
+ * stamps and the entry table stay on the heap. Setup prints the heap used per entry; fullGc
+ * measures the pause of a full collection while the region is live, and get the cost of a read.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:+UseParallelGC"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+public class OffHeapRegionFootprintBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class RegionState {
+
+    @Param({"heap", "offHeap"})
+    String values;
+
+    @Param("5000000")
+    int entries;
+
+    Cache cache;
+
+    Region<Long, byte[]> region;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      this.cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+          .set("off-heap-memory-size", "2g").create();
+      long before = usedHeap();
+      this.region = this.cache.<Long, byte[]>createRegionFactory(RegionShortcut.LOCAL)
+          .setOffHeap(this.values.equals("offHeap")).create("region");
+      for (long i = 0; i < this.entries; i++) {
+        this.region.put(i, new byte[16]);
+      }
+      System.out.println("Region with " + this.values + " values and " + this.entries
+          + " entries uses " + (usedHeap() - before) / this.entries + " heap bytes per entry");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.cache.close();
+    }
+
+    private static long usedHeap() {
+      System.gc();
+      Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    long next;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void fullGc(RegionState state) {
+    System.gc();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Object get(RegionState state, Cursor cursor) {
+    cursor.next = (cursor.next + 7919) % state.entries;
+    return state.region.get(cursor.next);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplyProcessor21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+/**
+ * Measures the overhead that reply tracking adds to each message: registering a reply processor,
+ * looking it up when the reply arrives, counting the reply and waking the waiting thread. The
+ * replies are processed by another thread of the same VM, so no network is involved. Compares
+ * blocking at once with spinning for a while first, using gemfire.ReplyProcessor21.SPIN_WAIT_NANOS,
+ * and also measures registering and removing processors from several threads at once.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReplyProcessorBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SystemState {
+
+    InternalDistributedSystem system;
+
+    InternalDistributedMember member;
+
+    BlockingQueue<Integer> requests = new LinkedTransferQueue<>();
+
+    Thread responder;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      Properties properties = new Properties();
+      properties.setProperty("mcast-port", "0");
+      properties.setProperty("locators", "");
+      this.system = (InternalDistributedSystem) DistributedSystem.connect(properties);
+      this.member = new InternalDistributedMember("localhost", 12345);
+      final ReplyMessage reply = new ReplyMessage();
+      reply.setSender(this.member);
+      this.responder = new Thread(() -> {
+        try {
+          for (;;) {
+            int processorId = this.requests.take();
+            ReplyProcessor21.getProcessor(processorId).process(reply);
+          }
+        } catch (InterruptedException e) {
+          // done
+        }
+      }, "responder");
+      this.responder.setDaemon(true);
+      this.responder.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      this.responder.interrupt();
+      this.responder.join();
+      this.system.disconnect();
+    }
+  }
+
+  /**
+   * A reply processor that waits for the made-up member, which the loner distribution manager
+   * does not know about
+   */
+  static class BenchmarkReplyProcessor extends ReplyProcessor21 {
+    BenchmarkReplyProcessor(InternalDistributedSystem system, InternalDistributedMember member) {
+      super(system, member);
+    }
+
+    @Override
+    protected void processActiveMembers(Set activeMembers) {
+      // the member is not really in the distributed system
+    }
+  }
+
+  @Benchmark
+  public void roundTrip(SystemState state) throws InterruptedException {
+    ReplyProcessor21 processor = new BenchmarkReplyProcessor(state.system, state.member);
+    state.requests.put(processor.getProcessorId());
+    processor.waitForRepliesUninterruptibly();
+  }
+
+  @Benchmark
+  @Fork(value = 1,
+      jvmArgsAppend = {"-Xmx1g", "-Dgemfire.ReplyProcessor21.SPIN_WAIT_NANOS=50000"})
+  public void roundTripSpinning(SystemState state) throws InterruptedException {
+    ReplyProcessor21 processor = new BenchmarkReplyProcessor(state.system, state.member);
+    state.requests.put(processor.getProcessorId());
+    processor.waitForRepliesUninterruptibly();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void registerAndRemove(SystemState state) {
+    new BenchmarkReplyProcessor(state.system, state.member).cleanup();
+  }
+}
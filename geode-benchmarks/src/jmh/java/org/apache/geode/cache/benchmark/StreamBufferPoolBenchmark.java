@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.util.BlobHelper;
+
+/**
+ * Measures serializing the value of a put into a message part the way Message does: into a
+ * HeapDataOutputStream that is copied to the comm buffer and then closed. Compares streams with
+ * new buffers to streams whose buffers come from the pool enabled by
+ * gemfire.StreamBufferPool.ENABLED, with heap or direct buffers. The largest value is bigger than
+ * the largest buffer the pool caches. Run with "-prof gc" to compare the allocation and GC rates.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StreamBufferPoolBenchmark {
+
+  private static final int CHUNK_SIZE = 1024;
+
+  @Param({"100", "4000", "20000", "1000000"})
+  public int valueSize;
+
+  @Param({"false", "true"})
+  public boolean direct;
+
+  private byte[] value;
+
+  private ByteBuffer commBuffer;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.value = new byte[this.valueSize];
+    this.commBuffer = ByteBuffer.allocateDirect(Math.max(64 * 1024, this.valueSize + 64));
+  }
+
+  @Benchmark
+  public ByteBuffer serializePart() throws IOException {
+    return serialize();
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-Dgemfire.StreamBufferPool.ENABLED=true"})
+  public ByteBuffer serializePartPooled() throws IOException {
+    return serialize();
+  }
+
+  private ByteBuffer serialize() throws IOException {
+    HeapDataOutputStream hdos = HeapDataOutputStream.pooled(CHUNK_SIZE, null, false, this.direct);
+    BlobHelper.serializeTo(this.value, hdos);
+    this.commBuffer.clear();
+    hdos.sendTo(this.commBuffer);
+    hdos.close();
+    return this.commBuffer;
+  }
+}
@@ -60,6 +60,15 @@ public interface DiskStore {
    */
   public int getCompactionThreshold();
 
+  /**
+   * Returns the maximum rate, in bytes per second, at which compaction copies live data forward to
+   * the current oplog.
+   *
+   * @return the maximum compaction rate, or 0 if compaction is not rate limited.
+   * @since Geode 1.3
+   */
+  public long getCompactionMaxBytesPerSecond();
+
   /**
    * Returns true if manual compaction of disk files is allowed on this region. Manual compaction is
    * done be calling {@link #forceCompaction}.
@@ -130,6 +130,15 @@ public interface DiskStoreFactory {
    */
   public static final float DEFAULT_DISK_USAGE_CRITICAL_PERCENTAGE = 99;
 
+  /**
+   * The default maximum rate, in bytes per second, at which oplogs are compacted.
+   * <p>
+   * Current value: <code>0</code> which means compaction is not rate limited.
+   *
+   * @since Geode 1.3
+   */
+  public static final long DEFAULT_COMPACTION_MAX_BYTES_PER_SECOND = 0;
+
   /**
    * Set to <code>true</code> to cause the disk files to be automatically compacted. Set to
    * <code>false</code> if no compaction is needed or manual compaction will be used.
@@ -161,6 +170,19 @@ public interface DiskStoreFactory {
    */
   public DiskStoreFactory setAllowForceCompaction(boolean allowForceCompaction);
 
+  /**
+   * Sets the maximum rate, in bytes per second, at which compaction copies live data forward to
+   * the current oplog. Limiting this rate leaves more disk bandwidth for the writes done by
+   * regions using the disk store while oplogs are being compacted, at the cost of compaction
+   * taking longer to free up disk space.
+   *
+   * @param compactionMaxBytesPerSecond the maximum compaction rate. If 0, compaction is not rate
+   *        limited.
+   * @return a reference to <code>this</code>
+   * @since Geode 1.3
+   */
+  public DiskStoreFactory setCompactionMaxBytesPerSecond(long compactionMaxBytesPerSecond);
+
   /**
    * Sets the maximum size in megabytes a single oplog (operation log) is allowed to be. When an
    * oplog is created this amount of file space will be immediately reserved.
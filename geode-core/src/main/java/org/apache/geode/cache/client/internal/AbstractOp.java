@@ -17,12 +17,17 @@ package org.apache.geode.cache.client.internal;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.cache.CacheLoaderException;
+import org.apache.geode.cache.client.AllConnectionsInUseException;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.PutAllPartialResultException;
@@ -377,26 +382,52 @@ public abstract class AbstractOp implements Op {
    * Connection)
    */
   public Object attempt(Connection cnx) throws Exception {
+    return readAttemptResponse(cnx, sendAttempt(cnx));
+  }
+
+  /**
+   * Sends this operation on the given connection, the first half of {@link #attempt}. The response
+   * must then be read with {@link #readAttemptResponse}, maybe by another thread.
+   *
+   * @return the start time of the attempt
+   */
+  long sendAttempt(Connection cnx) throws Exception {
     this.failed = true;
     this.timedOut = false;
     long start = startAttempt(cnx.getStats());
+    boolean sent = false;
     try {
       try {
         attemptSend(cnx);
         this.failed = false;
+        sent = true;
       } finally {
         endSendAttempt(cnx.getStats(), start);
       }
-      this.failed = true;
-      try {
-        Object result = attemptReadResponse(cnx);
-        this.failed = false;
-        return result;
-      } catch (SocketTimeoutException ste) {
-        this.failed = false;
-        this.timedOut = true;
-        throw ste;
+    } finally {
+      if (!sent) {
+        endAttempt(cnx.getStats(), start);
       }
+    }
+    return start;
+  }
+
+  /**
+   * Reads the response to this operation from the given connection, the second half of
+   * {@link #attempt}.
+   *
+   * @param start the start time returned by {@link #sendAttempt}
+   */
+  Object readAttemptResponse(Connection cnx, long start) throws Exception {
+    this.failed = true;
+    try {
+      Object result = attemptReadResponse(cnx);
+      this.failed = false;
+      return result;
+    } catch (SocketTimeoutException ste) {
+      this.failed = false;
+      this.timedOut = true;
+      throw ste;
     } finally {
       endAttempt(cnx.getStats(), start);
     }
@@ -434,4 +465,56 @@ public abstract class AbstractOp implements Op {
   public boolean isGatewaySenderOp() {
     return false;
   }
+
+  /**
+   * Subclasses for AbstractOp should override this method to return true if this operation may be
+   * pipelined with others on a connection. Such an operation must send a single request and read a
+   * single response, or send another request only after reading the response.
+   *
+   * @return true if the operation may be sent on a {@link PipelinedConnection}
+   * @since Geode 1.3
+   */
+  protected boolean isPipelinable() {
+    return false;
+  }
+
+  /**
+   * Executes the given op on the server hosting the bucket of its key without waiting for the
+   * result. Just as the synchronous single hop ops do, it falls back to executing the op on any
+   * server if that server cannot be reached, and forgets the server's bucket location.
+   *
+   * @since Geode 1.3
+   */
+  static CompletableFuture<Object> executeAsyncOnBucketServer(ExecutablePool pool, Op op,
+      ServerLocation server, ClientMetadataService cms) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    pool.executeAsync(op, new ServerLocation(server.getHostName(), server.getPort()))
+        .whenComplete((value, failure) -> {
+          if (failure == null) {
+            result.complete(value);
+            return;
+          }
+          Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+              ? failure.getCause() : failure;
+          if (cause instanceof CacheLoaderException) {
+            cause = cause.getCause();
+          }
+          if (cause instanceof ServerOperationException
+              || !(cause instanceof ServerConnectivityException)) {
+            result.completeExceptionally(failure);
+            return;
+          }
+          if (!(cause instanceof AllConnectionsInUseException)) {
+            cms.removeBucketServerLocation(server);
+          }
+          pool.executeAsync(op, null).whenComplete((retryValue, retryFailure) -> {
+            if (retryFailure == null) {
+              result.complete(retryValue);
+            } else {
+              result.completeExceptionally(retryFailure);
+            }
+          });
+        });
+    return result;
+  }
 }
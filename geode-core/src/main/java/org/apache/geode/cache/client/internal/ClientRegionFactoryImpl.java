@@ -16,10 +16,16 @@ package org.apache.geode.cache.client.internal;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
+import java.io.IOException;
+
+import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.CustomExpiry;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.ExpirationAction;
 import org.apache.geode.cache.ExpirationAttributes;
 import org.apache.geode.cache.InterestPolicy;
 import org.apache.geode.cache.Region;
@@ -30,9 +36,13 @@ import org.apache.geode.cache.SubscriptionAttributes;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.InternalRegionArguments;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
+import org.apache.geode.internal.i18n.LocalizedStrings;
 
 /**
  * The distributed system will always default to a loner on a client.
@@ -43,6 +53,7 @@ import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
 public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V> {
   private final AttributesFactory<K, V> attrsFactory;
   private final InternalClientCache cache;
+  private boolean nearCache;
 
   /**
    * Constructs a ClientRegionFactory by creating a DistributedSystem and a Cache. If no
@@ -204,9 +215,42 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
     return this;
   }
 
+  /**
+   * Makes the region a near cache: it caches the values it gets from or puts on the servers, up to
+   * the given number of entries and for the given number of seconds, and has the servers invalidate
+   * only the keys it holds when their values change. The region's pool must have subscriptions
+   * enabled.
+   *
+   * @param maximumEntries the number of entries above which the least recently used are evicted
+   * @param timeToLive the number of seconds after which an entry expires, or 0 if they do not
+   * @return a reference to this ClientRegionFactory object
+   * @since Geode 1.3
+   */
+  public ClientRegionFactoryImpl<K, V> setNearCache(int maximumEntries, int timeToLive) {
+    if (maximumEntries <= 0) {
+      throw new IllegalArgumentException("The maximum entries of a near cache must be positive.");
+    }
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("The time to live of a near cache must not be negative.");
+    }
+    this.attrsFactory.setDataPolicy(DataPolicy.NORMAL);
+    this.attrsFactory.setEvictionAttributes(
+        EvictionAttributes.createLRUEntryAttributes(maximumEntries, EvictionAction.LOCAL_DESTROY));
+    if (timeToLive > 0) {
+      this.attrsFactory.setStatisticsEnabled(true);
+      this.attrsFactory.setEntryTimeToLive(
+          new ExpirationAttributes(timeToLive, ExpirationAction.LOCAL_DESTROY));
+    }
+    this.nearCache = true;
+    return this;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Region<K, V> create(String name) throws RegionExistsException {
+    if (this.nearCache) {
+      return createNearCache(null, name);
+    }
     return getCache().basicCreateRegion(name, createRegionAttributes());
   }
 
@@ -214,9 +258,38 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
   @Override
   public Region<K, V> createSubregion(Region<?, ?> parent, String name)
       throws RegionExistsException {
+    if (this.nearCache) {
+      return createNearCache((LocalRegion) parent, name);
+    }
     return ((LocalRegion) parent).createSubregion(name, createRegionAttributes());
   }
 
+  @SuppressWarnings("unchecked")
+  private Region<K, V> createNearCache(LocalRegion parent, String name) {
+    RegionAttributes<K, V> ra = createRegionAttributes();
+    Pool pool = PoolManager.find(ra.getPoolName());
+    if (pool == null || !pool.getSubscriptionEnabled()) {
+      throw new IllegalStateException(
+          "A near cache requires a pool with subscriptions enabled: " + ra.getPoolName());
+    }
+    if (!ra.getConcurrencyChecksEnabled()) {
+      throw new IllegalStateException("A near cache requires concurrency checks to be enabled.");
+    }
+    InternalRegionArguments ira = new InternalRegionArguments().setDestroyLockFlag(true)
+        .setRecreateFlag(false).setSnapshotInputStream(null).setImageTarget(null)
+        .setNearCache(true);
+    try {
+      if (parent == null) {
+        return ((InternalCache) getCache()).createVMRegion(name, ra, ira);
+      }
+      return parent.createSubregion(name, ra, ira);
+    } catch (IOException | ClassNotFoundException e) {
+      // only if loading snapshot, not here
+      throw new InternalGemFireError(
+          LocalizedStrings.GemFireCache_UNEXPECTED_EXCEPTION.toLocalizedString(), e);
+    }
+  }
+
   @SuppressWarnings("deprecation")
   private RegionAttributes<K, V> createRegionAttributes() {
     RegionAttributes<K, V> ra = this.attrsFactory.create();
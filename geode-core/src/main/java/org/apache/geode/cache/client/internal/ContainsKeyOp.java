@@ -66,6 +66,11 @@ public class ContainsKeyOp {
       return processObjResponse(msg, "containsKey");
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.CONTAINS_KEY_DATA_ERROR;
@@ -239,6 +239,11 @@ public class DestroyOp {
       return null;
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.DESTROY_DATA_ERROR;
@@ -14,6 +14,9 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 import org.apache.geode.cache.NoSubscriptionServersAvailableException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.distributed.internal.ServerLocation;
@@ -90,6 +93,26 @@ public interface ExecutablePool {
   public Object executeOn(ServerLocation server, Op op, boolean accessed,
       boolean onlyUseExistingCnx);
 
+  /**
+   * Execute the given op without waiting for its result, retrying it as {@link #execute(Op)} and
+   * {@link #executeOn(ServerLocation, Op)} do.
+   * 
+   * @param server the server to do the execution on, or null for any server
+   * @param op the operation to execute
+   * @return a future of the result of execution if any; of null if not
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> executeAsync(Op op, ServerLocation server);
+
+  /**
+   * Run the given task, which executes ops, without waiting for its result.
+   * 
+   * @param task the task to run
+   * @return a future of the result of the task
+   * @since Geode 1.3
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task);
+
   /**
    * Execute the given op on the given connection.
    * 
@@ -15,6 +15,7 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -55,35 +56,73 @@ public class GetAllOp {
    */
   public static VersionedObjectList execute(ExecutablePool pool, String region, List keys,
       Object callback) {
-    AbstractOp op = new GetAllOpImpl(region, keys, callback);
-    op.initMessagePart();
-    return ((VersionedObjectList) pool.execute(op)).setKeys(keys);
+    return execute(pool, region, keys, callback, null);
+  }
+
+  /**
+   * Does a region getAll on a server, sending the keys in batches of at most the pool's bulk op
+   * batch size.
+   * 
+   * @param handler the handler to give the results to as they arrive, or null to return them
+   * @return the values found by the getAll if any, or null if they were given to the handler
+   * @since Geode 1.3
+   */
+  public static VersionedObjectList execute(ExecutablePool pool, String region, List keys,
+      Object callback, GetAllResultHandler handler) {
+    VersionedObjectList result = null;
+    for (List batch : getBatches(keys, getBatchSize(pool))) {
+      AbstractOp op = new GetAllOpImpl(region, batch, callback, handler);
+      op.initMessagePart();
+      VersionedObjectList batchResult = (VersionedObjectList) pool.execute(op);
+      if (handler == null) {
+        if (result == null) {
+          result = batchResult;
+        } else {
+          result.addAll(batchResult);
+        }
+      }
+    }
+    return result == null ? null : result.setKeys(keys);
   }
 
   public static VersionedObjectList execute(ExecutablePool pool, Region region, List keys,
       int retryAttempts, Object callback) {
-    AbstractOp op = new GetAllOpImpl(region.getFullPath(), keys, callback);
+    return execute(pool, region, keys, retryAttempts, callback, null);
+  }
+
+  /**
+   * Does a region getAll on the servers hosting the keys, each of which is sent its keys in batches
+   * of at most the pool's bulk op batch size.
+   * 
+   * @param handler the handler to give the results to as they arrive, or null to return them
+   * @return the values found by the getAll if any, or null if they were given to the handler
+   * @since Geode 1.3
+   */
+  public static VersionedObjectList execute(ExecutablePool pool, Region region, List keys,
+      int retryAttempts, Object callback, GetAllResultHandler handler) {
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
     Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
-      op.initMessagePart();
-      return ((VersionedObjectList) pool.execute(op)).setKeys(keys);
+      return execute(pool, region.getFullPath(), keys, callback, handler);
     } else {
       VersionedObjectList result = null;
       ServerConnectivityException se = null;
       List retryList = new ArrayList();
-      List callableTasks =
-          constructGetAllTasks(region.getFullPath(), serverToFilterMap, (PoolImpl) pool, callback);
-      Map<ServerLocation, Object> results = SingleHopClientExecutor.submitGetAll(serverToFilterMap,
-          callableTasks, cms, (LocalRegion) region);
-      for (ServerLocation server : results.keySet()) {
-        Object serverResult = results.get(server);
+      List<SingleHopGetAllCallable> callableTasks = constructGetAllTasks(region.getFullPath(),
+          serverToFilterMap, (PoolImpl) pool, callback, handler);
+      Map<ServerLocation, Object> results =
+          SingleHopClientExecutor.submitGetAll(callableTasks, cms, (LocalRegion) region);
+      for (SingleHopGetAllCallable task : callableTasks) {
+        Object serverResult = results.get(task.getServer());
         if (serverResult instanceof ServerConnectivityException) {
           se = (ServerConnectivityException) serverResult;
-          retryList.addAll(serverToFilterMap.get(server));
-        } else {
+          // the batches that succeeded are kept
+          retryList.addAll(task.getRemainingKeys());
+          serverResult = task.getResult();
+        }
+        if (serverResult != null) {
           if (result == null) {
             result = (VersionedObjectList) serverResult;
           } else {
@@ -97,10 +136,10 @@ public class GetAllOp {
           throw se;
         } else {
           VersionedObjectList retryResult =
-              GetAllOp.execute(pool, region.getFullPath(), retryList, callback);
+              GetAllOp.execute(pool, region.getFullPath(), retryList, callback, handler);
           if (result == null) {
             result = retryResult;
-          } else {
+          } else if (retryResult != null) {
             result.addAll(retryResult);
           }
         }
@@ -110,14 +149,33 @@ public class GetAllOp {
     }
   }
 
+  private static int getBatchSize(ExecutablePool pool) {
+    return pool instanceof PoolImpl ? ((PoolImpl) pool).getBulkOpBatchSize() : 0;
+  }
+
+  /**
+   * Splits the given keys into lists of at most the given size, or returns them as one list if the
+   * size is zero.
+   */
+  static List<List> getBatches(List keys, int batchSize) {
+    if (batchSize <= 0 || keys.size() <= batchSize) {
+      return Collections.singletonList(keys);
+    }
+    List<List> batches = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i += batchSize) {
+      batches.add(new ArrayList(keys.subList(i, Math.min(i + batchSize, keys.size()))));
+    }
+    return batches;
+  }
+
   private GetAllOp() {
     // no instances allowed
   }
 
-  static List constructGetAllTasks(String region,
+  static List<SingleHopGetAllCallable> constructGetAllTasks(String region,
       final Map<ServerLocation, HashSet> serverToFilterMap, final PoolImpl pool,
-      final Object callback) {
-    final List<SingleHopOperationCallable> tasks = new ArrayList<SingleHopOperationCallable>();
+      final Object callback, GetAllResultHandler handler) {
+    final List<SingleHopGetAllCallable> tasks = new ArrayList<SingleHopGetAllCallable>();
     ArrayList<ServerLocation> servers = new ArrayList<ServerLocation>(serverToFilterMap.keySet());
 
     if (logger.isDebugEnabled()) {
@@ -125,28 +183,104 @@ public class GetAllOp {
     }
     for (ServerLocation server : servers) {
       Set filterSet = serverToFilterMap.get(server);
-      AbstractOp getAllOp = new GetAllOpImpl(region, new ArrayList(filterSet), callback);
+      List<GetAllOpImpl> batches = new ArrayList<GetAllOpImpl>();
+      for (List batch : getBatches(new ArrayList(filterSet), pool.getBulkOpBatchSize())) {
+        batches.add(new GetAllOpImpl(region, batch, callback, handler));
+      }
 
-      SingleHopOperationCallable task =
-          new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
-              pool, getAllOp, UserAttributes.userAttributes.get());
+      SingleHopGetAllCallable task =
+          new SingleHopGetAllCallable(new ServerLocation(server.getHostName(), server.getPort()),
+              pool, batches, UserAttributes.userAttributes.get());
       tasks.add(task);
     }
     return tasks;
   }
 
+  /**
+   * Gets the values of the keys a server hosts, one batch after the other.
+   *
+   * @since Geode 1.3
+   */
+  static class SingleHopGetAllCallable extends SingleHopOperationCallable {
+
+    private final List<GetAllOpImpl> batches;
+
+    /**
+     * The index of the first batch that has not been done
+     */
+    private int next;
+
+    private VersionedObjectList result;
+
+    SingleHopGetAllCallable(ServerLocation server, PoolImpl pool, List<GetAllOpImpl> batches,
+        UserAttributes securityAttributes) {
+      super(server, pool, batches.get(0), securityAttributes);
+      this.batches = batches;
+    }
+
+    @Override
+    public Object call() throws Exception {
+      for (; this.next < this.batches.size(); this.next++) {
+        GetAllOpImpl op = this.batches.get(this.next);
+        VersionedObjectList batchResult = (VersionedObjectList) execute(op);
+        if (batchResult != null) {
+          batchResult.setKeys(op.getKeyList());
+          if (this.result == null) {
+            this.result = new VersionedObjectList(false);
+          }
+          this.result.addAll(batchResult);
+        }
+      }
+      return this.result;
+    }
+
+    /**
+     * Returns the results of the batches that have been done
+     */
+    VersionedObjectList getResult() {
+      return this.result;
+    }
+
+    /**
+     * Returns the keys whose values have not been received
+     */
+    List getRemainingKeys() {
+      List keys = new ArrayList();
+      for (int i = this.next; i < this.batches.size(); i++) {
+        keys.addAll(this.batches.get(i).getRemainingKeys());
+      }
+      return keys;
+    }
+  }
+
   static class GetAllOpImpl extends AbstractOp {
 
     private List keyList;
     private final Object callback;
+    private final GetAllResultHandler handler;
+
+    /**
+     * The number of keys whose values have been given to the handler, which are skipped if the op
+     * is retried
+     */
+    private int delivered;
 
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
     public GetAllOpImpl(String region, List keys, Object callback) {
+      this(region, keys, callback, null);
+    }
+
+    /**
+     * @param handler the handler to give each chunk of the response to as it is read, or null to
+     *        return the whole response
+     */
+    GetAllOpImpl(String region, List keys, Object callback, GetAllResultHandler handler) {
       super(callback != null ? MessageType.GET_ALL_WITH_CALLBACK : MessageType.GET_ALL_70, 3);
       this.keyList = keys;
       this.callback = callback;
+      this.handler = handler;
       getMessage().addStringPart(region);
     }
 
@@ -167,6 +301,10 @@ public class GetAllOp {
       return this.keyList;
     }
 
+    List getRemainingKeys() {
+      return this.keyList.subList(this.delivered, this.keyList.size());
+    }
+
 
     @Override
     protected Message createResponseMessage() {
@@ -180,8 +318,11 @@ public class GetAllOp {
 
     @Override
     protected Object processResponse(Message msg, final Connection con) throws Exception {
-      final VersionedObjectList result = new VersionedObjectList(false);
+      final VersionedObjectList result =
+          this.handler == null ? new VersionedObjectList(false) : null;
       final Exception[] exceptionRef = new Exception[1];
+      // the position in the key list of the next chunk
+      final int[] position = new int[1];
       processChunkedResponse((ChunkedMessage) msg, "getAll", new ChunkHandler() {
         public void handle(ChunkedMessage cm) throws Exception {
           Part part = cm.getPart(0);
@@ -193,7 +334,12 @@ public class GetAllOp {
             } else {
               VersionedObjectList chunk = (VersionedObjectList) o;
               chunk.replaceNullIDs(con.getEndpoint().getMemberId());
-              result.addAll(chunk);
+              if (result != null) {
+                result.addAll(chunk);
+              } else {
+                deliver(chunk, position[0]);
+              }
+              position[0] += chunk.size();
             }
           } catch (Exception e) {
             exceptionRef[0] = new ServerOperationException("Unable to deserialize value", e);
@@ -207,6 +353,23 @@ public class GetAllOp {
       }
     }
 
+    /**
+     * Gives the given chunk, which starts at the given position in the key list, to the handler
+     * unless it was already given to it by an earlier attempt of this op. A server sends the values
+     * in the order of the keys, in chunks of the same size each time.
+     */
+    private void deliver(VersionedObjectList chunk, int chunkPosition) {
+      int end = chunkPosition + chunk.size();
+      if (end <= this.delivered) {
+        return;
+      }
+      chunk.setKeys(new ArrayList(this.keyList.subList(chunkPosition, end)));
+      synchronized (this.handler) {
+        this.handler.handle(chunk);
+      }
+      this.delivered = end;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.GET_ALL_DATA_ERROR;
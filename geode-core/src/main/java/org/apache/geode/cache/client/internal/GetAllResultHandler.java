@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
+
+/**
+ * Receives the results of a getAll chunk by chunk, as the servers send them, so that the results
+ * of a large getAll need not all be held at once.
+ *
+ * @see ServerRegionProxy#getAll(java.util.List, Object, GetAllResultHandler)
+ * @since Geode 1.3
+ */
+public interface GetAllResultHandler {
+
+  /**
+   * Handles a chunk of results, whose keys have been set. The chunks of different servers arrive in
+   * no particular order, but the handler is never called by two threads at once. Each key is in
+   * one chunk, even if the keys of a server are retried on another server.
+   */
+  void handle(VersionedObjectList chunk);
+}
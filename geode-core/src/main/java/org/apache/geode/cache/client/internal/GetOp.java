@@ -14,6 +14,8 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.CacheClosedException;
@@ -91,6 +93,31 @@ public class GetOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region get on a server like {@link #execute} without making the caller wait for the
+   * result.
+   *
+   * @param region the region to do the get on, or null if only its name is known
+   * @since Geode 1.3
+   */
+  public static CompletableFuture<Object> executeAsync(ExecutablePool pool, LocalRegion region,
+      String regionName, Object key, Object callbackArg, boolean prSingleHopEnabled,
+      EntryEventImpl clientEvent) {
+    if (region == null) {
+      return pool.executeAsync(new GetOpImpl(regionName, key, callbackArg, clientEvent), null);
+    }
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation server =
+          cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
+      if (server != null) {
+        return AbstractOp.executeAsyncOnBucketServer(pool, op, server, cms);
+      }
+    }
+    return pool.executeAsync(op, null);
+  }
+
 
   private GetOp() {
     // no instances allowed
@@ -117,16 +144,25 @@ public class GetOp {
      */
     public GetOpImpl(LocalRegion region, Object key, Object callbackArg, boolean prSingleHopEnabled,
         EntryEventImpl clientEvent) {
+      this(region.getFullPath(), key, callbackArg, clientEvent);
+      this.region = region;
+      this.prSingleHopEnabled = prSingleHopEnabled;
+    }
+
+    /**
+     * Creates a get on the region with the given name, which has no local region
+     *
+     * @since Geode 1.3
+     */
+    GetOpImpl(String regionName, Object key, Object callbackArg, EntryEventImpl clientEvent) {
       super(MessageType.REQUEST, callbackArg != null ? 3 : 2);
       if (logger.isDebugEnabled()) {
         logger.debug("constructing a GetOp for key {}", key/* , new Exception("stack trace") */);
       }
-      this.region = region;
-      this.prSingleHopEnabled = prSingleHopEnabled;
       this.key = key;
       this.callbackArg = callbackArg;
       this.clientEvent = clientEvent;
-      getMessage().addStringPart(region.getFullPath());
+      getMessage().addStringPart(regionName);
       getMessage().addStringOrObjPart(key);
       if (callbackArg != null) {
         getMessage().addObjPart(callbackArg);
@@ -211,6 +247,11 @@ public class GetOp {
       return object;
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.REQUESTDATAERROR;
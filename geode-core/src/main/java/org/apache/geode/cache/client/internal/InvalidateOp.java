@@ -99,6 +99,11 @@ public class InvalidateOp {
       return null;
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.INVALIDATE_ERROR;
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Keeps the servers told which keys a client region caching values near the application holds, so
+ * that they send it invalidations for those keys only. Before a key's value is fetched from or put
+ * on the servers, interest in the key is registered, asking for updates as invalidates. Once the
+ * key has been evicted or has expired from the region, its interest is unregistered in a batch
+ * with others.
+ *
+ * <p>
+ * Keys are registered and values stored while holding the read lock, and the keys to unregister are
+ * chosen while holding the write lock. The unregistration is sent once the lock is released, and
+ * an update of one of its keys waits for it first, so that a key is never cached while its
+ * unregistration is in flight. Invalidations that reach the client before a value fetched earlier
+ * are ordered by the region's concurrency checks.
+ *
+ * @since Geode 1.3
+ */
+public class NearCache {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of keys dropped from the region after which their interest is unregistered
+   */
+  static final int UNREGISTER_BATCH_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "NearCache.UNREGISTER_BATCH_SIZE", 100);
+
+  private final LocalRegion region;
+
+  /**
+   * The registrations of the keys in which interest is registered, which complete once the server
+   * has them
+   */
+  private final ConcurrentMap<Object, CompletableFuture<Void>> registrations =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The unregistrations in flight of keys dropped from the region, which complete once the server
+   * has them
+   */
+  private final ConcurrentMap<Object, CompletableFuture<Void>> unregistrations =
+      new ConcurrentHashMap<>();
+
+  /** The keys dropped from the region since interest was last unregistered */
+  private final Queue<Object> droppedKeys = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger droppedKeyCount = new AtomicInteger();
+
+  private final AtomicBoolean unregistering = new AtomicBoolean();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public NearCache(LocalRegion region) {
+    this.region = region;
+  }
+
+  /**
+   * Registers interest in the given key if it is not registered yet, before its value is fetched
+   * from or put on the servers. {@link #endUpdate} must be called once the value is stored.
+   */
+  public void startUpdate(Object key) {
+    startUpdate(Collections.singletonList(key));
+  }
+
+  /**
+   * Registers interest in the given keys that are not registered yet, before their values are
+   * fetched from or put on the servers. {@link #endUpdate} must be called once the values are
+   * stored.
+   */
+  public void startUpdate(List keys) {
+    this.lock.readLock().lock();
+    try {
+      register(keys);
+    } catch (RuntimeException e) {
+      this.lock.readLock().unlock();
+      throw e;
+    }
+  }
+
+  /**
+   * Ends an update started by {@link #startUpdate}, and unregisters the interest in the keys
+   * dropped from the region if there are enough of them.
+   */
+  public void endUpdate() {
+    this.lock.readLock().unlock();
+    if (this.droppedKeyCount.get() >= UNREGISTER_BATCH_SIZE
+        && this.lock.getReadHoldCount() == 0) {
+      unregisterDroppedKeys();
+    }
+  }
+
+  /**
+   * Records that the entry of the given key was evicted, expired or locally destroyed, so that
+   * interest in the key is unregistered later unless it is cached again.
+   */
+  public void keyDropped(Object key) {
+    if (this.registrations.containsKey(key)) {
+      this.droppedKeys.add(key);
+      this.droppedKeyCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of keys in which interest is registered.
+   */
+  public int getRegisteredKeyCount() {
+    return this.registrations.size();
+  }
+
+  private void register(List keys) {
+    CompletableFuture<Void> registration = null;
+    List<Object> keysToRegister = null;
+    List<CompletableFuture<Void>> registrationsToAwait = null;
+    for (Object key : keys) {
+      CompletableFuture<Void> unregistration = this.unregistrations.get(key);
+      if (unregistration != null) {
+        unregistration.join();
+      }
+      CompletableFuture<Void> existing = this.registrations.get(key);
+      if (existing == null) {
+        if (registration == null) {
+          registration = new CompletableFuture<>();
+          keysToRegister = new ArrayList<>();
+        }
+        existing = this.registrations.putIfAbsent(key, registration);
+        if (existing == null) {
+          keysToRegister.add(key);
+          continue;
+        }
+      }
+      if (!existing.isDone()) {
+        if (registrationsToAwait == null) {
+          registrationsToAwait = new ArrayList<>();
+        }
+        registrationsToAwait.add(existing);
+      }
+    }
+
+    if (keysToRegister != null && !keysToRegister.isEmpty()) {
+      try {
+        this.region.getServerProxy().registerInterestList(keysToRegister,
+            InterestResultPolicy.NONE, false, true,
+            this.region.getAttributes().getDataPolicy().ordinal);
+        registration.complete(null);
+      } catch (RuntimeException e) {
+        for (Object key : keysToRegister) {
+          this.registrations.remove(key, registration);
+        }
+        registration.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    if (registrationsToAwait != null) {
+      for (CompletableFuture<Void> existing : registrationsToAwait) {
+        try {
+          existing.join();
+        } catch (CompletionException e) {
+          throw (RuntimeException) e.getCause();
+        }
+      }
+    }
+  }
+
+  private void unregisterDroppedKeys() {
+    if (!this.unregistering.compareAndSet(false, true)) {
+      return;
+    }
+    List<Object> keys = new ArrayList<>();
+    CompletableFuture<Void> unregistration = new CompletableFuture<>();
+    try {
+      this.lock.writeLock().lock();
+      try {
+        Object key;
+        while ((key = this.droppedKeys.poll()) != null) {
+          this.droppedKeyCount.decrementAndGet();
+          // the key may have been cached again since it was dropped
+          if (!this.region.containsKey(key) && this.registrations.remove(key) != null) {
+            keys.add(key);
+            this.unregistrations.put(key, unregistration);
+          }
+        }
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+      if (!keys.isEmpty()) {
+        this.region.getServerProxy().unregisterInterestList(keys, false, false);
+      }
+    } catch (ServerConnectivityException e) {
+      // the keys are no longer tracked, so they are not registered again on failover
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to unregister interest in keys dropped from {}",
+            this.region.getFullPath(), e);
+      }
+    } finally {
+      for (Object key : keys) {
+        this.unregistrations.remove(key, unregistration);
+      }
+      unregistration.complete(null);
+      this.unregistering.set(false);
+    }
+  }
+}
@@ -51,6 +51,11 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.BufferUnderflowException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
  * Called from the client and execute client to server requests against servers. Handles retrying to
@@ -77,6 +82,7 @@ public class OpExecutorImpl implements ExecutablePool {
   private final ThreadLocal<Map<ServerLocation, Connection>> localConnectionMap =
       new ThreadLocal<Map<ServerLocation, Connection>>();
   private final EndpointManager endpointManager;
+  private final PipelinedConnectionManager pipelinedConnectionManager;
   private final RegisterInterestTracker riTracker;
   private final QueueManager queueManager;
   private final CancelCriterion cancelCriterion;
@@ -109,6 +115,7 @@ public class OpExecutorImpl implements ExecutablePool {
     this.threadLocalConnections = threadLocalConnections;
     this.cancelCriterion = cancelCriterion;
     this.pool = pool;
+    this.pipelinedConnectionManager = pool != null ? pool.getPipelinedConnectionManager() : null;
   }
 
   public Object execute(Op op) {
@@ -127,6 +134,21 @@ public class OpExecutorImpl implements ExecutablePool {
       }
       return executeWithServerAffinity(loc, op);
     }
+    PipelinedConnection pipelinedConnection = getPipelinedConnection(op, null, false);
+    if (pipelinedConnection != null) {
+      try {
+        return pipelinedConnection.execute(op);
+      } catch (Exception e) {
+        // This method will throw an exception if the op failed on the server.
+        // Otherwise the op is retried on a pooled connection.
+        handlePipelinedException(e, pipelinedConnection);
+        ((AbstractOp) op).getMessage().setIsRetry();
+      }
+    }
+    return executeOnPooledConnection(op, retries);
+  }
+
+  private Object executeOnPooledConnection(Op op, int retries) {
     boolean success = false;
 
     Set attemptedServers = new HashSet();
@@ -216,7 +238,7 @@ public class OpExecutorImpl implements ExecutablePool {
    */
   private Object executeWithServerAffinity(ServerLocation loc, Op op) {
     try {
-      Object retVal = executeOnServer(loc, op, true, false);
+      Object retVal = executeOnServer(loc, op, true, false, true);
       affinityRetryCount.set(0);
       return retVal;
     } catch (ServerConnectivityException e) {
@@ -338,11 +360,11 @@ public class OpExecutorImpl implements ExecutablePool {
       // can send a TXFailoverOp.
       return executeWithServerAffinity(server, op);
     }
-    return executeOnServer(server, op, accessed, onlyUseExistingCnx);
+    return executeOnServer(server, op, accessed, onlyUseExistingCnx, true);
   }
 
   private Object executeOnServer(ServerLocation p_server, Op op, boolean accessed,
-      boolean onlyUseExistingCnx) {
+      boolean onlyUseExistingCnx, boolean pipeline) {
     ServerLocation server = p_server;
     boolean returnCnx = true;
     boolean pingOp = (op instanceof PingOp.PingOpImpl);
@@ -364,6 +386,18 @@ public class OpExecutorImpl implements ExecutablePool {
         }
       }
     }
+    if (conn == null && !pingOp && pipeline) {
+      PipelinedConnection pipelinedConnection =
+          getPipelinedConnection(op, server, onlyUseExistingCnx);
+      if (pipelinedConnection != null) {
+        try {
+          return pipelinedConnection.execute(op);
+        } catch (Exception e) {
+          handlePipelinedException(e, pipelinedConnection);
+          ((AbstractOp) op).getMessage().setIsRetry();
+        }
+      }
+    }
     if (conn == null) {
       if (useThreadLocalConnection(op, pingOp)) {
         // no need to set threadLocal to null while the op is in progress since
@@ -403,6 +437,143 @@ public class OpExecutorImpl implements ExecutablePool {
     }
   }
 
+  /**
+   * Executes the given op without making the caller wait for its response. If a pipelined
+   * connection can carry the op, it is sent from the calling thread and the returned future is
+   * completed by a thread of the pool's async executor once the response arrives. If that attempt
+   * fails, the op is retried on a pooled connection just as {@link #execute(Op)} would. Otherwise,
+   * which is always the case unless gemfire.PoolImpl.PIPELINING is set, the whole op is run by
+   * {@link #supplyAsync}, so it holds one of the pool's async threads until its response arrives
+   * and at most gemfire.PoolImpl.ASYNC_MAX_THREADS such ops are in flight at once. Ops in a
+   * transaction, or on a thread with server affinity, depend on the state of the calling thread,
+   * so they are run by it.
+   *
+   * @param server the server to execute the op on, or null for any server
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> executeAsync(final Op op, final ServerLocation server) {
+    final PipelinedConnection pipelinedConnection =
+        runsOnCallingThread() ? null : getPipelinedConnection(op, server, false);
+    if (pipelinedConnection == null) {
+      return supplyAsync(() -> server == null ? execute(op) : executeOn(server, op));
+    }
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    final ExecutorService executor = this.pool.getAsyncExecutor();
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+    pipelinedConnection.executeAsync((AbstractOp) op, executor, this.pool.getAsyncTimer())
+        .whenComplete((value, failure) -> {
+          if (failure == null) {
+            result.complete(value);
+            return;
+          }
+          // the retry blocks, so it is run by the async executor rather than by the thread that
+          // failed the exchange, which may be the caller's
+          try {
+            executor.execute(() -> {
+              UserAttributes.userAttributes.set(userAttributes);
+              try {
+                Exception e = failure instanceof Exception ? (Exception) failure
+                    : new ServerConnectivityException("Pipelined operation failed", failure);
+                handlePipelinedException(e, pipelinedConnection);
+                ((AbstractOp) op).getMessage().setIsRetry();
+                result.complete(server == null ? executeOnPooledConnection(op, this.retryAttempts)
+                    : executeOnServer(server, op, true, false, false));
+              } catch (Throwable t) {
+                result.completeExceptionally(t);
+              } finally {
+                UserAttributes.userAttributes.set(null);
+              }
+            });
+          } catch (RejectedExecutionException e) {
+            // the pool is closing
+            result.completeExceptionally(failure);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Runs the given task on the pool's async executor with the user attributes of the calling
+   * thread, or on the calling thread if it is in a transaction. Once as many tasks are waiting for
+   * the executor as the pool allows, the calling thread runs the task itself, so a caller that
+   * starts ops faster than they complete is slowed down rather than queueing without bound.
+   *
+   * @since Geode 1.3
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+    final Semaphore permits = runsOnCallingThread() ? null : this.pool.getAsyncPermits();
+    if (permits == null || !permits.tryAcquire()) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      try {
+        future.complete(task.get());
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        UserAttributes.userAttributes.set(userAttributes);
+        try {
+          return task.get();
+        } finally {
+          UserAttributes.userAttributes.set(null);
+          permits.release();
+        }
+      }, this.pool.getAsyncExecutor());
+    } catch (RejectedExecutionException e) {
+      // the pool is closing
+      permits.release();
+      throw e;
+    }
+  }
+
+  private boolean runsOnCallingThread() {
+    return this.pool == null || this.serverAffinity.get()
+        || TXManagerImpl.getCurrentTXUniqueId() != TXManagerImpl.NOTX;
+  }
+
+  /**
+   * Returns the pipelined connection to send the given op on, or null if it should be sent on a
+   * pooled connection.
+   *
+   * @param server the server to send the op to, or null for any server
+   */
+  private PipelinedConnection getPipelinedConnection(Op op, ServerLocation server,
+      boolean onlyUseExistingCnx) {
+    if (this.pipelinedConnectionManager == null
+        || !this.pipelinedConnectionManager.canPipeline(op)) {
+      return null;
+    }
+    if (server == null) {
+      return this.pipelinedConnectionManager.getConnection();
+    }
+    return this.pipelinedConnectionManager.getConnection(server, onlyUseExistingCnx);
+  }
+
+  /**
+   * Handles an op that failed on a pipelined connection, throwing an exception if the op should not
+   * be retried. An exchange that timed out has been dropped, and the other ops on the connection
+   * go on, so the connection is only destroyed if it failed.
+   */
+  private void handlePipelinedException(Exception e, PipelinedConnection connection) {
+    if (e instanceof SocketTimeoutException) {
+      if (logger.isWarnEnabled()) {
+        logger.warn(getExceptionMessage("socket timed out on client", 0, false,
+            connection.getConnection(), e).toString());
+      }
+      return;
+    } else if (e instanceof ConnectionDestroyedException) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Retrying op that failed on pipelined connection to {}",
+            connection.getServer(), e);
+      }
+      return;
+    }
+    handleException(e, connection.getConnection(), 0, false);
+  }
+
   private boolean useThreadLocalConnection(Op op, boolean pingOp) {
     return threadLocalConnections && !pingOp && op.useThreadLocalConnection();
   }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+
+/**
+ * Asks a server to accept pipelined requests on a connection. Once the server has replied, every
+ * request and response on the connection is a frame that starts with a correlation id.
+ *
+ * @see PipelinedConnection
+ * @since Geode 1.3
+ */
+public class PipelineOp {
+  /**
+   * Asks the server to accept pipelined requests on the given connection.
+   *
+   * @param con the connection to pipeline requests on
+   * @throws org.apache.geode.cache.client.ServerOperationException if the server does not accept
+   *         pipelined requests
+   */
+  public static void execute(Connection con) throws Exception {
+    con.execute(new PipelineOpImpl());
+  }
+
+  private PipelineOp() {
+    // no instances allowed
+  }
+
+  private static class PipelineOpImpl extends AbstractOp {
+
+    public PipelineOpImpl() {
+      super(MessageType.PIPELINE, 1);
+      // servers ignore requests without parts
+      getMessage().addIntPart(0);
+    }
+
+    @Override
+    protected boolean needsUserId() {
+      return false;
+    }
+
+    @Override
+    protected boolean participateInTransaction() {
+      return false;
+    }
+
+    @Override
+    protected void sendMessage(Connection cnx) throws Exception {
+      getMessage().clearMessageHasSecurePartFlag();
+      getMessage().send(false);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      processAck(msg, "pipeline");
+      return null;
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return msgType == MessageType.REQUESTDATAERROR
+          || msgType == MessageType.UNKNOWN_MESSAGE_TYPE_ERROR;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return 0;
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {}
+  }
+}
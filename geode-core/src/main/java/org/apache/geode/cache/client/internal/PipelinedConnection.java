@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.FrameOutputStream;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A connection to a server on which many threads send operations at once. Each operation is sent
+ * in a frame that starts with a correlation id, and the server sends the response back in a frame
+ * with the same id, maybe before the responses to operations sent earlier. A reader thread gives
+ * each response to the thread waiting for it, or, for an operation sent with
+ * {@link #executeAsync}, hands the response to an executor that completes its future.
+ * <p>
+ * Operations are not given this connection but an exchange of it, which is the {@link Connection}
+ * they send their requests and read their responses on. An exchange that times out is dropped
+ * without disturbing the others, while a failure of the connection ends all of them.
+ *
+ * @see PipelinedConnectionManager
+ * @since Geode 1.3
+ */
+class PipelinedConnection {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final byte[] NO_BYTES = new byte[0];
+
+  private final Connection connection;
+
+  private final PipelinedConnectionManager manager;
+
+  private final DataInputStream in;
+
+  private final OutputStream out;
+
+  private final int readTimeout;
+
+  private final int bufferSize;
+
+  private final AtomicInteger lastCorrelationId = new AtomicInteger();
+
+  /**
+   * The exchanges waiting for a response, by correlation id
+   */
+  private final ConcurrentMap<Integer, Exchange> pending = new ConcurrentHashMap<>();
+
+  /**
+   * The buffers of the exchanges that are done
+   */
+  private final Queue<ExchangeBuffers> buffers = new ConcurrentLinkedQueue<>();
+
+  private final AtomicBoolean destroyed = new AtomicBoolean();
+
+  /**
+   * Creates a connection that pipelines operations on the given connection, whose server has
+   * agreed to accept pipelined requests on it.
+   */
+  PipelinedConnection(Connection connection, PipelinedConnectionManager manager, int readTimeout)
+      throws IOException {
+    this.connection = connection;
+    this.manager = manager;
+    this.readTimeout = readTimeout;
+    this.bufferSize = connection.getCommBuffer().capacity();
+    this.in = new DataInputStream(
+        new BufferedInputStream(connection.getInputStream(), this.bufferSize));
+    this.out = connection.getOutputStream();
+    // the reader waits for responses as long as the connection is open; each exchange has the read
+    // timeout of the pool
+    connection.getSocket().setSoTimeout(0);
+    Thread reader = new Thread(new Runnable() {
+      public void run() {
+        readResponses();
+      }
+    }, "Pipelined connection reader for " + connection.getServer());
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  private void readResponses() {
+    try {
+      while (!isDestroyed()) {
+        int correlationId = this.in.readInt();
+        byte[] response = FrameOutputStream.readPayload(this.in);
+        Exchange exchange = this.pending.get(correlationId);
+        // the exchange is gone if it timed out
+        if (exchange != null) {
+          exchange.responses.add(response);
+          exchange.responseArrived();
+        }
+      }
+    } catch (IOException e) {
+      if (!isDestroyed() && logger.isDebugEnabled()) {
+        logger.debug("Pipelined connection to {} failed", getServer(), e);
+      }
+      // the connection the exchanges are sent on may have been destroyed without this one
+      destroy();
+    }
+  }
+
+  private void failPending(RuntimeException cause) {
+    for (Exchange exchange : this.pending.values()) {
+      exchange.responses.add(cause);
+      exchange.responseArrived();
+    }
+  }
+
+  private void send(int correlationId, FrameOutputStream request) throws IOException {
+    synchronized (this.out) {
+      request.writeFrame(correlationId, this.out);
+    }
+  }
+
+  /**
+   * Attempts the given operation on an exchange of this connection. The attempt fails with a
+   * {@link SocketTimeoutException} if no response arrived within the read timeout, which leaves
+   * this connection open, or with a {@link ConnectionDestroyedException} if this connection has
+   * been destroyed.
+   */
+  Object execute(Op op) throws Exception {
+    Exchange exchange = new Exchange(this.lastCorrelationId.incrementAndGet());
+    this.pending.put(exchange.correlationId, exchange);
+    try {
+      if (isDestroyed()) {
+        throw new ConnectionDestroyedException();
+      }
+      Object result = op.attempt(exchange);
+      getEndpoint().updateLastExecute();
+      return result;
+    } finally {
+      this.pending.remove(exchange.correlationId);
+      exchange.release();
+    }
+  }
+
+  /**
+   * Sends the given operation without waiting for its response. Once the response has arrived, a
+   * thread of the given executor reads it and completes the returned future, so neither the caller
+   * nor the reader thread is held up by the operation. The future fails with the exception the
+   * attempt failed with, which is a {@link SocketTimeoutException} if no response arrived within
+   * the read timeout, as timed by the given timer.
+   */
+  CompletableFuture<Object> executeAsync(AbstractOp op, Executor executor,
+      ScheduledExecutorService timer) {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    Exchange exchange = new Exchange(this.lastCorrelationId.incrementAndGet());
+    exchange.executor = executor;
+    exchange.completion = () -> {
+      try {
+        Object result = op.readAttemptResponse(exchange, exchange.start);
+        getEndpoint().updateLastExecute();
+        future.complete(result);
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+      } finally {
+        exchange.finish();
+      }
+    };
+    this.pending.put(exchange.correlationId, exchange);
+    try {
+      if (isDestroyed()) {
+        throw new ConnectionDestroyedException();
+      }
+      if (this.readTimeout > 0) {
+        exchange.timeout = timer.schedule(() -> {
+          exchange.responses.add(new SocketTimeoutException(
+              "Timed out waiting for the response to pipelined request " + exchange.correlationId));
+          exchange.responseArrived();
+        }, this.readTimeout, TimeUnit.MILLISECONDS);
+      }
+      exchange.start = op.sendAttempt(exchange);
+    } catch (Exception e) {
+      // the completion never runs since the send did not count down
+      exchange.finish();
+      future.completeExceptionally(e);
+      return future;
+    }
+    exchange.countDown();
+    return future;
+  }
+
+  /**
+   * Returns the connection the exchanges are sent on.
+   */
+  Connection getConnection() {
+    return this.connection;
+  }
+
+  /**
+   * Closes this connection, failing the exchanges waiting for a response with a
+   * {@link ConnectionDestroyedException}. The server sees the client close the connection, so it
+   * does not need to be told first.
+   */
+  void destroy() {
+    if (!this.destroyed.compareAndSet(false, true)) {
+      return;
+    }
+    this.manager.remove(this);
+    failPending(new ConnectionDestroyedException());
+    this.connection.destroy();
+  }
+
+  /**
+   * Returns true if this connection, or the connection it sends exchanges on, has been destroyed.
+   */
+  boolean isDestroyed() {
+    return this.destroyed.get() || this.connection.isDestroyed();
+  }
+
+  ServerLocation getServer() {
+    return this.connection.getServer();
+  }
+
+  Endpoint getEndpoint() {
+    return this.connection.getEndpoint();
+  }
+
+  @Override
+  public String toString() {
+    return "PipelinedConnection[" + this.connection + "]";
+  }
+
+  /**
+   * The buffers an exchange writes its requests to and reads its responses with, which are reused
+   * by later exchanges.
+   */
+  private static class ExchangeBuffers {
+    private final ByteBuffer commBuffer;
+
+    private final FrameOutputStream request;
+
+    ExchangeBuffers(int size) {
+      this.commBuffer = ByteBuffer.allocate(size);
+      this.request = new FrameOutputStream(size);
+    }
+  }
+
+  /**
+   * The connection an operation is attempted on. Each message it sends is a frame with its
+   * correlation id, and it reads the frames the reader thread gets for that id.
+   */
+  private class Exchange implements Connection {
+    private final int correlationId;
+
+    private final ExchangeBuffers exchangeBuffers;
+
+    /**
+     * The responses, or the exception that ended the connection
+     */
+    private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+
+    /**
+     * Counts down from the send finishing and the first response arriving; when both have happened
+     * the completion of an asynchronous exchange is run.
+     */
+    private final AtomicInteger awaited = new AtomicInteger(2);
+
+    private final AtomicBoolean responded = new AtomicBoolean();
+
+    private Executor executor;
+
+    /**
+     * Reads the response of an asynchronous exchange and completes its future; null if the
+     * exchange is synchronous
+     */
+    private Runnable completion;
+
+    private ScheduledFuture<?> timeout;
+
+    private long start;
+
+    private final OutputStream requestStream = new OutputStream() {
+      @Override
+      public void write(int b) {
+        exchangeBuffers.request.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        exchangeBuffers.request.write(b, off, len);
+      }
+
+      /**
+       * Sends what has been written as a frame; Message flushes once it has written all of itself
+       */
+      @Override
+      public void flush() throws IOException {
+        send(correlationId, exchangeBuffers.request);
+      }
+    };
+
+    private final InputStream responseStream = new InputStream() {
+      private byte[] response = NO_BYTES;
+
+      private int position;
+
+      @Override
+      public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        while (this.position == this.response.length) {
+          this.response = nextResponse();
+          this.position = 0;
+        }
+        int n = Math.min(len, this.response.length - this.position);
+        System.arraycopy(this.response, this.position, b, off, n);
+        this.position += n;
+        return n;
+      }
+    };
+
+    Exchange(int correlationId) {
+      this.correlationId = correlationId;
+      ExchangeBuffers reused = buffers.poll();
+      this.exchangeBuffers = reused != null ? reused : new ExchangeBuffers(bufferSize);
+    }
+
+    private byte[] nextResponse() throws IOException {
+      Object response;
+      try {
+        if (readTimeout > 0) {
+          response = this.responses.poll(readTimeout, TimeUnit.MILLISECONDS);
+        } else {
+          response = this.responses.take();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+      if (response == null) {
+        throw new SocketTimeoutException(
+            "Timed out waiting for the response to pipelined request " + this.correlationId);
+      } else if (response instanceof IOException) {
+        throw (IOException) response;
+      } else if (response instanceof RuntimeException) {
+        throw (RuntimeException) response;
+      }
+      return (byte[]) response;
+    }
+
+    void responseArrived() {
+      if (this.responded.compareAndSet(false, true)) {
+        countDown();
+      }
+    }
+
+    /**
+     * Runs the completion on the executor once both the send and the response are done. The fields
+     * it reads were written before the sender counted down, so they are visible here.
+     */
+    void countDown() {
+      if (this.awaited.decrementAndGet() == 0 && this.completion != null) {
+        try {
+          this.executor.execute(this.completion);
+        } catch (RejectedExecutionException e) {
+          // the pool is closing
+          this.completion.run();
+        }
+      }
+    }
+
+    /**
+     * Ends an asynchronous exchange.
+     */
+    void finish() {
+      if (this.timeout != null) {
+        this.timeout.cancel(false);
+      }
+      pending.remove(this.correlationId);
+      release();
+    }
+
+    void release() {
+      this.exchangeBuffers.request.reset();
+      buffers.offer(this.exchangeBuffers);
+    }
+
+    public Socket getSocket() {
+      return connection.getSocket();
+    }
+
+    public ByteBuffer getCommBuffer() throws SocketException {
+      if (isDestroyed()) {
+        throw new SocketException("socket was closed");
+      }
+      return this.exchangeBuffers.commBuffer;
+    }
+
+    public ConnectionStats getStats() {
+      return connection.getStats();
+    }
+
+    public void destroy() {
+      PipelinedConnection.this.destroy();
+    }
+
+    public boolean isDestroyed() {
+      return PipelinedConnection.this.isDestroyed();
+    }
+
+    public void close(boolean keepAlive) {
+      PipelinedConnection.this.destroy();
+    }
+
+    public ServerLocation getServer() {
+      return PipelinedConnection.this.getServer();
+    }
+
+    public Endpoint getEndpoint() {
+      return PipelinedConnection.this.getEndpoint();
+    }
+
+    public ServerQueueStatus getQueueStatus() {
+      return connection.getQueueStatus();
+    }
+
+    public Object execute(Op op) throws Exception {
+      return op.attempt(this);
+    }
+
+    public void emergencyClose() {
+      connection.emergencyClose();
+    }
+
+    public short getWanSiteVersion() {
+      return connection.getWanSiteVersion();
+    }
+
+    public void setWanSiteVersion(short wanSiteVersion) {
+      connection.setWanSiteVersion(wanSiteVersion);
+    }
+
+    public int getDistributedSystemId() {
+      return connection.getDistributedSystemId();
+    }
+
+    public OutputStream getOutputStream() {
+      return this.requestStream;
+    }
+
+    public InputStream getInputStream() {
+      return this.responseStream;
+    }
+
+    public void setConnectionID(long id) {
+      connection.setConnectionID(id);
+    }
+
+    public long getConnectionID() {
+      return connection.getConnectionID();
+    }
+
+    @Override
+    public String toString() {
+      return PipelinedConnection.this + "#" + this.correlationId;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.EOFException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Keeps a {@link PipelinedConnection} to each server that accepts pipelined requests, on which the
+ * operations that allow it are sent instead of on a connection of the pool. These connections are
+ * not counted in the pool's connections.
+ *
+ * @since Geode 1.3
+ */
+class PipelinedConnectionManager {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The name of a system property that makes pools pipeline operations on one connection to each
+   * server, if the server allows it. Pools that use security, or are used by gateways, do not.
+   */
+  public static final String PIPELINING_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.PIPELINING";
+
+  private final ConnectionFactory connectionFactory;
+
+  private final EndpointManager endpointManager;
+
+  private final int readTimeout;
+
+  private final ConcurrentMap<ServerLocation, PipelinedConnection> connections =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The servers that do not accept pipelined requests
+   */
+  private final Set<ServerLocation> unsupportedServers = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger nextServer = new AtomicInteger();
+
+  private final EndpointManager.EndpointListener endpointListener =
+      new EndpointManager.EndpointListenerAdapter() {
+        @Override
+        public void endpointCrashed(Endpoint endpoint) {
+          PipelinedConnection connection = connections.get(endpoint.getLocation());
+          if (connection != null) {
+            connection.destroy();
+          }
+        }
+      };
+
+  private volatile boolean closed;
+
+  PipelinedConnectionManager(ConnectionFactory connectionFactory, EndpointManager endpointManager,
+      int readTimeout) {
+    this.connectionFactory = connectionFactory;
+    this.endpointManager = endpointManager;
+    this.readTimeout = readTimeout;
+    endpointManager.addListener(this.endpointListener);
+  }
+
+  /**
+   * Returns true if the given operation may be sent on a pipelined connection.
+   */
+  boolean canPipeline(Op op) {
+    return op instanceof AbstractOp && ((AbstractOp) op).isPipelinable()
+        && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX;
+  }
+
+  /**
+   * Returns a pipelined connection to one of the servers the pool is connected to, taking each in
+   * turn, or null if there is none.
+   */
+  PipelinedConnection getConnection() {
+    Object[] servers = this.endpointManager.getEndpointMap().keySet().toArray();
+    int start = this.nextServer.getAndIncrement() & Integer.MAX_VALUE;
+    for (int i = 0; i < servers.length; i++) {
+      PipelinedConnection connection =
+          getConnection((ServerLocation) servers[(start + i) % servers.length], false);
+      if (connection != null) {
+        return connection;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a pipelined connection to the given server, or null if there is none and one can not
+   * be created.
+   *
+   * @param onlyUseExisting true if a connection should not be created
+   */
+  PipelinedConnection getConnection(ServerLocation server, boolean onlyUseExisting) {
+    PipelinedConnection connection = this.connections.get(server);
+    if (connection != null && connection.isDestroyed()) {
+      // the connection it sent exchanges on was destroyed by a failed operation
+      connection.destroy();
+      connection = null;
+    }
+    if (connection != null || onlyUseExisting || this.closed
+        || this.unsupportedServers.contains(server)) {
+      return connection;
+    }
+    synchronized (this) {
+      connection = this.connections.get(server);
+      if (connection == null && !this.closed) {
+        connection = create(server);
+        if (connection != null) {
+          this.connections.put(server, connection);
+        }
+      }
+    }
+    return connection;
+  }
+
+  private PipelinedConnection create(ServerLocation server) {
+    Connection connection;
+    try {
+      connection = this.connectionFactory.createClientToServerConnection(server, false);
+    } catch (RuntimeException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not create a pipelined connection to {}", server, e);
+      }
+      return null;
+    }
+    if (connection == null) {
+      return null;
+    }
+    PipelinedConnection pipelinedConnection = null;
+    try {
+      if (connection.getServer().getRequiresCredentials()
+          || connection.getSocket().getChannel() != null) {
+        this.unsupportedServers.add(server);
+        closeQuietly(connection);
+      } else {
+        PipelineOp.execute(connection);
+        pipelinedConnection = new PipelinedConnection(connection, this, this.readTimeout);
+      }
+    } catch (ServerOperationException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Server {} does not accept pipelined requests", server, e);
+      }
+      this.unsupportedServers.add(server);
+      closeQuietly(connection);
+    } catch (EOFException e) {
+      // the server is too old to know what pipelining is
+      if (logger.isDebugEnabled()) {
+        logger.debug("Server {} closed the connection asked to pipeline requests", server, e);
+      }
+      this.unsupportedServers.add(server);
+    } catch (Exception e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not create a pipelined connection to {}", server, e);
+      }
+    } finally {
+      if (pipelinedConnection == null) {
+        connection.destroy();
+      }
+    }
+    return pipelinedConnection;
+  }
+
+  private void closeQuietly(Connection connection) {
+    try {
+      connection.close(false);
+    } catch (Exception e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Error closing connection {}", connection, e);
+      }
+    }
+  }
+
+  /**
+   * Forgets the given connection, which has been destroyed.
+   */
+  void remove(PipelinedConnection connection) {
+    this.connections.remove(connection.getServer(), connection);
+  }
+
+  void close() {
+    this.closed = true;
+    this.endpointManager.removeListener(this.endpointListener);
+    for (PipelinedConnection connection : this.connections.values()) {
+      connection.destroy();
+    }
+  }
+}
@@ -25,11 +25,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Logger;
 
@@ -93,6 +100,32 @@ public class PoolImpl implements InternalPool {
   private static final int BACKGROUND_TASK_POOL_KEEP_ALIVE = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.BACKGROUND_TASK_POOL_KEEP_ALIVE", 1000);
 
+  /**
+   * The number of seconds an idle thread that runs asynchronous operations is kept
+   */
+  private static final int ASYNC_KEEP_ALIVE = 60;
+
+  /**
+   * The most threads that run asynchronous operations
+   */
+  private static final int ASYNC_MAX_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.ASYNC_MAX_THREADS", 32);
+
+  /**
+   * The most asynchronous operations that wait for a thread to run them. Once as many are waiting,
+   * an operation that cannot be pipelined is run by the thread that asked for it.
+   */
+  private static final int ASYNC_QUEUE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.ASYNC_QUEUE_SIZE", 1000);
+
+  /**
+   * The name of a system property that limits the number of keys a getAll or putAll sends to a
+   * server in one message. Larger bulk operations are split into batches that are sent to each
+   * server one after the other. Zero, the default, means no limit.
+   */
+  public static final String BULK_OP_BATCH_SIZE_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.BULK_OP_BATCH_SIZE";
+
   /**
    * For durable client tests only. Connection Sources read this flag and return an empty list of
    * servers.
@@ -134,6 +167,9 @@ public class PoolImpl implements InternalPool {
   protected volatile boolean destroyed;
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
+  private ThreadPoolExecutor asyncExecutor;
+  private final Semaphore asyncPermits = new Semaphore(ASYNC_MAX_THREADS + ASYNC_QUEUE_SIZE);
+  private ScheduledThreadPoolExecutor asyncTimer;
   private final OpExecutorImpl executor;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
@@ -141,6 +177,8 @@ public class PoolImpl implements InternalPool {
   private final ClientProxyMembershipID proxyId;
   protected final CancelCriterion cancelCriterion;
   private final ConnectionFactoryImpl connectionFactory;
+  private final PipelinedConnectionManager pipelinedConnectionManager;
+  private final int bulkOpBatchSize;
 
   private final ArrayList<ProxyCache> proxyCacheList;
 
@@ -259,6 +297,14 @@ public class PoolImpl implements InternalPool {
     manager = new ConnectionManagerImpl(name, connectionFactory, endpointManager, maxConnections,
         minConnections, idleTimeout, loadConditioningInterval, securityLogWriter, pingInterval,
         cancelCriterion, getStats());
+    if (Boolean.getBoolean(PipelinedConnectionManager.PIPELINING_PROPERTY_NAME) && !usedByGateway
+        && !multiuserSecureModeEnabled) {
+      pipelinedConnectionManager =
+          new PipelinedConnectionManager(connectionFactory, endpointManager, readTimeout);
+    } else {
+      pipelinedConnectionManager = null;
+    }
+    bulkOpBatchSize = Integer.getInteger(BULK_OP_BATCH_SIZE_PROPERTY_NAME, 0);
     // Fix for 43468 - make sure we check the cache cancel criterion if we get
     // an exception, by passing in the poolOrCache stopper
     executor = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, retryAttempts,
@@ -330,6 +376,33 @@ public class PoolImpl implements InternalPool {
     ((ScheduledThreadPoolExecutorWithKeepAlive) backgroundProcessor)
         .setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
+    // its queue is not bounded so that the completions of pipelined operations are never run by the
+    // reader thread; the operations it runs whole are bounded by the async permits
+    final String asyncName = "poolAsync-" + getName() + "-";
+    asyncExecutor = new ThreadPoolExecutor(ASYNC_MAX_THREADS, ASYNC_MAX_THREADS, ASYNC_KEEP_ALIVE,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          AtomicInteger threadNum = new AtomicInteger();
+
+          public Thread newThread(final Runnable r) {
+            Thread result = new Thread(r, asyncName + threadNum.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+          }
+        });
+    asyncExecutor.allowCoreThreadTimeOut(true);
+
+    final String asyncTimerName = "poolAsyncTimer-" + getName();
+    asyncTimer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+      public Thread newThread(final Runnable r) {
+        Thread result = new Thread(r, asyncTimerName);
+        result.setDaemon(true);
+        return result;
+      }
+    });
+    // the read timeouts of asynchronous operations are cancelled when their response arrives
+    asyncTimer.setRemoveOnCancelPolicy(true);
+    asyncTimer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
     source.start(this);
     connectionFactory.start(backgroundProcessor);
     endpointManager.addListener(new InstantiatorRecoveryListener(backgroundProcessor, this));
@@ -611,6 +684,23 @@ public class PoolImpl implements InternalPool {
             e);
       }
 
+      try {
+        // closed first so that the server sees the pooled connections close after them
+        if (this.pipelinedConnectionManager != null) {
+          pipelinedConnectionManager.close();
+        }
+        // after the pipelined connections so that it fails the operations still waiting on them
+        if (this.asyncTimer != null) {
+          asyncTimer.shutdown();
+        }
+        if (this.asyncExecutor != null) {
+          asyncExecutor.shutdown();
+        }
+      } catch (RuntimeException e) {
+        logger.error(LocalizedMessage.create(
+            LocalizedStrings.PoolImpl_ERROR_ENCOUNTERED_WHILE_STOPPING_CONNECTION_MANAGER), e);
+      }
+
       try {
         if (this.manager != null) {
           manager.close(keepAlive);
@@ -801,6 +891,25 @@ public class PoolImpl implements InternalPool {
     return executor.executeOn(server, op);
   }
 
+  public CompletableFuture<Object> executeAsync(Op op, ServerLocation server) {
+    try {
+      if (server == null) {
+        authenticateIfRequired(op);
+      } else {
+        authenticateIfRequired(server, op);
+      }
+    } catch (RuntimeException e) {
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+    return executor.executeAsync(op, server);
+  }
+
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+    return executor.supplyAsync(task);
+  }
+
   /**
    * Execute the given op on the given server.
    * 
@@ -867,6 +976,36 @@ public class PoolImpl implements InternalPool {
     return backgroundProcessor;
   }
 
+  /**
+   * Returns the executor that completes the futures of asynchronous operations, and runs those that
+   * block or are retried.
+   *
+   * @since Geode 1.3
+   */
+  ExecutorService getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Returns the permits an operation run whole by the async executor holds until it is done. An
+   * operation that gets none is run by the calling thread, so callers cannot queue more than
+   * gemfire.PoolImpl.ASYNC_MAX_THREADS plus gemfire.PoolImpl.ASYNC_QUEUE_SIZE of them.
+   *
+   * @since Geode 1.3
+   */
+  Semaphore getAsyncPermits() {
+    return asyncPermits;
+  }
+
+  /**
+   * Returns the executor that runs the read timeouts of asynchronous operations, and nothing else.
+   *
+   * @since Geode 1.3
+   */
+  ScheduledExecutorService getAsyncTimer() {
+    return asyncTimer;
+  }
+
   public RegisterInterestTracker getRITracker() {
     return this.riTracker;
   }
@@ -1192,6 +1331,24 @@ public class PoolImpl implements InternalPool {
     return endpointManager;
   }
 
+  /**
+   * Returns the manager of the connections operations are pipelined on, or null if this pool does
+   * not pipeline operations.
+   */
+  PipelinedConnectionManager getPipelinedConnectionManager() {
+    return pipelinedConnectionManager;
+  }
+
+  /**
+   * Returns the largest number of keys a bulk operation sends to a server in one message, or zero
+   * if there is no limit.
+   *
+   * @since Geode 1.3
+   */
+  int getBulkOpBatchSize() {
+    return bulkOpBatchSize;
+  }
+
   /**
    * Fetch the connection source for this pool
    * 
@@ -17,10 +17,13 @@ package org.apache.geode.cache.client.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 
 import org.apache.geode.cache.AttributesMutator;
@@ -44,7 +47,10 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.snapshot.RegionSnapshotService;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.snapshot.RegionSnapshotServiceImpl;
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
 
 /**
  * A wrapper class over an actual Region instance. This is used when the multiuser-authentication
@@ -268,6 +274,64 @@ public class ProxyRegion implements Region {
     }
   }
 
+  /**
+   * Gets the value of the given key from the server as this user without making the caller wait
+   * for it. A region used with multiuser authentication stores no data, so the get always goes to
+   * the server.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> getAsync(Object key) {
+    try {
+      preOp();
+      return getServerProxy().getAsync(key, null, null);
+    } finally {
+      postOp();
+    }
+  }
+
+  /**
+   * Puts the given value on the server as this user without making the caller wait for it.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> putAsync(Object key, Object value) {
+    try {
+      preOp();
+      return getServerProxy().putAsync(key, value,
+          new EventID(((LocalRegion) this.realRegion).getCache().getDistributedSystem()), null);
+    } finally {
+      postOp();
+    }
+  }
+
+  /**
+   * Gets the values of the given keys from the server as this user without making the caller wait
+   * for them. Keys the server does not have map to null.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Map> getAllAsync(Collection keys) {
+    try {
+      preOp();
+      return getServerProxy().getAllAsync(new ArrayList(keys), null).thenApply(results -> {
+        Map values = new HashMap();
+        for (VersionedObjectList.Iterator it = results.iterator(); it.hasNext();) {
+          VersionedObjectList.Entry entry = it.next();
+          Object value = entry.isKeyNotOnServer() ? null : entry.getObject();
+          values.put(entry.getKey(), value instanceof Throwable ? null : value);
+        }
+        return values;
+      });
+    } finally {
+      postOp();
+    }
+  }
+
+  private ServerRegionProxy getServerProxy() {
+    return ((LocalRegion) this.realRegion).getServerProxy();
+  }
+
   public RegionAttributes getAttributes() {
     return realRegion.getAttributes();
   }
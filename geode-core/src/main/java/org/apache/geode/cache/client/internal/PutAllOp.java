@@ -29,6 +29,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.Version;
@@ -66,8 +67,19 @@ public class PutAllOp {
    * @param eventId the event id for this putAll
    * @param skipCallbacks true if no callbacks will be invoked
    */
-  public static VersionedObjectList execute(ExecutablePool pool, Region region, Map map,
-      EventID eventId, boolean skipCallbacks, boolean isRetry, Object callbackArg) {
+  public static VersionedObjectList execute(final ExecutablePool pool, Region region, Map map,
+      EventID eventId, boolean skipCallbacks, final boolean isRetry, Object callbackArg) {
+    int batchSize = ((PoolImpl) pool).getBulkOpBatchSize();
+    if (batchSize > 0 && map.size() > batchSize) {
+      return executeInBatches(op -> {
+        op.initMessagePart();
+        if (isRetry) {
+          op.getMessage().setIsRetry();
+        }
+        return pool.execute(op);
+      }, region, map, eventId, ((PoolImpl) pool).getPRSingleHopEnabled(), skipCallbacks,
+          callbackArg, batchSize, false);
+    }
     PutAllOpImpl op = new PutAllOpImpl(region, map, eventId,
         ((PoolImpl) pool).getPRSingleHopEnabled(), skipCallbacks, callbackArg);
     op.initMessagePart();
@@ -77,6 +89,89 @@ public class PutAllOp {
     return (VersionedObjectList) pool.execute(op);
   }
 
+  /**
+   * Puts the given map in batches of at most the given size, one after the other. The event id of
+   * each batch is offset by the position of its first entry in the map, so each entry has the
+   * event id it would have had if the map had been sent in one message, which the caller has
+   * reserved. A retry of the whole map is then recognized by the servers.
+   *
+   * <p>
+   * If a batch after the first fails, the entries of the earlier batches are reported as having
+   * succeeded in a {@link PutAllPartialResultException}, except that a connectivity failure is
+   * thrown as is if the caller retries the whole map itself.
+   *
+   * @since Geode 1.3
+   */
+  private static VersionedObjectList executeInBatches(BatchExecutor executor, Region region,
+      Map map, EventID eventId, boolean prSingleHopEnabled, boolean skipCallbacks,
+      Object callbackArg, int batchSize, boolean throwConnectivityFailures) {
+    VersionedObjectList result = new VersionedObjectList();
+    int offset = 0;
+    Iterator<Map.Entry> entries = map.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map batch = new LinkedHashMap();
+      while (entries.hasNext() && batch.size() < batchSize) {
+        Map.Entry entry = entries.next();
+        batch.put(entry.getKey(), entry.getValue());
+      }
+      PutAllOpImpl op = new PutAllOpImpl(region, batch, new EventID(eventId, offset),
+          prSingleHopEnabled, skipCallbacks, callbackArg);
+      try {
+        VersionedObjectList batchResult = (VersionedObjectList) executor.execute(op);
+        if (batchResult != null) {
+          result.addAll(batchResult);
+        }
+      } catch (PutAllPartialResultException pre) {
+        if (offset == 0) {
+          throw pre;
+        }
+        PutAllPartialResult partialResult = getPartialResult(map, offset, result);
+        partialResult.consolidate(pre.getResult());
+        throw new PutAllPartialResultException(partialResult);
+      } catch (RuntimeException e) {
+        if (offset == 0
+            || (throwConnectivityFailures && e instanceof ServerConnectivityException
+                && !(e instanceof ServerOperationException))) {
+          throw e;
+        }
+        PutAllPartialResult partialResult = getPartialResult(map, offset, result);
+        partialResult.saveFailedKey(batch.keySet().iterator().next(), e);
+        throw new PutAllPartialResultException(partialResult);
+      } catch (Exception e) {
+        throw new ServerConnectivityException("Unable to put batch of putAll", e);
+      }
+      offset += batch.size();
+    }
+    return result;
+  }
+
+  /**
+   * Returns a partial result in which the first entries of the given map, up to the given count,
+   * succeeded with the given versions.
+   */
+  private static PutAllPartialResult getPartialResult(Map map, int succeeded,
+      VersionedObjectList versions) {
+    PutAllPartialResult partialResult = new PutAllPartialResult(map.size());
+    if (versions.hasVersions()) {
+      partialResult.addKeysAndVersions(versions);
+    } else {
+      List keys = new ArrayList(succeeded);
+      Iterator iterator = map.keySet().iterator();
+      while (keys.size() < succeeded) {
+        keys.add(iterator.next());
+      }
+      partialResult.addKeys(keys);
+    }
+    return partialResult;
+  }
+
+  /**
+   * Executes one batch of a putAll
+   */
+  private interface BatchExecutor {
+    Object execute(AbstractOp op) throws Exception;
+  }
+
   /**
    * Does a region put on a server using connections from the given pool to communicate with the
    * server.
@@ -239,15 +334,61 @@ public class PutAllOp {
       }
       AbstractOp putAllOp =
           new PutAllOpImpl(region, newKeysValuesMap, eventId, true, skipCallbacks, callbackArg);
+      ServerLocation location = new ServerLocation(server.getHostName(), server.getPort());
 
-      SingleHopOperationCallable task =
-          new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
-              pool, putAllOp, UserAttributes.userAttributes.get());
+      SingleHopOperationCallable task;
+      if (pool.getBulkOpBatchSize() > 0 && newKeysValuesMap.size() > pool.getBulkOpBatchSize()) {
+        task = new SingleHopPutAllCallable(location, pool, putAllOp,
+            UserAttributes.userAttributes.get(), region, newKeysValuesMap, eventId, skipCallbacks,
+            callbackArg);
+      } else {
+        task = new SingleHopOperationCallable(location, pool, putAllOp,
+            UserAttributes.userAttributes.get());
+      }
       tasks.add(task);
     }
     return tasks;
   }
 
+  /**
+   * Puts the entries a server hosts in batches, one after the other. If one fails to reach the
+   * server, the whole map is retried on another server with the same event id, as it would be if
+   * it had been sent in one message.
+   *
+   * @since Geode 1.3
+   */
+  private static class SingleHopPutAllCallable extends SingleHopOperationCallable {
+    private final Region region;
+
+    private final Map map;
+
+    private final EventID eventId;
+
+    private final boolean skipCallbacks;
+
+    private final Object callbackArg;
+
+    private final int batchSize;
+
+    SingleHopPutAllCallable(ServerLocation server, PoolImpl pool, AbstractOp op,
+        UserAttributes securityAttributes, Region region, Map map, EventID eventId,
+        boolean skipCallbacks, Object callbackArg) {
+      super(server, pool, op, securityAttributes);
+      this.region = region;
+      this.map = map;
+      this.eventId = eventId;
+      this.skipCallbacks = skipCallbacks;
+      this.callbackArg = callbackArg;
+      this.batchSize = pool.getBulkOpBatchSize();
+    }
+
+    @Override
+    public Object call() throws Exception {
+      return executeInBatches(this::execute, this.region, this.map, this.eventId, true,
+          this.skipCallbacks, this.callbackArg, this.batchSize, true);
+    }
+  }
+
   private static class PutAllOpImpl extends AbstractOp {
 
     private boolean prSingleHopEnabled = false;
@@ -35,6 +35,7 @@ import org.apache.geode.internal.logging.LogService;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -103,6 +104,33 @@ public class PutOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region put on a server like {@link #execute} without making the caller wait for the
+   * result.
+   *
+   * @param region the region to do the put on, or null if only its name is known
+   * @since Geode 1.3
+   */
+  public static CompletableFuture<Object> executeAsync(ExecutablePool pool, LocalRegion region,
+      String regionName, Object key, Object value, EntryEventImpl event, Operation operation,
+      Object callbackArg, boolean prSingleHopEnabled) {
+    if (region == null) {
+      return pool.executeAsync(new PutOpImpl(regionName, key, value, null, event, operation, false,
+          null, callbackArg, false, prSingleHopEnabled), null);
+    }
+    PutOpImpl op = new PutOpImpl(region, key, value, null, event, operation, false, null,
+        callbackArg, false, prSingleHopEnabled);
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation server =
+          cms.getBucketServerLocation(region, Operation.UPDATE, key, value, callbackArg);
+      if (server != null) {
+        return AbstractOp.executeAsyncOnBucketServer(pool, op, server, cms);
+      }
+    }
+    return pool.executeAsync(op, null);
+  }
+
 
   /**
    * This is a unit test method. It does a region put on a server using the given connection from
@@ -418,6 +446,11 @@ public class PutOp {
       return ret;
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.PUT_DATA_ERROR;
@@ -20,6 +20,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -116,6 +117,23 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
 
 
 
+  /**
+   * Gets the value of the given key from the server like {@link #get} does, but without making the
+   * caller wait for it. On a pool that pipelines operations, the request is sent by the calling
+   * thread and the future is completed by one of the pool's async threads once the response has
+   * arrived. Otherwise, which is the default, the whole get is run by one of those threads, and
+   * once gemfire.PoolImpl.ASYNC_QUEUE_SIZE gets are waiting for one the calling thread runs the get
+   * itself.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> getAsync(Object key, Object callbackArg,
+      EntryEventImpl clientEvent) {
+    recordTXOperation(ServerRegionOperation.GET, key, callbackArg);
+    return GetOp.executeAsync(this.pool, this.region, this.regionName, key, callbackArg,
+        this.pool.getPRSingleHopEnabled(), clientEvent);
+  }
+
   public int size() {
     return SizeOp.execute(this.pool, this.regionName);
   }
@@ -162,6 +180,22 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   }
 
 
+  /**
+   * Puts the given value on the server without making the caller wait for it. Unlike
+   * {@link #put}, there is no local entry event; the put is sent as an update with the given event
+   * id, as it would be for a region that does not store data.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<Object> putAsync(Object key, Object value, EventID eventId,
+      Object callbackArg) {
+    recordTXOperation(ServerRegionOperation.PUT, key, value, null, eventId, Operation.UPDATE,
+        Boolean.FALSE, null, callbackArg, Boolean.FALSE);
+    return PutOp.executeAsync(this.pool, this.region, this.regionName, key, value,
+        new EventIDHolder(eventId), Operation.UPDATE, callbackArg,
+        this.pool.getPRSingleHopEnabled());
+  }
+
   /**
    * Does a region put on the server using the given connection.
    * 
@@ -651,6 +685,33 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     return result;
   }
 
+  /**
+   * Gets the values of the given keys like {@link #getAll} does, handing them to the given handler
+   * chunk by chunk as they arrive instead of collecting them.
+   *
+   * @since Geode 1.3
+   */
+  public void getAll(List keys, Object callback, GetAllResultHandler handler) {
+    recordTXOperation(ServerRegionOperation.GET_ALL, null, keys);
+    int txID = TXManagerImpl.getCurrentTXUniqueId();
+    if (this.pool.getPRSingleHopEnabled() && (txID == TXManagerImpl.NOTX)) {
+      GetAllOp.execute(this.pool, this.region, keys, this.pool.getRetryAttempts(), callback,
+          handler);
+    } else {
+      GetAllOp.execute(this.pool, this.regionName, keys, callback, handler);
+    }
+  }
+
+  /**
+   * Gets the values of the given keys like {@link #getAll} does, without making the caller wait for
+   * them. The bulk operation is run by one of the pool's async threads.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<VersionedObjectList> getAllAsync(List keys, Object callback) {
+    return this.pool.supplyAsync(() -> getAll(keys, callback));
+  }
+
   /**
    * Release use of this pool
    */
@@ -768,6 +829,38 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   }
 
 
+  /**
+   * Executes the given function like {@link #executeFunction} does, without making the caller wait
+   * for it. The execution is run by one of the pool's async threads, and the future completes with
+   * the given result collector once all the results have been added to it.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<ResultCollector> executeFunctionAsync(String rgnName,
+      Function function, ServerRegionFunctionExecutor serverRegionExecutor,
+      ResultCollector resultCollector, byte hasResult) {
+    return this.pool.supplyAsync(() -> {
+      executeFunction(rgnName, function, serverRegionExecutor, resultCollector, hasResult, false);
+      return resultCollector;
+    });
+  }
+
+  /**
+   * Executes the function with the given id like {@link #executeFunction} does, without making the
+   * caller wait for it.
+   *
+   * @since Geode 1.3
+   */
+  public CompletableFuture<ResultCollector> executeFunctionAsync(String rgnName,
+      String functionId, ServerRegionFunctionExecutor serverRegionExecutor,
+      ResultCollector resultCollector, byte hasResult, boolean isHA, boolean optimizeForWrite) {
+    return this.pool.supplyAsync(() -> {
+      executeFunction(rgnName, functionId, serverRegionExecutor, resultCollector, hasResult, isHA,
+          optimizeForWrite, false);
+      return resultCollector;
+    });
+  }
+
   public void executeFunctionNoAck(String rgnName, Function function,
       ServerRegionFunctionExecutor serverRegionExecutor, byte hasResult, boolean replaying) {
     recordTXOperation(ServerRegionOperation.EXECUTE_FUNCTION, null, Integer.valueOf(3), function,
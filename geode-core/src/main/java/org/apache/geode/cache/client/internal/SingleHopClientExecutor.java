@@ -15,7 +15,6 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -36,7 +35,7 @@ import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
-import org.apache.geode.cache.client.internal.GetAllOp.GetAllOpImpl;
+import org.apache.geode.cache.client.internal.GetAllOp.SingleHopGetAllCallable;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionException;
 import org.apache.geode.cache.execute.FunctionInvocationTargetException;
@@ -311,14 +310,14 @@ public class SingleHopClientExecutor {
     return null;
   }
 
-  static Map<ServerLocation, Object> submitGetAll(Map<ServerLocation, HashSet> serverToFilterMap,
-      List callableTasks, ClientMetadataService cms, LocalRegion region) {
+  static Map<ServerLocation, Object> submitGetAll(List<SingleHopGetAllCallable> callableTasks,
+      ClientMetadataService cms, LocalRegion region) {
 
     if (callableTasks != null && !callableTasks.isEmpty()) {
       Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
       List futures = null;
       try {
-        futures = execService.invokeAll(callableTasks);
+        futures = execService.invokeAll((List) callableTasks);
       } catch (RejectedExecutionException rejectedExecutionEx) {
         throw rejectedExecutionEx;
       } catch (InterruptedException e) {
@@ -330,12 +329,15 @@ public class SingleHopClientExecutor {
         while (futureItr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
           Future fut = (Future) futureItr.next();
           SingleHopOperationCallable task = (SingleHopOperationCallable) taskItr.next();
-          List keys = ((GetAllOpImpl) task.getOperation()).getKeyList();
           ServerLocation server = task.getServer();
           try {
 
+            // the task has set the keys of the values, which are null if they were given to a
+            // result handler
             VersionedObjectList valuesFromServer = (VersionedObjectList) fut.get();
-            valuesFromServer.setKeys(keys);
+            if (valuesFromServer == null) {
+              continue;
+            }
 
             for (VersionedObjectList.Iterator it = valuesFromServer.iterator(); it.hasNext();) {
               VersionedObjectList.Entry entry = it.next();
@@ -44,6 +44,14 @@ public class SingleHopOperationCallable implements Callable {
   }
 
   public Object call() throws Exception {
+    return execute(this.op);
+  }
+
+  /**
+   * Executes the given op on the server of this task, or on any server if all the connections to
+   * it are in use.
+   */
+  protected Object execute(AbstractOp op) throws Exception {
     op.initMessagePart();
     Object result = null;
     boolean onlyUseExistingCnx =
@@ -62,7 +70,7 @@ public class SingleHopOperationCallable implements Callable {
         ExecuteRegionFunctionSingleHopOpImpl newop = (ExecuteRegionFunctionSingleHopOpImpl) op;
         result = this.pool.execute(new ExecuteRegionFunctionOpImpl(newop));
       } else {
-        result = this.pool.execute(this.op);
+        result = this.pool.execute(op);
       }
     } finally {
       UserAttributes.userAttributes.set(null);
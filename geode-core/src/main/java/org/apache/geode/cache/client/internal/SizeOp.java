@@ -54,6 +54,11 @@ public class SizeOp {
       return processObjResponse(msg, "size");
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.SIZE_ERROR;
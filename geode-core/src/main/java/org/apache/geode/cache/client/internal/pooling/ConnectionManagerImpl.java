@@ -53,6 +53,20 @@ public class ConnectionManagerImpl implements ConnectionManager {
   static long AQUIRE_TIMEOUT = Long
       .getLong(DistributionConfig.GEMFIRE_PREFIX + "ConnectionManager.AQUIRE_TIMEOUT", 10 * 1000)
       .longValue();
+
+  /**
+   * System property with the interval, in milliseconds, at which the pool moves idle connections
+   * away from servers that respond much more slowly than the others and that the connection source
+   * finds more loaded. The pool only does this if the interval is greater than zero.
+   *
+   * @since Geode 1.3
+   */
+  public static final String ADAPTIVE_SIZING_INTERVAL_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "ConnectionManager.ADAPTIVE_SIZING_INTERVAL";
+
+  /** The most available connections scanned for one to a server that is not hot */
+  private static final int MAX_AVAILABLE_CONNECTIONS_SCANNED = 16;
+
   private final String poolName;
   private final PoolStats poolStats;
   protected final long prefillRetry; // ms // make this an int
@@ -83,6 +97,10 @@ public class ConnectionManagerImpl implements ConnectionManager {
   protected volatile boolean shuttingDown;
   private EndpointManager.EndpointListenerAdapter endpointListener;
 
+  private final long adaptiveSizingInterval;
+  /** The latency of operations on each server, or null if adaptive sizing is off */
+  private final ServerLatencyTracker latencyTracker;
+
   private static final long NANOS_PER_MS = 1000000L;
 
   /**
@@ -134,6 +152,8 @@ public class ConnectionManagerImpl implements ConnectionManager {
     this.prefillRetry = pingInterval;
     // this.pingInterval = pingInterval;
     this.cancelCriterion = cancelCriterion;
+    this.adaptiveSizingInterval = Long.getLong(ADAPTIVE_SIZING_INTERVAL_PROPERTY, 0);
+    this.latencyTracker = this.adaptiveSizingInterval > 0 ? new ServerLatencyTracker() : null;
     this.endpointListener = new EndpointManager.EndpointListenerAdapter() {
       @Override
       public void endpointCrashed(Endpoint endpoint) {
@@ -159,6 +179,9 @@ public class ConnectionManagerImpl implements ConnectionManager {
       while (connectionCount >= maxConnections && availableConnections.isEmpty()
           && remainingTime > 0 && !shuttingDown) {
         final long start = getPoolStats().beginConnectionWait();
+        if (this.latencyTracker != null) {
+          this.latencyTracker.recordBorrowWait();
+        }
         boolean interrupted = false;
         try {
           freeConnection.await(remainingTime, TimeUnit.MILLISECONDS);
@@ -179,7 +202,7 @@ public class ConnectionManagerImpl implements ConnectionManager {
       }
 
       while (!availableConnections.isEmpty()) {
-        PooledConnection connection = (PooledConnection) availableConnections.removeFirst();
+        PooledConnection connection = removeFirstAvailable();
         try {
           connection.activate();
           return connection;
@@ -237,6 +260,29 @@ public class ConnectionManagerImpl implements ConnectionManager {
     return connection;
   }
 
+  /**
+   * Removes the available connection to hand out next: the most recently returned one, or with
+   * adaptive sizing, the most recently returned one to a server that is not hot. Always called with
+   * lock held.
+   */
+  private PooledConnection removeFirstAvailable() {
+    if (this.latencyTracker != null) {
+      Set hotServers = this.latencyTracker.getHotServers();
+      if (!hotServers.isEmpty()) {
+        int scanned = 0;
+        for (Iterator itr = availableConnections.iterator(); itr.hasNext()
+            && scanned < MAX_AVAILABLE_CONNECTIONS_SCANNED; scanned++) {
+          PooledConnection connection = (PooledConnection) itr.next();
+          if (!hotServers.contains(connection.getServer())) {
+            itr.remove();
+            return connection;
+          }
+        }
+      }
+    }
+    return (PooledConnection) availableConnections.removeFirst();
+  }
+
   // public Connection borrowConnection(ServerLocation server, long acquireTimeout)
   // throws AllConnectionsInUseException, NoAvailableServersException {
   // return borrowConnection(server, acquireTimeout, false);
@@ -609,6 +655,11 @@ public class ConnectionManagerImpl implements ConnectionManager {
     } finally {
       lock.unlock();
     }
+
+    if (this.latencyTracker != null) {
+      this.loadConditioningProcessor.scheduleWithFixedDelay(new AdaptiveSizingTask(),
+          this.adaptiveSizingInterval, this.adaptiveSizingInterval, TimeUnit.MILLISECONDS);
+    }
   }
 
   /*
@@ -720,6 +771,11 @@ public class ConnectionManagerImpl implements ConnectionManager {
     return true;
   }
 
+  /** Returns the latency of operations on each server, or null if adaptive sizing is off */
+  ServerLatencyTracker getLatencyTracker() {
+    return this.latencyTracker;
+  }
+
   public int getConnectionCount() {
     return this.connectionCount;
   }
@@ -870,6 +926,123 @@ public class ConnectionManagerImpl implements ConnectionManager {
     }
   }
 
+  /**
+   * Moves idle connections away from the servers that are hot, that is that responded much more
+   * slowly than the others during the last intervals. For each hot server, asks the connection
+   * factory for a replacement server, which a locator only returns if the hot server is also the
+   * most loaded, and replaces an idle connection to the hot server with a connection to the
+   * replacement. Moves two connections per hot server if threads had to wait for a connection
+   * during the last interval.
+   */
+  protected class AdaptiveSizingTask extends PoolTask {
+
+    @Override
+    public void run2() {
+      Set hotServers = latencyTracker.sample();
+      if (hotServers.isEmpty() || shuttingDown) {
+        return;
+      }
+      int connectionsToMove = latencyTracker.getLastBorrowWaits() > 0 ? 2 : 1;
+      for (Iterator itr = hotServers.iterator(); itr.hasNext();) {
+        ServerLocation hotServer = (ServerLocation) itr.next();
+        // do not move connections from one hot server to another
+        Set excludedServers = new HashSet(hotServers);
+        excludedServers.remove(hotServer);
+        for (int i = 0; i < connectionsToMove; i++) {
+          if (cancelCriterion.isCancelInProgress() || !moveConnection(hotServer, excludedServers)) {
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Replaces an idle connection to the given hot server with one to the server the connection
+   * factory finds best.
+   *
+   * @return true if a connection was moved
+   */
+  private boolean moveConnection(ServerLocation hotServer, Set excludedServers) {
+    if (!hasAvailableConnectionTo(hotServer)) {
+      return false;
+    }
+    ServerLocation sl = this.connectionFactory.findBestServer(hotServer, excludedServers);
+    if (sl == null || sl.equals(hotServer)) {
+      return false;
+    }
+    Connection con = null;
+    try {
+      con = this.connectionFactory.createClientToServerConnection(sl, false);
+    } catch (GemFireSecurityException e) {
+      securityLogWriter.warning(
+          LocalizedStrings.ConnectionManagerImpl_SECURITY_EXCEPTION_CONNECTING_TO_SERVER_0_1,
+          new Object[] {sl, e});
+    } catch (ServerRefusedConnectionException srce) {
+      logger.warn(LocalizedMessage.create(
+          LocalizedStrings.ConnectionManagerImpl_SERVER_0_REFUSED_NEW_CONNECTION_1,
+          new Object[] {sl, srce}));
+    }
+    if (con == null) {
+      return false;
+    }
+    getPoolStats().incLoadConditioningConnect();
+
+    PooledConnection oldConnection = null;
+    lock.lock();
+    try {
+      if (!shuttingDown) {
+        for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+          PooledConnection connection = (PooledConnection) itr.next();
+          if (!connection.shouldDestroy() && connection.getServer().equals(hotServer)) {
+            itr.remove();
+            oldConnection = connection;
+            break;
+          }
+        }
+      }
+      if (oldConnection != null) {
+        PooledConnection newConnection = addConnection(con);
+        newConnection.passivate(false);
+        if (!allConnectionsMap.removeConnection(oldConnection)) {
+          // the server was invalidated, which already took the connection out of the count
+          connectionCount++;
+        }
+        availableConnections.addFirst(newConnection);
+        freeConnection.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (oldConnection == null) {
+      getPoolStats().incLoadConditioningReplaceTimeouts();
+      con.destroy();
+      return false;
+    }
+    oldConnection.internalDestroy();
+    getPoolStats().incLoadConditioningDisconnect();
+    if (logger.isDebugEnabled()) {
+      logger.debug("Moved a connection from hot server {} to {}", hotServer, sl);
+    }
+    return true;
+  }
+
+  private boolean hasAvailableConnectionTo(ServerLocation server) {
+    lock.lock();
+    try {
+      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+        PooledConnection connection = (PooledConnection) itr.next();
+        if (!connection.shouldDestroy() && connection.getServer().equals(server)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   // private final AR/*<ReplacementConnection>*/ replacement = CFactory.createAR();
 
   // private void closeReplacementConnection() {
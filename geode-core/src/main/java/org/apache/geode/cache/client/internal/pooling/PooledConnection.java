@@ -51,9 +51,12 @@ class PooledConnection implements Connection {
   private final AtomicBoolean shouldDestroy = new AtomicBoolean();
   private boolean waitingToSwitch = false;
   // private final ConnectionManagerImpl manager;
+  /** Records the latency of the operations executed on this connection, if not null */
+  private final ServerLatencyTracker latencyTracker;
 
   public PooledConnection(ConnectionManagerImpl manager, Connection connection) {
     // this.manager = manager;
+    this.latencyTracker = manager == null ? null : manager.getLatencyTracker();
     this.connection = connection;
     this.endpoint = connection.getEndpoint();
     this.birthDate = System.nanoTime();
@@ -329,7 +332,16 @@ class PooledConnection implements Connection {
   }
 
   public Object execute(Op op) throws Exception {
-    return getConnection().execute(op);
+    final ServerLatencyTracker tracker = this.latencyTracker;
+    if (tracker == null) {
+      return getConnection().execute(op);
+    }
+    final long start = System.nanoTime();
+    try {
+      return getConnection().execute(op);
+    } finally {
+      tracker.recordOperation(getServer(), System.nanoTime() - start);
+    }
   }
 
   public static void loadEmergencyClasses() {
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+
+/**
+ * Tracks the latency of the operations a pool executes on each server, and how often threads wait
+ * in {@link ConnectionManagerImpl#borrowConnection(long)} for a connection, so that the connection
+ * manager can move connections away from servers that respond much more slowly than the others.
+ * <p>
+ * Operations are recorded with two adds, so that the executing threads do not contend. The
+ * connection manager's background task calls {@link #sample()} at a fixed interval to fold the
+ * operations recorded since the previous sample into a moving average for each server.
+ *
+ * @since Geode 1.3
+ */
+class ServerLatencyTracker {
+
+  /** How much slower than the average of the other servers a hot server is */
+  static final double HOT_LATENCY_RATIO = 2.0;
+
+  /** How much slower than the average of the other servers a hot server is, at least */
+  static final long MIN_HOT_LATENCY_DIFFERENCE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /** The fewest operations on a server during an interval for it to be found hot */
+  static final int MIN_OPERATIONS_PER_SAMPLE = 10;
+
+  /** The weight of the latest interval in each server's moving average */
+  private static final double SAMPLE_WEIGHT = 0.5;
+
+  private final Map<ServerLocation, ServerLatency> servers = new ConcurrentHashMap<>();
+
+  private final LongAdder borrowWaits = new LongAdder();
+
+  private volatile Set<ServerLocation> hotServers = Collections.emptySet();
+
+  private volatile long lastBorrowWaits;
+
+  void recordOperation(ServerLocation server, long nanos) {
+    ServerLatency latency = this.servers.get(server);
+    if (latency == null) {
+      latency = this.servers.computeIfAbsent(server, k -> new ServerLatency());
+    }
+    latency.operations.increment();
+    latency.operationNanos.add(nanos);
+  }
+
+  void recordBorrowWait() {
+    this.borrowWaits.increment();
+  }
+
+  /**
+   * Folds the operations recorded since the last sample into each server's average latency and
+   * returns the servers that are now hot: those whose average latency is more than
+   * {@link #HOT_LATENCY_RATIO} times, and {@link #MIN_HOT_LATENCY_DIFFERENCE_NANOS} more than, the
+   * average of the other servers in use. Servers without operations since the last sample are
+   * forgotten. Only called by one thread at a time.
+   */
+  Set<ServerLocation> sample() {
+    long totalAverage = 0;
+    int sampled = 0;
+    for (Iterator<ServerLatency> itr = this.servers.values().iterator(); itr.hasNext();) {
+      ServerLatency latency = itr.next();
+      long operations = latency.operations.sumThenReset();
+      long nanos = latency.operationNanos.sumThenReset();
+      if (operations == 0) {
+        itr.remove();
+        continue;
+      }
+      long intervalAverage = nanos / operations;
+      latency.average = latency.average < 0 ? intervalAverage
+          : (long) (SAMPLE_WEIGHT * intervalAverage + (1 - SAMPLE_WEIGHT) * latency.average);
+      latency.sampledOperations = operations;
+      totalAverage += latency.average;
+      sampled++;
+    }
+    this.lastBorrowWaits = this.borrowWaits.sumThenReset();
+
+    Set<ServerLocation> hot = Collections.emptySet();
+    if (sampled > 1) {
+      for (Map.Entry<ServerLocation, ServerLatency> entry : this.servers.entrySet()) {
+        ServerLatency latency = entry.getValue();
+        if (latency.average < 0 || latency.sampledOperations < MIN_OPERATIONS_PER_SAMPLE) {
+          continue;
+        }
+        long othersAverage = (totalAverage - latency.average) / (sampled - 1);
+        if (latency.average > HOT_LATENCY_RATIO * othersAverage
+            && latency.average - othersAverage >= MIN_HOT_LATENCY_DIFFERENCE_NANOS) {
+          if (hot.isEmpty()) {
+            hot = new HashSet<>();
+          }
+          hot.add(entry.getKey());
+        }
+      }
+    }
+    this.hotServers = hot;
+    return hot;
+  }
+
+  /** Returns the servers found hot by the last sample */
+  Set<ServerLocation> getHotServers() {
+    return this.hotServers;
+  }
+
+  /** Returns the number of times threads waited for a connection in the last sampled interval */
+  long getLastBorrowWaits() {
+    return this.lastBorrowWaits;
+  }
+
+  /** Returns the average latency of the given server, or -1 if it has not been sampled */
+  long getAverageNanos(ServerLocation server) {
+    ServerLatency latency = this.servers.get(server);
+    return latency == null ? -1 : latency.average;
+  }
+
+  private static class ServerLatency {
+    final LongAdder operations = new LongAdder();
+    final LongAdder operationNanos = new LongAdder();
+    /** Read and written only by the sampling thread */
+    long average = -1;
+    long sampledOperations;
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.query.internal.index;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -811,6 +812,28 @@ public abstract class AbstractIndex implements IndexProtocol {
 
   abstract void addMapping(Object key, Object value, RegionEntry entry) throws IMQException;
 
+  /**
+   * Returns true if the contents of this index can be written to an {@link IndexCheckpoint}.
+   */
+  boolean isCheckpointable() {
+    return false;
+  }
+
+  /**
+   * Passes every region entry in this index and its index key to the given visitor. Only called
+   * while updates to the region's indexes are blocked. This implementation passes nothing, so
+   * every entry is evaluated when the index is restored.
+   */
+  void forEachMapping(IndexCheckpoint.MappingVisitor visitor) throws IOException {}
+
+  /**
+   * Adds a mapping read from an {@link IndexCheckpoint} without evaluating the indexed expression.
+   * This implementation ignores the index key and evaluates the entry.
+   */
+  void restoreMapping(Object indexKey, RegionEntry entry) throws IMQException {
+    addMapping(entry);
+  }
+
   /**
    * This is used to buffer the index entries evaluated from a RegionEntry which is getting updated
    * at present. These buffered index entries are replaced into the index later all together to
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.query.internal.index;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -129,8 +130,16 @@ public class CompactRangeIndex extends AbstractIndex {
   @Override
   public void initializeIndex(boolean loadEntries) throws IMQException {
     long startTime = System.nanoTime();
-    this.evaluator.initializeIndex(loadEntries);
-    this.internalIndexStats.incNumUpdates(((IMQEvaluator) this.evaluator).getTotalEntriesUpdated());
+    IndexCheckpoint.IndexKeys checkpointKeys =
+        loadEntries ? IndexCheckpoint.takeIndexKeys(this) : null;
+    if (checkpointKeys == null) {
+      this.evaluator.initializeIndex(loadEntries);
+      this.internalIndexStats
+          .incNumUpdates(((IMQEvaluator) this.evaluator).getTotalEntriesUpdated());
+    } else {
+      this.evaluator.initializeIndex(false);
+      checkpointKeys.restoreMappings(this);
+    }
     long endTime = System.nanoTime();
     this.internalIndexStats.incUpdateTime(endTime - startTime);
   }
@@ -140,6 +149,25 @@ public class CompactRangeIndex extends AbstractIndex {
     this.internalIndexStats.incNumUpdates();
   }
 
+  @Override
+  boolean isCheckpointable() {
+    return this.indexStore instanceof MemoryIndexStore;
+  }
+
+  @Override
+  void forEachMapping(IndexCheckpoint.MappingVisitor visitor) throws IOException {
+    ((MemoryIndexStore) this.indexStore).forEachMapping(visitor);
+  }
+
+  @Override
+  void restoreMapping(Object indexKey, RegionEntry entry) throws IMQException {
+    if (!this.isIndexedPdxKeysFlagSet) {
+      setPdxStringFlag(indexKey);
+    }
+    this.indexStore.addMapping(getPdxStringForIndexedPdxKeys(indexKey), entry);
+    this.internalIndexStats.incNumUpdates();
+  }
+
   /**
    * @param opCode one of OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
    */
@@ -16,6 +16,7 @@ package org.apache.geode.cache.query.internal.index;
 
 import static org.apache.geode.internal.lang.SystemUtils.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,6 +33,7 @@ import java.util.concurrent.ConcurrentMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
@@ -163,8 +165,16 @@ public class HashIndex extends AbstractIndex {
   @Override
   public void initializeIndex(boolean loadEntries) throws IMQException {
     long startTime = System.nanoTime();
-    this.evaluator.initializeIndex(loadEntries);
-    this.internalIndexStats.incNumUpdates(((IMQEvaluator) this.evaluator).getTotalEntriesUpdated());
+    IndexCheckpoint.IndexKeys checkpointKeys =
+        loadEntries ? IndexCheckpoint.takeIndexKeys(this) : null;
+    if (checkpointKeys == null) {
+      this.evaluator.initializeIndex(loadEntries);
+      this.internalIndexStats
+          .incNumUpdates(((IMQEvaluator) this.evaluator).getTotalEntriesUpdated());
+    } else {
+      this.evaluator.initializeIndex(false);
+      checkpointKeys.restoreMappings(this);
+    }
     long endTime = System.nanoTime();
     this.internalIndexStats.incUpdateTime(endTime - startTime);
   }
@@ -174,6 +184,44 @@ public class HashIndex extends AbstractIndex {
     this.internalIndexStats.incNumUpdates();
   }
 
+  @Override
+  boolean isCheckpointable() {
+    return true;
+  }
+
+  /**
+   * The entries set does not keep the index keys, so the key of every entry is evaluated here.
+   */
+  @Override
+  void forEachMapping(IndexCheckpoint.MappingVisitor visitor) throws IOException {
+    Iterator iterator = this.entriesSet.iterator();
+    while (iterator.hasNext()) {
+      RegionEntry entry = (RegionEntry) iterator.next();
+      Object key;
+      try {
+        key = ((IMQEvaluator) this.evaluator).evaluateKey(entry);
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        throw err;
+      } catch (Error e) {
+        // evaluateKey throws an Error if the indexed expression could not be evaluated. Leave the
+        // entry out of the checkpoint so that it is evaluated when the index is restored.
+        if (logger.isDebugEnabled()) {
+          logger.debug("Could not evaluate the key of {} for the index checkpoint",
+              entry.getKey(), e);
+        }
+        continue;
+      }
+      visitor.visit(key, entry);
+    }
+  }
+
+  @Override
+  void restoreMapping(Object indexKey, RegionEntry entry) throws IMQException {
+    basicAddMapping(indexKey, entry);
+    this.internalIndexStats.incNumUpdates();
+  }
+
   /**
    * Add/Updates the index forward and reverse map. If index key for a RegionEntry is found same as
    * previous key no update is performed.
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.internal.cache.DiskEntry;
+import org.apache.geode.internal.cache.DiskRegion;
+import org.apache.geode.internal.cache.DiskStoreStats;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+
+/**
+ * A checkpoint of the functional and hash indexes of a persistent region, written when the region
+ * is closed so that the indexes can be restored without evaluating the indexed expression of every
+ * entry when the region is recovered.
+ * <p>
+ * Each mapping in the checkpoint records the id of the oplog and the offset in it of the entry's
+ * value when the checkpoint was written. A mapping is only restored if the recovered entry still
+ * has its value at that location, because any change to the value, including copying it forward
+ * during compaction, writes a new record. All other entries are evaluated as usual.
+ *
+ * @since Geode 1.3
+ */
+public class IndexCheckpoint {
+
+  public static final String FILE_EXT = ".icp";
+
+  private static final int VERSION = 1;
+
+  private static final byte END = 0;
+  private static final byte INDEX = 1;
+  private static final byte MAPPING = 2;
+
+  private static final byte NULL_KEY = 0;
+  private static final byte UNDEFINED_KEY = 1;
+  private static final byte OBJECT_KEY = 2;
+
+  /** The index keys of each index in the checkpoint, by index name. Guarded by this. */
+  private final Map<String, IndexKeys> indexKeys;
+
+  private IndexCheckpoint(Map<String, IndexKeys> indexKeys) {
+    this.indexKeys = indexKeys;
+  }
+
+  /**
+   * Receives the index key of each region entry in an index.
+   */
+  interface MappingVisitor {
+    void visit(Object indexKey, RegionEntry entry) throws IOException;
+  }
+
+  /**
+   * Writes a checkpoint of the given indexes to the given file, replacing any previous checkpoint.
+   *
+   * @return the number of index mappings written
+   */
+  public static int write(File file, DiskStoreID diskStoreId, String regionName,
+      Collection<AbstractIndex> indexes) throws IOException {
+    File tmpFile = new File(file.getPath() + ".tmp");
+    boolean written = false;
+    DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmpFile), 64 * 1024));
+    MappingWriter writer = new MappingWriter(out);
+    try {
+      out.writeInt(VERSION);
+      out.writeLong(diskStoreId.getMostSignificantBits());
+      out.writeLong(diskStoreId.getLeastSignificantBits());
+      out.writeUTF(regionName);
+      for (AbstractIndex index : indexes) {
+        out.writeByte(INDEX);
+        out.writeUTF(index.getName());
+        out.writeUTF(index.getType().toString());
+        out.writeUTF(index.getCanonicalizedFromClause());
+        out.writeUTF(index.getCanonicalizedIndexedExpression());
+        index.forEachMapping(writer);
+        out.writeByte(END);
+      }
+      out.writeByte(END);
+      out.flush();
+      written = true;
+    } finally {
+      out.close();
+      if (!written) {
+        tmpFile.delete();
+      }
+    }
+    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    return writer.mappings;
+  }
+
+  /**
+   * Reads the checkpoint in the given file.
+   *
+   * @return the checkpoint, or null if it was not written for the given disk store and region
+   */
+  public static IndexCheckpoint read(File file, DiskStoreID diskStoreId, String regionName)
+      throws IOException, ClassNotFoundException {
+    DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+    try {
+      if (in.readInt() != VERSION || in.readLong() != diskStoreId.getMostSignificantBits()
+          || in.readLong() != diskStoreId.getLeastSignificantBits()
+          || !in.readUTF().equals(regionName)) {
+        return null;
+      }
+      Map<String, IndexKeys> indexKeys = new HashMap<String, IndexKeys>();
+      while (in.readByte() == INDEX) {
+        IndexKeys keys = new IndexKeys(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+        while (in.readByte() == MAPPING) {
+          Object regionKey = DataSerializer.readObject(in);
+          long oplogId = in.readLong();
+          long offset = in.readLong();
+          keys.mappings.put(regionKey, new Mapping(oplogId, offset, readIndexKey(in)));
+        }
+        indexKeys.put(keys.indexName, keys);
+      }
+      return new IndexCheckpoint(indexKeys);
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Returns the checkpointed keys of the given index, if its region has a checkpoint that contains
+   * them. The keys are removed from the checkpoint, so they are only ever restored once.
+   */
+  static IndexKeys takeIndexKeys(AbstractIndex index) {
+    if (!index.isCheckpointable() || !(index.getRegion() instanceof LocalRegion)) {
+      return null;
+    }
+    DiskRegion dr = ((LocalRegion) index.getRegion()).getDiskRegion();
+    if (dr == null || !dr.isBackup()) {
+      return null;
+    }
+    IndexCheckpoint checkpoint = dr.getIndexCheckpoint();
+    if (checkpoint == null) {
+      return null;
+    }
+    IndexKeys keys = checkpoint.take(index);
+    if (keys != null) {
+      keys.stats = dr.getDiskStore().getStats();
+    }
+    return keys;
+  }
+
+  private synchronized IndexKeys take(AbstractIndex index) {
+    IndexKeys keys = this.indexKeys.remove(index.getName());
+    if (keys == null || !keys.matches(index)) {
+      return null;
+    }
+    return keys;
+  }
+
+  /**
+   * Returns true if the given index key can be written to a checkpoint and read back without any
+   * class other than the JDK's. Entries with other keys are evaluated when the index is restored.
+   */
+  private static boolean isCheckpointableKey(Object indexKey) {
+    if (indexKey == IndexManager.NULL || indexKey == QueryService.UNDEFINED
+        || indexKey instanceof String || indexKey instanceof Boolean
+        || indexKey instanceof Character || indexKey instanceof Date) {
+      return true;
+    }
+    return indexKey instanceof Number && indexKey.getClass().getName().startsWith("java.");
+  }
+
+  private static void writeIndexKey(Object indexKey, DataOutputStream out) throws IOException {
+    if (indexKey == IndexManager.NULL) {
+      out.writeByte(NULL_KEY);
+    } else if (indexKey == QueryService.UNDEFINED) {
+      out.writeByte(UNDEFINED_KEY);
+    } else {
+      out.writeByte(OBJECT_KEY);
+      DataSerializer.writeObject(indexKey, out);
+    }
+  }
+
+  private static Object readIndexKey(DataInputStream in)
+      throws IOException, ClassNotFoundException {
+    byte keyType = in.readByte();
+    if (keyType == NULL_KEY) {
+      return IndexManager.NULL;
+    } else if (keyType == UNDEFINED_KEY) {
+      return QueryService.UNDEFINED;
+    }
+    return DataSerializer.readObject(in);
+  }
+
+  private static class MappingWriter implements MappingVisitor {
+
+    private final DataOutputStream out;
+
+    private int mappings;
+
+    MappingWriter(DataOutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void visit(Object indexKey, RegionEntry entry) throws IOException {
+      if (!(entry instanceof DiskEntry) || entry.isInvalidOrRemoved()
+          || !isCheckpointableKey(indexKey)) {
+        return;
+      }
+      long[] location = DiskEntry.Helper.getOplogRecordLocation((DiskEntry) entry);
+      if (location == null) {
+        return;
+      }
+      this.out.writeByte(MAPPING);
+      DataSerializer.writeObject(entry.getKey(), this.out);
+      this.out.writeLong(location[0]);
+      this.out.writeLong(location[1]);
+      writeIndexKey(indexKey, this.out);
+      this.mappings++;
+    }
+  }
+
+  private static class Mapping {
+
+    final long oplogId;
+
+    final long offset;
+
+    final Object indexKey;
+
+    Mapping(long oplogId, long offset, Object indexKey) {
+      this.oplogId = oplogId;
+      this.offset = offset;
+      this.indexKey = indexKey;
+    }
+  }
+
+  /**
+   * The checkpointed index keys of one index, by region key. Not thread safe; used by the thread
+   * that populates the index.
+   */
+  static class IndexKeys {
+
+    private final String indexName;
+
+    private final String indexType;
+
+    private final String fromClause;
+
+    private final String indexedExpression;
+
+    private final Map<Object, Mapping> mappings = new HashMap<Object, Mapping>();
+
+    private DiskStoreStats stats;
+
+    private int restored;
+
+    private int discarded;
+
+    IndexKeys(String indexName, String indexType, String fromClause, String indexedExpression) {
+      this.indexName = indexName;
+      this.indexType = indexType;
+      this.fromClause = fromClause;
+      this.indexedExpression = indexedExpression;
+    }
+
+    boolean matches(AbstractIndex index) {
+      return this.indexType.equals(index.getType().toString())
+          && this.fromClause.equals(index.getCanonicalizedFromClause())
+          && this.indexedExpression.equals(index.getCanonicalizedIndexedExpression());
+    }
+
+    /**
+     * Adds a mapping to the given index for every entry in its region, restoring the checkpointed
+     * index key where possible and evaluating the entry otherwise.
+     */
+    void restoreMappings(AbstractIndex index) throws IMQException {
+      try {
+        Iterator<RegionEntry> entries = ((LocalRegion) index.getRegion()).getBestIterator(true);
+        while (entries.hasNext()) {
+          RegionEntry entry = entries.next();
+          if (entry == null || entry.isInvalidOrRemoved()) {
+            continue;
+          }
+          if (!restoreMapping(index, entry)) {
+            index.addMapping(entry);
+          }
+        }
+      } finally {
+        close();
+      }
+    }
+
+    /**
+     * Adds the checkpointed mapping of the given entry to the given index, if there is one and the
+     * entry's value has not changed since the checkpoint was written.
+     *
+     * @return true if the mapping was restored; false if the entry needs to be evaluated
+     */
+    boolean restoreMapping(AbstractIndex index, RegionEntry entry) throws IMQException {
+      Mapping mapping = this.mappings.remove(entry.getKey());
+      if (mapping == null) {
+        return false;
+      }
+      if (entry instanceof DiskEntry) {
+        long[] location = DiskEntry.Helper.getOplogRecordLocation((DiskEntry) entry);
+        if (location != null && location[0] == mapping.oplogId
+            && location[1] == mapping.offset) {
+          index.restoreMapping(mapping.indexKey, entry);
+          this.restored++;
+          return true;
+        }
+      }
+      this.discarded++;
+      return false;
+    }
+
+    /**
+     * Discards the mappings that were not restored and updates the disk store statistics.
+     */
+    void close() {
+      this.discarded += this.mappings.size();
+      this.mappings.clear();
+      this.stats.incIndexCheckpointMappingsRestored(this.restored);
+      this.stats.incIndexCheckpointMappingsDiscarded(this.discarded);
+      this.restored = 0;
+      this.discarded = 0;
+    }
+  }
+}
@@ -16,6 +16,8 @@ package org.apache.geode.cache.query.internal.index;
 
 import static org.apache.geode.internal.lang.SystemUtils.getLineSeparator;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -72,6 +74,7 @@ import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
@@ -908,16 +911,21 @@ public class IndexManager {
     boolean oldReadSerialized = DefaultQuery.getPdxReadSerialized();
     DefaultQuery.setPdxReadSerialized(true);
     try {
+      Map<Index, IndexCheckpoint.IndexKeys> checkpointKeys =
+          new HashMap<Index, IndexCheckpoint.IndexKeys>();
+      for (Index index : indexSet) {
+        IndexCheckpoint.IndexKeys keys = IndexCheckpoint.takeIndexKeys((AbstractIndex) index);
+        if (keys != null) {
+          checkpointKeys.put(index, keys);
+        }
+      }
       Iterator entryIter = ((LocalRegion) region).getBestIterator(true);
       while (entryIter.hasNext()) {
         RegionEntry entry = (RegionEntry) entryIter.next();
         if (entry == null || entry.isInvalidOrRemoved()) {
           continue;
         }
-        // Fault in the value once before index update so that every index
-        // update does not have
-        // to read the value from disk every time.
-        entry.getValue((LocalRegion) this.region);
+        boolean faultedIn = false;
         Iterator<Index> indexSetIterator = indexSet.iterator();
         while (indexSetIterator.hasNext()) {
           AbstractIndex index = (AbstractIndex) indexSetIterator.next();
@@ -928,7 +936,17 @@ public class IndexManager {
             }
             long start = ((AbstractIndex) index).updateIndexUpdateStats();
             try {
-              index.addIndexMapping(entry);
+              IndexCheckpoint.IndexKeys keys = checkpointKeys.get(index);
+              if (keys == null || !keys.restoreMapping(index, entry)) {
+                if (!faultedIn) {
+                  // Fault in the value once before index update so that every index
+                  // update does not have
+                  // to read the value from disk every time.
+                  entry.getValue((LocalRegion) this.region);
+                  faultedIn = true;
+                }
+                index.addIndexMapping(entry);
+              }
             } catch (IMQException e) {
               if (logger.isDebugEnabled()) {
                 logger.debug("Adding to index failed for: {}, {}", index.getName(), e.getMessage(),
@@ -942,6 +960,9 @@ public class IndexManager {
           }
         }
       }
+      for (IndexCheckpoint.IndexKeys keys : checkpointKeys.values()) {
+        keys.close();
+      }
       setPopulateFlagForIndexes(indexSet);
       if (throwException) {
         throw new MultiIndexCreationException(exceptionsMap);
@@ -1278,6 +1299,33 @@ public class IndexManager {
     return ((HasCachePerfStats) this.region).getCachePerfStats();
   }
 
+  /**
+   * Writes a checkpoint of the functional and hash indexes of this manager's region to the given
+   * file. Updates to the indexes are blocked while the checkpoint is written so that the index key
+   * of every entry matches the value it has on disk.
+   *
+   * @return the number of index mappings written
+   */
+  public int writeIndexCheckpoint(File file, DiskStoreID diskStoreId, String regionName)
+      throws IOException {
+    waitBeforeUpdate();
+    try {
+      List<AbstractIndex> checkpointIndexes = new ArrayList<AbstractIndex>();
+      for (Object ind : this.indexes.values()) {
+        // a FutureTask means the index is still being created
+        if (ind instanceof AbstractIndex) {
+          AbstractIndex index = (AbstractIndex) ind;
+          if (index.isValid() && index.isPopulated() && index.isCheckpointable()) {
+            checkpointIndexes.add(index);
+          }
+        }
+      }
+      return IndexCheckpoint.write(file, diskStoreId, regionName, checkpointIndexes);
+    } finally {
+      notifyAfterUpdate();
+    }
+  }
+
   /**
    * Callback for destroying IndexManager Called after Region.destroy() called
    */
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.query.internal.index;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -560,6 +561,24 @@ public class MemoryIndexStore implements IndexStore {
     return numIndexKeys.get();
   }
 
+  /**
+   * Passes every region entry in this store and its index key to the given visitor. Unlike the
+   * iterators, this does not need the cache, so it can be used while the cache is closing.
+   */
+  void forEachMapping(IndexCheckpoint.MappingVisitor visitor) throws IOException {
+    for (Object mapEntry : this.valueToEntriesMap.entrySet()) {
+      Object indexKey = ((Map.Entry) mapEntry).getKey();
+      Object values = ((Map.Entry) mapEntry).getValue();
+      if (values instanceof RegionEntry) {
+        visitor.visit(indexKey, (RegionEntry) values);
+      } else if (values instanceof Collection) {
+        for (Object entry : (Collection) values) {
+          visitor.visit(indexKey, (RegionEntry) entry);
+        }
+      }
+    }
+  }
+
   /**
    * A bi-directional iterator over the CSL. Iterates over the entries of CSL where entry is a
    * mapping (value -> Collection) as well as over the Collection.
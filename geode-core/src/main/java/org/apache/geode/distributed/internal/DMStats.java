@@ -141,6 +141,35 @@ public interface DMStats {
 
   public void incBatchFlushTime(long start);
 
+  /**
+   * Increments the number of coalesced writes by one and the number of messages sent by coalesced
+   * writes by the given number.
+   *
+   * @since Geode 1.3
+   */
+  public void incCoalescedWrites(int messages);
+
+  /**
+   * Increments the total number of nanoseconds messages waited to be sent by coalesced writes.
+   *
+   * @since Geode 1.3
+   */
+  public void incCoalesceWaitTime(long nanos);
+
+  /**
+   * Returns the number of coalesced writes.
+   *
+   * @since Geode 1.3
+   */
+  public int getCoalescedWrites();
+
+  /**
+   * Returns the number of messages sent by coalesced writes.
+   *
+   * @since Geode 1.3
+   */
+  public int getCoalescedMessages();
+
   /**
    * Increments the total number of nanoseconds spent scheduling messages to be processed.
    */
@@ -159,6 +159,16 @@ public class DistributionManager implements DM {
   // Integer.getInteger("DistributionManager.MAX_THREADS",
   // max(Runtime.getRuntime().availableProcessors()*2, 2)).intValue();
 
+  /**
+   * If true the normal, high priority and partitioned region pools only count threads that are not
+   * blocked waiting for replies against their maximum size, starting another thread when one
+   * blocks. The serial executors are never affected.
+   *
+   * @since Geode 1.3
+   */
+  public static final boolean ELASTIC_POOLS =
+      Boolean.getBoolean("DistributionManager.ELASTIC_POOLS");
+
   public static final int INCOMING_QUEUE_LIMIT =
       Integer.getInteger("DistributionManager.INCOMING_QUEUE_LIMIT", 80000).intValue();
   public static final int INCOMING_QUEUE_THROTTLE =
@@ -933,8 +943,9 @@ public class DistributionManager implements DM {
             return thread;
           }
         };
-        ThreadPoolExecutor pool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
+        PooledExecutorWithDMStats pool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
             this.stats.getNormalPoolHelper(), tf);
+        pool.setCompensateBlockedThreads(ELASTIC_POOLS);
         this.threadPool = pool;
       }
 
@@ -972,8 +983,10 @@ public class DistributionManager implements DM {
             return thread;
           }
         };
-        this.highPriorityPool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
+        PooledExecutorWithDMStats pool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
             this.stats.getHighPriorityPoolHelper(), tf);
+        pool.setCompensateBlockedThreads(ELASTIC_POOLS);
+        this.highPriorityPool = pool;
       }
 
 
@@ -1078,8 +1091,10 @@ public class DistributionManager implements DM {
           }
         };
         if (MAX_PR_THREADS > 1) {
-          this.partitionedRegionPool = new PooledExecutorWithDMStats(poolQueue, MAX_PR_THREADS,
-              this.stats.getPartitionedRegionPoolHelper(), tf);
+          PooledExecutorWithDMStats pool = new PooledExecutorWithDMStats(poolQueue,
+              MAX_PR_THREADS, this.stats.getPartitionedRegionPoolHelper(), tf);
+          pool.setCompensateBlockedThreads(ELASTIC_POOLS);
+          this.partitionedRegionPool = pool;
         } else {
           SerialQueuedExecutorWithDMStats executor = new SerialQueuedExecutorWithDMStats(poolQueue,
               this.stats.getPartitionedRegionPoolHelper(), tf);
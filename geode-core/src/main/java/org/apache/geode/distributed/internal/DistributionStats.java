@@ -147,6 +147,10 @@ public class DistributionStats implements DMStats {
   private final static int batchWaitTimeId;
   private final static int batchFlushTimeId;
 
+  private final static int coalescedWritesId;
+  private final static int coalescedMessagesId;
+  private final static int coalesceWaitTimeId;
+
   private final static int threadOwnedReceiversId;
   private final static int threadOwnedReceiversId2;
 
@@ -597,6 +601,14 @@ public class DistributionStats implements DMStats {
             "Total amount of time, in nanoseconds, spent flushing batched messages to the network",
             "nanoseconds"),
 
+        f.createIntCounter("coalescedWrites",
+            "Total number of socket writes that sent coalesced messages.", "writes"),
+        f.createIntCounter("coalescedMessages",
+            "Total number of messages sent by coalesced writes.", "messages"),
+        f.createLongCounter("coalesceWaitTime",
+            "Total amount of time, in nanoseconds, messages waited to be sent by coalesced writes.",
+            "nanoseconds"),
+
         f.createIntGauge("asyncSocketWritesInProgress",
             "Current number of non-blocking socket write calls in progress.", "writes"),
         f.createIntCounter("asyncSocketWrites",
@@ -842,6 +854,10 @@ public class DistributionStats implements DMStats {
     batchWaitTimeId = type.nameToId("batchWaitTime");
     batchFlushTimeId = type.nameToId("batchFlushTime");
 
+    coalescedWritesId = type.nameToId("coalescedWrites");
+    coalescedMessagesId = type.nameToId("coalescedMessages");
+    coalesceWaitTimeId = type.nameToId("coalesceWaitTime");
+
     asyncSocketWritesInProgressId = type.nameToId("asyncSocketWritesInProgress");
     asyncSocketWritesId = type.nameToId("asyncSocketWrites");
     asyncSocketWriteRetriesId = type.nameToId("asyncSocketWriteRetries");
@@ -2068,6 +2084,25 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  public void incCoalescedWrites(int messages) {
+    stats.incInt(coalescedWritesId, 1);
+    stats.incInt(coalescedMessagesId, messages);
+  }
+
+  public void incCoalesceWaitTime(long nanos) {
+    if (enableClockStats) {
+      stats.incLong(coalesceWaitTimeId, nanos);
+    }
+  }
+
+  public int getCoalescedWrites() {
+    return stats.getInt(coalescedWritesId);
+  }
+
+  public int getCoalescedMessages() {
+    return stats.getInt(coalescedMessagesId);
+  }
+
   public void incUcastRetransmits() {
     stats.incInt(ucastRetransmitsId, 1);
   }
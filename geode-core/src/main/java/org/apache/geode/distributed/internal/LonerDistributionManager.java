@@ -582,6 +582,22 @@ public class LonerDistributionManager implements DM {
     @Override
     public void incBatchFlushTime(long start) {}
 
+    @Override
+    public void incCoalescedWrites(int messages) {}
+
+    @Override
+    public void incCoalesceWaitTime(long nanos) {}
+
+    @Override
+    public int getCoalescedWrites() {
+      return 0;
+    }
+
+    @Override
+    public int getCoalescedMessages() {
+      return 0;
+    }
+
     @Override
     public void incUcastWriteBytes(int bytesWritten) {}
 
@@ -23,17 +23,53 @@ import java.util.concurrent.*;
 
 /**
  * A ThreadPoolExecutor with stat support.
+ * <p>
+ * A pool can be asked to {@link #setCompensateBlockedThreads compensate for blocked threads}. Its
+ * maximum size then only bounds the threads that are running: a pool thread that announces it is
+ * about to block, by calling {@link #threadWillBlock()}, raises the maximum by one until it calls
+ * {@link #threadUnblocked}, so that the messages queued behind it (which may be the very replies it
+ * is waiting for) still get processed.
  *
  */
 public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
+  /**
+   * The pool the current thread is running a task for, if that pool compensates for blocked
+   * threads.
+   */
+  private static final ThreadLocal<PooledExecutorWithDMStats> compensatingPool =
+      new ThreadLocal<PooledExecutorWithDMStats>();
+
+  /**
+   * Submitted to start an extra thread that takes over a task the buffer consumer is waiting to
+   * hand off. It is dropped rather than handed to the rejected execution handler if the pool has
+   * no room for another thread, so it is never buffered or run by the submitter.
+   */
+  static final Runnable START_THREAD = new Runnable() {
+    public void run() {}
+  };
+
   protected final PoolStatHelper stats;
 
+  private volatile boolean compensateBlockedThreads;
+
+  /** The maximum pool size, not counting the threads added for blocked threads. */
+  private int baseMaximumPoolSize;
+
+  /** The number of pool threads that are blocked. Guarded by this pool's compensation lock. */
+  private int blockedThreads;
+
+  private final Object compensationLock = new Object();
+
+  /** True while the buffer consumer waits for a pool thread to take a task. */
+  private volatile boolean bufferConsumerWaiting;
+
   /**
    * Create a new pool
    **/
   public PooledExecutorWithDMStats(SynchronousQueue<Runnable> q, int maxPoolSize,
       PoolStatHelper stats, ThreadFactory tf, int msTimeout, RejectedExecutionHandler reh) {
-    super(getCorePoolSize(maxPoolSize), maxPoolSize, msTimeout, TimeUnit.MILLISECONDS, q, tf, reh);
+    super(getCorePoolSize(maxPoolSize), maxPoolSize, msTimeout, TimeUnit.MILLISECONDS, q, tf,
+        new StartThreadDropper(reh));
     // if (getCorePoolSize() != 0 && getCorePoolSize() == getMaximumPoolSize()) {
     // allowCoreThreadTimeOut(true); // deadcoded for 1.5
     // }
@@ -87,7 +123,15 @@ public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
             for (;;) {
               SystemFailure.checkFailure();
               Runnable job = takeQueue.take();
-              putQueue.put(job);
+              bufferConsumerWaiting = true;
+              try {
+                if (!putQueue.offer(job)) {
+                  startCompensatingThread();
+                  putQueue.put(job);
+                }
+              } finally {
+                bufferConsumerWaiting = false;
+              }
             }
           } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
@@ -152,18 +196,99 @@ public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
 
   @Override
   protected void beforeExecute(Thread t, Runnable r) {
-    if (this.stats != null) {
+    if (this.compensateBlockedThreads) {
+      compensatingPool.set(this);
+    }
+    if (this.stats != null && r != START_THREAD) {
       this.stats.startJob();
     }
   }
 
   @Override
   protected void afterExecute(Runnable r, Throwable ex) {
-    if (this.stats != null) {
+    if (this.compensateBlockedThreads) {
+      compensatingPool.remove();
+    }
+    if (this.stats != null && r != START_THREAD) {
       this.stats.endJob();
     }
   }
 
+  /**
+   * Sets whether this pool adds a thread for each of its threads that is blocked in
+   * {@link #threadWillBlock()}. Must be called before any task is executed.
+   *
+   * @since Geode 1.3
+   */
+  public void setCompensateBlockedThreads(boolean compensate) {
+    synchronized (this.compensationLock) {
+      this.baseMaximumPoolSize = getMaximumPoolSize();
+      this.compensateBlockedThreads = compensate;
+    }
+  }
+
+  /**
+   * Called by a thread that is about to wait for something that other messages must provide. If
+   * the thread is running a task for a pool that compensates for blocked threads, that pool may
+   * start another thread while this one waits.
+   *
+   * @return the pool to pass to {@link #threadUnblocked} once the wait is over, or null
+   * @since Geode 1.3
+   */
+  public static PooledExecutorWithDMStats threadWillBlock() {
+    PooledExecutorWithDMStats pool = compensatingPool.get();
+    if (pool != null) {
+      pool.addBlockedThread();
+    }
+    return pool;
+  }
+
+  /**
+   * Undoes a call to {@link #threadWillBlock()}.
+   *
+   * @param pool the pool returned by {@link #threadWillBlock()}
+   * @since Geode 1.3
+   */
+  public static void threadUnblocked(PooledExecutorWithDMStats pool) {
+    if (pool != null) {
+      pool.removeBlockedThread();
+    }
+  }
+
+  private void addBlockedThread() {
+    synchronized (this.compensationLock) {
+      this.blockedThreads++;
+      updateMaximumPoolSize();
+    }
+    if (this.bufferConsumerWaiting || (this.bufferQueue != null && !this.bufferQueue.isEmpty())) {
+      startCompensatingThread();
+    }
+  }
+
+  /**
+   * The buffer consumer only hands tasks to idle threads, so start one for it if blocked threads
+   * have made room in the pool. Nothing happens if other threads took the room first.
+   */
+  private void startCompensatingThread() {
+    if (this.compensateBlockedThreads && getPoolSize() < getMaximumPoolSize()) {
+      execute(START_THREAD);
+    }
+  }
+
+  private void removeBlockedThread() {
+    synchronized (this.compensationLock) {
+      this.blockedThreads--;
+      updateMaximumPoolSize();
+    }
+  }
+
+  private void updateMaximumPoolSize() {
+    if (this.baseMaximumPoolSize < Integer.MAX_VALUE - this.blockedThreads) {
+      // surplus threads exit once they are idle
+      setMaximumPoolSize(this.baseMaximumPoolSize + this.blockedThreads);
+    }
+  }
+
   private static int getCorePoolSize(int maxSize) {
     if (maxSize == Integer.MAX_VALUE) {
       return 0;
@@ -180,6 +305,25 @@ public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
     }
   }
 
+  /**
+   * Drops {@link #START_THREAD} when the pool has no room for another thread, since the buffer
+   * consumer that may have submitted it would otherwise block on the full buffer queue only it
+   * drains, and hands every other rejected task to the pool's handler.
+   */
+  private static class StartThreadDropper implements RejectedExecutionHandler {
+    private final RejectedExecutionHandler handler;
+
+    StartThreadDropper(RejectedExecutionHandler handler) {
+      this.handler = handler;
+    }
+
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+      if (r != START_THREAD) {
+        this.handler.rejectedExecution(r, executor);
+      }
+    }
+  }
+
   /**
    * This guy does a put which will just wait until the queue has room.
    */
@@ -31,43 +31,59 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * Processor ids are always greater than 0.
  * </p>
+ * <p>
+ * The processors are kept in several stripes, each with its own map and its own id counter, and
+ * each thread registers its processors in one stripe, which is also encoded in the low bits of
+ * their ids. Threads that register processors at the same time therefore rarely update the same
+ * counter or map segment, and no lock is taken to generate an id.
+ * </p>
  */
 public class ProcessorKeeper21 {
 
+  /** The number of bits of an id that hold its stripe */
+  private static final int STRIPE_BITS = 4;
+
+  private static final int STRIPE_MASK = (1 << STRIPE_BITS) - 1;
+
+  /** The largest sequence number of an id within a stripe */
+  private static final int MAX_SEQUENCE = Integer.MAX_VALUE >>> STRIPE_BITS;
+
   /**
-   * Key is a unique id, value is an instance of some processor class
+   * The stripes of processors, indexed by the low bits of their ids
    */
-  private final ObjIdConcurrentMap<Object> map = new ObjIdConcurrentMap<Object>();
+  private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
 
   /**
    * If true then use weak refs to reference the processors.
    */
   private final boolean useWeakRefs;
 
-  private final AtomicInteger nextKey = new AtomicInteger(1);
-
   public ProcessorKeeper21() {
     this(true);
   }
 
   public ProcessorKeeper21(boolean useWeakRefs) {
     this.useWeakRefs = useWeakRefs;
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = new Stripe();
+    }
   }
 
-  private int getNextId() {
-    int id = this.nextKey.getAndIncrement();
-    if (id <= 0) {
+  /**
+   * Returns a new id in the given stripe. The ids of a stripe wrap around once its sequence numbers
+   * are used up.
+   */
+  private int getNextId(int stripe) {
+    final AtomicInteger nextKey = this.stripes[stripe].nextKey;
+    for (;;) {
+      int sequence = nextKey.getAndIncrement();
       // id must be >= 0 since ObjIdMap does not supports keys < 0.
       // We don't use 0 just to keep it reserved as an illegal id.
-      synchronized (this.nextKey) {
-        id = this.nextKey.get();
-        if (id <= 0) {
-          this.nextKey.set(1);
-        }
+      if (sequence > 0 && sequence <= MAX_SEQUENCE) {
+        return (sequence << STRIPE_BITS) | stripe;
       }
-      id = this.nextKey.getAndIncrement();
+      nextKey.compareAndSet(sequence + 1, 1);
     }
-    return id;
   }
 
   /**
@@ -86,9 +102,11 @@ public class ProcessorKeeper21 {
     } else {
       obj = processor;
     }
+    final int stripe = (int) Thread.currentThread().getId() & STRIPE_MASK;
+    final ObjIdConcurrentMap<Object> map = this.stripes[stripe].map;
     do {
-      id = getNextId();
-    } while (this.map.putIfAbsent(id, obj) != null);
+      id = getNextId(stripe);
+    } while (map.putIfAbsent(id, obj) != null);
     Assert.assertTrue(id > 0);
     return id;
   }
@@ -99,18 +117,19 @@ public class ProcessorKeeper21 {
    * returned.
    */
   public Object retrieve(int id) {
+    final ObjIdConcurrentMap<Object> map = this.stripes[id & STRIPE_MASK].map;
     Object o = null;
     if (this.useWeakRefs) {
-      final WeakReference<?> ref = (WeakReference<?>) this.map.get(id);
+      final WeakReference<?> ref = (WeakReference<?>) map.get(id);
       if (ref != null) {
         o = ref.get();
         if (o == null) {
           // Clean up
-          this.map.remove(id, ref);
+          map.remove(id, ref);
         }
       }
     } else {
-      o = this.map.get(id);
+      o = map.get(id);
     }
     // System.out.println("ProcessorKeeper.retrieve(" + int + ") returning " + processor);
     return o;
@@ -120,7 +139,17 @@ public class ProcessorKeeper21 {
    * Remove the processor with the given id. It's okay if no processor with that id exists.
    */
   public void remove(int id) {
-    map.remove(id);
+    this.stripes[id & STRIPE_MASK].map.remove(id);
+  }
+
+  /**
+   * The processors registered by some of the threads, and the counter of their ids
+   */
+  private static class Stripe {
+    /** Key is a unique id, value is an instance of some processor class */
+    final ObjIdConcurrentMap<Object> map = new ObjIdConcurrentMap<Object>(16, 0.75f, 4);
+
+    final AtomicInteger nextKey = new AtomicInteger(1);
   }
 
 }
@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * This class processes responses to {@link DistributionMessage}s. It handles a the generic case of
@@ -82,6 +83,22 @@ public class ReplyProcessor21 implements MembershipListener {
   public final static boolean THROW_EXCEPTION_ON_TIMEOUT =
       Boolean.getBoolean("ack-threshold-exception");
 
+  /**
+   * How long, in nanoseconds, a thread waiting for replies checks for them in a busy loop before it
+   * blocks. Replies that arrive within that time are seen without parking and unparking the waiting
+   * thread, which only pays on machines with idle cores. The default of zero disables spinning.
+   *
+   * @since Geode 1.3
+   */
+  public static final long SPIN_WAIT_NANOS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "ReplyProcessor21.SPIN_WAIT_NANOS", 0);
+
+  private static final AtomicIntegerFieldUpdater<ReplyProcessor21> remainingMembersUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(ReplyProcessor21.class, "remainingMembers");
+
+  private static final AtomicIntegerFieldUpdater<ReplyProcessor21> doneUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(ReplyProcessor21.class, "done");
+
   /**
    * the ratio by which ack-severe-alert-threshold is lowered when waiting for a BucketRegion
    * operation
@@ -100,6 +117,12 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   protected final InternalDistributedMember[] members;
 
+  /**
+   * The number of elements of {@link #members} that are not null, so that it can be read without
+   * synchronization
+   */
+  private volatile int remainingMembers;
+
   /**
    * Set to true in preWait, set to false in postWait. Used to avoid removing membership listener in
    * Runnable in postWait if we've called waitForReplies again.
@@ -115,8 +138,8 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   protected volatile ReplyException exception;
 
-  /** Have we heard back from everyone? */
-  private volatile boolean done;
+  /** Have we heard back from everyone? 1 if so, updated with compare-and-set */
+  private volatile int done;
 
   protected boolean keeperCleanedUp;
 
@@ -321,13 +344,18 @@ public class ReplyProcessor21 implements MembershipListener {
     this.latch = new StoppableCountDownLatch(cancelCriterion, 1);
     int sz = initMembers.size();
     this.members = new InternalDistributedMember[sz];
+    int remaining = 0;
     if (sz > 0) {
       int i = 0;
       for (Iterator it = initMembers.iterator(); it.hasNext(); i++) {
         this.members[i] = (InternalDistributedMember) it.next();
+        if (this.members[i] != null) {
+          remaining++;
+        }
       }
     }
-    this.done = false;
+    this.remainingMembers = remaining;
+    this.done = 0;
     this.shutdown = false;
     this.exception = null;
     if (register) {
@@ -641,7 +669,7 @@ public class ReplyProcessor21 implements MembershipListener {
       if (stillWaiting()) {
         preWait();
         try {
-          result = basicWait(msecs, latch);
+          result = blockingWait(msecs, latch);
         } catch (InterruptedException e) {
           interrupted = true;
         } finally {
@@ -667,6 +695,20 @@ public class ReplyProcessor21 implements MembershipListener {
     return result;
   }
 
+  /**
+   * Calls {@link #basicWait}, letting the pool this thread belongs to start another thread while it
+   * waits if the pool compensates for blocked threads.
+   */
+  private boolean blockingWait(long msecs, StoppableCountDownLatch latch)
+      throws InterruptedException, ReplyException {
+    PooledExecutorWithDMStats pool = PooledExecutorWithDMStats.threadWillBlock();
+    try {
+      return basicWait(msecs, latch);
+    } finally {
+      PooledExecutorWithDMStats.threadUnblocked(pool);
+    }
+  }
+
   /**
    * basicWait occurs after preWait and before postWait. Attempts to acquire the latch are made.
    * 
@@ -679,7 +721,7 @@ public class ReplyProcessor21 implements MembershipListener {
       throw new InterruptedException();
     }
 
-    if (stillWaiting()) {
+    if (stillWaiting() && !spinWait(latch)) {
       long timeout = getAckWaitThreshold() * 1000L;
       long timeSoFar = System.currentTimeMillis() - this.initTime;
       long severeAlertTimeout = getAckSevereAlertThresholdMS();
@@ -750,6 +792,25 @@ public class ReplyProcessor21 implements MembershipListener {
     return true;
   }
 
+  /**
+   * Checks the latch in a busy loop for up to {@link #SPIN_WAIT_NANOS}.
+   *
+   * @return true if the latch was released
+   * @since Geode 1.3
+   */
+  private static boolean spinWait(StoppableCountDownLatch latch) {
+    if (SPIN_WAIT_NANOS <= 0) {
+      return false;
+    }
+    final long start = System.nanoTime();
+    do {
+      if (latch.getCount() == 0) {
+        return true;
+      }
+    } while (System.nanoTime() - start < SPIN_WAIT_NANOS);
+    return false;
+  }
+
   /**
    * Wait a given number of milliseconds for the expected acks to be received. If <code>msecs</code>
    * milliseconds pass before all acknowlegdements are received, <code>false</code> is returned.
@@ -792,7 +853,7 @@ public class ReplyProcessor21 implements MembershipListener {
             long startWaitTime = System.currentTimeMillis();
             boolean interrupted = Thread.interrupted();
             try {
-              result = basicWait(msecs, latch);
+              result = blockingWait(msecs, latch);
               break;
             } catch (InterruptedException e) {
               interrupted = true; // keep looping
@@ -932,18 +993,11 @@ public class ReplyProcessor21 implements MembershipListener {
 
   /** do processing required when finished */
   protected void finished() {
-    boolean isDone = false;
-    synchronized (this) {
-      if (!this.done) { // make sure only called once
-        this.done = true;
-        isDone = true;
-        // getSync().release(); // notifies threads in waitForReplies
-        getLatch().countDown();
-      }
-    } // synchronized
-
-    // ensure that postFinish is invoked only once
-    if (isDone) {
+    // make sure only called once
+    if (doneUpdater.compareAndSet(this, 0, 1)) {
+      // getSync().release(); // notifies threads in waitForReplies
+      getLatch().countDown();
+      // ensure that postFinish is invoked only once
       postFinish();
     }
   }
@@ -984,6 +1038,7 @@ public class ReplyProcessor21 implements MembershipListener {
         InternalDistributedMember e = this.members[i];
         if (e != null && e.equals(m)) {
           this.members[i] = null;
+          remainingMembersUpdater.decrementAndGet(this);
           // we may be expecting more than one response from a member. so,
           // unless the member left, we only scrub the first occurrence of
           // the member id from the responder list
@@ -998,16 +1053,7 @@ public class ReplyProcessor21 implements MembershipListener {
   }
 
   protected int numMembers() {
-    int sz = 0;
-    synchronized (this.members) {
-      int cells = this.members.length;
-      for (int i = 0; i < cells; i++) {
-        if (this.members[i] != null) {
-          sz++;
-        }
-      }
-    } // synchronized
-    return sz;
+    return this.remainingMembers;
   }
 
   protected boolean waitingOnMember(InternalDistributedMember id) {
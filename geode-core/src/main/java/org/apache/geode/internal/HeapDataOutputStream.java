@@ -30,6 +30,7 @@ import java.io.UTFDataFormatException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -48,6 +49,9 @@ import java.util.LinkedList;
  * DataSerializer.writeObject(obj, stream); } catch (BufferOverflowException e) { succeeded = false;
  * }
  *
+ * A stream created with {@link #pooled} borrows its buffers from a {@link StreamBufferPool} and gives
+ * them back when it is closed. Its buffers grow with the amount written.
+ *
  * @since GemFire 5.0.2
  */
 public class HeapDataOutputStream extends OutputStream
@@ -70,6 +74,23 @@ public class HeapDataOutputStream extends OutputStream
   private Version version;
   private boolean doNotCopy;
 
+  /**
+   * The buffers this stream borrowed from the {@link StreamBufferPool}, or null if it does not use
+   * the pool.
+   */
+  private ArrayList<ByteBuffer> pooledBuffers;
+  private boolean pooledDirect;
+  /**
+   * True if the contents of the pooled buffers may be referenced outside this stream, in which case
+   * they are not given back to the pool.
+   */
+  private boolean pooledBuffersEscaped;
+
+  /**
+   * The buffer of a pooled stream after it is closed. Having no capacity, it is never written to.
+   */
+  private static final ByteBuffer CLOSED_BUFFER = ByteBuffer.allocate(0);
+
   private static final int INITIAL_CAPACITY = 1024;
 
   public HeapDataOutputStream(Version version) {
@@ -131,6 +152,33 @@ public class HeapDataOutputStream extends OutputStream
     this.doNotCopy = doNotCopy;
   }
 
+  /**
+   * Creates a stream that borrows its buffers from a pool, if
+   * gemfire.StreamBufferPool.ENABLED is set, and otherwise a normal stream. The stream should be
+   * closed once its contents have been sent, and its contents must not be used after that. If the
+   * contents are obtained as a byte array or buffer the buffers are not given back.
+   *
+   * @param direct true to use direct buffers, for streams that are written to a channel
+   * @since Geode 1.3
+   */
+  public static HeapDataOutputStream pooled(int allocSize, Version version, boolean doNotCopy,
+      boolean direct) {
+    if (!StreamBufferPool.ENABLED) {
+      return new HeapDataOutputStream(allocSize, version, doNotCopy);
+    }
+    return createPooled(allocSize, version, doNotCopy, direct);
+  }
+
+  static HeapDataOutputStream createPooled(int allocSize, Version version, boolean doNotCopy,
+      boolean direct) {
+    ByteBuffer initialBuffer = StreamBufferPool.acquire(allocSize < 32 ? 32 : allocSize, direct);
+    HeapDataOutputStream result = new HeapDataOutputStream(initialBuffer, version, doNotCopy);
+    result.pooledBuffers = new ArrayList<ByteBuffer>(4);
+    result.pooledBuffers.add(initialBuffer);
+    result.pooledDirect = direct;
+    return result;
+  }
+
   /**
    * Construct a HeapDataOutputStream which uses the byte array provided as its underlying
    * ByteBuffer
@@ -212,13 +260,28 @@ public class HeapDataOutputStream extends OutputStream
     if (this.chunks == null) {
       this.chunks = new LinkedList<ByteBuffer>();
     }
-    oldBuffer.flip(); // now ready for reading
-    this.size += oldBuffer.remaining();
-    this.chunks.add(oldBuffer);
+    if (oldBuffer != CLOSED_BUFFER) {
+      oldBuffer.flip(); // now ready for reading
+      this.size += oldBuffer.remaining();
+      this.chunks.add(oldBuffer);
+    }
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
-    this.buffer = ByteBuffer.allocate(amount);
+    if (this.pooledBuffers != null) {
+      // grow pooled chunks with the stream so a large value takes a few buffers, not many small ones
+      amount = Math.max(amount, Math.min(this.size, StreamBufferPool.LARGEST_CACHED_SIZE));
+    }
+    this.buffer = allocateBuffer(amount);
+  }
+
+  private ByteBuffer allocateBuffer(int capacity) {
+    if (this.pooledBuffers == null) {
+      return ByteBuffer.allocate(capacity);
+    }
+    ByteBuffer result = StreamBufferPool.acquire(capacity, this.pooledDirect);
+    this.pooledBuffers.add(result);
+    return result;
   }
 
   private void checkIfWritable() {
@@ -281,6 +344,7 @@ public class HeapDataOutputStream extends OutputStream
   }
 
   public void fillByteBufferArray(ByteBuffer[] bbArray, int offset) {
+    this.pooledBuffersEscaped = true;
     if (this.chunks != null) {
       for (ByteBuffer bb : this.chunks) {
         bbArray[offset++] = bb;
@@ -307,7 +371,7 @@ public class HeapDataOutputStream extends OutputStream
     this.chunks.add(bufToAdd);
     int newPos = oldBuffer.limit();
     if ((oldBuffer.capacity() - newPos) <= 0) {
-      this.buffer = ByteBuffer.allocate(MIN_CHUNK_SIZE);
+      this.buffer = allocateBuffer(MIN_CHUNK_SIZE);
     } else {
       oldBuffer.limit(oldBuffer.capacity());
       oldBuffer.position(newPos);
@@ -403,6 +467,7 @@ public class HeapDataOutputStream extends OutputStream
    * Returns a ByteBuffer of the unused buffer; returns null if the buffer was completely used.
    */
   public ByteBuffer finishWritingAndReturnUnusedBuffer() {
+    this.pooledBuffersEscaped = true;
     finishWriting();
     ByteBuffer result = this.buffer.duplicate();
     if (result.remaining() == 0) {
@@ -423,6 +488,21 @@ public class HeapDataOutputStream extends OutputStream
   @Override
   public void close() {
     reset();
+    releasePooledBuffers();
+  }
+
+  private void releasePooledBuffers() {
+    if (this.pooledBuffers == null || this.pooledBuffers.isEmpty()) {
+      return;
+    }
+    if (!this.pooledBuffersEscaped) {
+      for (ByteBuffer bb : this.pooledBuffers) {
+        StreamBufferPool.release(bb);
+      }
+      this.buffer = CLOSED_BUFFER;
+    }
+    this.pooledBuffers.clear();
+    this.pooledBuffersEscaped = false;
   }
 
   /**
@@ -430,6 +510,7 @@ public class HeapDataOutputStream extends OutputStream
    * written to past this point until it has been reset.
    */
   public ByteBuffer toByteBuffer() {
+    this.pooledBuffersEscaped = true;
     finishWriting();
     consolidateChunks();
     return this.buffer;
@@ -681,6 +762,7 @@ public class HeapDataOutputStream extends OutputStream
    * stream.
    */
   public InputStream getInputStream() {
+    this.pooledBuffersEscaped = true;
     return new HDInputStream();
   }
 
@@ -988,6 +1070,7 @@ public class HeapDataOutputStream extends OutputStream
       return null;
     checkIfWritable();
     ensureCapacity(8);
+    this.pooledBuffersEscaped = true;
     LongUpdater result = new LongUpdater(this.buffer);
     buffer.putLong(0L);
     return result;
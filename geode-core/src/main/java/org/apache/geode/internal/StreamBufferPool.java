@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Caches the buffers that pooled {@link HeapDataOutputStream}s write into, so that serializing a
+ * message does not allocate new buffers for every put, reply and client response. Buffers are
+ * cached by capacity, rounded up to a power of two.
+ * <p>
+ * Each thread keeps its own small cache of heap buffers, so acquiring and releasing one needs no
+ * synchronization; a buffer released on another thread simply moves to that thread's cache. Direct
+ * buffers are costly to allocate and are not freed until they are collected, so they are cached in
+ * one pool shared by all threads whose total size is bounded, rather than pinned by every thread
+ * that ever wrote to a channel. A direct buffer larger than the largest cached size is never
+ * allocated; a heap buffer is returned instead, which a channel writes just as well. Buffers that
+ * do not fit in the cache are left to the garbage collector.
+ *
+ * @since Geode 1.3
+ */
+final class StreamBufferPool {
+
+  /**
+   * Whether streams created with {@link HeapDataOutputStream#pooled} use this pool. Off by default.
+   */
+  static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "StreamBufferPool.ENABLED");
+
+  /** The most bytes of heap buffers each thread keeps cached. */
+  static final int MAX_CACHED_BYTES_PER_THREAD =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "StreamBufferPool.MAX_CACHED_BYTES",
+          256 * 1024).intValue();
+
+  /** The most bytes of direct buffers cached by all threads together. */
+  static final long MAX_CACHED_DIRECT_BYTES = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "StreamBufferPool.MAX_CACHED_DIRECT_BYTES",
+      4 * 1024 * 1024).longValue();
+
+  private static final int SMALLEST_SIZE_SHIFT = 5;
+
+  private static final int LARGEST_SIZE_SHIFT = 17;
+
+  /** Buffers larger than this are never cached. */
+  static final int LARGEST_CACHED_SIZE = 1 << LARGEST_SIZE_SHIFT;
+
+  private static final int BUFFERS_PER_SIZE = 8;
+
+  private static final ThreadLocal<ThreadCache> heapCache = new ThreadLocal<ThreadCache>() {
+    @Override
+    protected ThreadCache initialValue() {
+      return new ThreadCache();
+    }
+  };
+
+  private static final SharedCache directCache = new SharedCache(MAX_CACHED_DIRECT_BYTES);
+
+  private StreamBufferPool() {
+    // no instances
+  }
+
+  /**
+   * Returns a cleared buffer with at least the given capacity. The buffer is a heap buffer if a
+   * direct one was asked for but would be too large to cache.
+   */
+  static ByteBuffer acquire(int capacity, boolean direct) {
+    if (capacity > LARGEST_CACHED_SIZE) {
+      return ByteBuffer.allocate(capacity);
+    }
+    int sizeIndex = sizeIndex(capacity);
+    ByteBuffer result = direct ? directCache.poll(sizeIndex) : heapCache.get().poll(sizeIndex);
+    if (result == null) {
+      result = allocate(1 << (sizeIndex + SMALLEST_SIZE_SHIFT), direct);
+    }
+    return result;
+  }
+
+  /**
+   * Gives a buffer returned by {@link #acquire} back to the pool. The caller must not use it, or
+   * any view of it, afterwards.
+   */
+  static void release(ByteBuffer buffer) {
+    int capacity = buffer.capacity();
+    if (capacity > LARGEST_CACHED_SIZE || Integer.bitCount(capacity) != 1
+        || capacity < (1 << SMALLEST_SIZE_SHIFT)) {
+      return;
+    }
+    buffer.clear();
+    if (buffer.isDirect()) {
+      directCache.offer(sizeIndex(capacity), buffer);
+    } else {
+      heapCache.get().offer(sizeIndex(capacity), buffer);
+    }
+  }
+
+  /**
+   * Returns the number of bytes of direct buffers currently cached.
+   */
+  static long getCachedDirectBytes() {
+    return directCache.cachedBytes.get();
+  }
+
+  private static ByteBuffer allocate(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Returns the index of the smallest power of two, starting with 2 to the SMALLEST_SIZE_SHIFT,
+   * that is at least the given capacity.
+   */
+  private static int sizeIndex(int capacity) {
+    if (capacity <= (1 << SMALLEST_SIZE_SHIFT)) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros(capacity - 1) - SMALLEST_SIZE_SHIFT;
+  }
+
+  /**
+   * The buffers cached by one thread, as a stack per size.
+   */
+  private static class ThreadCache {
+    private final ByteBuffer[][] buffers =
+        new ByteBuffer[LARGEST_SIZE_SHIFT - SMALLEST_SIZE_SHIFT + 1][BUFFERS_PER_SIZE];
+
+    private final int[] counts = new int[LARGEST_SIZE_SHIFT - SMALLEST_SIZE_SHIFT + 1];
+
+    private int cachedBytes;
+
+    ByteBuffer poll(int sizeIndex) {
+      int count = this.counts[sizeIndex];
+      if (count == 0) {
+        return null;
+      }
+      count--;
+      ByteBuffer result = this.buffers[sizeIndex][count];
+      this.buffers[sizeIndex][count] = null;
+      this.counts[sizeIndex] = count;
+      this.cachedBytes -= result.capacity();
+      return result;
+    }
+
+    void offer(int sizeIndex, ByteBuffer buffer) {
+      int count = this.counts[sizeIndex];
+      if (count == BUFFERS_PER_SIZE
+          || this.cachedBytes + buffer.capacity() > MAX_CACHED_BYTES_PER_THREAD) {
+        return;
+      }
+      this.buffers[sizeIndex][count] = buffer;
+      this.counts[sizeIndex] = count + 1;
+      this.cachedBytes += buffer.capacity();
+    }
+  }
+
+  /**
+   * The direct buffers cached by all threads, as a queue per size, holding at most a given number
+   * of bytes.
+   */
+  private static class SharedCache {
+    private final ConcurrentLinkedQueue<ByteBuffer>[] buffers;
+
+    private final long maxCachedBytes;
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    SharedCache(long maxCachedBytes) {
+      this.maxCachedBytes = maxCachedBytes;
+      this.buffers = new ConcurrentLinkedQueue[LARGEST_SIZE_SHIFT - SMALLEST_SIZE_SHIFT + 1];
+      for (int i = 0; i < this.buffers.length; i++) {
+        this.buffers[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+      }
+    }
+
+    ByteBuffer poll(int sizeIndex) {
+      ByteBuffer result = this.buffers[sizeIndex].poll();
+      if (result != null) {
+        this.cachedBytes.addAndGet(-result.capacity());
+      }
+      return result;
+    }
+
+    void offer(int sizeIndex, ByteBuffer buffer) {
+      int capacity = buffer.capacity();
+      // reserve the bytes first so that concurrent offers cannot exceed the limit together
+      if (this.cachedBytes.addAndGet(capacity) > this.maxCachedBytes) {
+        this.cachedBytes.addAndGet(-capacity);
+        return;
+      }
+      this.buffers[sizeIndex].offer(buffer);
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.geode.internal.cache.lru.LRUStatistics;
 import org.apache.geode.internal.cache.lru.MemLRUCapacityController;
 import org.apache.geode.internal.cache.lru.NewLIFOClockHand;
 import org.apache.geode.internal.cache.lru.NewLRUClockHand;
+import org.apache.geode.internal.cache.lru.StripedLRUClockHand;
 import org.apache.geode.internal.cache.persistence.DiskRegionView;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionSource;
@@ -98,8 +99,12 @@ public abstract class AbstractLRURegionMap extends AbstractRegionMap {
      * modification for LIFO Logic incubation
      * 
      */
+    int lruSegments = StripedLRUClockHand.getConfiguredSegments();
     if (ea == EvictionAlgorithm.LIFO_ENTRY || ea == EvictionAlgorithm.LIFO_MEMORY) {
       _setLruList(new NewLIFOClockHand(owner, _getCCHelper(), internalRegionArgs));
+    } else if (lruSegments > 0) {
+      _setLruList(
+          new StripedLRUClockHand(owner, _getCCHelper(), internalRegionArgs, lruSegments));
     } else {
       _setLruList(new NewLRUClockHand(owner, _getCCHelper(), internalRegionArgs));
     }
@@ -143,6 +143,26 @@ public interface DiskEntry extends RegionEntry {
       }
     }
 
+    /**
+     * Returns the id of the oplog holding the record of the entry's current value and the offset
+     * of that record in the oplog, or null if the value has not been written to an oplog.
+     *
+     * @since Geode 1.3
+     */
+    public static long[] getOplogRecordLocation(DiskEntry entry) {
+      DiskId id = entry.getDiskId();
+      if (id == null) {
+        return null;
+      }
+      synchronized (id) {
+        long oplogId = id.getOplogId();
+        if (oplogId <= 0 || id.needsToBeWritten()) {
+          return null;
+        }
+        return new long[] {oplogId, id.getOffsetInOplog()};
+      }
+    }
+
     /**
      * Get the serialized value directly from disk. Returned object may be a
      * {@link CachedDeserializable}. Goes straight to disk without faulting into memory. Only looks
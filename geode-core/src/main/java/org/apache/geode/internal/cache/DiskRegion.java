@@ -20,6 +20,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.cache.query.internal.index.IndexCheckpoint;
 import org.apache.geode.compression.Compressor;
 import org.apache.geode.internal.cache.DiskEntry.Helper.ValueWrapper;
 import org.apache.geode.internal.cache.DiskInitFile.DiskRegionFlag;
@@ -702,6 +703,35 @@ public class DiskRegion extends AbstractDiskRegion {
     getDiskStore().prepareForClose(region, this);
   }
 
+  /**
+   * The index checkpoint read when this region's indexes were first initialized; null if there was
+   * none. Guarded by this.
+   */
+  private IndexCheckpoint indexCheckpoint;
+
+  /** True once the index checkpoint has been read. Guarded by this. */
+  private boolean indexCheckpointRead;
+
+  /**
+   * Returns the checkpoint of this region's OQL indexes written when it was last closed, or null if
+   * there is none. The checkpoint file is read, and deleted, the first time this is called.
+   */
+  public synchronized IndexCheckpoint getIndexCheckpoint() {
+    if (!this.indexCheckpointRead) {
+      this.indexCheckpointRead = true;
+      this.indexCheckpoint = getDiskStore().readIndexCheckpoint(this);
+    }
+    return this.indexCheckpoint;
+  }
+
+  void writeIndexCheckpoint(LocalRegion region) {
+    synchronized (this) {
+      // whatever was not restored from the previous checkpoint is no longer needed
+      this.indexCheckpoint = null;
+    }
+    getDiskStore().writeIndexCheckpoint(region, this);
+  }
+
   public boolean isRegionClosed() {
     return this.isRegionClosed;
   }
@@ -37,6 +37,7 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
   public boolean autoCompact;
 
   public int compactionThreshold;
+  public long compactionMaxBytesPerSecond;
   public int queueSize;
   public int writeBufferSize;
 
@@ -56,6 +57,7 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
     // set all to defaults
     this.autoCompact = DiskStoreFactory.DEFAULT_AUTO_COMPACT;
     this.compactionThreshold = DiskStoreFactory.DEFAULT_COMPACTION_THRESHOLD;
+    this.compactionMaxBytesPerSecond = DiskStoreFactory.DEFAULT_COMPACTION_MAX_BYTES_PER_SECOND;
     this.allowForceCompaction = DiskStoreFactory.DEFAULT_ALLOW_FORCE_COMPACTION;
     this.maxOplogSizeInBytes = DiskStoreFactory.DEFAULT_MAX_OPLOG_SIZE * (1024 * 1024);
     this.timeInterval = DiskStoreFactory.DEFAULT_TIME_INTERVAL;
@@ -98,6 +100,15 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
     return this.compactionThreshold;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see org.apache.geode.cache.DiskStore#getCompactionMaxBytesPerSecond()
+   */
+  public long getCompactionMaxBytesPerSecond() {
+    return this.compactionMaxBytesPerSecond;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -47,6 +47,7 @@ public class DiskStoreFactoryImpl implements DiskStoreFactory {
     setAutoCompact(attrs.getAutoCompact());
     setAllowForceCompaction(attrs.getAllowForceCompaction());
     setCompactionThreshold(attrs.getCompactionThreshold());
+    setCompactionMaxBytesPerSecond(attrs.getCompactionMaxBytesPerSecond());
     setMaxOplogSizeInBytes(attrs.getMaxOplogSizeInBytes());
     setTimeInterval(attrs.getTimeInterval());
     setWriteBufferSize(attrs.getWriteBufferSize());
@@ -102,6 +103,17 @@ public class DiskStoreFactoryImpl implements DiskStoreFactory {
     return this;
   }
 
+  public DiskStoreFactory setCompactionMaxBytesPerSecond(long compactionMaxBytesPerSecond) {
+    if (compactionMaxBytesPerSecond < 0) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DiskWriteAttributesImpl_0_HAS_TO_BE_POSITIVE_NUMBER_AND_THE_VALUE_GIVEN_1_IS_NOT_ACCEPTABLE
+              .toLocalizedString(
+                  new Object[] {"compactionMaxBytesPerSecond", compactionMaxBytesPerSecond}));
+    }
+    this.attrs.compactionMaxBytesPerSecond = compactionMaxBytesPerSecond;
+    return this;
+  }
+
   public DiskStoreFactory setTimeInterval(long timeInterval) {
     if (timeInterval < 0) {
       throw new IllegalArgumentException(
@@ -75,6 +75,8 @@ import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.DiskStoreFactory;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.persistence.PersistentID;
+import org.apache.geode.cache.query.internal.index.IndexCheckpoint;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
@@ -177,6 +179,53 @@ public class DiskStoreImpl implements DiskStore {
   public static final String RECOVER_LRU_VALUES_PROPERTY_NAME =
       DistributionConfig.GEMFIRE_PREFIX + "disk.recoverLruValues";
 
+  /**
+   * Allows oplogs that are no longer being appended to be memory mapped read-only so that faulting
+   * in values, and scanning crfs during recovery, copy bytes out of the mapping instead of doing a
+   * seek and read on the crf file for every record.
+   */
+  public static final String MMAP_READ_ONLY_OPLOGS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReadOnlyOplogs";
+
+  /**
+   * Allows synchronous writes from concurrent threads to share one flush of the oplog. Each writer
+   * still waits until its own record has been flushed.
+   */
+  public static final String GROUP_COMMIT_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit";
+
+  /**
+   * The number of threads used to recover oplogs. Drfs are read in parallel, and krfs or crfs are
+   * read ahead of the recovery scan, which still applies them in oplog order. The default of 1
+   * recovers every oplog on the recovering thread.
+   */
+  public static final String RECOVERY_THREADS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads";
+
+  /**
+   * Makes each recovery thread read all the oplogs of one disk directory, instead of any oplog,
+   * so that each directory is read sequentially by a single thread.
+   */
+  public static final String RECOVERY_THREAD_PER_DIRECTORY_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreadPerDirectory";
+
+  /**
+   * The number of live entries a compactor copies forward before it releases its locks on the
+   * oplog being compacted, so that operations such as region clear and close do not have to wait
+   * for a whole oplog to be compacted. The default of 0 holds the locks for the whole oplog unless
+   * the compactor has to wait for the disk store's compaction rate limit.
+   */
+  public static final String COMPACTION_SLICE_SIZE_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.compactionSliceSize";
+
+  /**
+   * Makes a persistent region write a checkpoint of its OQL index contents when it is closed, so
+   * that when the region is recovered its functional and hash indexes can be restored without
+   * evaluating the indexed expression of entries whose values have not changed on disk.
+   */
+  public static final String INDEX_CHECKPOINT_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.indexCheckpoint";
+
   boolean RECOVER_VALUES = getBoolean(DiskStoreImpl.RECOVER_VALUE_PROPERTY_NAME, true);
 
   boolean RECOVER_VALUES_SYNC = getBoolean(DiskStoreImpl.RECOVER_VALUES_SYNC_PROPERTY_NAME, false);
@@ -187,6 +236,20 @@ public class DiskStoreImpl implements DiskStore {
   final boolean RECOVER_LRU_VALUES =
       getBoolean(DiskStoreImpl.RECOVER_LRU_VALUES_PROPERTY_NAME, false);
 
+  final boolean MMAP_READ_ONLY_OPLOGS =
+      getBoolean(DiskStoreImpl.MMAP_READ_ONLY_OPLOGS_PROPERTY_NAME, false);
+
+  final int RECOVERY_THREADS =
+      Math.max(1, Integer.getInteger(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, 1));
+
+  final boolean RECOVERY_THREAD_PER_DIRECTORY =
+      getBoolean(DiskStoreImpl.RECOVERY_THREAD_PER_DIRECTORY_PROPERTY_NAME, false);
+
+  final int COMPACTION_SLICE_SIZE =
+      Math.max(0, Integer.getInteger(DiskStoreImpl.COMPACTION_SLICE_SIZE_PROPERTY_NAME, 0));
+
+  final boolean INDEX_CHECKPOINT = getBoolean(DiskStoreImpl.INDEX_CHECKPOINT_PROPERTY_NAME, false);
+
   public static boolean getBoolean(String sysProp, boolean def) {
     return Boolean.valueOf(System.getProperty(sysProp, Boolean.valueOf(def).toString()));
   }
@@ -287,6 +350,14 @@ public class DiskStoreImpl implements DiskStore {
 
   private final int compactionThreshold;
 
+  private final long compactionMaxBytesPerSecond;
+
+  /**
+   * Limits the rate at which compactors copy bytes forward. Null if
+   * {@link #compactionMaxBytesPerSecond} is 0.
+   */
+  private final OplogCompactionThrottle compactionThrottle;
+
   /**
    * The limit of how many items can be in the async queue before async starts blocking and a flush
    * is forced. If this value is 0 then no limit.
@@ -321,6 +392,12 @@ public class DiskStoreImpl implements DiskStore {
 
   PersistentOplogSet persistentOplogs = new PersistentOplogSet(this);
 
+  /**
+   * Batches the flushes of synchronous writes. Null unless {@link #GROUP_COMMIT_PROPERTY_NAME} is
+   * set.
+   */
+  private final OplogGroupCommitter groupCommitter;
+
   OverflowOplogSet overflowOplogs = new OverflowOplogSet(this);
 
   private final AtomicLong regionIdCtr = new AtomicLong(MIN_DRID);
@@ -405,6 +482,7 @@ public class DiskStoreImpl implements DiskStore {
     this.autoCompact = props.getAutoCompact();
     this.allowForceCompaction = props.getAllowForceCompaction();
     this.compactionThreshold = calcCompactionThreshold(props.getCompactionThreshold());
+    this.compactionMaxBytesPerSecond = props.getCompactionMaxBytesPerSecond();
     this.maxOplogSizeInBytes = props.getMaxOplogSizeInBytes();
     this.timeInterval = props.getTimeInterval();
     this.queueSize = props.getQueueSize();
@@ -417,6 +495,20 @@ public class DiskStoreImpl implements DiskStore {
     this.cache = cache;
     StatisticsFactory factory = cache.getDistributedSystem();
     this.stats = new DiskStoreStats(factory, getName());
+    if (getBoolean(GROUP_COMMIT_PROPERTY_NAME, false)) {
+      this.groupCommitter = new OplogGroupCommitter(new Runnable() {
+        public void run() {
+          persistentOplogs.flushChild();
+        }
+      }, this.stats);
+    } else {
+      this.groupCommitter = null;
+    }
+    if (this.compactionMaxBytesPerSecond > 0) {
+      this.compactionThrottle = new OplogCompactionThrottle(this.compactionMaxBytesPerSecond);
+    } else {
+      this.compactionThrottle = null;
+    }
 
     // start simple init
 
@@ -561,6 +653,7 @@ public class DiskStoreImpl implements DiskStore {
     return getAllowForceCompaction() == props.getAllowForceCompaction()
         && getAutoCompact() == props.getAutoCompact()
         && getCompactionThreshold() == props.getCompactionThreshold()
+        && getCompactionMaxBytesPerSecond() == props.getCompactionMaxBytesPerSecond()
         && getMaxOplogSizeInBytes() == props.getMaxOplogSizeInBytes()
         && getName().equals(props.getName()) && getQueueSize() == props.getQueueSize()
         && getTimeInterval() == props.getTimeInterval()
@@ -569,6 +662,23 @@ public class DiskStoreImpl implements DiskStore {
         && Arrays.equals(getDiskDirSizes(), props.getDiskDirSizes());
   }
 
+  /**
+   * Returns the group committer for synchronous writes, or null if group commit is not enabled.
+   */
+  OplogGroupCommitter getGroupCommitter() {
+    return this.groupCommitter;
+  }
+
+  /**
+   * Waits until the synchronous writes made by the calling thread have been flushed if group commit
+   * is enabled. Must not be called while holding an oplog lock.
+   */
+  void waitForGroupCommit() {
+    if (this.groupCommitter != null) {
+      this.groupCommitter.waitForCommit();
+    }
+  }
+
   /**
    * Returns the {@code DiskStoreStats} for this store
    */
@@ -2050,6 +2160,46 @@ public class DiskStoreImpl implements DiskStore {
     return this.compactionThreshold;
   }
 
+  public long getCompactionMaxBytesPerSecond() {
+    return this.compactionMaxBytesPerSecond;
+  }
+
+  /**
+   * Charges bytes copied forward by a compactor against the compaction rate limit.
+   *
+   * @return the number of nanoseconds the compactor should wait before copying more, which is
+   *         always 0 if compaction is not rate limited
+   */
+  long chargeCompaction(long bytes) {
+    getStats().incCompactBytes(bytes);
+    if (this.compactionThrottle == null) {
+      return 0;
+    }
+    return this.compactionThrottle.charge(bytes);
+  }
+
+  /**
+   * Waits for the given number of nanoseconds, returned by {@link #chargeCompaction}, unless the
+   * compactor is stopped first. Must not be called while holding compactor locks.
+   */
+  void waitForCompactionThrottle(long nanos, OplogCompactor compactor) {
+    final long start = getStats().getStatTime();
+    final long end = System.nanoTime() + nanos;
+    try {
+      long remaining = nanos;
+      while (remaining > 0 && compactor.keepCompactorRunning()) {
+        // wake up at least every 100ms so a stopped compactor does not keep waiting
+        long sleep = Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100));
+        Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+        remaining = end - System.nanoTime();
+      }
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+    } finally {
+      getStats().endCompactThrottleWait(start);
+    }
+  }
+
   private final boolean isCompactionPossible;
 
   boolean isCompactionPossible() {
@@ -2508,9 +2658,63 @@ public class DiskStoreImpl implements DiskStore {
   void beginDestroyRegion(LocalRegion region, DiskRegion dr) {
     if (dr.isBackup()) {
       getDiskInitFile().beginDestroyRegion(dr);
+      getIndexCheckpointFile(dr).delete();
     }
   }
 
+  private File getIndexCheckpointFile(DiskRegion dr) {
+    return new File(getInfoFileDir().getDir(),
+        "INDEX" + getName() + "_" + dr.getId() + IndexCheckpoint.FILE_EXT);
+  }
+
+  /**
+   * Writes a checkpoint of the OQL indexes of the given persistent region, if index checkpoints are
+   * enabled. Called when the region or its cache is closed, before its indexes are destroyed.
+   */
+  void writeIndexCheckpoint(LocalRegion region, DiskRegion dr) {
+    IndexManager indexManager = region.getIndexManager();
+    if (!INDEX_CHECKPOINT || !dr.isBackup() || indexManager == null) {
+      return;
+    }
+    File file = getIndexCheckpointFile(dr);
+    long start = this.stats.startIndexCheckpointWrite();
+    try {
+      // flush async writes so that the checkpoint records where the entries' values end up
+      forceFlush();
+      int mappings = indexManager.writeIndexCheckpoint(file, getDiskStoreID(), dr.getName());
+      this.stats.endIndexCheckpointWrite(start, mappings);
+    } catch (IOException | RuntimeException e) {
+      // a missing checkpoint only means the indexes are evaluated when the region is recovered
+      logger.info("Could not write the index checkpoint {} for region {}: {}", file,
+          dr.getName(), e.toString());
+      file.delete();
+    }
+  }
+
+  /**
+   * Reads the index checkpoint written when the given region was last closed and deletes it, so
+   * that the checkpoint is only used once.
+   *
+   * @return the checkpoint, or null if there is none or it could not be read
+   */
+  IndexCheckpoint readIndexCheckpoint(DiskRegion dr) {
+    File file = getIndexCheckpointFile(dr);
+    if (!file.exists()) {
+      return null;
+    }
+    try {
+      if (INDEX_CHECKPOINT) {
+        return IndexCheckpoint.read(file, getDiskStoreID(), dr.getName());
+      }
+    } catch (IOException | ClassNotFoundException e) {
+      logger.info("Could not read the index checkpoint {} for region {}: {}", file, dr.getName(),
+          e.toString());
+    } finally {
+      file.delete();
+    }
+    return null;
+  }
+
   private final AtomicInteger backgroundTasks = new AtomicInteger();
 
   int incBackgroundTasks() {
@@ -3534,6 +3738,11 @@ public class DiskStoreImpl implements DiskStore {
     public int size() {
       return this.ints.size() + this.longs.size();
     }
+
+    public void addAll(OplogEntryIdSet other) {
+      this.ints.addAll(other.ints);
+      this.longs.addAll(other.longs);
+    }
   }
 
   /**
@@ -73,6 +73,29 @@ public class DiskStoreStats {
 
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
+  private static final int oplogReadTimeId;
+
+  private static final int mappedOplogsId;
+  private static final int mappedOplogReadsId;
+  private static final int mappedOplogReadTimeId;
+  private static final int crfRecoveryTimeId;
+  private static final int mappedCrfRecoveryTimeId;
+
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+  private static final int groupCommitWaitsId;
+  private static final int groupCommitWaitTimeId;
+
+  private static final int compactBytesId;
+  private static final int compactSlicesId;
+  private static final int compactThrottleWaitsId;
+  private static final int compactThrottleWaitTimeId;
+
+  private static final int indexCheckpointWritesId;
+  private static final int indexCheckpointWriteTimeId;
+  private static final int indexCheckpointMappingsWrittenId;
+  private static final int indexCheckpointMappingsRestoredId;
+  private static final int indexCheckpointMappingsDiscardedId;
 
   private static final int uncreatedRecoveredRegionsId;
   private static final int backupsInProgress;
@@ -182,6 +205,58 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createLongCounter("oplogReads", "Total number of oplog reads", "reads"),
             f.createLongCounter("oplogSeeks", "Total number of oplog seeks", "seeks"),
+            f.createLongCounter("oplogReadTime",
+                "Total amount of time, in nanoseconds, spent faulting values in with a seek and read of an oplog file",
+                "nanoseconds"),
+            f.createIntGauge("mappedOplogs",
+                "Current number of read-only oplogs this disk store has memory mapped", "oplogs"),
+            f.createLongCounter("mappedOplogReads",
+                "Total number of values faulted in from a memory mapped oplog", "reads"),
+            f.createLongCounter("mappedOplogReadTime",
+                "Total amount of time, in nanoseconds, spent faulting values in from a memory mapped oplog",
+                "nanoseconds"),
+            f.createLongCounter("crfRecoveryTime",
+                "Total amount of time, in nanoseconds, spent scanning crf files with buffered file reads during recovery",
+                "nanoseconds"),
+            f.createLongCounter("mappedCrfRecoveryTime",
+                "Total amount of time, in nanoseconds, spent scanning memory mapped crf files during recovery",
+                "nanoseconds"),
+            f.createLongCounter("groupCommits",
+                "Total number of flushes done on behalf of a batch of synchronous writes",
+                "commits"),
+            f.createLongCounter("groupCommitWrites",
+                "Total number of synchronous writes made durable by group commits. Divide by groupCommits for the average batch size.",
+                "writes"),
+            f.createLongCounter("groupCommitWaits",
+                "Total number of synchronous writes that waited for a group commit", "waits"),
+            f.createLongCounter("groupCommitWaitTime",
+                "Total amount of time, in nanoseconds, synchronous writes spent waiting for a group commit",
+                "nanoseconds"),
+            f.createLongCounter("compactBytes",
+                "Total number of value bytes copied forward by oplog compacts", "bytes"),
+            f.createLongCounter("compactSlices",
+                "Total number of times an oplog compact released its locks part way through an oplog",
+                "slices"),
+            f.createLongCounter("compactThrottleWaits",
+                "Total number of times an oplog compact waited because it exceeded the disk store's compaction rate",
+                "waits"),
+            f.createLongCounter("compactThrottleWaitTime",
+                "Total amount of time, in nanoseconds, oplog compacts spent waiting because they exceeded the disk store's compaction rate",
+                "nanoseconds"),
+            f.createLongCounter("indexCheckpointWrites",
+                "Total number of OQL index checkpoints written when persistent regions were closed",
+                "checkpoints"),
+            f.createLongCounter("indexCheckpointWriteTime",
+                "Total amount of time, in nanoseconds, spent writing OQL index checkpoints",
+                "nanoseconds"),
+            f.createLongCounter("indexCheckpointMappingsWritten",
+                "Total number of index mappings written to OQL index checkpoints", "mappings"),
+            f.createLongCounter("indexCheckpointMappingsRestored",
+                "Total number of index mappings restored from OQL index checkpoints instead of evaluating the indexed expression",
+                "mappings"),
+            f.createLongCounter("indexCheckpointMappingsDiscarded",
+                "Total number of index mappings in OQL index checkpoints discarded because the entry's value had changed on disk",
+                "mappings"),
             f.createIntGauge("uncreatedRecoveredRegions",
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
@@ -227,6 +302,29 @@ public class DiskStoreStats {
     compactUpdateTimeId = type.nameToId("compactUpdateTime");
     oplogReadsId = type.nameToId("oplogReads");
     oplogSeeksId = type.nameToId("oplogSeeks");
+    oplogReadTimeId = type.nameToId("oplogReadTime");
+
+    mappedOplogsId = type.nameToId("mappedOplogs");
+    mappedOplogReadsId = type.nameToId("mappedOplogReads");
+    mappedOplogReadTimeId = type.nameToId("mappedOplogReadTime");
+    crfRecoveryTimeId = type.nameToId("crfRecoveryTime");
+    mappedCrfRecoveryTimeId = type.nameToId("mappedCrfRecoveryTime");
+
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    groupCommitWaitsId = type.nameToId("groupCommitWaits");
+    groupCommitWaitTimeId = type.nameToId("groupCommitWaitTime");
+
+    compactBytesId = type.nameToId("compactBytes");
+    compactSlicesId = type.nameToId("compactSlices");
+    compactThrottleWaitsId = type.nameToId("compactThrottleWaits");
+    compactThrottleWaitTimeId = type.nameToId("compactThrottleWaitTime");
+
+    indexCheckpointWritesId = type.nameToId("indexCheckpointWrites");
+    indexCheckpointWriteTimeId = type.nameToId("indexCheckpointWriteTime");
+    indexCheckpointMappingsWrittenId = type.nameToId("indexCheckpointMappingsWritten");
+    indexCheckpointMappingsRestoredId = type.nameToId("indexCheckpointMappingsRestored");
+    indexCheckpointMappingsDiscardedId = type.nameToId("indexCheckpointMappingsDiscarded");
 
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
@@ -499,6 +597,147 @@ public class DiskStoreStats {
     this.stats.incLong(oplogSeeksId, 1);
   }
 
+  /**
+   * Invoked after a value has been faulted in from an oplog.
+   *
+   * @param start The time at which the read started
+   * @param mapped true if the value was copied out of a memory mapped oplog
+   */
+  public void endOplogValueRead(long start, boolean mapped) {
+    long delta = getStatTime() - start;
+    if (mapped) {
+      this.stats.incLong(mappedOplogReadsId, 1);
+      this.stats.incLong(mappedOplogReadTimeId, delta);
+    } else {
+      this.stats.incLong(oplogReadTimeId, delta);
+    }
+  }
+
+  /**
+   * Invoked after a crf has been scanned during recovery.
+   *
+   * @param start The time at which the scan started
+   * @param mapped true if the crf was scanned through a memory mapping
+   */
+  public void endCrfRecovery(long start, boolean mapped) {
+    this.stats.incLong(mapped ? mappedCrfRecoveryTimeId : crfRecoveryTimeId,
+        getStatTime() - start);
+  }
+
+  public void incMappedOplogs(int delta) {
+    this.stats.incInt(mappedOplogsId, delta);
+  }
+
+  public long getOplogReads() {
+    return this.stats.getLong(oplogReadsId);
+  }
+
+  public long getMappedOplogReads() {
+    return this.stats.getLong(mappedOplogReadsId);
+  }
+
+  public int getMappedOplogs() {
+    return this.stats.getInt(mappedOplogsId);
+  }
+
+  /**
+   * Invoked after a group commit has flushed a batch of synchronous writes.
+   *
+   * @param writes the number of synchronous writes in the batch
+   */
+  public void incGroupCommits(long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+  }
+
+  /**
+   * Invoked after a synchronous write has been released by a group commit.
+   *
+   * @param start The time at which the writer started waiting
+   */
+  public void endGroupCommitWait(long start) {
+    this.stats.incLong(groupCommitWaitsId, 1);
+    this.stats.incLong(groupCommitWaitTimeId, getStatTime() - start);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
+  public void incCompactBytes(long bytes) {
+    this.stats.incLong(compactBytesId, bytes);
+  }
+
+  public void incCompactSlices() {
+    this.stats.incLong(compactSlicesId, 1);
+  }
+
+  /**
+   * Invoked after a compactor has waited for the disk store's compaction rate limit.
+   *
+   * @param start The time at which the compactor started waiting
+   */
+  public void endCompactThrottleWait(long start) {
+    this.stats.incLong(compactThrottleWaitsId, 1);
+    this.stats.incLong(compactThrottleWaitTimeId, getStatTime() - start);
+  }
+
+  public long getCompactBytes() {
+    return this.stats.getLong(compactBytesId);
+  }
+
+  public long getCompactSlices() {
+    return this.stats.getLong(compactSlicesId);
+  }
+
+  public long getCompactThrottleWaits() {
+    return this.stats.getLong(compactThrottleWaitsId);
+  }
+
+  public long startIndexCheckpointWrite() {
+    return getStatTime();
+  }
+
+  /**
+   * Invoked after an OQL index checkpoint has been written.
+   *
+   * @param start The time at which the checkpoint write started
+   * @param mappings The number of index mappings written
+   */
+  public void endIndexCheckpointWrite(long start, int mappings) {
+    this.stats.incLong(indexCheckpointWritesId, 1);
+    this.stats.incLong(indexCheckpointWriteTimeId, getStatTime() - start);
+    this.stats.incLong(indexCheckpointMappingsWrittenId, mappings);
+  }
+
+  public void incIndexCheckpointMappingsRestored(int mappings) {
+    this.stats.incLong(indexCheckpointMappingsRestoredId, mappings);
+  }
+
+  public void incIndexCheckpointMappingsDiscarded(int mappings) {
+    this.stats.incLong(indexCheckpointMappingsDiscardedId, mappings);
+  }
+
+  public long getIndexCheckpointWrites() {
+    return this.stats.getLong(indexCheckpointWritesId);
+  }
+
+  public long getIndexCheckpointMappingsWritten() {
+    return this.stats.getLong(indexCheckpointMappingsWrittenId);
+  }
+
+  public long getIndexCheckpointMappingsRestored() {
+    return this.stats.getLong(indexCheckpointMappingsRestoredId);
+  }
+
+  public long getIndexCheckpointMappingsDiscarded() {
+    return this.stats.getLong(indexCheckpointMappingsDiscardedId);
+  }
+
   public void incInactiveOplogs(int delta) {
     this.stats.incInt(inactiveOplogsId, delta);
   }
@@ -2124,6 +2124,10 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
         }
       }
 
+      if (systemFailureCause == null) {
+        writeIndexCheckpoints();
+      }
+
       this.keepAlive = keepAlive;
       this.isClosing = true;
       logger.info(LocalizedMessage.create(LocalizedStrings.GemFireCache_0_NOW_CLOSING, this));
@@ -3167,6 +3171,19 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return getRegion(path, false);
   }
 
+  /**
+   * Writes a checkpoint of the indexes of each persistent region. This is done before the cache is
+   * marked as closing because evaluating the keys of a hash index needs a usable region.
+   */
+  private void writeIndexCheckpoints() {
+    for (LocalRegion region : getAllRegions()) {
+      DiskRegion diskRegion = region.getDiskRegion();
+      if (diskRegion != null && region.getIndexManager() != null) {
+        diskRegion.writeIndexCheckpoint(region);
+      }
+    }
+  }
+
   /**
    * returns a set of all current regions in the cache, including buckets
    *
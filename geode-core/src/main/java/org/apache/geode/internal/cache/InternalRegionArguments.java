@@ -70,6 +70,8 @@ public class InternalRegionArguments {
 
   private Set<String> internalAsyncEventQueueIds;
 
+  private boolean isNearCache;
+
   /* methods that set and retrieve internal state used to configure a Region */
 
   public InternalRegionArguments setIsUsedForPartitionedRegionAdmin(boolean adminFlag) {
@@ -328,4 +330,16 @@ public class InternalRegionArguments {
     isInternalRegion = internalRegion;
     return this;
   }
+
+  /**
+   * @since Geode 1.3
+   */
+  public InternalRegionArguments setNearCache(boolean nearCache) {
+    this.isNearCache = nearCache;
+    return this;
+  }
+
+  public boolean isNearCache() {
+    return this.isNearCache;
+  }
 }
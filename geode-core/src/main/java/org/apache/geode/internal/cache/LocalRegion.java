@@ -75,6 +75,7 @@ import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.NearCache;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.cache.control.ResourceManager;
@@ -643,6 +644,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
     // initialize client to server proxy
     this.serverRegionProxy = this.getPoolName() != null ? new ServerRegionProxy(this) : null;
+    this.nearCache = internalRegionArgs.isNearCache() && this.serverRegionProxy != null
+        ? new NearCache(this) : null;
     this.imageState = new UnsharedImageState(this.serverRegionProxy != null,
         getDataPolicy().withReplication() || getDataPolicy().isPreloaded(),
         getAttributes().getDataPolicy().withPersistence(), this.stopper);
@@ -775,12 +778,26 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   final ServerRegionProxy serverRegionProxy;
 
+  /**
+   * Registers interest in the keys this client region caches, or null if it is not a near cache
+   *
+   * @since Geode 1.3
+   */
+  private final NearCache nearCache;
+
   private final InternalDataView sharedDataView;
 
   public ServerRegionProxy getServerProxy() {
     return this.serverRegionProxy;
   }
 
+  /**
+   * @since Geode 1.3
+   */
+  public NearCache getNearCache() {
+    return this.nearCache;
+  }
+
   public boolean hasServerProxy() {
     return this.serverRegionProxy != null;
   }
@@ -2155,6 +2172,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
     try {
       basicDestroy(event, false, null); // expectedOldValue
+      if (this.nearCache != null) {
+        this.nearCache.keyDropped(key);
+      }
     } catch (CacheWriterException e) {
       // cache writer not called
       throw new Error(
@@ -2626,6 +2646,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         // END operating on subregion of this region
       } // for
 
+      // when the cache is closed the checkpoint has already been written, while the indexes could
+      // still be evaluated
+      if (isClose && !this.cache.isClosed() && this.diskRegion != null
+          && this.indexManager != null) {
+        this.diskRegion.writeIndexCheckpoint(this);
+      }
       try {
         if (this.indexManager != null) {
           try {
@@ -2741,7 +2767,19 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       boolean generateCallbacks, Object localValue, boolean disableCopyOnRead, boolean preferCD,
       ClientProxyMembershipID requestingClient, EntryEventImpl clientEvent,
       boolean returnTombstones) throws CacheLoaderException, TimeoutException {
+    if (this.nearCache == null) {
+      return findObjectOnServer(keyInfo, isCreate, generateCallbacks, clientEvent);
+    }
+    this.nearCache.startUpdate(keyInfo.getKey());
+    try {
+      return findObjectOnServer(keyInfo, isCreate, generateCallbacks, clientEvent);
+    } finally {
+      this.nearCache.endUpdate();
+    }
+  }
 
+  private Object findObjectOnServer(KeyInfo keyInfo, boolean isCreate, boolean generateCallbacks,
+      EntryEventImpl clientEvent) throws CacheLoaderException, TimeoutException {
     final Object key = keyInfo.getKey();
     final Object aCallbackArgument = keyInfo.getCallbackArg();
     Object value = null;
@@ -5024,8 +5062,17 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   protected boolean basicPut(EntryEventImpl event, boolean ifNew, boolean ifOld,
       Object expectedOldValue, boolean requireOldValue)
       throws TimeoutException, CacheWriterException {
-    return getDataView().putEntry(event, ifNew, ifOld, expectedOldValue, requireOldValue, 0L,
-        false);
+    if (this.nearCache == null || event.isFromServer()) {
+      return getDataView().putEntry(event, ifNew, ifOld, expectedOldValue, requireOldValue, 0L,
+          false);
+    }
+    this.nearCache.startUpdate(event.getKey());
+    try {
+      return getDataView().putEntry(event, ifNew, ifOld, expectedOldValue, requireOldValue, 0L,
+          false);
+    } finally {
+      this.nearCache.endUpdate();
+    }
   }
 
   /**
@@ -6530,6 +6577,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   void expireDestroy(final EntryEventImpl event, final boolean cacheWrite) {
     basicDestroy(event, cacheWrite, null);
+    if (this.nearCache != null) {
+      this.nearCache.keyDropped(event.getKey());
+    }
   }
 
   void expireInvalidate(final EntryEventImpl event) {
@@ -6566,9 +6616,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     final EntryEventImpl event = generateEvictDestroyEvent(entry.getKey());
 
     try {
-      return mapDestroy(event, false, // cacheWrite
+      boolean evicted = mapDestroy(event, false, // cacheWrite
           true, // isEviction
           null); // expectedOldValue
+      if (evicted && this.nearCache != null) {
+        this.nearCache.keyDropped(event.getKey());
+      }
+      return evicted;
     } catch (CacheWriterException error) {
       throw new Error(
           LocalizedStrings.LocalRegion_CACHE_WRITER_SHOULD_NOT_HAVE_BEEN_CALLED_FOR_EVICTDESTROY
@@ -9098,7 +9152,6 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   Map basicGetAll(Collection keys, Object callback) {
     final boolean isDebugEnabled = logger.isDebugEnabled();
-    final boolean isTraceEnabled = logger.isTraceEnabled();
 
     if (isDebugEnabled) {
       logger.debug("Processing getAll request for: {}", keys);
@@ -9138,80 +9191,14 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
       // Send the rest of the keys to the server (if necessary)
       if (!keysList.isEmpty()) {
-        VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
-        if (isDebugEnabled) {
-          logger.debug("remote getAll results are {}", remoteResults);
-        }
-
-        // Add remote results to local cache and all results if successful
-        for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
-          VersionedObjectList.Entry entry = it.next();
-          Object key = entry.getKey();
-          boolean notOnServer = entry.isKeyNotOnServer();
-          // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
-          boolean createTombstone = false;
-          if (notOnServer) {
-            createTombstone = entry.getVersionTag() != null && this.concurrencyChecksEnabled;
-            allResults.put(key, null);
-            if (isDebugEnabled) {
-              logger.debug("Added remote result for missing key: {}", key);
-            }
-            if (!createTombstone) {
-              continue;
-            }
-          }
-
-          Object value;
-          if (createTombstone) {
-            // the value is null in this case, so use TOKEN_TOMBSTONE
-            value = Token.TOMBSTONE;
-          } else {
-            value = entry.getObject();
-          }
-
-          if (value instanceof Throwable) {
-            continue;
-          }
-
-          // The following basicPutEntry needs to be done
-          // even if we do not have storage so that the
-          // correct events will be delivered to any callbacks we have.
-          long startPut = CachePerfStats.getStatTime();
-          validateKey(key);
-
-          @Released
-          EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key,
-              value, callback, false, getMyId(), true);
-
+        if (this.nearCache == null) {
+          getAllFromServer(keysList, callback, allResults);
+        } else {
+          this.nearCache.startUpdate(keysList);
           try {
-            event.setFromServer(true);
-            event.setVersionTag(entry.getVersionTag());
-
-            if (!alreadyInvalid(key, event)) {
-              // bug #47716 - don't update if it's already here & invalid
-              TXStateProxy txState = this.cache.getTXMgr().internalSuspend();
-              try {
-                basicPutEntry(event, 0L);
-              } catch (ConcurrentCacheModificationException e) {
-                if (isDebugEnabled) {
-                  logger.debug(
-                      "getAll result for {} not stored in cache due to concurrent modification",
-                      key, e);
-                }
-              } finally {
-                this.cache.getTXMgr().internalResume(txState);
-              }
-              getCachePerfStats().endPut(startPut, event.isOriginRemote());
-            }
-
-            if (!createTombstone) {
-              allResults.put(key, value);
-              if (isTraceEnabled) {
-                logger.trace("Added remote result for getAll request: {}, {}", key, value);
-              }
-            }
+            getAllFromServer(keysList, callback, allResults);
           } finally {
-            event.release();
+            this.nearCache.endUpdate();
           }
         }
       }
@@ -9232,6 +9219,92 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return allResults;
   }
 
+  /**
+   * Gets the values of the given keys from the server, stores them in this region and adds them to
+   * the given results.
+   */
+  private void getAllFromServer(List keysList, Object callback, Map allResults) {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
+    final boolean isTraceEnabled = logger.isTraceEnabled();
+
+    VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
+    if (isDebugEnabled) {
+      logger.debug("remote getAll results are {}", remoteResults);
+    }
+
+    // Add remote results to local cache and all results if successful
+    for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
+      VersionedObjectList.Entry entry = it.next();
+      Object key = entry.getKey();
+      boolean notOnServer = entry.isKeyNotOnServer();
+      // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
+      boolean createTombstone = false;
+      if (notOnServer) {
+        createTombstone = entry.getVersionTag() != null && this.concurrencyChecksEnabled;
+        allResults.put(key, null);
+        if (isDebugEnabled) {
+          logger.debug("Added remote result for missing key: {}", key);
+        }
+        if (!createTombstone) {
+          continue;
+        }
+      }
+
+      Object value;
+      if (createTombstone) {
+        // the value is null in this case, so use TOKEN_TOMBSTONE
+        value = Token.TOMBSTONE;
+      } else {
+        value = entry.getObject();
+      }
+
+      if (value instanceof Throwable) {
+        continue;
+      }
+
+      // The following basicPutEntry needs to be done
+      // even if we do not have storage so that the
+      // correct events will be delivered to any callbacks we have.
+      long startPut = CachePerfStats.getStatTime();
+      validateKey(key);
+
+      @Released
+      EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key, value,
+          callback, false, getMyId(), true);
+
+      try {
+        event.setFromServer(true);
+        event.setVersionTag(entry.getVersionTag());
+
+        if (!alreadyInvalid(key, event)) {
+          // bug #47716 - don't update if it's already here & invalid
+          TXStateProxy txState = this.cache.getTXMgr().internalSuspend();
+          try {
+            basicPutEntry(event, 0L);
+          } catch (ConcurrentCacheModificationException e) {
+            if (isDebugEnabled) {
+              logger.debug(
+                  "getAll result for {} not stored in cache due to concurrent modification",
+                  key, e);
+            }
+          } finally {
+            this.cache.getTXMgr().internalResume(txState);
+          }
+          getCachePerfStats().endPut(startPut, event.isOriginRemote());
+        }
+
+        if (!createTombstone) {
+          allResults.put(key, value);
+          if (isTraceEnabled) {
+            logger.trace("Added remote result for getAll request: {}, {}", key, value);
+          }
+        }
+      } finally {
+        event.release();
+      }
+    }
+  }
+
   /**
    * Return false if it will never store entry ekys and values locally; otherwise return true.
    */
@@ -9368,9 +9441,15 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     long startPut = CachePerfStats.getStatTime();
     final DistributedPutAllOperation putAllOp = newPutAllOperation(map, aCallbackArgument);
     if (putAllOp != null) {
+      if (this.nearCache != null) {
+        this.nearCache.startUpdate(new ArrayList(map.keySet()));
+      }
       try {
         basicPutAll(map, putAllOp, null);
       } finally {
+        if (this.nearCache != null) {
+          this.nearCache.endUpdate();
+        }
         putAllOp.getBaseEvent().release();
         putAllOp.freeOffHeapResources();
       }
@@ -26,10 +26,14 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.SyncFailedException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -1890,10 +1894,18 @@ public class Oplog implements CompactableOplog, Flushable {
       int recordCount = 0;
       boolean foundDiskStoreRecord = false;
       FileInputStream fis = null;
+      final long scanStart = this.stats.getStatTime();
+      final MappedByteBuffer mappedCrf =
+          getParent().MMAP_READ_ONLY_OPLOGS ? mapCrf(this.crf.f.length()) : null;
       try {
-        fis = new FileInputStream(this.crf.f);
-        dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024),
-            this.crf.f.length());
+        if (mappedCrf != null) {
+          dis = new CountingDataInputStream(new MappedCrfInputStream(mappedCrf),
+              mappedCrf.capacity());
+        } else {
+          fis = new FileInputStream(this.crf.f);
+          dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024),
+              this.crf.f.length());
+        }
         boolean endOfLog = false;
         while (!endOfLog) {
           // long startPosition = byteCount;
@@ -1990,6 +2002,7 @@ public class Oplog implements CompactableOplog, Flushable {
         if (fis != null) {
           fis.close();
         }
+        this.stats.endCrfRecovery(scanStart, mappedCrf != null);
       }
       if (!foundDiskStoreRecord && recordCount > 0) {
         throw new DiskAccessException(
@@ -3304,6 +3317,7 @@ public class Oplog implements CompactableOplog, Flushable {
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* crf */) {
       unpreblow(this.crf, getMaxCrfSize());
+      releaseMappedCrf();
       if (!this.crf.RAFClosed) {
         try {
           this.crf.channel.close();
@@ -3519,6 +3533,9 @@ public class Oplog implements CompactableOplog, Flushable {
           userBits = EntryBits.setWithVersions(userBits, true);
         }
         basicCreate(region.getDiskRegion(), entry, value, userBits, async);
+        if (!async) {
+          getParent().waitForGroupCommit();
+        }
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
@@ -3630,7 +3647,7 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, true, true);
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -4225,6 +4242,26 @@ public class Oplog implements CompactableOplog, Flushable {
     return new File(this.diskFile.getPath() + KRF_FILE_EXT);
   }
 
+  /**
+   * Returns the file that {@link #recoverCrf} will scan: the krf if there is one and values are
+   * not recovered synchronously, otherwise the crf. Returns null if this oplog has no crf.
+   */
+  File getRecoveryScanFile(boolean recoverValuesSync) {
+    File crfFile = this.crf.f;
+    if (crfFile == null) {
+      return null;
+    }
+    if (!recoverValuesSync) {
+      String crfPath = crfFile.getPath();
+      File krfFile = new File(
+          crfPath.substring(0, crfPath.length() - CRF_FILE_EXT.length()) + KRF_FILE_EXT);
+      if (krfFile.exists()) {
+        return krfFile;
+      }
+    }
+    return crfFile;
+  }
+
   public List<KRFEntry> getSortedLiveEntries(Collection<DiskRegionInfo> targetRegions) {
     int tlc = (int) this.totalLiveCount.get();
     if (tlc <= 0) {
@@ -4377,6 +4414,7 @@ public class Oplog implements CompactableOplog, Flushable {
           entry.getDiskId().setPendingAsync(false);
           try {
             getOplogSet().getChild().basicRemove(dr, entry, false, false);
+            getParent().waitForGroupCommit();
           } catch (IOException ex) {
             getParent().getCancelCriterion().checkCancelInProgress(ex);
             throw new DiskAccessException(LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0
@@ -4438,6 +4476,9 @@ public class Oplog implements CompactableOplog, Flushable {
           userBits = EntryBits.setWithVersions(userBits, true);
         }
         basicModify(region.getDiskRegion(), entry, value, userBits, async, false);
+        if (!async) {
+          getParent().waitForGroupCommit();
+        }
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
@@ -4483,6 +4524,7 @@ public class Oplog implements CompactableOplog, Flushable {
         userBits = EntryBits.setWithVersions(userBits, true);
       }
       basicModify(drv, entry, vw, userBits, false, false);
+      getParent().waitForGroupCommit();
     } catch (IOException ex) {
       throw new DiskAccessException(
           LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(this.diskFile.getPath()),
@@ -4502,6 +4544,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } else {
       try {
         basicSaveConflictVersionTag(region.getDiskRegion(), tag, async);
+        if (!async) {
+          getParent().waitForGroupCommit();
+        }
       } catch (IOException ex) {
         region.getCancelCriterion().checkCancelInProgress(ex);
         throw new DiskAccessException(LocalizedStrings.Oplog_FAILED_CONFLICT_VERSION_TAG_0
@@ -4624,7 +4669,7 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, true, true);
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4748,7 +4793,7 @@ public class Oplog implements CompactableOplog, Flushable {
               throw cce;
             }
             this.firstRecord = false;
-            writeOpLogBytes(this.crf, async, true);
+            writeOpLogBytes(this.crf, async, true, true);
             this.crf.currSize = temp;
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
               logger.trace(LogMarker.PERSIST_WRITES,
@@ -4911,6 +4956,9 @@ public class Oplog implements CompactableOplog, Flushable {
       int len = did.getValueLength();
       try {
         basicRemove(dr, entry, async, isClear);
+        if (!async) {
+          getParent().waitForGroupCommit();
+        }
       } catch (IOException ex) {
         exceptionOccurred = true;
         getParent().getCancelCriterion().checkCancelInProgress(ex);
@@ -5092,7 +5140,7 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, true, true);
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5304,6 +5352,16 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private long writeOpLogBytes(OplogFile olf, boolean async, boolean doFlushIfSync)
       throws IOException {
+    return writeOpLogBytes(olf, async, doFlushIfSync, false);
+  }
+
+  /**
+   * @param groupCommit true if the caller will call {@link DiskStoreImpl#waitForGroupCommit} once
+   *        it has released the oplog lock, in which case a synchronous write is left for the group
+   *        commit to flush when group commit is enabled
+   */
+  private long writeOpLogBytes(OplogFile olf, boolean async, boolean doFlushIfSync,
+      boolean groupCommit) throws IOException {
     long startPos = -1L;
     getParent().getBackupLock().lock();
     try {
@@ -5328,7 +5386,12 @@ public class Oplog implements CompactableOplog, Flushable {
         // " was not > lastWritePos=" + lastWritePos);
         long bytesWritten = this.opState.write(olf);
         if (!async && doFlushIfSync) {
-          flushAndSync(olf);
+          OplogGroupCommitter groupCommitter = getParent().getGroupCommitter();
+          if (groupCommit && groupCommitter != null) {
+            groupCommitter.appended();
+          } else {
+            flushAndSync(olf);
+          }
         }
         getStats().incWrittenBytes(bytesWritten, async);
 
@@ -5398,8 +5461,95 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Set if mapping the crf failed so that we stop trying and read from the file instead.
+   */
+  private boolean crfMapFailed;
+
+  /**
+   * Returns a read-only mapping of this oplog's crf if the disk store maps read-only oplogs and
+   * this oplog is no longer being appended to; otherwise null. The mapping is created the first
+   * time it is asked for and is released when the oplog is closed.
+   */
+  private ByteBuffer getMappedCrf() {
+    if (!getParent().MMAP_READ_ONLY_OPLOGS) {
+      return null;
+    }
+    MappedByteBuffer result = this.crf.mappedBuf; // volatile read
+    if (result == null) {
+      // No need to get the backup lock prior to synchronizing (correct lock order) since the
+      // synchronized block does not attempt to get the backup lock (incorrect lock order)
+      synchronized (this.lock/* crf */) {
+        result = this.crf.mappedBuf;
+        if (result == null && this.doneAppending && !this.closed && !this.crfMapFailed) {
+          result = mapCrf(this.crf.bytesFlushed);
+          if (result != null) {
+            this.crf.mappedBuf = result;
+            this.stats.incMappedOplogs(1);
+          } else {
+            this.crfMapFailed = true;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Maps the first <code>length</code> bytes of the crf read-only. Returns null if the crf can not
+   * be mapped with a single buffer or the mapping fails, in which case the caller should read the
+   * file instead.
+   */
+  private MappedByteBuffer mapCrf(long length) {
+    if (length <= 0 || length > Integer.MAX_VALUE) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(this.crf.f.toPath(), StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    } catch (IOException ex) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not memory map {}; reading it with file io instead", this.crf.f, ex);
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Drops this oplog's crf mapping. Readers that already obtained the mapping can keep using it;
+   * the memory is unmapped once it is no longer referenced.
+   */
+  private void releaseMappedCrf() {
+    if (this.crf.mappedBuf != null) {
+      this.crf.mappedBuf = null;
+      this.stats.incMappedOplogs(-1);
+    }
+  }
+
+  private static void readMappedCrf(ByteBuffer mappedCrf, long offsetInOplog, byte[] valueBytes,
+      int valueLength) {
+    ByteBuffer bb = mappedCrf.duplicate();
+    bb.position((int) offsetInOplog);
+    bb.get(valueBytes, 0, valueLength);
+  }
+
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
+    final ByteBuffer mappedCrf = getMappedCrf();
+    if (mappedCrf != null && offsetInOplog >= 0
+        && (offsetInOplog + valueLength) <= mappedCrf.capacity()) {
+      final long start = this.stats.getStatTime();
+      byte[] valueBytes = new byte[valueLength];
+      readMappedCrf(mappedCrf, offsetInOplog, valueBytes, valueLength);
+      this.stats.endOplogValueRead(start, true);
+      BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+      // also set the product version for an older product
+      final Version version = getProductVersionIfOld();
+      if (version != null) {
+        bb.setVersion(version);
+      }
+      return bb;
+    }
     boolean didReopen = false;
     boolean accessedInactive = false;
     try {
@@ -5448,11 +5598,13 @@ public class Oplog implements CompactableOplog, Flushable {
                   dr.getName());
             }
             try {
+              final long start = this.stats.getStatTime();
               myRAF.seek(offsetInOplog);
               this.stats.incOplogSeeks();
               byte[] valueBytes = new byte[valueLength];
               myRAF.readFully(valueBytes);
               this.stats.incOplogReads();
+              this.stats.endOplogValueRead(start, false);
               bb = new BytesAndBits(valueBytes, userBits);
               // also set the product version for an older product
               final Version version = getProductVersionIfOld();
@@ -5584,6 +5736,19 @@ public class Oplog implements CompactableOplog, Flushable {
                                                          */);
       }
     } else {
+      final ByteBuffer mappedCrf = getMappedCrf();
+      if (mappedCrf != null && offsetInOplog >= 0
+          && (offsetInOplog + valueLength) <= mappedCrf.capacity()) {
+        final long start = this.stats.getStatTime();
+        byte[] valueBytes = wrapper.getBytes();
+        if (valueBytes.length < valueLength) {
+          valueBytes = new byte[valueLength];
+        }
+        readMappedCrf(mappedCrf, offsetInOplog, valueBytes, valueLength);
+        this.stats.endOplogValueRead(start, true);
+        wrapper.setData(valueBytes, userBits, valueLength, true);
+        return true;
+      }
       try {
         // No need to get the backup lock prior to synchronizing (correct lock order) since the
         // synchronized block does not attempt to get the backup lock (incorrect lock order)
@@ -6091,11 +6256,16 @@ public class Oplog implements CompactableOplog, Flushable {
                                  * getParent().getOwner().isDestroyed ||
                                  */!compactor.keepCompactorRunning();
         int totalCount = 0;
+        final int sliceSize = getParent().COMPACTION_SLICE_SIZE;
         for (DiskRegionInfo dri : this.regionMap.values()) {
+          if (compactFailed) {
+            break;
+          }
           final DiskRegionView dr = dri.getDiskRegion();
           if (dr == null)
             continue;
           boolean didCompact = false;
+          int compactedBytes = 0;
           while ((de = dri.getNextLiveEntry()) != null) {
             if (/*
                  * getParent().getOwner().isDestroyed ||
@@ -6131,6 +6301,8 @@ public class Oplog implements CompactableOplog, Flushable {
                     }
                     continue;
                   }
+                  compactedBytes = wrapper.getOffHeapData() != null
+                      ? wrapper.getOffHeapData().getDataSize() : wrapper.getValidLength();
                   // write it to the current oplog
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
@@ -6152,6 +6324,14 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              long throttleWait = getParent().chargeCompaction(compactedBytes);
+              if (throttleWait > 0 || (sliceSize > 0 && totalCount % sliceSize == 0)) {
+                if (!yieldCompaction(compactor, throttleWait)) {
+                  compactFailed = true;
+                  break;
+                }
+                opStart = getStats().getStatTime();
+              }
             }
           }
         }
@@ -6175,6 +6355,32 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Releases the locks held by {@link #compact} part way through this oplog, so that operations
+   * that need them are not blocked for the whole compaction, waits for the compaction rate limit
+   * if needed, and then reacquires the locks.
+   *
+   * @param throttleWait the number of nanoseconds to wait for the compaction rate limit
+   * @return false if compaction of this oplog should not continue
+   */
+  private boolean yieldCompaction(OplogCompactor compactor, long throttleWait) {
+    getStats().incCompactSlices();
+    unlockCompactor();
+    getParent().releaseCompactorReadLock();
+    try {
+      if (throttleWait > 0) {
+        getParent().waitForCompactionThrottle(throttleWait, compactor);
+      } else {
+        Thread.yield();
+      }
+    } finally {
+      getParent().acquireCompactorReadLock();
+      lockCompactor();
+    }
+    // this oplog may have been destroyed, for example by a region clear, while unlocked
+    return compactor.keepCompactorRunning() && !this.closed && !isDeleted();
+  }
+
   public static boolean isCRFFile(String filename) {
     return filename.endsWith(Oplog.CRF_FILE_EXT);
   }
@@ -6404,11 +6610,60 @@ public class Oplog implements CompactableOplog, Flushable {
     public volatile boolean RAFClosed = true;
     public UninterruptibleFileChannel channel;
     public ByteBuffer writeBuf;
+    public volatile MappedByteBuffer mappedBuf;
     public long currSize;
     public long bytesFlushed;
     public boolean unpreblown;
   }
 
+  /**
+   * Reads a memory mapped crf during recovery. Unlike
+   * {@link org.apache.geode.internal.tcp.ByteBufferInputStream} this reports the end of the mapping
+   * as end of stream so that a partially written last record shows up as an {@link EOFException}
+   * just like it does when the crf is read from the file.
+   */
+  private static class MappedCrfInputStream extends InputStream {
+    private final ByteBuffer bb;
+
+    MappedCrfInputStream(ByteBuffer bb) {
+      this.bb = bb;
+    }
+
+    @Override
+    public int read() {
+      if (!this.bb.hasRemaining()) {
+        return -1;
+      }
+      return this.bb.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      int remaining = this.bb.remaining();
+      if (remaining == 0) {
+        return -1;
+      }
+      int count = Math.min(len, remaining);
+      this.bb.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, this.bb.remaining()));
+      this.bb.position(this.bb.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return this.bb.remaining();
+    }
+  }
+
   private static class KRFile {
     public File f;
     FileOutputStream fos;
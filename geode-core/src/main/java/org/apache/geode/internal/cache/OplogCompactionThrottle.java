@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that limits the rate at which the compactors of a disk store copy bytes forward.
+ * The bucket holds at most one second's worth of bytes. A compactor charges the bytes it copied
+ * after the fact, which may put the bucket into debt, and is then told how long to wait for the
+ * debt to be paid off before copying more.
+ *
+ * @since Geode 1.3
+ */
+class OplogCompactionThrottle {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final long bytesPerSecond;
+
+  /** Bytes that may be copied without waiting; negative when in debt. Guarded by this */
+  private long available;
+
+  /** The time the bucket was last refilled. Guarded by this */
+  private long lastRefill;
+
+  /**
+   * @param bytesPerSecond the maximum compaction rate; must be greater than zero
+   */
+  OplogCompactionThrottle(long bytesPerSecond) {
+    if (bytesPerSecond <= 0) {
+      throw new IllegalArgumentException("bytesPerSecond must be positive: " + bytesPerSecond);
+    }
+    this.bytesPerSecond = bytesPerSecond;
+    this.available = bytesPerSecond;
+    this.lastRefill = System.nanoTime();
+  }
+
+  long getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * Charges the given number of copied bytes against the bucket.
+   *
+   * @return the number of nanoseconds the caller should wait before copying more bytes
+   */
+  synchronized long charge(long bytes) {
+    long now = System.nanoTime();
+    long elapsed = now - this.lastRefill;
+    if (elapsed > 0) {
+      double refill = (double) elapsed * this.bytesPerSecond / NANOS_PER_SECOND;
+      if (refill >= 1) {
+        this.available = (long) Math.min(this.bytesPerSecond, this.available + refill);
+        this.lastRefill = now;
+      }
+    }
+    this.available -= bytes;
+    if (this.available >= 0) {
+      return 0;
+    }
+    return (long) ((double) -this.available * NANOS_PER_SECOND / this.bytesPerSecond);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batches the flushes done for synchronous oplog writes. A synchronous writer appends its record
+ * to the oplog write buffer, calls {@link #appended} while still holding the oplog lock, and then
+ * calls {@link #waitForCommit} once it has released all oplog locks. The first waiter to find no
+ * commit in progress becomes the leader and flushes (and forces, if configured) everything
+ * appended so far with one write; the other waiters block until a commit covers their record.
+ *
+ * <p>
+ * A writer is only released once its own record has been flushed, so the durability seen by each
+ * caller is the same as when every write is flushed individually.
+ *
+ * @since Geode 1.3
+ */
+class OplogGroupCommitter {
+
+  private final Runnable commitAction;
+
+  private final DiskStoreStats stats;
+
+  /** Number of records appended so far */
+  private final AtomicLong appendedCount = new AtomicLong();
+
+  private final Object commitLock = new Object();
+
+  /** Number of appended records known to be flushed. Guarded by commitLock */
+  private long committedCount;
+
+  /** True while a leader is flushing. Guarded by commitLock */
+  private boolean committing;
+
+  /**
+   * @param commitAction flushes every record appended before it was called
+   */
+  OplogGroupCommitter(Runnable commitAction, DiskStoreStats stats) {
+    this.commitAction = commitAction;
+    this.stats = stats;
+  }
+
+  /**
+   * Records that a synchronous write has been appended but not yet flushed. Must be called while
+   * holding the lock of the oplog that was appended to.
+   */
+  void appended() {
+    this.appendedCount.incrementAndGet();
+  }
+
+  /**
+   * Blocks until every record appended by the calling thread has been flushed, flushing it on
+   * behalf of all waiters if no other thread is already doing so. Must not be called while holding
+   * an oplog lock.
+   */
+  void waitForCommit() {
+    final long target = this.appendedCount.get();
+    final long start = this.stats.getStatTime();
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        synchronized (this.commitLock) {
+          if (this.committedCount >= target) {
+            break;
+          }
+          if (this.committing) {
+            try {
+              this.commitLock.wait();
+            } catch (InterruptedException ignore) {
+              // keep waiting; the caller needs its write to be durable
+              interrupted = true;
+            }
+            continue;
+          }
+          this.committing = true;
+        }
+        commit();
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    this.stats.endGroupCommitWait(start);
+  }
+
+  private void commit() {
+    final long batchEnd = this.appendedCount.get();
+    boolean committed = false;
+    try {
+      this.commitAction.run();
+      committed = true;
+    } finally {
+      synchronized (this.commitLock) {
+        this.committing = false;
+        if (committed && batchEnd > this.committedCount) {
+          this.stats.incGroupCommits(batchEnd - this.committedCount);
+          this.committedCount = batchEnd;
+        }
+        // wake everyone so that a new leader is chosen if this commit failed
+        this.commitLock.notifyAll();
+      }
+    }
+  }
+}
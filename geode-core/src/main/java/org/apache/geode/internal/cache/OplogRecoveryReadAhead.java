@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Reads ahead the krf or crf files that recovery is about to scan so that the scan, which has to
+ * apply entries to the region maps in oplog order on a single thread, finds them in the OS page
+ * cache. Each group of oplogs, usually all the oplogs of one disk directory, is read by its own
+ * thread so that the groups are read in parallel. An oplog is only read once the scan is within
+ * <code>window</code> oplogs of it, and is skipped if the scan has already passed it.
+ *
+ * @since Geode 1.3
+ */
+class OplogRecoveryReadAhead {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+  private final ExecutorService pool;
+
+  private final int window;
+
+  private final boolean recoverValuesSync;
+
+  /** The position of each oplog in the order the scan recovers them */
+  private final Map<Oplog, Integer> scanOrder = new IdentityHashMap<Oplog, Integer>();
+
+  private final Object lock = new Object();
+
+  /** Number of oplogs the scan has recovered. Guarded by lock */
+  private int recovered;
+
+  /** Guarded by lock */
+  private boolean stopped;
+
+  /**
+   * @param pool the threads to read with; shut down by {@link #stop}
+   * @param oplogs the oplogs in the order the scan will recover them
+   * @param groups the oplogs to read, each list in the order the scan will recover them
+   * @param window the number of oplogs that may be read ahead of the scan
+   * @param recoverValuesSync true if the scan reads crfs even when there is a krf
+   */
+  OplogRecoveryReadAhead(ExecutorService pool, Collection<Oplog> oplogs,
+      List<List<Oplog>> groups, int window, boolean recoverValuesSync) {
+    this.pool = pool;
+    this.window = window;
+    this.recoverValuesSync = recoverValuesSync;
+    for (Oplog oplog : oplogs) {
+      this.scanOrder.put(oplog, this.scanOrder.size());
+    }
+    for (final List<Oplog> group : groups) {
+      pool.execute(new Runnable() {
+        public void run() {
+          readAhead(group);
+        }
+      });
+    }
+  }
+
+  /**
+   * Called by the scan each time it has finished recovering an oplog.
+   */
+  void oplogRecovered() {
+    synchronized (this.lock) {
+      this.recovered++;
+      this.lock.notifyAll();
+    }
+  }
+
+  /**
+   * Stops reading ahead. Must be called once the scan is done, even if it failed.
+   */
+  void stop() {
+    synchronized (this.lock) {
+      this.stopped = true;
+      this.lock.notifyAll();
+    }
+    this.pool.shutdownNow();
+  }
+
+  private void readAhead(List<Oplog> group) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    for (Oplog oplog : group) {
+      if (!waitForWindow(this.scanOrder.get(oplog))) {
+        continue;
+      }
+      File file = oplog.getRecoveryScanFile(this.recoverValuesSync);
+      if (file != null) {
+        readFile(file, buffer);
+      }
+    }
+  }
+
+  /**
+   * Waits until the oplog at the given position is within the window.
+   *
+   * @return false if the oplog should not be read because the scan has passed it or read ahead has
+   *         been stopped
+   */
+  private boolean waitForWindow(int position) {
+    synchronized (this.lock) {
+      while (!this.stopped && position >= this.recovered + this.window) {
+        try {
+          this.lock.wait();
+        } catch (InterruptedException ignore) {
+          // interrupted by stop
+          return false;
+        }
+      }
+      return !this.stopped && position >= this.recovered;
+    }
+  }
+
+  private void readFile(File file, ByteBuffer buffer) {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      do {
+        buffer.clear();
+      } while (!isStopped() && channel.read(buffer) > 0);
+    } catch (IOException e) {
+      // this is only an optimization; the scan will report any real problem with the file
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not read ahead {}", file, e);
+      }
+    }
+  }
+
+  private boolean isStopped() {
+    synchronized (this.lock) {
+      return this.stopped;
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
@@ -33,6 +34,8 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,6 +45,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -426,6 +437,116 @@ public class PersistentOplogSet implements OplogSet {
     }
   }
 
+  /**
+   * Reads the drfs of the given oplogs on up to {@link DiskStoreImpl#RECOVERY_THREADS} threads.
+   * Each drf is read into its own set, and the sets are then added to deletedIds in oplog order.
+   *
+   * @return the number of bytes read
+   */
+  private long recoverDrfsInParallel(TreeSet<Oplog> oplogSet, OplogEntryIdSet deletedIds) {
+    final boolean alreadyRecovered = this.alreadyRecoveredOnce.get();
+    final Oplog latest = oplogSet.first();
+    final Map<Oplog, OplogEntryIdSet> deletedIdsByOplog =
+        new ConcurrentHashMap<Oplog, OplogEntryIdSet>();
+    final AtomicLong bytesRead = new AtomicLong();
+    List<List<Oplog>> groups = groupForRecovery(oplogSet);
+    ExecutorService pool = createRecoveryPool("Oplog Drf Recovery", groups.size());
+    try {
+      List<Future<?>> futures = new ArrayList<Future<?>>(groups.size());
+      for (final List<Oplog> group : groups) {
+        futures.add(pool.submit(new Runnable() {
+          public void run() {
+            for (Oplog oplog : group) {
+              OplogEntryIdSet ids = new OplogEntryIdSet();
+              bytesRead.addAndGet(oplog.recoverDrf(ids, alreadyRecovered, oplog == latest));
+              if (!alreadyRecovered) {
+                updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+              }
+              deletedIdsByOplog.put(oplog, ids);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        waitForRecoveryTask(future);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    for (Oplog oplog : oplogSet) {
+      OplogEntryIdSet ids = deletedIdsByOplog.get(oplog);
+      if (ids != null) {
+        deletedIds.addAll(ids);
+      }
+    }
+    return bytesRead.get();
+  }
+
+  private void waitForRecoveryTask(Future<?> future) {
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        try {
+          future.get();
+          return;
+        } catch (InterruptedException ignore) {
+          // the recovery threads must finish before the results can be used
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new DiskAccessException(cause.toString(), cause, parent);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Splits the oplogs into the units of work given to each recovery thread, keeping the order of
+   * the oplogs within each unit. If {@link DiskStoreImpl#RECOVERY_THREAD_PER_DIRECTORY} is set
+   * there is one unit per disk directory, otherwise one per oplog.
+   */
+  private List<List<Oplog>> groupForRecovery(Collection<Oplog> oplogs) {
+    List<List<Oplog>> groups = new ArrayList<List<Oplog>>();
+    if (parent.RECOVERY_THREAD_PER_DIRECTORY) {
+      Map<DirectoryHolder, List<Oplog>> byDirectory =
+          new LinkedHashMap<DirectoryHolder, List<Oplog>>();
+      for (Oplog oplog : oplogs) {
+        List<Oplog> group = byDirectory.get(oplog.getDirectoryHolder());
+        if (group == null) {
+          group = new ArrayList<Oplog>();
+          byDirectory.put(oplog.getDirectoryHolder(), group);
+        }
+        group.add(oplog);
+      }
+      groups.addAll(byDirectory.values());
+    } else {
+      for (Oplog oplog : oplogs) {
+        groups.add(Collections.singletonList(oplog));
+      }
+    }
+    return groups;
+  }
+
+  private ExecutorService createRecoveryPool(String threadName, int tasks) {
+    int threads = Math.min(parent.RECOVERY_THREADS, tasks);
+    final ThreadGroup recoveryThreadGroup =
+        LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+    final ThreadFactory recoveryThreadFactory =
+        GemfireCacheHelper.CreateThreadFactory(recoveryThreadGroup, threadName);
+    return new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), recoveryThreadFactory);
+  }
+
   private long recoverOplogs(long byteCount) {
     OplogEntryIdSet deletedIds = new OplogEntryIdSet();
 
@@ -441,35 +562,57 @@ public class PersistentOplogSet implements OplogSet {
     }
     if (oplogSet.size() > 0) {
       long startOpLogRecovery = System.currentTimeMillis();
+      boolean parallel = parent.RECOVERY_THREADS > 1 && oplogSet.size() > 1;
       // first figure out all entries that have been destroyed
-      boolean latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        byteCount += oplog.recoverDrf(deletedIds, this.alreadyRecoveredOnce.get(), latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+      if (parallel) {
+        byteCount += recoverDrfsInParallel(oplogSet, deletedIds);
+      } else {
+        boolean latestOplog = true;
+        for (Oplog oplog : oplogSet) {
+          byteCount += oplog.recoverDrf(deletedIds, this.alreadyRecoveredOnce.get(), latestOplog);
+          latestOplog = false;
+          if (!this.alreadyRecoveredOnce.get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
         }
       }
       parent.incDeadRecordCount(deletedIds.size());
-      // now figure out live entries
-      latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+      // now figure out live entries. Entries have to be applied in oplog order
+      // so the crfs are scanned by this thread, but they can be read ahead.
+      OplogRecoveryReadAhead readAhead = null;
+      if (parallel) {
+        List<List<Oplog>> groups = groupForRecovery(oplogSet);
+        readAhead = new OplogRecoveryReadAhead(
+            createRecoveryPool("Oplog Recovery Read Ahead", groups.size()), oplogSet, groups,
+            parent.RECOVERY_THREADS, recoverValuesSync());
+      }
+      try {
+        boolean latestOplog = true;
+        for (Oplog oplog : oplogSet) {
+          long startOpLogRead = parent.getStats().startOplogRead();
+          long bytesRead = oplog.recoverCrf(deletedIds,
+              // @todo make recoverValues per region
+              recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+              oplogsNeedingValueRecovery, latestOplog);
+          latestOplog = false;
+          if (!this.alreadyRecoveredOnce.get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
+          byteCount += bytesRead;
+          parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+          if (readAhead != null) {
+            readAhead.oplogRecovered();
+          }
 
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          // Callback to the disk regions to indicate the oplog is recovered
+          // Used for offline export
+          for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+            drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          }
+        }
+      } finally {
+        if (readAhead != null) {
+          readAhead.stop();
         }
       }
       long endOpLogRecovery = System.currentTimeMillis();
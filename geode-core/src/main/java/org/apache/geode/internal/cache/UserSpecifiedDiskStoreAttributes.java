@@ -31,6 +31,7 @@ import org.apache.geode.internal.Assert;
 public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
   private boolean hasAutoCompact = false;
   private boolean hasCompactionThreshold = false;
+  private boolean hasCompactionMaxBytesPerSecond = false;
   private boolean hasAllowForceCompaction = false;
   private boolean hasMaxOplogSize = false;
   private boolean hasTimeInterval = false;
@@ -40,7 +41,7 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
   private boolean hasDiskDirSizes = false;
   private boolean hasDiskUsageWarningPercentage = false;
   private boolean hasDiskUsageCriticalPercentage = false;
-  private static final int HAS_COUNT = 11;
+  private static final int HAS_COUNT = 12;
 
   public boolean hasAutoCompact() {
     return hasAutoCompact;
@@ -50,6 +51,10 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
     return hasCompactionThreshold;
   }
 
+  public boolean hasCompactionMaxBytesPerSecond() {
+    return hasCompactionMaxBytesPerSecond;
+  }
+
   public boolean hasAllowForceCompaction() {
     return hasAllowForceCompaction;
   }
@@ -94,6 +99,10 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
     this.hasCompactionThreshold = hasCompactionThreshold;
   }
 
+  public void setHasCompactionMaxBytesPerSecond(boolean hasCompactionMaxBytesPerSecond) {
+    this.hasCompactionMaxBytesPerSecond = hasCompactionMaxBytesPerSecond;
+  }
+
   public void setHasAllowForceCompaction(boolean hasAllowForceCompaction) {
     this.hasAllowForceCompaction = hasAllowForceCompaction;
   }
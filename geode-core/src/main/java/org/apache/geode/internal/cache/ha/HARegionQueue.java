@@ -1471,6 +1471,35 @@ public class HARegionQueue implements RegionQueue {
     } // for
   }
 
+  /**
+   * Peeks up to batchSize events for a dispatcher that sends them together. Unlike
+   * {@link #peek(int, int)} it first waits, like {@link #peek()}, for the queue to hold an event,
+   * and then waits at most timeToWait milliseconds for the batch to fill. As with the other peek
+   * methods, a later call of {@link #remove()} removes the events of the batch.
+   *
+   * @param batchSize the most events to peek
+   * @param timeToWait the most milliseconds to wait for the batch to fill once an event is
+   *        available
+   * @return the events peeked, which is empty if no event became available
+   * @since Geode 1.3
+   */
+  public List peekBatch(int batchSize, int timeToWait) throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    acquireReadLock();
+    try {
+      if (this.idsAvailable.isEmpty() && !waitForData()) {
+        return Collections.emptyList();
+      }
+    } catch (TimeoutException ignore) {
+      throw new InterruptedException();
+    } finally {
+      releaseReadLock();
+    }
+    return peek(batchSize, timeToWait);
+  }
+
   /**
    * This method prepares the batch of events and updates the thread-context with corresponding
    * counters, so that when remove is called by this thread, these events are destroyed from the
@@ -2385,6 +2414,44 @@ public class HARegionQueue implements RegionQueue {
       return next;
     }
 
+    /**
+     * The peek of this queue takes the ids it returns out of the available ids, so the batch is
+     * built by peeking one event at a time.
+     */
+    @Override
+    public List peekBatch(int batchSize, int timeToWait) throws InterruptedException {
+      List batch = new ArrayList(batchSize);
+      Object event = peek();
+      if (event == null) {
+        return batch;
+      }
+      batch.add(event);
+      long end = System.currentTimeMillis() + timeToWait;
+      while (batch.size() < batchSize) {
+        boolean empty;
+        acquireReadLock();
+        try {
+          empty = internalIsEmpty();
+        } finally {
+          releaseReadLock();
+        }
+        if (empty) {
+          long remaining = end - System.currentTimeMillis();
+          if (remaining <= 0) {
+            break;
+          }
+          Thread.sleep(Math.min(remaining, 50));
+          continue;
+        }
+        event = peek();
+        if (event == null) {
+          break;
+        }
+        batch.add(event);
+      }
+      return batch;
+    }
+
     @Override
     protected void storePeekedID(Long id) {
       acquireWriteLock();
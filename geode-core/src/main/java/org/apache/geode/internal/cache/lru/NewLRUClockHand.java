@@ -164,7 +164,7 @@ public class NewLRUClockHand {
    * return the head entry in the list preserving the cupipe requirement of at least one entry left
    * in the list
    */
-  private LRUClockNode getHeadEntry() {
+  protected LRUClockNode getHeadEntry() {
     synchronized (lock) {
       LRUClockNode aNode = NewLRUClockHand.this.head.nextLRUNode();
       if (aNode == this.tail) {
@@ -408,7 +408,7 @@ public class NewLRUClockHand {
   protected static class HeadLock extends Object {
   }
 
-  private static class GuardNode implements LRUClockNode {
+  static class GuardNode implements LRUClockNode {
 
     private LRUClockNode next;
     LRUClockNode prev;
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * An LRU list split into segments that each have their own lock, so that threads adding entries to
+ * the list, which every create of an entry in an LRU region does, rarely wait for each other. An
+ * entry always goes to the segment chosen by its identity hash code, so it can be unlinked without
+ * searching. The clock hand takes the head of the segments in turn and gives recently used entries
+ * a second chance at the tail of their own segment, so the order of eviction is only least recently
+ * used within a segment.
+ *
+ * @since Geode 1.3
+ */
+public class StripedLRUClockHand extends NewLRUClockHand {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The name of the system property with the number of segments of the LRU list of each region or
+   * bucket that evicts by entry count, memory or heap. A single list is used if it is less than 2,
+   * the default. LIFO regions always use a single list.
+   */
+  public static final String SEGMENTS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "lru.segments";
+
+  private final Segment[] segments;
+
+  /** The segment whose head the clock hand takes next */
+  private final AtomicInteger hand = new AtomicInteger();
+
+  /**
+   * @param segmentCount the number of segments, rounded up to a power of two
+   */
+  public StripedLRUClockHand(Object region, EnableLRU ccHelper,
+      InternalRegionArguments internalRegionArgs, int segmentCount) {
+    super(region, ccHelper, internalRegionArgs);
+    int count = 1;
+    while (count < segmentCount) {
+      count <<= 1;
+    }
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      this.segments[i] = new Segment();
+    }
+  }
+
+  /**
+   * Returns the number of segments that the system property asks LRU lists to have, or 0 if they
+   * should not be segmented.
+   */
+  public static int getConfiguredSegments() {
+    int segments = Integer.getInteger(SEGMENTS_PROPERTY_NAME, 0);
+    return segments > 1 ? segments : 0;
+  }
+
+  int getSegmentCount() {
+    return this.segments.length;
+  }
+
+  int segmentIndex(LRUClockNode aNode) {
+    int h = System.identityHashCode(aNode);
+    h ^= (h >>> 16);
+    return h & (this.segments.length - 1);
+  }
+
+  @Override
+  public void appendEntry(final LRUClockNode aNode) {
+    this.segments[segmentIndex(aNode)].append(aNode);
+  }
+
+  /**
+   * Returns the head entry of the first segment, starting at the one after the segment the last
+   * entry was taken from, that is not empty.
+   */
+  @Override
+  protected LRUClockNode getHeadEntry() {
+    int start = this.hand.getAndIncrement();
+    for (int i = 0; i < this.segments.length; i++) {
+      LRUClockNode aNode = this.segments[(start + i) & (this.segments.length - 1)].removeHead();
+      if (aNode != null) {
+        return aNode;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean unlinkEntry(LRUClockNode entry) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      logger.trace(LogMarker.LRU_CLOCK, "unlinkEntry called for {}", entry);
+    }
+    entry.setEvicted();
+    stats().incDestroys();
+    return this.segments[segmentIndex(entry)].unlink(entry);
+  }
+
+  @Override
+  public void clear(RegionVersionVector rvv) {
+    super.clear(rvv);
+    if (rvv != null) {
+      return;
+    }
+    for (Segment segment : this.segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public int size() {
+    int result = 0;
+    for (Segment segment : this.segments) {
+      result += segment.size;
+    }
+    return result;
+  }
+
+  @Override
+  public long getExpensiveListCount() {
+    long count = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        for (LRUClockNode aNode = segment.head.nextLRUNode(); aNode != segment.tail; aNode =
+            aNode.nextLRUNode()) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void dumpList() {
+    if (!logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      return;
+    }
+    for (int i = 0; i < this.segments.length; i++) {
+      Segment segment = this.segments[i];
+      synchronized (segment) {
+        int idx = 1;
+        for (LRUClockNode aNode = segment.head; aNode != null; aNode = aNode.nextLRUNode()) {
+          logger.trace(LogMarker.LRU_CLOCK, "  segment {} ({}) {}", i, (idx++), aNode);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String getAuditReport() {
+    int totalNodes = 0;
+    int evictedNodes = 0;
+    int usedNodes = 0;
+    for (Segment segment : this.segments) {
+      for (LRUClockNode h = segment.head; h != null; h = h.nextLRUNode()) {
+        totalNodes++;
+        if (h.testEvicted())
+          evictedNodes++;
+        if (h.testRecentlyUsed())
+          usedNodes++;
+      }
+    }
+    StringBuilder result = new StringBuilder(128);
+    result.append("LRUList Audit: segments = ").append(this.segments.length)
+        .append(" listEntries = ").append(totalNodes).append(" evicted = ").append(evictedNodes)
+        .append(" used = ").append(usedNodes);
+    return result.toString();
+  }
+
+  /**
+   * One segment of the list, with guard nodes at its head and tail like the unsegmented list. The
+   * segment is its own lock.
+   */
+  private static class Segment {
+
+    private LRUClockNode head;
+
+    private LRUClockNode tail;
+
+    private volatile int size;
+
+    Segment() {
+      initHeadAndTail();
+    }
+
+    private void initHeadAndTail() {
+      this.head = new GuardNode();
+      this.tail = new GuardNode();
+      this.head.setNextLRUNode(this.tail);
+      this.tail.setPrevLRUNode(this.head);
+      this.size = 0;
+    }
+
+    synchronized void append(LRUClockNode aNode) {
+      if (aNode.nextLRUNode() != null || aNode.prevLRUNode() != null) {
+        return;
+      }
+      aNode.setNextLRUNode(this.tail);
+      this.tail.prevLRUNode().setNextLRUNode(aNode);
+      aNode.setPrevLRUNode(this.tail.prevLRUNode());
+      this.tail.setPrevLRUNode(aNode);
+      this.size++;
+    }
+
+    synchronized LRUClockNode removeHead() {
+      LRUClockNode aNode = this.head.nextLRUNode();
+      if (aNode == this.tail) {
+        return null;
+      }
+      LRUClockNode next = aNode.nextLRUNode();
+      this.head.setNextLRUNode(next);
+      next.setPrevLRUNode(this.head);
+      aNode.setNextLRUNode(null);
+      aNode.setPrevLRUNode(null);
+      this.size--;
+      return aNode;
+    }
+
+    synchronized boolean unlink(LRUClockNode entry) {
+      LRUClockNode next = entry.nextLRUNode();
+      LRUClockNode prev = entry.prevLRUNode();
+      if (next == null || prev == null) {
+        // not in the list anymore.
+        return false;
+      }
+      next.setPrevLRUNode(prev);
+      prev.setNextLRUNode(next);
+      entry.setNextLRUNode(null);
+      entry.setPrevLRUNode(null);
+      this.size--;
+      return true;
+    }
+
+    synchronized void clear() {
+      initHeadAndTail();
+    }
+  }
+}
@@ -382,10 +382,17 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /** asks the server to accept pipelined requests on a connection @since Geode 1.3 */
+  public static final int PIPELINE = 110;
+
+  /** delivers a batch of subscription events to a client @since Geode 1.3 */
+  public static final int CLIENT_EVENT_BATCH = 111;
+
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = CLIENT_EVENT_BATCH;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +612,10 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case PIPELINE:
+        return "PIPELINE";
+      case CLIENT_EVENT_BATCH:
+        return "CLIENT_EVENT_BATCH";
       default:
         return Integer.toString(type);
     }
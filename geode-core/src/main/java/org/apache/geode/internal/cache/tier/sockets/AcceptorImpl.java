@@ -139,9 +139,13 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
   private final Object syncLock = new Object();
 
   /**
-   * THE selector for the bridge server; null if no selector.
+   * THE selector for the bridge server; null if no selector or if multiplexing.
    */
   private final Selector selector;
+  /**
+   * The selector threads that read requests when multiplexing; null if not multiplexing.
+   */
+  private final ServerConnectionSelector[] connectionSelectors;
   // private final Selector tmpSel;
   /**
    * Used for managing direct byte buffer for client comms; null if no selector.
@@ -198,6 +202,38 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
   private final int acceptTimeout =
       Integer.getInteger(ACCEPT_TIMEOUT_PROPERTY_NAME, DEFAULT_ACCEPT_TIMEOUT_MS).intValue();
 
+  /**
+   * The name of a system property that sets the number of selector threads, for example the number
+   * of cores, that read client requests in non-blocking mode and give the requests, once read, to
+   * the max-threads pool. This only applies if max-threads is set. If it is 0, the default, a single
+   * selector thread gives each connection that has something to read to the pool, which reads it in
+   * blocking mode.
+   */
+  public static final String SELECTOR_THREADS_PROPERTY_NAME = "BridgeServer.SELECTOR_THREADS";
+
+  private final int selectorThreads = Integer.getInteger(SELECTOR_THREADS_PROPERTY_NAME, 0);
+
+  /**
+   * The name of a system property that sets the number of threads that process the requests clients
+   * pipeline on a connection, which is also the most requests of a connection processed at once. If
+   * it is 0, the default, clients may not pipeline their requests.
+   *
+   * @since Geode 1.3
+   */
+  public static final String PIPELINE_THREADS_PROPERTY_NAME = "BridgeServer.PIPELINE_THREADS";
+
+  private final int pipelineThreads = Integer.getInteger(PIPELINE_THREADS_PROPERTY_NAME, 0);
+
+  /**
+   * The pool that processes pipelined requests; null if pipelining is not enabled
+   */
+  private final ThreadPoolExecutor pipelinePool;
+
+  /**
+   * The thread group of the pipeline threads and of the threads that read pipelined requests
+   */
+  private final ThreadGroup pipelineThreadGroup;
+
   /**
    * The mininum value of max-connections
    */
@@ -381,12 +417,20 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     {
       Selector tmp_s = null;
       // Selector tmp2_s = null;
+      ServerConnectionSelector[] tmp_cs = null;
       LinkedBlockingQueue tmp_q = null;
       LinkedBlockingQueue tmp_commQ = null;
       HashSet tmp_hs = null;
       SystemTimer tmp_timer = null;
       if (isSelector()) {
-        tmp_s = Selector.open(); // no longer catch ex to fix bug 36907
+        if (this.selectorThreads > 0) {
+          tmp_cs = new ServerConnectionSelector[this.selectorThreads];
+          for (int i = 0; i < tmp_cs.length; i++) {
+            tmp_cs[i] = new ServerConnectionSelector(this);
+          }
+        } else {
+          tmp_s = Selector.open(); // no longer catch ex to fix bug 36907
+        }
         // tmp2_s = Selector.open(); // workaround for bug 39624
         tmp_q = new LinkedBlockingQueue();
         tmp_commQ = new LinkedBlockingQueue();
@@ -394,6 +438,7 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
         tmp_timer = new SystemTimer(internalCache.getDistributedSystem(), true);
       }
       this.selector = tmp_s;
+      this.connectionSelectors = tmp_cs;
       // this.tmpSel = tmp2_s;
       this.selectorQueue = tmp_q;
       this.commBufferQueue = tmp_commQ;
@@ -620,6 +665,38 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
       }
       this.hsPool = tmp_hsPool;
     }
+    if (this.pipelineThreads > 0) {
+      final ThreadGroup pipelineGroup = LoggingThreadGroup
+          .createThreadGroup("Pipelined requests on port " + this.localPort, logger);
+      ThreadFactory pipelineThreadFactory = new ThreadFactory() {
+        private final AtomicInteger threadNum = new AtomicInteger();
+
+        public Thread newThread(final Runnable command) {
+          Runnable r = new Runnable() {
+            public void run() {
+              try {
+                command.run();
+              } catch (CancelException e) {
+                // ignore
+              } finally {
+                ConnectionTable.releaseThreadsSockets();
+              }
+            }
+          };
+          return new Thread(pipelineGroup, r,
+              pipelineGroup.getName() + " Thread " + this.threadNum.incrementAndGet());
+        }
+      };
+      ThreadPoolExecutor tmp_pipelinePool = new ThreadPoolExecutor(this.pipelineThreads,
+          this.pipelineThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+          pipelineThreadFactory);
+      tmp_pipelinePool.allowCoreThreadTimeOut(true);
+      this.pipelineThreadGroup = pipelineGroup;
+      this.pipelinePool = tmp_pipelinePool;
+    } else {
+      this.pipelineThreadGroup = null;
+      this.pipelinePool = null;
+    }
 
     isAuthenticationRequired = this.securityService.isClientSecurityRequired();
 
@@ -647,6 +724,49 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     return this.maxThreads > 0;
   }
 
+  /**
+   * Returns true if this acceptor's selector threads read the requests of client connections.
+   *
+   * @see #SELECTOR_THREADS_PROPERTY_NAME
+   */
+  public boolean isMultiplexing() {
+    return this.connectionSelectors != null;
+  }
+
+  /**
+   * Returns true if clients may pipeline their requests.
+   *
+   * @see #PIPELINE_THREADS_PROPERTY_NAME
+   */
+  public boolean isPipeliningEnabled() {
+    return this.pipelinePool != null;
+  }
+
+  /**
+   * Returns the number of threads that process pipelined requests.
+   */
+  int getPipelineThreads() {
+    return this.pipelineThreads;
+  }
+
+  /**
+   * Gives a pipelined request to a pipeline thread.
+   */
+  void executePipelinedRequest(Runnable request) {
+    this.pipelinePool.execute(request);
+  }
+
+  /**
+   * Creates the thread that reads the pipelined requests of a connection whose requests were read
+   * by a selector.
+   */
+  Thread createPipelineReader(Runnable reader, ServerConnection sc) {
+    Thread thread = new Thread(this.pipelineThreadGroup, reader,
+        "Pipelined request reader for " + sc.getName());
+    thread.setDaemon(true);
+    return thread;
+  }
+
   /**
    * This system property is only used if max-threads == 0. This is for 5.0.2 backwards
    * compatibility.
@@ -681,7 +801,13 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     // in code from exiting immediately.
     thread.start();
 
-    if (isSelector()) {
+    if (isMultiplexing()) {
+      for (int i = 0; i < this.connectionSelectors.length; i++) {
+        this.connectionSelectors[i].start(tg,
+            "Cache Server Selector " + i + " " + this.serverSock.getInetAddress() + ":"
+                + this.localPort + " local port: " + this.serverSock.getLocalPort());
+      }
+    } else if (isSelector()) {
       Runnable r = new Runnable() {
         public void run() {
           AcceptorImpl.this.runSelectorLoop();
@@ -724,10 +850,31 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
         return;
       }
     }
+    if (isMultiplexing()) {
+      int hash = System.identityHashCode(sc) & Integer.MAX_VALUE;
+      this.connectionSelectors[hash % this.connectionSelectors.length].register(sc);
+      return;
+    }
     getSelectorQueue().offer(sc);
     wakeupSelector();
   }
 
+  /**
+   * Gives a connection that has a request to read, or that has read one, to the thread pool.
+   */
+  void execute(ServerConnection sc) {
+    try {
+      this.stats.incThreadQueueSize();
+      this.pool.execute(sc);
+    } catch (RejectedExecutionException rejected) {
+      finishCon(sc);
+      this.stats.decThreadQueueSize();
+      if (isRunning()) {
+        logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_UNEXPECTED, rejected));
+      }
+    }
+  }
+
   /**
    * wake up the selector thread
    */
@@ -1364,7 +1511,7 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     }
   }
 
-  private ByteBuffer takeCommBuffer() {
+  ByteBuffer takeCommBuffer() {
     ByteBuffer result = (ByteBuffer) this.commBufferQueue.poll();
     if (result == null) {
       result = ByteBuffer.allocateDirect(this.socketBufferSize);
@@ -1372,7 +1519,7 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     return result;
   }
 
-  private void releaseCommBuffer(ByteBuffer bb) {
+  void releaseCommBuffer(ByteBuffer bb) {
     if (bb == null) { // fix for bug 37107
       return;
     }
@@ -1601,10 +1748,16 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
         } catch (IOException ignore) {
         }
       }
-      try {
-        wakeupSelector();
-        this.selector.close();
-      } catch (IOException ignore) {
+      if (isMultiplexing()) {
+        for (ServerConnectionSelector connectionSelector : this.connectionSelectors) {
+          connectionSelector.close();
+        }
+      } else {
+        try {
+          wakeupSelector();
+          this.selector.close();
+        } catch (IOException ignore) {
+        }
       }
       if (this.selectorThread != null) {
         this.selectorThread.interrupt();
@@ -1626,6 +1779,9 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
       this.pool.shutdownNow();
     }
     this.hsPool.shutdownNow();
+    if (this.pipelinePool != null) {
+      this.pipelinePool.shutdownNow();
+    }
   }
 
   private void shutdownSCs() {
@@ -1642,7 +1798,20 @@ public class AcceptorImpl extends Acceptor implements Runnable, CommBufferPool {
     return !isRunning() && !thread.isAlive()
         && (selectorThread == null || !selectorThread.isAlive())
         && (pool == null || pool.isShutdown()) && (hsPool == null || hsPool.isShutdown())
-        && (selector == null || !selector.isOpen()) && (tmpSel == null || !tmpSel.isOpen());
+        && (pipelinePool == null || pipelinePool.isShutdown())
+        && (selector == null || !selector.isOpen()) && (tmpSel == null || !tmpSel.isOpen())
+        && areConnectionSelectorsClosed();
+  }
+
+  private boolean areConnectionSelectorsClosed() {
+    if (this.connectionSelectors != null) {
+      for (ServerConnectionSelector connectionSelector : this.connectionSelectors) {
+        if (!connectionSelector.isClosed()) {
+          return false;
+        }
+      }
+    }
+    return true;
   }
 
   /**
@@ -841,7 +841,7 @@ public class CacheClientNotifier {
         if (isTraceEnabled) {
           logger.trace("adding invalidation routing to message for {}", ids);
         }
-        clientMessage.addClientInterestList(ids, false);
+        clientMessage.addClientInterestList(this.sharedRoutingSets.share(ids), false);
         filterClients.addAll(ids);
       }
     }
@@ -858,7 +858,7 @@ public class CacheClientNotifier {
         if (isTraceEnabled) {
           logger.trace("adding routing to message for {}", ids);
         }
-        clientMessage.addClientInterestList(ids, true);
+        clientMessage.addClientInterestList(this.sharedRoutingSets.share(ids), true);
         filterClients.addAll(ids);
       }
     }
@@ -985,6 +985,16 @@ public class CacheClientNotifier {
     }
   }
 
+  /**
+   * Returns the set of interested clients shared by the events routed to the same clients as the
+   * given set, which must not be modified afterwards.
+   *
+   * @since Geode 1.3
+   */
+  Set<ClientProxyMembershipID> shareRoutingSet(Set<ClientProxyMembershipID> ids) {
+    return this.sharedRoutingSets.share(ids);
+  }
+
   /**
    * processes the given collection of durable and non-durable client identifiers, returning a
    * collection of non-durable identifiers of clients connected to this VM
@@ -1656,6 +1666,7 @@ public class CacheClientNotifier {
     // Exception("stack trace"));
     ClientProxyMembershipID client = proxy.getProxyID();
     this._clientProxies.remove(client);
+    this.sharedRoutingSets.clear();
     this._connectionListener.queueRemoved();
     this.getCache().cleanupForClient(this, client);
     if (!(proxy.clientConflation == HandShake.CONFLATION_ON)) {
@@ -2166,6 +2177,22 @@ public class CacheClientNotifier {
 
   public static final int DEFAULT_EVENT_ENQUEUE_WAIT_TIME = 100;
 
+  /**
+   * The name of the system property that sets the most sets of interested clients shared by the
+   * events routed to the same clients. Sets are not shared if it is not greater than zero, which is
+   * the default.
+   *
+   * @since Geode 1.3
+   */
+  public static final String SHARED_ROUTING_SETS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientNotifier.SHARED_ROUTING_SETS";
+
+  /**
+   * The sets of interested clients shared by the events routed to the same clients
+   */
+  private final SharedClientIdSets sharedRoutingSets =
+      new SharedClientIdSets(Integer.getInteger(SHARED_ROUTING_SETS_PROPERTY_NAME, 0));
+
   /**
    * System property value denoting the time in milliseconds. Any thread putting an event into a
    * subscription queue, which is full, will wait this much time for the queue to make space. It'll
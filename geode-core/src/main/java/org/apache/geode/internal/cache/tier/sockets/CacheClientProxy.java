@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.Socket;
@@ -26,7 +27,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -91,7 +94,9 @@ import org.apache.geode.internal.cache.ha.HAContainerWrapper;
 import org.apache.geode.internal.cache.ha.HARegionQueue;
 import org.apache.geode.internal.cache.ha.HARegionQueueAttributes;
 import org.apache.geode.internal.cache.ha.HARegionQueueStats;
+import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.tier.InterestType;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl.CqNameToOp;
 import org.apache.geode.internal.cache.tier.sockets.command.Get70;
 import org.apache.geode.internal.cache.versions.VersionTag;
@@ -197,6 +202,33 @@ public class CacheClientProxy implements ClientSession {
   protected static final int MAXIMUM_SHUTDOWN_PEEKS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAXIMUM_SHUTDOWN_PEEKS", 50).intValue();
 
+  /**
+   * The name of the system property that sets the most events a dispatcher sends to its client in
+   * one message. Batching is off if it is not greater than one.
+   *
+   * @since Geode 1.3
+   */
+  public static final String EVENT_BATCH_SIZE_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.EVENT_BATCH_SIZE";
+
+  /**
+   * The name of the system property that sets the most milliseconds a dispatcher waits for a batch
+   * of events to fill once it holds an event.
+   *
+   * @since Geode 1.3
+   */
+  public static final String EVENT_BATCH_TIME_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.EVENT_BATCH_TIME";
+
+  /**
+   * The name of the system property that makes a dispatcher leave out the updates of a batch that a
+   * later update of the same key in the batch replaces.
+   *
+   * @since Geode 1.3
+   */
+  public static final String CONFLATE_EVENT_BATCHES_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.CONFLATE_EVENT_BATCHES";
+
   /**
    * The number of milliseconds to wait for an offering to the message queue
    */
@@ -2280,6 +2312,32 @@ public class CacheClientProxy implements ClientSession {
     private final ReadWriteLock socketLock = new ReentrantReadWriteLock();
 
     private final Lock socketWriteLock = socketLock.writeLock();
+
+    /**
+     * The most events sent to the client in one message; events are sent one at a time if it is
+     * not greater than one
+     */
+    private final int eventBatchSize =
+        Integer.getInteger(EVENT_BATCH_SIZE_PROPERTY_NAME, 0).intValue();
+
+    /**
+     * The most milliseconds to wait for a batch to fill
+     */
+    private final int eventBatchTime =
+        Integer.getInteger(EVENT_BATCH_TIME_PROPERTY_NAME, 0).intValue();
+
+    private final boolean conflateEventBatches =
+        Boolean.getBoolean(CONFLATE_EVENT_BATCHES_PROPERTY_NAME);
+
+    /**
+     * The bytes of the messages of the batch being dispatched
+     */
+    private final ByteArrayOutputStream batchBytes = new ByteArrayOutputStream();
+
+    /**
+     * The buffer the messages of a batch are written with
+     */
+    private ByteBuffer batchCommBuffer;
     // /**
     // * A boolean verifying whether a warning has already been issued if the
     // * message queue has reached its capacity.
@@ -2530,6 +2588,22 @@ public class CacheClientProxy implements ClientSession {
             }
             waitForResumption();
           }
+          if (isBatching()) {
+            List batch;
+            try {
+              batch = this._messageQueue.peekBatch(this.eventBatchSize, this.eventBatchTime);
+            } catch (RegionDestroyedException skipped) {
+              break;
+            }
+            getStatistics().setQueueSize(this._messageQueue.size());
+            if (isStopped()) {
+              break;
+            }
+            if (batch.isEmpty() || dispatchBatch(batch)) {
+              this._messageQueue.remove();
+            }
+            continue;
+          }
           try {
             clientMessage = (ClientMessage) this._messageQueue.peek();
           } catch (RegionDestroyedException skipped) {
@@ -2752,34 +2826,7 @@ public class CacheClientProxy implements ClientSession {
       if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
         logger.trace(LogMarker.BRIDGE_SERVER, "Dispatching {}", clientMessage);
       }
-      Message message = null;
-
-      // byte[] latestValue =
-      // this._eventConflator.getLatestValue(clientMessage);
-
-      if (clientMessage instanceof ClientUpdateMessage) {
-        byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
-        if (logger.isTraceEnabled()) {
-          StringBuilder msg = new StringBuilder(100);
-          msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
-          if (((ClientUpdateMessage) clientMessage).valueIsObject()) {
-            if (latestValue != null) {
-              msg.append(" (").append(deserialize(latestValue)).append(")");
-            }
-            msg.append(" for ").append(clientMessage);
-          }
-          logger.trace(msg.toString());
-        }
-
-        message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), latestValue);
-
-        if (AFTER_MESSAGE_CREATION_FLAG) {
-          ClientServerObserver bo = ClientServerObserverHolder.getInstance();
-          bo.afterMessageCreation(message);
-        }
-      } else {
-        message = clientMessage.getMessage(getProxy(), true /* notify */);
-      }
+      Message message = createMessage(clientMessage);
 
       // //////////////////////////////
       // TEST CODE BEGIN (Throws exception to test closing proxy)
@@ -2827,6 +2874,143 @@ public class CacheClientProxy implements ClientSession {
       return isDispatched;
     }
 
+    /**
+     * Returns the <code>Message</code> that sends the given message to the client attached to this
+     * proxy.
+     */
+    private Message createMessage(ClientMessage clientMessage) throws IOException {
+      Message message = null;
+
+      // byte[] latestValue =
+      // this._eventConflator.getLatestValue(clientMessage);
+
+      if (clientMessage instanceof ClientUpdateMessage) {
+        byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
+        if (logger.isTraceEnabled()) {
+          StringBuilder msg = new StringBuilder(100);
+          msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
+          if (((ClientUpdateMessage) clientMessage).valueIsObject()) {
+            if (latestValue != null) {
+              msg.append(" (").append(deserialize(latestValue)).append(")");
+            }
+            msg.append(" for ").append(clientMessage);
+          }
+          logger.trace(msg.toString());
+        }
+
+        message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), latestValue);
+
+        if (AFTER_MESSAGE_CREATION_FLAG) {
+          ClientServerObserver bo = ClientServerObserverHolder.getInstance();
+          bo.afterMessageCreation(message);
+        }
+      } else {
+        message = clientMessage.getMessage(getProxy(), true /* notify */);
+      }
+      return message;
+    }
+
+    /**
+     * Returns true if events are sent to the client in batches.
+     */
+    private boolean isBatching() {
+      return this.eventBatchSize > 1
+          && getProxy().getVersion().compareTo(Version.GEODE_130) >= 0;
+    }
+
+    /**
+     * Sends the given messages to the client attached to this proxy in one
+     * {@link MessageType#CLIENT_EVENT_BATCH} message, whose parts are the number of messages in the
+     * batch and the bytes of the messages.
+     *
+     * @return true if the batch was dispatched, false if the proxy is paused
+     */
+    private boolean dispatchBatch(List batch) throws IOException {
+      if (this._proxy.isPaused()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch a batch");
+        }
+        return false;
+      }
+      long start = getStatistics().startTime();
+      List toSend = this.conflateEventBatches ? conflate(batch) : batch;
+      if (this.batchCommBuffer == null) {
+        this.batchCommBuffer = ByteBuffer.allocate(getCommBuffer().capacity());
+      }
+      this.batchBytes.reset();
+      boolean markerDispatched = false;
+      int count = 0;
+      for (Object o : toSend) {
+        ClientMessage clientMessage = (ClientMessage) o;
+        if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
+          logger.trace(LogMarker.BRIDGE_SERVER, "Dispatching {} in a batch", clientMessage);
+        }
+        Message message = createMessage(clientMessage);
+        if (message != null) {
+          message.setComms(null, getSocket(), null, this.batchBytes, this.batchCommBuffer, null);
+          message.send();
+          count++;
+        }
+        markerDispatched |= clientMessage instanceof ClientMarkerMessageImpl;
+      }
+      if (count > 0) {
+        Message batchMessage = new Message(2, Version.CURRENT);
+        batchMessage.setMessageType(MessageType.CLIENT_EVENT_BATCH);
+        batchMessage.setTransactionId(0);
+        batchMessage.addIntPart(count);
+        batchMessage.addBytesPart(this.batchBytes.toByteArray());
+        sendMessage(batchMessage);
+      }
+      if (markerDispatched) {
+        getProxy().markerEnqueued = false;
+      }
+      HARegionQueueStats queueStats = this._messageQueue.getStatistics();
+      for (int i = 0; i < batch.size(); i++) {
+        queueStats.incEventsDispatched();
+      }
+      getStatistics().endBatch(start, count, batch.size() - toSend.size());
+      if (logger.isTraceEnabled()) {
+        logger.trace("{}: Dispatched a batch of {} messages", this, count);
+      }
+      return true;
+    }
+
+    /**
+     * Returns the messages of the given batch without the creates and updates that a later create
+     * or update of the same key, made by the same thread, replaces. The client acknowledges the
+     * events of a thread up to the latest one it has received, so it acknowledges the events left
+     * out as well. Updates with CQ events are never left out, nor are those a later delta would be
+     * applied to, nor are any of the batch if the client asked for conflation to be off.
+     */
+    private List conflate(List batch) {
+      if (this._proxy.clientConflation == HandShake.CONFLATION_OFF) {
+        return batch;
+      }
+      Set<List<Object>> laterUpdates = new HashSet<>();
+      LinkedList<Object> result = new LinkedList<>();
+      for (ListIterator it = batch.listIterator(batch.size()); it.hasPrevious();) {
+        Object message = it.previous();
+        if (message instanceof ClientUpdateMessageImpl) {
+          ClientUpdateMessageImpl update = (ClientUpdateMessageImpl) message;
+          if ((update.isCreate() || update.isUpdate()) && update.getKeyOfInterest() != null) {
+            EventID eventId = update.getEventId();
+            List<Object> key = Arrays.asList(update.getRegionName(), update.getKeyOfInterest(),
+                new ThreadIdentifier(eventId.getMembershipID(), eventId.getThreadID()));
+            if (!update.hasCqs() && laterUpdates.contains(key)) {
+              continue;
+            }
+            if (update.hasDelta()) {
+              laterUpdates.remove(key);
+            } else {
+              laterUpdates.add(key);
+            }
+          }
+        }
+        result.addFirst(message);
+      }
+      return result;
+    }
+
     private void sendMessage(Message message) throws IOException {
       if (message == null) {
         return;
@@ -58,6 +58,12 @@ public class CacheClientProxyStats implements MessageStats {
   private static final String DELTA_FULL_MESSAGES_SENT = "deltaFullMessagesSent";
   /** Name of the CQ count statistic */
   private static final String CQ_COUNT = "cqCount";
+  /** Name of the message batches sent statistic */
+  private static final String MESSAGE_BATCHES_SENT = "messageBatchesSent";
+  /** Name of the messages sent in batches statistic */
+  private static final String BATCHED_MESSAGES_SENT = "batchedMessagesSent";
+  /** Name of the messages conflated in batches statistic */
+  private static final String MESSAGES_CONFLATED_IN_BATCHES = "messagesConflatedInBatches";
 
   /** Id of the messages received statistic */
   private static final int _messagesReceivedId;
@@ -81,6 +87,12 @@ public class CacheClientProxyStats implements MessageStats {
   private static final int _deltaFullMessagesSentId;
   /** Id of the CQ count statistic */
   private static final int _cqCountId;
+  /** Id of the message batches sent statistic */
+  private static final int _messageBatchesSentId;
+  /** Id of the messages sent in batches statistic */
+  private static final int _batchedMessagesSentId;
+  /** Id of the messages conflated in batches statistic */
+  private static final int _messagesConflatedInBatchesId;
   private final static int _sentBytesId;
 
   /**
@@ -126,7 +138,17 @@ public class CacheClientProxyStats implements MessageStats {
             "operations"),
 
         f.createLongCounter(CQ_COUNT, "Number of CQs on the client.", "operations"),
-        f.createLongCounter("sentBytes", "Total number of bytes sent to client.", "bytes"),});
+        f.createLongCounter("sentBytes", "Total number of bytes sent to client.", "bytes"),
+
+        f.createIntCounter(MESSAGE_BATCHES_SENT,
+            "Number of batches of client messages dispatched to the client.", "operations"),
+
+        f.createIntCounter(BATCHED_MESSAGES_SENT,
+            "Number of client messages dispatched to the client in batches.", "operations"),
+
+        f.createIntCounter(MESSAGES_CONFLATED_IN_BATCHES,
+            "Number of client messages not dispatched because a later message of the same batch updated the same key.",
+            "operations"),});
 
     // Initialize id fields
     _messagesReceivedId = _type.nameToId(MESSAGES_RECEIVED);
@@ -141,6 +163,9 @@ public class CacheClientProxyStats implements MessageStats {
     _deltaFullMessagesSentId = _type.nameToId(DELTA_FULL_MESSAGES_SENT);
     _cqCountId = _type.nameToId(CQ_COUNT);
     _sentBytesId = _type.nameToId("sentBytes");
+    _messageBatchesSentId = _type.nameToId(MESSAGE_BATCHES_SENT);
+    _batchedMessagesSentId = _type.nameToId(BATCHED_MESSAGES_SENT);
+    _messagesConflatedInBatchesId = _type.nameToId(MESSAGES_CONFLATED_IN_BATCHES);
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -269,6 +294,33 @@ public class CacheClientProxyStats implements MessageStats {
     return this._stats.getInt(_cqCountId);
   }
 
+  /**
+   * Returns the current value of the "messageBatchesSent" stat.
+   * 
+   * @return the current value of the "messageBatchesSent" stat
+   */
+  public int getMessageBatchesSent() {
+    return this._stats.getInt(_messageBatchesSentId);
+  }
+
+  /**
+   * Returns the current value of the "batchedMessagesSent" stat.
+   * 
+   * @return the current value of the "batchedMessagesSent" stat
+   */
+  public int getBatchedMessagesSent() {
+    return this._stats.getInt(_batchedMessagesSentId);
+  }
+
+  /**
+   * Returns the current value of the "messagesConflatedInBatches" stat.
+   * 
+   * @return the current value of the "messagesConflatedInBatches" stat
+   */
+  public int getMessagesConflatedInBatches() {
+    return this._stats.getInt(_messagesConflatedInBatchesId);
+  }
+
   /**
    * Increments the "messagesReceived" stat.
    */
@@ -353,6 +405,28 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incLong(_messageProcessingTimeId, elapsed);
   }
 
+  /**
+   * Increments the "messageBatchesSent", "batchedMessagesSent", "messagesConflatedInBatches",
+   * "messagesProcessed" and "messageProcessingTime" stats.
+   * 
+   * @param start The start of the batch (which is decremented from the current time to determine
+   *        the message processing time).
+   * @param sent The number of messages sent in the batch
+   * @param conflated The number of messages of the batch that were conflated
+   * @since Geode 1.3
+   */
+  public void endBatch(long start, int sent, int conflated) {
+    long ts = DistributionStats.getStatTime();
+
+    this._stats.incInt(_messageBatchesSentId, 1);
+    this._stats.incInt(_batchedMessagesSentId, sent);
+    this._stats.incInt(_messagesConflatedInBatchesId, conflated);
+    this._stats.incInt(_messagesProcessedId, sent + conflated);
+
+    long elapsed = ts - start;
+    this._stats.incLong(_messageProcessingTimeId, elapsed);
+  }
+
   /**
    * Increments the "deltaMessagesSent" stats.
    */
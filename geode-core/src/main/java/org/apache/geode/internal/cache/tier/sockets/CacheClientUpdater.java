@@ -1613,87 +1613,12 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
             continue;
           }
 
-          boolean isDeltaSent = false;
-          boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
-              || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
-          if (isCreateOrUpdate) {
-            isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
-          }
-
-          // extract the eventId and verify if it is a duplicate event
-          // if it is a duplicate event, ignore
-          // @since GemFire 5.1
-          int numberOfParts = clientMessage.getNumberOfParts();
-          Part eid = clientMessage.getPart(numberOfParts - 1);
-
-          // TODO the message handling methods also deserialized the eventID - inefficient
-          EventID eventId = (EventID) eid.getObject();
-
-          // no need to verify if the instantiator msg is duplicate or not
-          if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
-              && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
-            if (this.qManager.getState().verifyIfDuplicate(eventId,
-                !(this.isDurableClient || isDeltaSent))) {
-              continue;
-            }
-          }
-
-          if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
-            logger.trace(LogMarker.BRIDGE_SERVER, "Processing event with id {}",
-                eventId.expensiveToString());
-          }
-
-          this.isOpCompleted = true;
-
-          // Process the message
-          switch (clientMessage.getMessageType()) {
-            case MessageType.LOCAL_CREATE:
-            case MessageType.LOCAL_UPDATE:
-              handleUpdate(clientMessage);
-              break;
-            case MessageType.LOCAL_INVALIDATE:
-              handleInvalidate(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY:
-              handleDestroy(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY_REGION:
-              handleDestroyRegion(clientMessage);
-              break;
-            case MessageType.CLEAR_REGION:
-              handleClearRegion(clientMessage);
-              break;
-            case MessageType.REGISTER_INSTANTIATORS:
-              handleRegisterInstantiator(clientMessage, eventId);
-              break;
-            case MessageType.REGISTER_DATASERIALIZERS:
-              handleRegisterDataSerializer(clientMessage, eventId);
-              break;
-            case MessageType.CLIENT_MARKER:
-              handleMarker(clientMessage);
-              break;
-            case MessageType.INVALIDATE_REGION:
-              handleInvalidateRegion(clientMessage);
-              break;
-            case MessageType.CLIENT_REGISTER_INTEREST:
-              handleRegisterInterest(clientMessage);
-              break;
-            case MessageType.CLIENT_UNREGISTER_INTEREST:
-              handleUnregisterInterest(clientMessage);
-              break;
-            case MessageType.TOMBSTONE_OPERATION:
-              handleTombstoneOperation(clientMessage);
-              break;
-            default:
-              logger.warn(LocalizedMessage.create(
-                  LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
-                  new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
-              break;
+          if (clientMessage.getMessageType() == MessageType.CLIENT_EVENT_BATCH) {
+            processEventBatch(clientMessage);
+            continue;
           }
 
-          if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
-            this.qManager.getState().verifyIfDuplicate(eventId, true);
-          }
+          processMessage(clientMessage);
 
           // TODO we should maintain the client's "live" view of the server
           // but we don't because the server health monitor needs traffic
@@ -1766,6 +1691,119 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
     }
   }
 
+  /**
+   * Processes the message of an event the server sent, unless it is a duplicate of one already
+   * processed.
+   */
+  private void processMessage(Message clientMessage) throws Exception {
+    boolean isDeltaSent = false;
+    boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
+        || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
+    if (isCreateOrUpdate) {
+      isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
+    }
+
+    // extract the eventId and verify if it is a duplicate event
+    // if it is a duplicate event, ignore
+    // @since GemFire 5.1
+    int numberOfParts = clientMessage.getNumberOfParts();
+    Part eid = clientMessage.getPart(numberOfParts - 1);
+
+    // TODO the message handling methods also deserialized the eventID - inefficient
+    EventID eventId = (EventID) eid.getObject();
+
+    // no need to verify if the instantiator msg is duplicate or not
+    if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
+        && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
+      if (this.qManager.getState().verifyIfDuplicate(eventId,
+          !(this.isDurableClient || isDeltaSent))) {
+        return;
+      }
+    }
+
+    if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
+      logger.trace(LogMarker.BRIDGE_SERVER, "Processing event with id {}",
+          eventId.expensiveToString());
+    }
+
+    this.isOpCompleted = true;
+
+    // Process the message
+    switch (clientMessage.getMessageType()) {
+      case MessageType.LOCAL_CREATE:
+      case MessageType.LOCAL_UPDATE:
+        handleUpdate(clientMessage);
+        break;
+      case MessageType.LOCAL_INVALIDATE:
+        handleInvalidate(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY:
+        handleDestroy(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY_REGION:
+        handleDestroyRegion(clientMessage);
+        break;
+      case MessageType.CLEAR_REGION:
+        handleClearRegion(clientMessage);
+        break;
+      case MessageType.REGISTER_INSTANTIATORS:
+        handleRegisterInstantiator(clientMessage, eventId);
+        break;
+      case MessageType.REGISTER_DATASERIALIZERS:
+        handleRegisterDataSerializer(clientMessage, eventId);
+        break;
+      case MessageType.CLIENT_MARKER:
+        handleMarker(clientMessage);
+        break;
+      case MessageType.INVALIDATE_REGION:
+        handleInvalidateRegion(clientMessage);
+        break;
+      case MessageType.CLIENT_REGISTER_INTEREST:
+        handleRegisterInterest(clientMessage);
+        break;
+      case MessageType.CLIENT_UNREGISTER_INTEREST:
+        handleUnregisterInterest(clientMessage);
+        break;
+      case MessageType.TOMBSTONE_OPERATION:
+        handleTombstoneOperation(clientMessage);
+        break;
+      default:
+        logger.warn(LocalizedMessage.create(
+            LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
+            new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
+        break;
+    }
+
+    if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
+      this.qManager.getState().verifyIfDuplicate(eventId, true);
+    }
+  }
+
+  /**
+   * Processes the messages of a {@link MessageType#CLIENT_EVENT_BATCH} message, in the order in
+   * which the server sent them.
+   *
+   * @since Geode 1.3
+   */
+  private void processEventBatch(Message batchMessage) throws Exception {
+    int count = batchMessage.getPart(0).getInt();
+    byte[] bytes = batchMessage.getPart(1).getSerializedForm();
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received a batch of {} messages", this, count);
+    }
+    Message clientMessage = new Message(2, Version.CURRENT);
+    clientMessage.setComms(null, this.socket, new ByteArrayInputStream(bytes), null,
+        this.commBuffer, null);
+    for (int i = 0; i < count && !quitting(); i++) {
+      try {
+        clientMessage.recv();
+        processMessage(clientMessage);
+      } finally {
+        clientMessage.clear();
+      }
+    }
+  }
+
   /**
    * Conditionally print a warning describing the failure
    * <p>
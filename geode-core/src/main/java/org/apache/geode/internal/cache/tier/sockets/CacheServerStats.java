@@ -216,6 +216,8 @@ public class CacheServerStats implements MessageStats {
   int acceptThreadStartsId;
   int connectionThreadStartsId;
   int connectionThreadsId;
+  int selectorLoopsId;
+  int selectorLoopTimeId;
 
   // Load callback stats
   int connectionLoadId;
@@ -464,6 +466,12 @@ public class CacheServerStats implements MessageStats {
             "starts"),
         f.createIntGauge("connectionThreads",
             "Current number of threads dealing with a client connection.", "threads"),
+        f.createIntCounter("selectorLoops",
+            "Total number of times the selector threads of a server with BridgeServer.SELECTOR_THREADS set handled the client connections that were ready.",
+            "operations"),
+        f.createLongCounter("selectorLoopTime",
+            "Total time the selector threads spent reading requests from the client connections that were ready and giving them to the connection threads. The time waiting for connections to be ready is not included.",
+            "nanoseconds"),
         f.createDoubleGauge("connectionLoad",
             "The load from client to server connections as reported by the load probe installed in this server",
             "load"),
@@ -597,6 +605,8 @@ public class CacheServerStats implements MessageStats {
     acceptThreadStartsId = this.stats.nameToId("acceptThreadStarts");
     connectionThreadStartsId = this.stats.nameToId("connectionThreadStarts");
     connectionThreadsId = this.stats.nameToId("connectionThreads");
+    selectorLoopsId = this.stats.nameToId("selectorLoops");
+    selectorLoopTimeId = this.stats.nameToId("selectorLoopTime");
 
     connectionLoadId = this.stats.nameToId("connectionLoad");
     queueLoadId = this.stats.nameToId("queueLoad");
@@ -676,6 +686,19 @@ public class CacheServerStats implements MessageStats {
     this.stats.incInt(currentClientsId, -1);
   }
 
+  public void incSelectorLoopTime(long delta) {
+    this.stats.incLong(selectorLoopTimeId, delta);
+    this.stats.incInt(selectorLoopsId, 1);
+  }
+
+  public int getSelectorLoops() {
+    return this.stats.getInt(selectorLoopsId);
+  }
+
+  public long getSelectorLoopTime() {
+    return this.stats.getLong(selectorLoopTimeId);
+  }
+
   public void incThreadQueueSize() {
     this.stats.incInt(threadQueueSizeId, 1);
   }
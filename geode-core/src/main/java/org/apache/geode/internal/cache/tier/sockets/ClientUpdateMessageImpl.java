@@ -298,6 +298,16 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return this.versionTag;
   }
 
+  /**
+   * Returns true if this update carries the delta of its value, which a client applies to the
+   * value it has.
+   *
+   * @since Geode 1.3
+   */
+  boolean hasDelta() {
+    return this.deltaBytes != null;
+  }
+
   public boolean isCreate() {
     return this._operation == EnumListenerEvent.AFTER_CREATE;
   }
@@ -1149,18 +1159,28 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
    * // Read CQ Op. cqs.put(cqName, Integer.valueOf(cqOp)); } this._clientCqs.put(proxyId, cqs); } }
    */
 
+  /**
+   * Adds the given clients to the clients interested in this message. The sets of interested
+   * clients may be shared with other messages, so they are copied rather than modified.
+   */
   public void addClientInterestList(Set clientIds, boolean receiveValues) {
     if (receiveValues) {
       if (this._clientInterestList == null) {
         this._clientInterestList = clientIds;
       } else {
-        this._clientInterestList.addAll(clientIds);
+        HashSet<ClientProxyMembershipID> newInterests =
+            new HashSet<ClientProxyMembershipID>(this._clientInterestList);
+        newInterests.addAll(clientIds);
+        this._clientInterestList = newInterests;
       }
     } else {
       if (this._clientInterestListInv == null) {
         this._clientInterestListInv = clientIds;
       } else {
-        this._clientInterestListInv.addAll(clientIds);
+        HashSet<ClientProxyMembershipID> newInterests =
+            new HashSet<ClientProxyMembershipID>(this._clientInterestListInv);
+        newInterests.addAll(clientIds);
+        this._clientInterestListInv = newInterests;
       }
     }
   }
@@ -1283,13 +1303,13 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     HashSet ids = DataSerializer.readHashSet(in);
 
     if (ccn != null && ids != null) { // use canonical IDs in servers
-      ids = (HashSet) ccn.getProxyIDs(ids);
+      ids = (HashSet) ccn.shareRoutingSet(ccn.getProxyIDs(ids));
     }
     this._clientInterestList = ids;
 
     ids = DataSerializer.readHashSet(in);
     if (ccn != null && ids != null) {
-      ids = (HashSet) ccn.getProxyIDs(ids);
+      ids = (HashSet) ccn.shareRoutingSet(ccn.getProxyIDs(ids));
     }
     this._clientInterestListInv = ids;
 
@@ -71,6 +71,7 @@ import org.apache.geode.internal.cache.tier.sockets.command.KeySet;
 import org.apache.geode.internal.cache.tier.sockets.command.MakePrimary;
 import org.apache.geode.internal.cache.tier.sockets.command.PeriodicAck;
 import org.apache.geode.internal.cache.tier.sockets.command.Ping;
+import org.apache.geode.internal.cache.tier.sockets.command.Pipeline;
 import org.apache.geode.internal.cache.tier.sockets.command.Put;
 import org.apache.geode.internal.cache.tier.sockets.command.Put61;
 import org.apache.geode.internal.cache.tier.sockets.command.Put65;
@@ -349,6 +350,7 @@ public class CommandInitializer {
       Map<Integer, Command> commands = new HashMap<Integer, Command>();
       commands.putAll(ALL_COMMANDS.get(Version.GEODE_120));
       ALL_COMMANDS.put(Version.GEODE_130, commands);
+      commands.put(MessageType.PIPELINE, Pipeline.getCommand());
     }
 
   }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Collects the bytes of the {@link Message}s of a pipelined request, or of its response, so that
+ * they are written to the connection as one frame. A frame starts with a header holding the
+ * correlation id the client gave the request and the length of the bytes that follow it.
+ *
+ * @since Geode 1.3
+ */
+public class FrameOutputStream extends ByteArrayOutputStream {
+
+  /** The length of the header of a frame: the correlation id and the payload length */
+  public static final int HEADER_LENGTH = 8;
+
+  public FrameOutputStream(int size) {
+    super(size + HEADER_LENGTH);
+    this.count = HEADER_LENGTH;
+  }
+
+  /**
+   * Returns true if nothing has been written since the last frame.
+   */
+  public boolean isEmpty() {
+    return this.count == HEADER_LENGTH;
+  }
+
+  /**
+   * Writes the bytes written since the last frame to the given stream as a frame, and discards
+   * them. The caller must keep others from writing to the stream at the same time.
+   */
+  public void writeFrame(int correlationId, OutputStream out) throws IOException {
+    putInt(correlationId, 0);
+    putInt(this.count - HEADER_LENGTH, 4);
+    out.write(this.buf, 0, this.count);
+    out.flush();
+    reset();
+  }
+
+  @Override
+  public synchronized void reset() {
+    this.count = HEADER_LENGTH;
+  }
+
+  private void putInt(int value, int offset) {
+    this.buf[offset] = (byte) (value >>> 24);
+    this.buf[offset + 1] = (byte) (value >>> 16);
+    this.buf[offset + 2] = (byte) (value >>> 8);
+    this.buf[offset + 3] = (byte) value;
+  }
+
+  /**
+   * Reads the payload of the next frame from the given stream, from which the correlation id of the
+   * frame has just been read.
+   */
+  public static byte[] readPayload(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid frame length " + length);
+    }
+    byte[] payload = new byte[length];
+    in.readFully(payload);
+    return payload;
+  }
+}
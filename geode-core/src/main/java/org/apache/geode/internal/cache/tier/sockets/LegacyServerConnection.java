@@ -76,10 +76,17 @@ public class LegacyServerConnection extends ServerConnection {
     return true;
   }
 
+  @Override
+  boolean canPrefetchMessage() {
+    return !this.doHandshake && !isPipelining();
+  }
+
   protected void doOneMessage() {
     if (this.doHandshake) {
       doHandshake();
       this.doHandshake = false;
+    } else if (isPipelining()) {
+      readPipelinedRequest();
     } else {
       this.resetTransientData();
       doNormalMsg();
@@ -35,6 +35,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -87,6 +88,26 @@ public class Message {
 
   static final int DEFAULT_MAX_MESSAGE_SIZE = 1073741824;
 
+  /**
+   * System property to send the parts of a message that do not fit in the comm buffer, such as
+   * large region values, with a single gathering write of the header and the buffers the parts are
+   * stored in, rather than copying them through the comm buffer. Off-heap values are then written
+   * straight from off-heap memory.
+   *
+   * @since Geode 1.3
+   */
+  public static final String GATHERING_WRITES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "Message.GATHERING_WRITES";
+
+  /**
+   * The largest heap byte[] part sent with a gathering write. The channel copies heap buffers into
+   * temporary direct buffers that it caches per thread, so larger parts go through the comm buffer.
+   */
+  static final int MAX_GATHERED_HEAP_PART_LENGTH = 1024 * 1024;
+
+  /** The most buffers a message gathers before writing them */
+  private static final int MAX_GATHERED_BUFFERS = 16;
+
   private static final Logger logger = LogService.getLogger();
 
   private static final int PART_HEADER_SIZE = 5; // 4 bytes for length, 1 byte for isObject
@@ -131,6 +152,18 @@ public class Message {
    */
   private final int maxMessageSize;
 
+  private final boolean gatheringWrites;
+
+  /**
+   * The buffers to send with the next write when gathering: slices of the comm buffer holding the
+   * headers, and the buffers holding the large parts. Guarded by the comm buffer.
+   */
+  private ByteBuffer[] gatheredBuffers;
+  private int gatheredCount;
+  private long gatheredLength;
+  /** The position in the comm buffer from which bytes have not yet been gathered */
+  private int gatheredCommBufferStart;
+
   protected int messageType;
   private int payloadLength = 0;
   int numberOfParts = 0;
@@ -140,6 +173,11 @@ public class Message {
   private ByteBuffer cachedCommBuffer;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
+  /**
+   * The channel this message is read from. It is the socket's channel unless the acceptor has read
+   * some of the message ahead.
+   */
+  private ReadableByteChannel readChannel = null;
   private OutputStream outputStream = null;
   protected InputStream inputStream = null;
   private boolean messageModified = true;
@@ -166,6 +204,7 @@ public class Message {
    */
   public Message(int numberOfParts, Version destVersion) {
     this.maxMessageSize = Integer.getInteger(MAX_MESSAGE_SIZE_PROPERTY, DEFAULT_MAX_MESSAGE_SIZE);
+    this.gatheringWrites = Boolean.getBoolean(GATHERING_WRITES_PROPERTY);
     this.version = destVersion;
     Assert.assertTrue(destVersion != null, "Attempt to create an unversioned message");
     this.partsList = new Part[numberOfParts];
@@ -368,7 +407,8 @@ public class Message {
 
     // Create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
     // passed to it. Do NOT close the HeapDataOutputStream!
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true);
+    HeapDataOutputStream hdos =
+        HeapDataOutputStream.pooled(this.chunkSize, v, true, this.socketChannel != null);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -391,7 +431,8 @@ public class Message {
     }
 
     // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    HeapDataOutputStream hdos =
+        HeapDataOutputStream.pooled(this.chunkSize, v, false, this.socketChannel != null);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -601,8 +642,12 @@ public class Message {
           int partLen = part.getLength();
           commBuffer.putInt(partLen);
           commBuffer.put(part.getTypeCode());
+          ByteBuffer partBuffer;
           if (partLen <= commBuffer.remaining()) {
             part.writeTo(commBuffer);
+          } else if (this.gatheringWrites && this.socketChannel != null
+              && (partBuffer = part.getBufferForWriting(MAX_GATHERED_HEAP_PART_LENGTH)) != null) {
+            gather(partBuffer);
           } else {
             flushBuffer();
             if (this.socketChannel != null) {
@@ -615,7 +660,7 @@ public class Message {
             }
           }
         }
-        if (commBuffer.position() != 0) {
+        if (commBuffer.position() != 0 || this.gatheredCount > 0) {
           flushBuffer();
         }
         this.messageModified = false;
@@ -624,13 +669,71 @@ public class Message {
         }
       }
     } finally {
+      if (this.gatheredCount > 0) {
+        // not written because of a failure; do not hold on to the parts' buffers
+        resetGathered();
+      }
       if (clearMessage) {
         clearParts();
       }
     }
   }
 
+  /**
+   * Adds the given part buffer, after the comm buffer bytes that precede it, to the buffers sent by
+   * the next gathering write.
+   */
+  private void gather(ByteBuffer partBuffer) throws IOException {
+    if (this.gatheredBuffers == null) {
+      this.gatheredBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+    } else if (this.gatheredCount + 3 > MAX_GATHERED_BUFFERS) {
+      // room for the comm buffer slice, the part and the trailing comm buffer slice
+      flushBuffer();
+    }
+    gatherCommBuffer();
+    this.gatheredBuffers[this.gatheredCount++] = partBuffer;
+    this.gatheredLength += partBuffer.remaining();
+  }
+
+  private void gatherCommBuffer() {
+    final ByteBuffer cb = getCommBuffer();
+    if (cb.position() > this.gatheredCommBufferStart) {
+      ByteBuffer slice = cb.duplicate();
+      slice.position(this.gatheredCommBufferStart);
+      slice.limit(cb.position());
+      this.gatheredBuffers[this.gatheredCount++] = slice;
+      this.gatheredLength += slice.remaining();
+      this.gatheredCommBufferStart = cb.position();
+    }
+  }
+
+  private void writeGathered() throws IOException {
+    gatherCommBuffer();
+    long remaining = this.gatheredLength;
+    while (remaining > 0) {
+      remaining -= this.socketChannel.write(this.gatheredBuffers, 0, this.gatheredCount);
+    }
+    if (this.messageStats != null) {
+      this.messageStats.incSentBytes(this.gatheredLength);
+    }
+    resetGathered();
+  }
+
+  private void resetGathered() {
+    for (int i = 0; i < this.gatheredCount; i++) {
+      this.gatheredBuffers[i] = null;
+    }
+    this.gatheredCount = 0;
+    this.gatheredLength = 0;
+    this.gatheredCommBufferStart = 0;
+    getCommBuffer().clear();
+  }
+
   void flushBuffer() throws IOException {
+    if (this.gatheredCount > 0) {
+      writeGathered();
+      return;
+    }
     final ByteBuffer cb = getCommBuffer();
     if (this.socketChannel != null) {
       cb.flip();
@@ -667,7 +770,7 @@ public class Message {
     if (this.socketChannel != null) {
       cb.limit(headerLength);
       do {
-        int bytesRead = this.socketChannel.read(cb);
+        int bytesRead = this.readChannel.read(cb);
         if (bytesRead == -1) {
           throw new EOFException(
               LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
@@ -893,7 +996,7 @@ public class Message {
               bytesThisTime = cb.capacity();
             }
             cb.limit(bytesThisTime);
-            int res = this.socketChannel.read(cb);
+            int res = this.readChannel.read(cb);
             if (res != -1) {
               cb.flip();
               bytesRemaining -= res;
@@ -970,7 +1073,7 @@ public class Message {
         commBuffer.limit(commBuffer.position() + bytesRemaining);
       }
       while (remaining > 0) {
-        int res = this.socketChannel.read(commBuffer);
+        int res = this.readChannel.read(commBuffer);
         if (res != -1) {
           remaining -= res;
           bytesRead += res;
@@ -1062,12 +1165,32 @@ public class Message {
     Assert.assertTrue(socket != null);
     this.socket = socket;
     this.socketChannel = socket.getChannel();
+    this.readChannel = this.socketChannel;
     this.inputStream = is;
     this.outputStream = os;
     this.cachedCommBuffer = bb;
     this.messageStats = msgStats;
   }
 
+  /**
+   * Makes this message read from and write to the given streams, even if the socket has a channel.
+   */
+  void setComms(ServerConnection sc, Socket socket, InputStream is, OutputStream os, ByteBuffer bb,
+      MessageStats msgStats) {
+    this.serverConnection = sc;
+    setComms(socket, is, os, bb, msgStats);
+    this.socketChannel = null;
+    this.readChannel = null;
+  }
+
+  /**
+   * Makes this message read from the given channel, which returns the bytes of the socket's
+   * channel, instead of from the socket's channel itself.
+   */
+  void setReadChannel(ReadableByteChannel channel) {
+    this.readChannel = channel;
+  }
+
   /**
    * Undo any state changes done by setComms.
    * 
@@ -1076,6 +1199,7 @@ public class Message {
   public void unsetComms() {
     this.socket = null;
     this.socketChannel = null;
+    this.readChannel = null;
     this.inputStream = null;
     this.outputStream = null;
     this.cachedCommBuffer = null;
@@ -350,6 +350,24 @@ public class Part {
     }
   }
 
+  /**
+   * Returns a buffer over the bytes this part holds, so that they can be written to a channel
+   * without first being copied into the comm buffer, or null if the part is not stored in a single
+   * buffer. Heap byte arrays larger than maxHeapLength are not returned, since the channel copies
+   * heap buffers into a temporary direct buffer it caches per thread.
+   *
+   * @since Geode 1.3
+   */
+  ByteBuffer getBufferForWriting(int maxHeapLength) {
+    if (this.part instanceof byte[]) {
+      byte[] bytes = (byte[]) this.part;
+      return bytes.length <= maxHeapLength ? ByteBuffer.wrap(bytes) : null;
+    } else if (this.part instanceof StoredObject) {
+      return ((StoredObject) this.part).createDirectByteBuffer();
+    }
+    return null;
+  }
+
   /**
    * Write the contents of this part to the specified socket channel using the specified byte
    * buffer. This is only called for parts that will not fit into the commBuffer so they need to be
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Processes one pipelined request at a time for the client of a {@link ServerConnection} that is
+ * pipelining its requests. It reads the request from the payload of the frame that held it, and
+ * collects the response in a frame of its own.
+ *
+ * @since Geode 1.3
+ */
+class PipelinedServerConnection extends ServerConnection {
+
+  private final ByteBuffer commBuffer;
+
+  private final FrameOutputStream response;
+
+  PipelinedServerConnection(ServerConnection connection, int bufferSize) {
+    super(connection);
+    this.commBuffer = ByteBuffer.allocate(bufferSize);
+    this.response = new FrameOutputStream(bufferSize);
+  }
+
+  /**
+   * Processes the given request and returns the frame holding its response, which is empty if the
+   * request has no response. The frame may be used until the next request is processed.
+   */
+  FrameOutputStream processRequest(byte[] request) {
+    this.response.reset();
+    setMessageStreams(new ByteArrayInputStream(request), this.response, this.commBuffer);
+    doOneMessage();
+    return this.response;
+  }
+
+  @Override
+  public boolean canStartPipelining() {
+    return false;
+  }
+
+  /**
+   * Accepts the handshake, which the client did on the connection it pipelines requests on.
+   */
+  @Override
+  protected boolean doHandShake(byte epType, int qSize) {
+    return true;
+  }
+
+  @Override
+  protected void doOneMessage() {
+    resetTransientData();
+    doNormalMsg();
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The channel a server connection of a multiplexing {@link AcceptorImpl} reads its requests from.
+ * A selector thread reads the bytes of the next {@link Message} ahead, in non-blocking mode, into a
+ * comm buffer taken from the acceptor's pool, until the whole message or as much of it as fits is
+ * buffered. The message then reads the buffered bytes, and the rest of a message too large for the
+ * buffer from the socket, in blocking mode, in a thread of the acceptor's pool.
+ * <p>
+ * The buffer is only held while it has bytes that have not been read, so idle connections hold no
+ * buffer, and is returned to the pool when the channel is closed. The selector thread and the pool
+ * thread never use the channel at the same time, but the connection may be closed by any thread.
+ *
+ * @since Geode 1.3
+ */
+class PrefetchedMessageChannel implements ReadableByteChannel {
+
+  /** The offset of the payload length in the header of a message */
+  private static final int PAYLOAD_LENGTH_OFFSET = 4;
+
+  private final SocketChannel channel;
+
+  private final AcceptorImpl acceptor;
+
+  private final int headerLength;
+
+  /** The bytes read ahead, between the position and the limit, or null if there are none */
+  private ByteBuffer buffer;
+
+  private boolean closed;
+
+  PrefetchedMessageChannel(SocketChannel channel, AcceptorImpl acceptor, int headerLength) {
+    this.channel = channel;
+    this.acceptor = acceptor;
+    this.headerLength = headerLength;
+  }
+
+  /**
+   * Reads the bytes available on the socket, which must be in non-blocking mode, into the buffer.
+   * Returns the number of bytes read, or -1 if the socket was closed by the client.
+   */
+  synchronized int prefetch() throws IOException {
+    if (this.closed) {
+      throw new ClosedChannelException();
+    }
+    ByteBuffer bb = this.buffer;
+    if (bb == null) {
+      bb = this.acceptor.takeCommBuffer();
+      bb.clear();
+      this.buffer = bb;
+    } else {
+      bb.compact();
+    }
+    try {
+      return this.channel.read(bb);
+    } finally {
+      bb.flip();
+    }
+  }
+
+  /**
+   * Returns true if a whole message is buffered, or if the buffer is full with the start of a
+   * message that does not fit.
+   */
+  synchronized boolean isMessageReady() {
+    ByteBuffer bb = this.buffer;
+    if (bb == null) {
+      return false;
+    }
+    int available = bb.remaining();
+    if (available == bb.capacity()) {
+      return true;
+    }
+    if (available < this.headerLength) {
+      return false;
+    }
+    int payloadLength = bb.getInt(bb.position() + PAYLOAD_LENGTH_OFFSET);
+    // let the message report an invalid length
+    return payloadLength < 0 || available - this.headerLength >= payloadLength;
+  }
+
+  /**
+   * Returns the buffer to the acceptor's pool if all its bytes have been read.
+   */
+  synchronized void releaseBufferIfEmpty() {
+    ByteBuffer bb = this.buffer;
+    if (bb != null && !bb.hasRemaining()) {
+      this.buffer = null;
+      this.acceptor.releaseCommBuffer(bb);
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    int count = readBuffered(dst);
+    if (count < 0) {
+      // nothing is buffered; the socket is read outside the lock so close is never held up
+      return this.channel.read(dst);
+    }
+    return count;
+  }
+
+  /**
+   * Copies buffered bytes into the given buffer. Returns the number of bytes copied, or -1 if none
+   * are buffered.
+   */
+  private synchronized int readBuffered(ByteBuffer dst) {
+    ByteBuffer bb = this.buffer;
+    if (bb == null || !bb.hasRemaining()) {
+      return -1;
+    }
+    int count = Math.min(bb.remaining(), dst.remaining());
+    int limit = bb.limit();
+    bb.limit(bb.position() + count);
+    dst.put(bb);
+    bb.limit(limit);
+    return count;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return this.channel.isOpen();
+  }
+
+  /**
+   * Closes the socket and returns the buffer, with any bytes still in it, to the acceptor's pool.
+   */
+  @Override
+  public void close() throws IOException {
+    ByteBuffer bb;
+    synchronized (this) {
+      this.closed = true;
+      bb = this.buffer;
+      this.buffer = null;
+    }
+    try {
+      this.channel.close();
+    } finally {
+      if (bb != null) {
+        this.acceptor.releaseCommBuffer(bb);
+      }
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+
+/**
+ * Reads the requests a client pipelines on a {@link ServerConnection} and gives them to the
+ * pipeline threads of the acceptor, which write the responses back as they finish. Every request
+ * and response is a frame that starts with the correlation id the client gave the request, so the
+ * responses may be written in any order.
+ *
+ * @see AcceptorImpl#PIPELINE_THREADS_PROPERTY_NAME
+ * @since Geode 1.3
+ */
+class RequestPipeline {
+  private static final Logger logger = LogService.getLogger();
+
+  private final ServerConnection connection;
+
+  private final AcceptorImpl acceptor;
+
+  private final DataInputStream in;
+
+  private final OutputStream out;
+
+  private final int bufferSize;
+
+  /**
+   * Limits the number of requests of the connection processed at once
+   */
+  private final Semaphore permits;
+
+  /**
+   * The connections that have processed a request and are not processing one
+   */
+  private final Queue<PipelinedServerConnection> idleConnections = new ConcurrentLinkedQueue<>();
+
+  RequestPipeline(ServerConnection connection) throws IOException {
+    this.connection = connection;
+    this.acceptor = connection.getAcceptor();
+    Socket socket = connection.getSocket();
+    this.bufferSize = socket.getReceiveBufferSize();
+    SocketChannel channel = socket.getChannel();
+    InputStream input;
+    if (channel == null) {
+      input = socket.getInputStream();
+      this.out = socket.getOutputStream();
+    } else {
+      // the streams of a channel's socket lock the channel while they read, so responses could not
+      // be written while the next request is read
+      input = new ChannelInputStream(channel);
+      this.out = new ChannelOutputStream(channel);
+    }
+    this.in = new DataInputStream(new BufferedInputStream(input, this.bufferSize));
+    this.permits = new Semaphore(this.acceptor.getPipelineThreads());
+  }
+
+  /**
+   * Starts a thread that reads the requests of the connection until it is closed. This is used
+   * instead of a selector, which would need the channel to be in non-blocking mode.
+   */
+  void start() {
+    Thread reader = this.acceptor.createPipelineReader(new Runnable() {
+      public void run() {
+        try {
+          while (connection.getFlagProcessMessages() && !connection.crHelper.isShutdown()) {
+            readRequest();
+          }
+        } finally {
+          try {
+            connection.handleTermination();
+          } catch (CancelException e) {
+            // ignore
+          }
+        }
+      }
+    }, this.connection);
+    reader.start();
+  }
+
+  /**
+   * Reads the next request and gives it to a pipeline thread once fewer than the maximum number of
+   * requests of the connection are being processed.
+   */
+  void readRequest() {
+    try {
+      final int correlationId = this.in.readInt();
+      final byte[] request = FrameOutputStream.readPayload(this.in);
+      this.permits.acquire();
+      PipelinedServerConnection pipelinedConnection = this.idleConnections.poll();
+      if (pipelinedConnection == null) {
+        pipelinedConnection = new PipelinedServerConnection(this.connection, this.bufferSize);
+      }
+      final PipelinedServerConnection sc = pipelinedConnection;
+      try {
+        this.acceptor.executePipelinedRequest(new Runnable() {
+          public void run() {
+            process(sc, correlationId, request);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        this.idleConnections.offer(sc);
+        this.permits.release();
+        this.connection.setFlagProcessMessagesAsFalse();
+      }
+    } catch (EOFException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: pipelining client closed its connection", this.connection.getName());
+      }
+      this.connection.setFlagProcessMessagesAsFalse();
+      this.connection.setClientDisconnectedException(e);
+    } catch (IOException e) {
+      if (!this.connection.crHelper.isShutdown() && !this.connection.isTerminated()) {
+        logger.warn(LocalizedMessage
+            .create(LocalizedStrings.ServerConnection_0__UNEXPECTED_EXCEPTION, e));
+      }
+      this.connection.setFlagProcessMessagesAsFalse();
+      this.connection.setClientDisconnectedException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.connection.setFlagProcessMessagesAsFalse();
+    }
+  }
+
+  private void process(PipelinedServerConnection sc, int correlationId, byte[] request) {
+    try {
+      FrameOutputStream response = sc.processRequest(request);
+      if (!response.isEmpty()) {
+        synchronized (this.out) {
+          response.writeFrame(correlationId, this.out);
+        }
+      }
+    } catch (IOException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: could not write the response to pipelined request {}",
+            this.connection.getName(), correlationId, e);
+      }
+    } finally {
+      this.idleConnections.offer(sc);
+      this.permits.release();
+    }
+  }
+
+  private static class ChannelInputStream extends InputStream {
+    private final SocketChannel channel;
+
+    ChannelInputStream(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return len == 0 ? 0 : this.channel.read(ByteBuffer.wrap(b, off, len));
+    }
+  }
+
+  private static class ChannelOutputStream extends OutputStream {
+    private final SocketChannel channel;
+
+    ChannelOutputStream(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+      while (buffer.hasRemaining()) {
+        this.channel.write(buffer);
+      }
+    }
+  }
+}
@@ -19,6 +19,8 @@ import static org.apache.geode.distributed.ConfigurationProperties.*;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
@@ -153,6 +155,17 @@ public abstract class ServerConnection implements Runnable {
   // private InputStream in = null;
   // private OutputStream out = null;
   private ByteBuffer commBuffer;
+
+  /**
+   * The channel requests are read from when the acceptor is multiplexing; null otherwise.
+   */
+  private PrefetchedMessageChannel prefetchedChannel;
+
+  /**
+   * The pipeline the client sends its requests through once it has asked to pipeline them; null
+   * until then.
+   */
+  private volatile RequestPipeline pipeline;
   protected final CachedRegionHelper crHelper;
   protected String name = null;
 
@@ -307,6 +320,36 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  /**
+   * Creates a connection that processes requests pipelined on the given connection, whose handshake
+   * is done. It uses the socket and the client's identity of the given connection, but has messages
+   * of its own, which are given their streams by {@link #setMessageStreams}.
+   */
+  ServerConnection(ServerConnection connection) {
+    this.name = connection.name;
+    this.stats = connection.stats;
+    this.acceptor = connection.acceptor;
+    this.crHelper = connection.crHelper;
+    this.logWriter = connection.logWriter;
+    this.securityLogWriter = connection.securityLogWriter;
+    this.communicationModeStr = connection.communicationModeStr;
+    this.communicationMode = connection.communicationMode;
+    this.securityService = connection.securityService;
+    this.randomConnectionIdGen = new Random(this.hashCode());
+    this.theSocket = connection.theSocket;
+    this.handShakeTimeout = connection.handShakeTimeout;
+    this.principal = connection.principal;
+    this.authzRequest = connection.authzRequest;
+    this.postAuthzRequest = connection.postAuthzRequest;
+    this.proxyId = connection.proxyId;
+    this.memberIdByteArray = connection.memberIdByteArray;
+    this.commands = connection.commands;
+    this.clientUserAuths = connection.clientUserAuths;
+    this.connectionId = connection.connectionId;
+    this.userAuthId = connection.userAuthId;
+    setHandshake(connection.handshake);
+  }
+
   public AcceptorImpl getAcceptor() {
     return this.acceptor;
   }
@@ -1136,8 +1179,16 @@ public abstract class ServerConnection implements Runnable {
         if (!isTerminated()) {
           getAcceptor().setTLCommBuffer();
           doOneMessage();
+          if (this.prefetchedChannel != null) {
+            this.prefetchedChannel.releaseBufferIfEmpty();
+          }
           if (this.processMessages && !(this.crHelper.isShutdown())) {
-            registerWithSelector(); // finished msg so reregister
+            if (isPipelining()) {
+              // the channel stays in blocking mode so responses can be written while reading
+              this.pipeline.start();
+            } else {
+              registerWithSelector(); // finished msg so reregister
+            }
             finishedMsg = true;
           }
         }
@@ -1202,6 +1253,18 @@ public abstract class ServerConnection implements Runnable {
     getAcceptor().registerSC(this);
   }
 
+  /**
+   * Returns true if the next bytes this connection reads are a {@link Message}, which the selector
+   * threads of a multiplexing acceptor may read ahead.
+   */
+  boolean canPrefetchMessage() {
+    return false;
+  }
+
+  PrefetchedMessageChannel getPrefetchedChannel() {
+    return this.prefetchedChannel;
+  }
+
   public SelectableChannel getSelectableChannel() {
     return this.theSocket.getChannel();
   }
@@ -1413,6 +1476,11 @@ public abstract class ServerConnection implements Runnable {
         commBuffer = allocateCommBuffer(socketBufferSize, s);
       }
       requestMsg.setComms(this, theSocket, commBuffer, msgStats);
+      if (getAcceptor().isMultiplexing()) {
+        this.prefetchedChannel = new PrefetchedMessageChannel(s.getChannel(), getAcceptor(),
+            requestMsg.getHeaderLength());
+        requestMsg.setReadChannel(this.prefetchedChannel);
+      }
       replyMsg.setComms(this, theSocket, commBuffer, msgStats);
       responseMsg.setComms(this, theSocket, commBuffer, msgStats);
       errorMsg.setComms(this, theSocket, commBuffer, msgStats);
@@ -1429,6 +1497,52 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  /**
+   * Makes the messages of this connection read from and write to the given streams instead of the
+   * socket.
+   */
+  void setMessageStreams(InputStream in, OutputStream out, ByteBuffer buffer) {
+    requestMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    replyMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    responseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    errorMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+
+    chunkedResponseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    queryResponseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    executeFunctionResponseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    registerInterestResponseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+    keySetResponseMsg.setComms(this, theSocket, in, out, buffer, this.stats);
+  }
+
+  /**
+   * Returns true if the client may pipeline its requests on this connection.
+   *
+   * @see AcceptorImpl#PIPELINE_THREADS_PROPERTY_NAME
+   */
+  public boolean canStartPipelining() {
+    return this.acceptor.isPipeliningEnabled() && !AcceptorImpl.isAuthenticationRequired()
+        && this.communicationMode == Acceptor.CLIENT_TO_SERVER && this.pipeline == null;
+  }
+
+  /**
+   * Makes every request this connection reads from now on a frame holding a pipelined request. The
+   * caller must have replied to the client's request to pipeline first.
+   */
+  public void startPipelining() throws IOException {
+    this.pipeline = new RequestPipeline(this);
+  }
+
+  boolean isPipelining() {
+    return this.pipeline != null;
+  }
+
+  /**
+   * Reads the next pipelined request of the client and gives it to a pipeline thread.
+   */
+  void readPipelinedRequest() {
+    this.pipeline.readRequest();
+  }
+
   public boolean isOpen() {
     return !isClosed();
   }
@@ -1444,6 +1558,12 @@ public abstract class ServerConnection implements Runnable {
   }
 
   public boolean cleanup() {
+    if (this.prefetchedChannel != null) {
+      try {
+        this.prefetchedChannel.close();
+      } catch (IOException ignore) {
+      }
+    }
     if (isClosed()) {
       return false;
     }
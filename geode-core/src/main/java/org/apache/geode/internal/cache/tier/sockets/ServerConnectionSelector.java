@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.SystemFailure;
+import org.apache.geode.distributed.internal.DistributionStats;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+
+/**
+ * One of the selector threads of a multiplexing {@link AcceptorImpl}. It waits for requests on the
+ * client connections registered with it and reads them in non-blocking mode, using a
+ * {@link PrefetchedMessageChannel} for each connection, so that a thread of the acceptor's pool is
+ * only given a connection once the whole request has arrived. A connection is registered again by
+ * the pool thread when it has processed the request.
+ * <p>
+ * The time each pass of the loop spends reading from the connections that are ready and handing
+ * them to the pool is added to the {@link CacheServerStats}.
+ *
+ * @since Geode 1.3
+ */
+class ServerConnectionSelector implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  private final AcceptorImpl acceptor;
+
+  private final Selector selector;
+
+  /** Connections waiting to be registered by the selector thread */
+  private final ConcurrentLinkedQueue<ServerConnection> registrations =
+      new ConcurrentLinkedQueue<>();
+
+  private Thread thread;
+
+  ServerConnectionSelector(AcceptorImpl acceptor) throws IOException {
+    this.acceptor = acceptor;
+    this.selector = Selector.open();
+  }
+
+  void start(ThreadGroup group, String name) {
+    this.thread = new Thread(group, this, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Asks the selector thread to wait for the next request on the given connection, whose channel
+   * must be in non-blocking mode.
+   */
+  void register(ServerConnection sc) {
+    this.registrations.offer(sc);
+    this.selector.wakeup();
+  }
+
+  void close() {
+    try {
+      this.selector.wakeup();
+      this.selector.close();
+    } catch (IOException ignore) {
+    }
+    if (this.thread != null) {
+      this.thread.interrupt();
+    }
+  }
+
+  boolean isClosed() {
+    return !this.selector.isOpen() && (this.thread == null || !this.thread.isAlive());
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (this.selector.isOpen() && !Thread.currentThread().isInterrupted()) {
+        SystemFailure.checkFailure();
+        this.acceptor.getCachedRegionHelper().checkCancelInProgress(null);
+        processRegistrations();
+        this.selector.select();
+        long start = DistributionStats.getStatTime();
+        boolean cancelled = processSelectedKeys();
+        while (cancelled && this.selector.isOpen()) {
+          // deregister the cancelled keys so that the connections can be registered again
+          if (this.selector.selectNow() == 0) {
+            break;
+          }
+          cancelled = processSelectedKeys();
+        }
+        this.acceptor.getStats().incSelectorLoopTime(DistributionStats.getStatTime() - start);
+      }
+    } catch (ClosedSelectorException ignore) {
+      // allow this thread to exit
+    } catch (CancelException ignore) {
+      // allow this thread to exit
+    } catch (IOException ex) {
+      logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_UNEXPECTED, ex));
+    } finally {
+      terminateConnections();
+    }
+  }
+
+  private void processRegistrations() {
+    ServerConnection sc;
+    while ((sc = this.registrations.poll()) != null) {
+      if (sc.canPrefetchMessage() && sc.getPrefetchedChannel().isMessageReady()) {
+        // the previous read got the whole next request too
+        dispatch(sc);
+        continue;
+      }
+      try {
+        sc.registerWithSelector2(this.selector);
+      } catch (ClosedChannelException ignore) {
+        finishCon(sc);
+      } catch (IOException | RuntimeException ex) {
+        finishCon(sc);
+        logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_IGNORING, ex));
+      }
+    }
+  }
+
+  /**
+   * Reads from the connections that are ready. Returns true if any of their keys were cancelled.
+   */
+  private boolean processSelectedKeys() {
+    boolean cancelled = false;
+    Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+    while (it.hasNext()) {
+      SelectionKey key = it.next();
+      it.remove();
+      ServerConnection sc = (ServerConnection) key.attachment();
+      try {
+        if (key.isValid() && key.isReadable()) {
+          if (!sc.canPrefetchMessage()) {
+            // the handshake is read by the pool thread
+            key.cancel();
+            cancelled = true;
+            dispatch(sc);
+            continue;
+          }
+          PrefetchedMessageChannel channel = sc.getPrefetchedChannel();
+          int bytesRead;
+          try {
+            bytesRead = channel.prefetch();
+          } catch (IOException ex) {
+            bytesRead = -1;
+          }
+          if (bytesRead < 0) {
+            key.cancel();
+            cancelled = true;
+            finishCon(sc);
+          } else if (channel.isMessageReady()) {
+            key.cancel();
+            cancelled = true;
+            dispatch(sc);
+          }
+        } else {
+          key.cancel();
+          cancelled = true;
+          finishCon(sc);
+        }
+      } catch (CancelledKeyException ex) {
+        finishCon(sc);
+      }
+    }
+    return cancelled;
+  }
+
+  /**
+   * Gives a connection whose key has been cancelled to a thread of the acceptor's pool.
+   */
+  private void dispatch(ServerConnection sc) {
+    try {
+      sc.makeBlocking();
+      // keep the client health monitor from timing out the connection while it waits for a thread
+      sc.setProcessingMessage();
+    } catch (IOException ex) {
+      finishCon(sc);
+      return;
+    }
+    this.acceptor.execute(sc);
+  }
+
+  private void finishCon(ServerConnection sc) {
+    try {
+      sc.handleTermination();
+    } catch (CancelException ignore) {
+    }
+  }
+
+  private void terminateConnections() {
+    List<ServerConnection> connections = new ArrayList<>(this.registrations);
+    this.registrations.clear();
+    try {
+      for (SelectionKey key : this.selector.keys()) {
+        connections.add((ServerConnection) key.attachment());
+      }
+    } catch (ClosedSelectorException ignore) {
+      // the connections are terminated when the acceptor shuts them down
+    }
+    for (ServerConnection sc : connections) {
+      finishCon(sc);
+    }
+  }
+}
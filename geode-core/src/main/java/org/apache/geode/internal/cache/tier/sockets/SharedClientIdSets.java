@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one instance of each set of clients that events are routed to. An event queued for many
+ * clients holds the set of the clients interested in it, so without sharing the memory those sets
+ * take grows with the number of events times the number of clients. Events routed to the same
+ * clients, such as the updates of keys all of them are interested in, share one set instead.
+ * <p>
+ * The sets passed to and returned by {@link #share} must not be modified afterwards. At most the
+ * given number of sets is kept; when that many are kept, they are all dropped and collection starts
+ * over.
+ * <p>
+ * Sharing is opt-in: {@link CacheClientNotifier} only shares sets if
+ * {@link CacheClientNotifier#SHARED_ROUTING_SETS_PROPERTY_NAME} is greater than zero. It only
+ * removes the routing sets from the memory of a high-fanout event; each client still has its own
+ * queue with an entry for every event queued for it.
+ *
+ * @since Geode 1.3
+ */
+class SharedClientIdSets {
+
+  private final int maximumSets;
+
+  private final ConcurrentMap<Set<ClientProxyMembershipID>, Set<ClientProxyMembershipID>> sets =
+      new ConcurrentHashMap<>();
+
+  /**
+   * @param maximumSets the most sets kept; no set is shared if it is not greater than zero
+   */
+  SharedClientIdSets(int maximumSets) {
+    this.maximumSets = maximumSets;
+  }
+
+  /**
+   * Returns the kept set equal to the given one, or the given set, which is kept from now on, if
+   * there is none.
+   */
+  Set<ClientProxyMembershipID> share(Set<ClientProxyMembershipID> ids) {
+    if (this.maximumSets <= 0 || ids == null || ids.isEmpty()) {
+      return ids;
+    }
+    Set<ClientProxyMembershipID> shared = this.sets.get(ids);
+    if (shared != null) {
+      return shared;
+    }
+    if (this.sets.size() >= this.maximumSets) {
+      this.sets.clear();
+    }
+    shared = this.sets.putIfAbsent(ids, ids);
+    return shared == null ? ids : shared;
+  }
+
+  /**
+   * Drops the kept sets, for instance so that they no longer refer to a client that has left.
+   */
+  void clear() {
+    this.sets.clear();
+  }
+
+  int size() {
+    return this.sets.size();
+  }
+}
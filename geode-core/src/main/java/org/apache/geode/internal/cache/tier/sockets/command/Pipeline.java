@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Replies to a client's request to pipeline its requests on a connection, after which every request
+ * and response on the connection is a frame.
+ *
+ * @since Geode 1.3
+ */
+public class Pipeline extends BaseCommand {
+
+  private static final Pipeline singleton = new Pipeline();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private Pipeline() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    if (serverConnection.canStartPipelining()) {
+      writeReply(clientMessage, serverConnection);
+      serverConnection.startPipelining();
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: client started pipelining requests on {}", serverConnection.getName(),
+            serverConnection.getSocketString());
+      }
+    } else {
+      writeErrorResponse(clientMessage, MessageType.REQUESTDATAERROR,
+          "Pipelining is not enabled on this server", serverConnection);
+    }
+    serverConnection.setAsTrue(RESPONDED);
+  }
+}
@@ -588,6 +588,8 @@ public abstract class CacheXml implements EntityResolver2, ErrorHandler {
   public static final String AUTO_COMPACT = "auto-compact";
   public static final String ALLOW_FORCE_COMPACTION = "allow-force-compaction";
   public static final String COMPACTION_THRESHOLD = "compaction-threshold";
+  /** Name of disk store property specifying the maximum compaction rate in bytes per second **/
+  public static final String COMPACTION_MAX_BYTES_PER_SECOND = "compaction-max-bytes-per-second";
   /** Name of disk region property specifying the max oplog size in megabytes **/
   public static final String MAX_OPLOG_SIZE = "max-oplog-size";
 
@@ -1125,6 +1125,16 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
                 String.valueOf(ds.getDiskUsageCriticalPercentage()));
         }
       }
+
+      if (this.version.compareTo(CacheXmlVersion.GEODE_1_0) >= 0) {
+        if ((!(ds instanceof DiskStoreAttributesCreation)
+            || ((DiskStoreAttributesCreation) ds).hasCompactionMaxBytesPerSecond())) {
+          if (generateDefaults() || ds
+              .getCompactionMaxBytesPerSecond() != DiskStoreFactory.DEFAULT_COMPACTION_MAX_BYTES_PER_SECOND)
+            atts.addAttribute("", "", COMPACTION_MAX_BYTES_PER_SECOND, "",
+                String.valueOf(ds.getCompactionMaxBytesPerSecond()));
+        }
+      }
     } finally {
       handler.startElement("", DISK_STORE, DISK_STORE, atts);
 
@@ -980,6 +980,11 @@ public class CacheXmlParser extends CacheXml implements ContentHandler {
       attrs.setCompactionThreshold(parseInt(compactionThreshold));
     }
 
+    String compactionMaxBytesPerSecond = atts.getValue(COMPACTION_MAX_BYTES_PER_SECOND);
+    if (compactionMaxBytesPerSecond != null) {
+      attrs.setCompactionMaxBytesPerSecond(parseLong(compactionMaxBytesPerSecond));
+    }
+
     String allowForceCompaction = atts.getValue(ALLOW_FORCE_COMPACTION);
     if (allowForceCompaction != null) {
       attrs.setAllowForceCompaction(Boolean.valueOf(allowForceCompaction).booleanValue());
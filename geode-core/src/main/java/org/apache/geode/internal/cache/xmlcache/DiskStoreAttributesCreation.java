@@ -57,6 +57,7 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
     this.name = attrs.getName();
     this.autoCompact = attrs.getAutoCompact();
     this.compactionThreshold = attrs.getCompactionThreshold();
+    this.compactionMaxBytesPerSecond = attrs.getCompactionMaxBytesPerSecond();
     this.allowForceCompaction = attrs.getAllowForceCompaction();
     this.maxOplogSizeInBytes = attrs.getMaxOplogSizeInBytes();
     this.timeInterval = attrs.getTimeInterval();
@@ -188,6 +189,12 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
               .toLocalizedString(
                   new Object[] {name, this.compactionThreshold, other.getCompactionThreshold()}));
     }
+    if (this.compactionMaxBytesPerSecond != other.getCompactionMaxBytesPerSecond()) {
+      throw new RuntimeException(
+          LocalizedStrings.DiskStoreAttributesCreation_COMPACTIONMAXBYTESPERSECOND_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2
+              .toLocalizedString(new Object[] {name, this.compactionMaxBytesPerSecond,
+                  other.getCompactionMaxBytesPerSecond()}));
+    }
     if (this.allowForceCompaction != other.getAllowForceCompaction()) {
       throw new RuntimeException(
           LocalizedStrings.DiskStoreAttributesCreation_ALLOWFORCECOMPACTION_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2
@@ -253,6 +260,11 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
     this.setHasCompactionThreshold(true);
   }
 
+  public void setCompactionMaxBytesPerSecond(long compactionMaxBytesPerSecond) {
+    this.compactionMaxBytesPerSecond = compactionMaxBytesPerSecond;
+    this.setHasCompactionMaxBytesPerSecond(true);
+  }
+
   public void setAllowForceCompaction(boolean allowForceCompaction) {
     this.allowForceCompaction = allowForceCompaction;
     this.setHasAllowForceCompaction(true);
@@ -7439,6 +7439,9 @@ public class LocalizedStrings {
       new StringId(5660, "Disk usage warning percentages of disk store {0} are not the same");
   public static final StringId DiskStoreAttributesCreation_DISK_USAGE_CRITICAL_ARE_NOT_THE_SAME =
       new StringId(5661, "Disk usage critical percentages of disk store {0} are not the same");
+  public static final StringId DiskStoreAttributesCreation_COMPACTIONMAXBYTESPERSECOND_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2 =
+      new StringId(6661,
+          "CompactionMaxBytesPerSecond of disk store {0} is not the same: this:  {1}  other:  {2}");
 
   public static final StringId MEMSCALE_JVM_INCOMPATIBLE_WITH_OFF_HEAP = new StringId(5662,
       "Your Java virtual machine is incompatible with off-heap memory.  Please refer to {0} documentation for suggested JVMs.");
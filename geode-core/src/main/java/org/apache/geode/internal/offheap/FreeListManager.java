@@ -47,6 +47,15 @@ public class FreeListManager {
       new ConcurrentSkipListSet<OffHeapStoredObject>();
   private final AtomicLong allocatedSize = new AtomicLong(0L);
 
+  /** The number of freed chunks of each cached tiny size that each thread keeps. */
+  private final int threadCacheSize;
+  /** Tiny free list indexes below this are cached by threads. */
+  private final int threadCachedFreeListCount;
+  private final ThreadLocal<FreeListThreadCache> threadCache =
+      new ThreadLocal<FreeListThreadCache>();
+  private final CopyOnWriteArrayList<FreeListThreadCache> threadCaches =
+      new CopyOnWriteArrayList<FreeListThreadCache>();
+
   private int getNearestTinyMultiple(int size) {
     return (size - 1) / TINY_MULTIPLE;
   }
@@ -77,6 +86,115 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Returns the start and end address of the span of a slab that would become the largest free
+   * fragment if the allocated chunks in it were moved elsewhere, or null if there is no such span
+   * larger than the free space of every fragment now. Only spans that start and end with free
+   * memory and whose allocated chunks add up to at most maxLiveBytes are considered. Memory is
+   * scanned while other threads allocate and free, so the result is only a hint.
+   */
+  long[] findEvacuationSpan(long maxLiveBytes) {
+    Fragment[] fragments = this.fragmentList.toArray(new Fragment[0]);
+    Arrays.sort(fragments, new Comparator<Fragment>() {
+      @Override
+      public int compare(Fragment f1, Fragment f2) {
+        return Long.compare(f1.getAddress(), f2.getAddress());
+      }
+    });
+    long[] result = null;
+    long largest = getLargestFragmentFreeSpace();
+    for (int i = 0; i < this.slabs.length; i++) {
+      long[] span = findEvacuationSpan(this.slabs[i], fragments, maxLiveBytes);
+      if (span != null && span[1] - span[0] > largest) {
+        result = span;
+        largest = span[1] - span[0];
+      }
+    }
+    return result;
+  }
+
+  private long[] findEvacuationSpan(Slab slab, Fragment[] fragments, long maxLiveBytes) {
+    final long slabEnd = slab.getMemoryAddress() + slab.getSize();
+    // the start address of each run of free or allocated memory; runs alternate, the even ones
+    // being free
+    long[] runs = new long[128];
+    int runCount = 0;
+    long addr = slab.getMemoryAddress();
+    if (!isFreeMemory(addr, fragments)) {
+      runs[runCount++] = addr;
+    }
+    int fragmentIdx = 0;
+    while (addr <= slabEnd - OffHeapStoredObject.MIN_CHUNK_SIZE) {
+      while (fragmentIdx < fragments.length
+          && fragments[fragmentIdx].getAddress() + fragments[fragmentIdx].getSize() <= addr) {
+        fragmentIdx++;
+      }
+      int size = 0;
+      boolean free;
+      if (fragmentIdx < fragments.length) {
+        Fragment f = fragments[fragmentIdx];
+        long fragmentEnd = f.getAddress() + f.getSize();
+        if (addr >= f.getAddress() + f.getFreeIndex() && addr < fragmentEnd) {
+          size = (int) (fragmentEnd - addr);
+        }
+      }
+      if (size > 0) {
+        free = true;
+      } else {
+        size = OffHeapStoredObject.getSize(addr);
+        if (size < OffHeapStoredObject.MIN_CHUNK_SIZE || addr + size > slabEnd) {
+          // the chunk at addr changed while it was read
+          break;
+        }
+        free = OffHeapStoredObject.getRefCount(addr) == 0;
+      }
+      if (free == ((runCount & 1) == 0)) {
+        if (runCount == runs.length) {
+          runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[runCount++] = addr;
+      }
+      addr += size;
+    }
+    // the runs from the free run at first to the free run at last make up the span
+    long[] result = null;
+    long largest = 0;
+    long liveBytes = 0;
+    int first = 0;
+    for (int last = 0; last < runCount; last += 2) {
+      if (last > first) {
+        liveBytes += runs[last] - runs[last - 1];
+      }
+      while (liveBytes > maxLiveBytes) {
+        liveBytes -= runs[first + 2] - runs[first + 1];
+        first += 2;
+      }
+      long spanEnd = last + 1 < runCount ? runs[last + 1] : addr;
+      if (liveBytes > 0 && spanEnd - runs[first] > largest) {
+        largest = spanEnd - runs[first];
+        result = new long[] {runs[first], spanEnd};
+      }
+    }
+    return result;
+  }
+
+  private boolean isFreeMemory(long addr, Fragment[] fragments) {
+    for (Fragment f : fragments) {
+      if (addr >= f.getAddress() + f.getFreeIndex() && addr < f.getAddress() + f.getSize()) {
+        return true;
+      }
+    }
+    return OffHeapStoredObject.getRefCount(addr) == 0;
+  }
+
+  long getLargestFragmentFreeSpace() {
+    long result = 0;
+    for (Fragment f : this.fragmentList) {
+      result = Math.max(result, f.freeSpace());
+    }
+    return result;
+  }
+
   /**
    * If addr is in the free space of a fragment then return that fragment; otherwise return null.
    */
@@ -116,6 +234,9 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (FreeListThreadCache cache : this.threadCaches) {
+      tinyFree += cache.getCachedMemory();
+    }
     return tinyFree;
   }
 
@@ -135,7 +256,15 @@ public class FreeListManager {
   private final MemoryAllocatorImpl ma;
 
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, THREAD_CACHE_SIZE);
+  }
+
+  FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int threadCacheSize) {
     this.ma = ma;
+    this.threadCacheSize = threadCacheSize;
+    this.threadCachedFreeListCount = threadCacheSize > 0
+        ? Math.min(getNearestTinyMultiple(THREAD_CACHE_MAX_CHUNK_SIZE) + 1, TINY_FREE_LIST_COUNT)
+        : 0;
     this.slabs = slabs;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
@@ -211,22 +340,42 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Allocates a chunk for size bytes of data from the free space of a fragment that does not
+   * overlap the memory from start to end, or returns null if none has room. Unlike
+   * {@link #allocate} this never defragments or throws OutOfOffHeapMemoryException.
+   */
+  OffHeapStoredObject allocateOutside(int size, long start, long end) {
+    int chunkSize = round(TINY_MULTIPLE, size + OffHeapStoredObject.HEADER_SIZE);
+    for (int i = 0; i < this.fragmentList.size(); i++) {
+      final Fragment fragment;
+      try {
+        fragment = this.fragmentList.get(i);
+      } catch (IndexOutOfBoundsException ignore) {
+        // A concurrent defragmentation can cause this.
+        return null;
+      }
+      if (fragment.getAddress() < end && fragment.getAddress() + fragment.getSize() > start) {
+        continue;
+      }
+      OffHeapStoredObject result = allocateFromFragment(i, chunkSize);
+      if (result != null) {
+        result.setDataSize(size);
+        this.allocatedSize.addAndGet(result.getSize());
+        result.initializeUseCount();
+        return result;
+      }
+    }
+    return null;
+  }
+
   private OffHeapStoredObject allocateFromFragments(int chunkSize) {
     do {
-      final int lastAllocationId = this.lastFragmentAllocation.get();
-      for (int i = lastAllocationId; i < this.fragmentList.size(); i++) {
-        OffHeapStoredObject result = allocateFromFragment(i, chunkSize);
-        if (result != null) {
-          return result;
-        }
-      }
-      for (int i = 0; i < lastAllocationId; i++) {
-        OffHeapStoredObject result = allocateFromFragment(i, chunkSize);
-        if (result != null) {
-          return result;
-        }
+      OffHeapStoredObject result = allocateFromExistingFragments(chunkSize);
+      if (result != null) {
+        return result;
       }
-    } while (defragment(chunkSize));
+    } while (defragmentForAllocation(chunkSize));
     // We tried all the fragments and didn't find any free memory.
     logOffHeapState(chunkSize);
     final OutOfOffHeapMemoryException failure = new OutOfOffHeapMemoryException(
@@ -238,6 +387,35 @@ public class FreeListManager {
     }
   }
 
+  private OffHeapStoredObject allocateFromExistingFragments(int chunkSize) {
+    final int lastAllocationId = this.lastFragmentAllocation.get();
+    for (int i = lastAllocationId; i < this.fragmentList.size(); i++) {
+      OffHeapStoredObject result = allocateFromFragment(i, chunkSize);
+      if (result != null) {
+        return result;
+      }
+    }
+    for (int i = 0; i < lastAllocationId; i++) {
+      OffHeapStoredObject result = allocateFromFragment(i, chunkSize);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Defragments for an allocation that found no room, recording the time the allocation waited.
+   */
+  private boolean defragmentForAllocation(int chunkSize) {
+    final long startStall = this.ma.getStats().startAllocationStall();
+    try {
+      return defragment(chunkSize);
+    } finally {
+      this.ma.getStats().endAllocationStall(startStall);
+    }
+  }
+
   private void logOffHeapState(int chunkSize) {
     logOffHeapState(logger, chunkSize);
   }
@@ -315,6 +493,17 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public final static int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * The number of freed chunks of each tiny size that each thread keeps to allocate again before
+   * going to the shared free lists. Zero, the default, disables the thread caches.
+   */
+  public final static int THREAD_CACHE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_SIZE", 0);
+  /**
+   * The largest chunk, including its header, that is kept in a thread cache.
+   */
+  public final static int THREAD_CACHE_MAX_CHUNK_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_MAX_CHUNK_SIZE", 1024);
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -446,6 +635,7 @@ public class FreeListManager {
    */
   boolean doDefragment(int chunkSize) {
     boolean result = false;
+    returnThreadCachedChunks();
     ArrayList<LongStack> freeChunks = new ArrayList<LongStack>();
     collectFreeChunks(freeChunks);
     ResizableLongArray sorted = new ResizableLongArray();
@@ -692,8 +882,40 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (useFragments && idx < this.threadCachedFreeListCount) {
+      long memAddr = getThreadCache().poll(idx, this.ma.getStats());
+      if (memAddr != 0) {
+        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  private FreeListThreadCache getThreadCache() {
+    FreeListThreadCache result = this.threadCache.get();
+    if (result == null) {
+      result = new FreeListThreadCache(this.threadCachedFreeListCount, this.threadCacheSize);
+      this.threadCache.set(result);
+      this.threadCaches.add(result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the chunks cached by all threads to the shared free lists, and forgets the caches of
+   * threads that are no longer alive.
+   */
+  void returnThreadCachedChunks() {
+    for (FreeListThreadCache cache : this.threadCaches) {
+      cache.returnAll(this, this.ma.getStats());
+      if (!cache.isOwnerAlive()) {
+        this.threadCaches.remove(cache);
+      }
+    }
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -790,7 +1012,16 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    int idx = getNearestTinyMultiple(cSize);
+    if (idx < this.threadCachedFreeListCount) {
+      getThreadCache().offer(idx, addr, cSize, this, this.ma.getStats());
+    } else {
+      basicFree(addr, idx, this.tinyFreeLists);
+    }
+  }
+
+  void returnToTinyFreeList(long addr, int idx) {
+    basicFree(addr, idx, this.tinyFreeLists);
   }
 
   private void basicFree(long addr, int idx,
@@ -865,6 +1096,9 @@ public class FreeListManager {
         addr = OffHeapStoredObject.getNext(addr);
       }
     }
+    for (FreeListThreadCache cache : this.threadCaches) {
+      cache.addCachedBlocks(value);
+    }
     return value;
   }
 
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.List;
+
+/**
+ * Freed tiny chunks kept by one thread so that it can allocate them again without going through the
+ * shared free lists of a {@link FreeListManager}. The chunks of each tiny size are kept in a small
+ * array, a magazine; when a magazine is full half of it is returned to the shared free list of that
+ * size.
+ * <p>
+ * Only the thread that created the cache allocates from it and frees to it. Other threads only take
+ * all of its chunks back, when the FreeListManager defragments, so the methods synchronize on the
+ * cache but the lock is almost never contended. The cache does not reference its FreeListManager so
+ * that the thread local holding it does not keep the manager alive.
+ *
+ * @since Geode 1.3
+ */
+class FreeListThreadCache {
+
+  /** Hit and miss counts are added to the stats after this many allocations. */
+  private static final int STATS_BATCH_SIZE = 1024;
+
+  private final Thread owner;
+
+  private final int magazineSize;
+
+  /**
+   * The cached chunk addresses of each tiny free list index that is cached, created when first
+   * needed.
+   */
+  private final long[][] magazines;
+
+  private final int[] counts;
+
+  private long cachedMemory;
+
+  private int unpublishedHits;
+
+  private int unpublishedMisses;
+
+  private long unpublishedCachedMemory;
+
+  /**
+   * @param cachedFreeListCount the number of tiny free list indexes, starting at 0, to cache
+   * @param magazineSize the number of chunks cached for each index
+   */
+  FreeListThreadCache(int cachedFreeListCount, int magazineSize) {
+    this.owner = Thread.currentThread();
+    this.magazineSize = magazineSize;
+    this.magazines = new long[cachedFreeListCount][];
+    this.counts = new int[cachedFreeListCount];
+  }
+
+  /**
+   * Removes and returns a cached chunk of the given tiny free list index, or returns 0 if there is
+   * none.
+   */
+  synchronized long poll(int idx, OffHeapMemoryStats stats) {
+    long result = 0L;
+    int count = this.counts[idx];
+    if (count > 0) {
+      count--;
+      result = this.magazines[idx][count];
+      this.counts[idx] = count;
+      int size = OffHeapStoredObject.getSize(result);
+      this.cachedMemory -= size;
+      this.unpublishedCachedMemory -= size;
+      this.unpublishedHits++;
+    } else {
+      this.unpublishedMisses++;
+    }
+    if (this.unpublishedHits + this.unpublishedMisses >= STATS_BATCH_SIZE) {
+      publishStats(stats);
+    }
+    return result;
+  }
+
+  /**
+   * Caches the given free chunk, first returning the older half of its magazine, or at least one
+   * chunk, to the shared free list if the magazine is full.
+   */
+  synchronized void offer(int idx, long addr, int size, FreeListManager freeListManager,
+      OffHeapMemoryStats stats) {
+    long[] magazine = this.magazines[idx];
+    if (magazine == null) {
+      magazine = this.magazines[idx] = new long[this.magazineSize];
+    }
+    int count = this.counts[idx];
+    if (count == magazine.length) {
+      // return the chunks freed longest ago and keep the recent ones; a magazine of one chunk
+      // returns that chunk
+      int returned = Math.max(1, magazine.length / 2);
+      for (int i = 0; i < returned; i++) {
+        int returnedSize = OffHeapStoredObject.getSize(magazine[i]);
+        this.cachedMemory -= returnedSize;
+        this.unpublishedCachedMemory -= returnedSize;
+        freeListManager.returnToTinyFreeList(magazine[i], idx);
+      }
+      count -= returned;
+      System.arraycopy(magazine, returned, magazine, 0, count);
+      publishStats(stats);
+    }
+    magazine[count] = addr;
+    this.counts[idx] = count + 1;
+    this.cachedMemory += size;
+    this.unpublishedCachedMemory += size;
+  }
+
+  /**
+   * Returns all the cached chunks to the shared free lists.
+   */
+  synchronized void returnAll(FreeListManager freeListManager, OffHeapMemoryStats stats) {
+    for (int idx = 0; idx < this.magazines.length; idx++) {
+      long[] magazine = this.magazines[idx];
+      for (int i = 0; i < this.counts[idx]; i++) {
+        freeListManager.returnToTinyFreeList(magazine[i], idx);
+      }
+      this.counts[idx] = 0;
+    }
+    this.unpublishedCachedMemory -= this.cachedMemory;
+    this.cachedMemory = 0;
+    publishStats(stats);
+  }
+
+  synchronized long getCachedMemory() {
+    return this.cachedMemory;
+  }
+
+  /**
+   * Adds a block for each cached chunk to the given list.
+   */
+  synchronized void addCachedBlocks(List<MemoryBlock> blocks) {
+    for (int idx = 0; idx < this.magazines.length; idx++) {
+      for (int i = 0; i < this.counts[idx]; i++) {
+        blocks.add(new FreeListManager.TinyMemoryBlock(this.magazines[idx][i], idx));
+      }
+    }
+  }
+
+  boolean isOwnerAlive() {
+    return this.owner.isAlive();
+  }
+
+  private void publishStats(OffHeapMemoryStats stats) {
+    stats.incThreadCacheHits(this.unpublishedHits);
+    stats.incThreadCacheMisses(this.unpublishedMisses);
+    stats.incThreadCacheFreeMemory(this.unpublishedCachedMemory);
+    this.unpublishedHits = 0;
+    this.unpublishedMisses = 0;
+    this.unpublishedCachedMemory = 0;
+  }
+}
@@ -69,6 +69,8 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
   private MemoryInspector memoryInspector;
 
+  private final OnlineDefragmenter onlineDefragmenter;
+
   private volatile MemoryUsageListener[] memoryUsageListeners = new MemoryUsageListener[0];
 
   private static MemoryAllocatorImpl singleton = null;
@@ -222,6 +224,14 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
+
+    if (OnlineDefragmenter.INTERVAL > 0) {
+      this.onlineDefragmenter = new OnlineDefragmenter(this, OnlineDefragmenter.INTERVAL,
+          OnlineDefragmenter.THRESHOLD, OnlineDefragmenter.MAX_RELOCATION);
+      this.onlineDefragmenter.start();
+    } else {
+      this.onlineDefragmenter = null;
+    }
   }
 
   public List<OffHeapStoredObject> getLostChunks() {
@@ -238,22 +248,34 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
    */
   private List<OffHeapStoredObject> getRegionLiveChunks() {
     ArrayList<OffHeapStoredObject> result = new ArrayList<OffHeapStoredObject>();
+    for (LocalRegion r : getOffHeapRegions()) {
+      this.basicGetRegionLiveChunks(r, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns a possibly empty list of the regions, including the local buckets of partitioned
+   * regions, that store their values in off-heap memory.
+   */
+  List<LocalRegion> getOffHeapRegions() {
+    ArrayList<LocalRegion> result = new ArrayList<LocalRegion>();
     RegionService gfc = GemFireCacheImpl.getInstance();
     if (gfc != null) {
       Iterator<Region<?, ?>> rootIt = gfc.rootRegions().iterator();
       while (rootIt.hasNext()) {
         Region<?, ?> rr = rootIt.next();
-        getRegionLiveChunks(rr, result);
+        getOffHeapRegions(rr, result);
         Iterator<Region<?, ?>> srIt = rr.subregions(true).iterator();
         while (srIt.hasNext()) {
-          getRegionLiveChunks(srIt.next(), result);
+          getOffHeapRegions(srIt.next(), result);
         }
       }
     }
     return result;
   }
 
-  private void getRegionLiveChunks(Region<?, ?> r, List<OffHeapStoredObject> result) {
+  private void getOffHeapRegions(Region<?, ?> r, List<LocalRegion> result) {
     if (r.getAttributes().getOffHeap()) {
 
       if (r instanceof PartitionedRegion) {
@@ -263,14 +285,14 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
           if (brs != null) {
             for (BucketRegion br : brs) {
               if (br != null && !br.isDestroyed()) {
-                this.basicGetRegionLiveChunks(br, result);
+                result.add(br);
               }
 
             }
           }
         }
       } else {
-        this.basicGetRegionLiveChunks((LocalRegion) r, result);
+        result.add((LocalRegion) r);
       }
 
     }
@@ -295,6 +317,23 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
   private OffHeapStoredObject allocateOffHeapStoredObject(int size) {
     OffHeapStoredObject result = this.freeList.allocate(size);
+    afterAllocation(result);
+    return result;
+  }
+
+  /**
+   * Allocates size bytes from free memory that is not between start and end, or returns null if
+   * there is none with room. Unlike {@link #allocate} this never defragments or runs out of memory.
+   */
+  OffHeapStoredObject allocateOutside(int size, long start, long end) {
+    OffHeapStoredObject result = this.freeList.allocateOutside(size, start, end);
+    if (result != null) {
+      afterAllocation(result);
+    }
+    return result;
+  }
+
+  private void afterAllocation(OffHeapStoredObject result) {
     int resultSize = result.getSize();
     stats.incObjects(1);
     stats.incUsedMemory(resultSize);
@@ -303,7 +342,6 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
     if (ReferenceCountHelper.trackReferenceCounts()) {
       ReferenceCountHelper.refCountChanged(result.getAddress(), false, 1);
     }
-    return result;
   }
 
   @Override
@@ -387,6 +425,9 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private void realClose() {
     // Removing this memory immediately can lead to a SEGV. See 47885.
     if (setClosed()) {
+      if (this.onlineDefragmenter != null) {
+        this.onlineDefragmenter.stop();
+      }
       this.freeList.freeSlabs();
       this.stats.close();
       singleton = null;
@@ -43,6 +43,26 @@ public interface OffHeapMemoryStats {
 
   public void setFragmentation(int value);
 
+  public void incThreadCacheHits(long value);
+
+  public void incThreadCacheMisses(long value);
+
+  public void incThreadCacheFreeMemory(long value);
+
+  public long startOnlineDefragmentation();
+
+  public void endOnlineDefragmentation(long start);
+
+  public void setRelocationPendingBytes(long value);
+
+  public void incRelocatedObjects(long value);
+
+  public void incRelocatedBytes(long value);
+
+  public long startAllocationStall();
+
+  public void endAllocationStall(long start);
+
   public long getFreeMemory();
 
   public long getMaxMemory();
@@ -65,6 +85,26 @@ public interface OffHeapMemoryStats {
 
   public long getDefragmentationTime();
 
+  public long getThreadCacheHits();
+
+  public long getThreadCacheMisses();
+
+  public long getThreadCacheFreeMemory();
+
+  public int getOnlineDefragmentations();
+
+  public long getOnlineDefragmentationTime();
+
+  public long getRelocationPendingBytes();
+
+  public long getRelocatedObjects();
+
+  public long getRelocatedBytes();
+
+  public long getAllocationStalls();
+
+  public long getAllocationStallTime();
+
   public Statistics getStats();
 
   public void close();
@@ -56,6 +56,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int threadCacheHitsId;
+  private static final int threadCacheMissesId;
+  private static final int threadCacheFreeMemoryId;
+  private static final int onlineDefragmentationsId;
+  private static final int onlineDefragmentationTimeId;
+  private static final int relocationPendingBytesId;
+  private static final int relocatedObjectsId;
+  private static final int relocatedBytesId;
+  private static final int allocationStallsId;
+  private static final int allocationStallTimeId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -82,6 +92,26 @@ public class OffHeapStorage implements OffHeapMemoryStats {
         "The total number of reads of off-heap memory. Only reads of a full object increment this statistic. If only a part of the object is read this statistic is not incremented.";
     final String maxMemoryDesc =
         "The maximum amount of off-heap memory, in bytes. This is the amount of memory allocated at startup and does not change.";
+    final String threadCacheHitsDesc =
+        "The total number of allocations of off-heap memory that reused a chunk freed to the allocating thread's cache.";
+    final String threadCacheMissesDesc =
+        "The total number of allocations of off-heap memory that could have used a thread cache but found it empty.";
+    final String threadCacheFreeMemoryDesc =
+        "The amount of free off-heap memory, in bytes, kept in thread caches for reuse by the thread that freed it. Updated in batches.";
+    final String onlineDefragmentationsDesc =
+        "The total number of times live off-heap objects have been relocated in the background to reduce fragmentation.";
+    final String onlineDefragmentationTimeDesc =
+        "The total time spent relocating live off-heap objects in the background.";
+    final String relocationPendingBytesDesc =
+        "The number of bytes of live off-heap objects that the background defragmentation in progress still has to relocate. Zero when none is in progress.";
+    final String relocatedObjectsDesc =
+        "The total number of live off-heap objects relocated by background defragmentation.";
+    final String relocatedBytesDesc =
+        "The total number of bytes of live off-heap objects relocated by background defragmentation.";
+    final String allocationStallsDesc =
+        "The total number of off-heap allocations that had to wait for free memory to be defragmented.";
+    final String allocationStallTimeDesc =
+        "The total time off-heap allocations spent waiting for free memory to be defragmented.";
 
     final String usedMemory = "usedMemory";
     final String defragmentations = "defragmentations";
@@ -94,6 +124,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objects = "objects";
     final String reads = "reads";
     final String maxMemory = "maxMemory";
+    final String threadCacheHits = "threadCacheHits";
+    final String threadCacheMisses = "threadCacheMisses";
+    final String threadCacheFreeMemory = "threadCacheFreeMemory";
+    final String onlineDefragmentations = "onlineDefragmentations";
+    final String onlineDefragmentationTime = "onlineDefragmentationTime";
+    final String relocationPendingBytes = "relocationPendingBytes";
+    final String relocatedObjects = "relocatedObjects";
+    final String relocatedBytes = "relocatedBytes";
+    final String allocationStalls = "allocationStalls";
+    final String allocationStallTime = "allocationStallTime";
 
     statsType = f.createType(statsTypeName, statsTypeDescription,
         new StatisticDescriptor[] {f.createLongGauge(usedMemory, usedMemoryDesc, "bytes"),
@@ -107,7 +147,19 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(largestFragment, largestFragmentDesc, "bytes"),
             f.createIntGauge(objects, objectsDesc, "objects"),
             f.createLongCounter(reads, readsDesc, "operations"),
-            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),});
+            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),
+            f.createLongCounter(threadCacheHits, threadCacheHitsDesc, "operations"),
+            f.createLongCounter(threadCacheMisses, threadCacheMissesDesc, "operations"),
+            f.createLongGauge(threadCacheFreeMemory, threadCacheFreeMemoryDesc, "bytes"),
+            f.createIntCounter(onlineDefragmentations, onlineDefragmentationsDesc, "operations"),
+            f.createLongCounter(onlineDefragmentationTime, onlineDefragmentationTimeDesc,
+                "nanoseconds", false),
+            f.createLongGauge(relocationPendingBytes, relocationPendingBytesDesc, "bytes"),
+            f.createLongCounter(relocatedObjects, relocatedObjectsDesc, "objects"),
+            f.createLongCounter(relocatedBytes, relocatedBytesDesc, "bytes"),
+            f.createLongCounter(allocationStalls, allocationStallsDesc, "operations"),
+            f.createLongCounter(allocationStallTime, allocationStallTimeDesc, "nanoseconds",
+                false),});
 
     usedMemoryId = statsType.nameToId(usedMemory);
     defragmentationId = statsType.nameToId(defragmentations);
@@ -120,6 +172,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     objectsId = statsType.nameToId(objects);
     readsId = statsType.nameToId(reads);
     maxMemoryId = statsType.nameToId(maxMemory);
+    threadCacheHitsId = statsType.nameToId(threadCacheHits);
+    threadCacheMissesId = statsType.nameToId(threadCacheMisses);
+    threadCacheFreeMemoryId = statsType.nameToId(threadCacheFreeMemory);
+    onlineDefragmentationsId = statsType.nameToId(onlineDefragmentations);
+    onlineDefragmentationTimeId = statsType.nameToId(onlineDefragmentationTime);
+    relocationPendingBytesId = statsType.nameToId(relocationPendingBytes);
+    relocatedObjectsId = statsType.nameToId(relocatedObjects);
+    relocatedBytesId = statsType.nameToId(relocatedBytes);
+    allocationStallsId = statsType.nameToId(allocationStalls);
+    allocationStallTimeId = statsType.nameToId(allocationStallTime);
   }
 
   public static long parseOffHeapMemorySize(String value) {
@@ -370,6 +432,112 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return this.stats.getInt(fragmentationId);
   }
 
+  @Override
+  public void incThreadCacheHits(long value) {
+    this.stats.incLong(threadCacheHitsId, value);
+  }
+
+  @Override
+  public long getThreadCacheHits() {
+    return this.stats.getLong(threadCacheHitsId);
+  }
+
+  @Override
+  public void incThreadCacheMisses(long value) {
+    this.stats.incLong(threadCacheMissesId, value);
+  }
+
+  @Override
+  public long getThreadCacheMisses() {
+    return this.stats.getLong(threadCacheMissesId);
+  }
+
+  @Override
+  public void incThreadCacheFreeMemory(long value) {
+    this.stats.incLong(threadCacheFreeMemoryId, value);
+  }
+
+  @Override
+  public long getThreadCacheFreeMemory() {
+    return this.stats.getLong(threadCacheFreeMemoryId);
+  }
+
+  @Override
+  public long startOnlineDefragmentation() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endOnlineDefragmentation(long start) {
+    this.stats.incInt(onlineDefragmentationsId, 1);
+    if (DistributionStats.enableClockStats) {
+      this.stats.incLong(onlineDefragmentationTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public int getOnlineDefragmentations() {
+    return this.stats.getInt(onlineDefragmentationsId);
+  }
+
+  @Override
+  public long getOnlineDefragmentationTime() {
+    return this.stats.getLong(onlineDefragmentationTimeId);
+  }
+
+  @Override
+  public void setRelocationPendingBytes(long value) {
+    this.stats.setLong(relocationPendingBytesId, value);
+  }
+
+  @Override
+  public long getRelocationPendingBytes() {
+    return this.stats.getLong(relocationPendingBytesId);
+  }
+
+  @Override
+  public void incRelocatedObjects(long value) {
+    this.stats.incLong(relocatedObjectsId, value);
+  }
+
+  @Override
+  public long getRelocatedObjects() {
+    return this.stats.getLong(relocatedObjectsId);
+  }
+
+  @Override
+  public void incRelocatedBytes(long value) {
+    this.stats.incLong(relocatedBytesId, value);
+  }
+
+  @Override
+  public long getRelocatedBytes() {
+    return this.stats.getLong(relocatedBytesId);
+  }
+
+  @Override
+  public long startAllocationStall() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endAllocationStall(long start) {
+    this.stats.incLong(allocationStallsId, 1);
+    if (DistributionStats.enableClockStats) {
+      this.stats.incLong(allocationStallTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public long getAllocationStalls() {
+    return this.stats.getLong(allocationStallsId);
+  }
+
+  @Override
+  public long getAllocationStallTime() {
+    return this.stats.getLong(allocationStallTimeId);
+  }
+
   public Statistics getStats() {
     return this.stats;
   }
@@ -392,6 +560,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    this.stats.setLong(threadCacheHitsId, oldStats.getThreadCacheHits());
+    this.stats.setLong(threadCacheMissesId, oldStats.getThreadCacheMisses());
+    this.stats.setLong(threadCacheFreeMemoryId, oldStats.getThreadCacheFreeMemory());
+    this.stats.setInt(onlineDefragmentationsId, oldStats.getOnlineDefragmentations());
+    this.stats.setLong(onlineDefragmentationTimeId, oldStats.getOnlineDefragmentationTime());
+    this.stats.setLong(relocationPendingBytesId, oldStats.getRelocationPendingBytes());
+    this.stats.setLong(relocatedObjectsId, oldStats.getRelocatedObjects());
+    this.stats.setLong(relocatedBytesId, oldStats.getRelocatedBytes());
+    this.stats.setLong(allocationStallsId, oldStats.getAllocationStalls());
+    this.stats.setLong(allocationStallTimeId, oldStats.getAllocationStallTime());
 
     oldStats.close();
   }
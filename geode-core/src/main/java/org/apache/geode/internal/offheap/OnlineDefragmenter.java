@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Reduces the fragmentation of off-heap memory in the background. Free memory is only defragmented
+ * when an allocation finds no free chunk or fragment with room for it, and free chunks separated by
+ * a live object can never be combined, so long lived objects left between freed ones keep the free
+ * memory in pieces too small for larger allocations.
+ * <p>
+ * When more than the configured percentage of the free memory is outside the largest fragment this
+ * daemon thread looks for the span of memory that would become the largest fragment if the objects
+ * in it were moved, and moves those that only an off-heap region entry refers to into fragments
+ * outside the span. Each object is copied while synchronized on its entry, as an update of the
+ * entry would be, and the entry is switched to the copy with a compare and set of its address.
+ * Readers that retained the old object keep using it until they release it. Allocations go on
+ * while objects are moved; they only wait for the defragmentations before and after the moves that
+ * combine the free memory of the span.
+ *
+ * @since Geode 1.3
+ */
+class OnlineDefragmenter implements Runnable {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of milliseconds between checks for fragmentation. Background defragmentation is
+   * disabled if it is 0, the default.
+   */
+  static final long INTERVAL = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_INTERVAL", 0);
+
+  /**
+   * The percentage of the free memory that must be outside the largest fragment for a check to
+   * defragment.
+   */
+  static final int THRESHOLD = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_THRESHOLD", 50);
+
+  /**
+   * The maximum number of bytes of objects moved by one defragmentation. No more than a quarter of
+   * the free memory is moved.
+   */
+  static final long MAX_RELOCATION = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_MAX_RELOCATION",
+      64 * 1024 * 1024);
+
+  private final MemoryAllocatorImpl ma;
+
+  private final long interval;
+
+  private final int threshold;
+
+  private final long maxRelocation;
+
+  private volatile boolean stopped;
+
+  private Thread thread;
+
+  /** The bytes of the span being evacuated that are still to be relocated. */
+  private long pendingBytes;
+
+  OnlineDefragmenter(MemoryAllocatorImpl ma, long interval, int threshold, long maxRelocation) {
+    this.ma = ma;
+    this.interval = interval;
+    this.threshold = threshold;
+    this.maxRelocation = maxRelocation;
+  }
+
+  void start() {
+    this.thread = new Thread(this, "OffHeapDefragmenter");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Stops the thread and waits for a defragmentation in progress to end, so that the off-heap
+   * memory can be freed.
+   */
+  void stop() {
+    this.stopped = true;
+    this.thread.interrupt();
+    boolean interrupted = false;
+    while (this.thread.isAlive()) {
+      try {
+        this.thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    while (!this.stopped) {
+      try {
+        Thread.sleep(this.interval);
+      } catch (InterruptedException e) {
+        continue;
+      }
+      try {
+        if (isDefragmentationNeeded()) {
+          defragment();
+        }
+      } catch (RuntimeException e) {
+        logger.warn("Off-heap background defragmentation failed", e);
+      }
+    }
+  }
+
+  boolean isDefragmentationNeeded() {
+    FreeListManager freeList = this.ma.getFreeListManager();
+    long freeMemory = freeList.getFreeMemory();
+    long fragmentedMemory = freeMemory - freeList.getLargestFragmentFreeSpace();
+    return fragmentedMemory > 0 && fragmentedMemory * 100 > freeMemory * this.threshold;
+  }
+
+  /**
+   * Moves the objects out of the span of memory that would become the largest fragment, if there
+   * is one, and then defragments. Returns false if no span was found.
+   */
+  boolean defragment() {
+    FreeListManager freeList = this.ma.getFreeListManager();
+    long[] span =
+        freeList.findEvacuationSpan(Math.min(this.maxRelocation, freeList.getFreeMemory() / 4));
+    if (span == null) {
+      return false;
+    }
+    OffHeapMemoryStats stats = this.ma.getStats();
+    final long start = stats.startOnlineDefragmentation();
+    try {
+      // combine the free memory in and around the span so that the objects can be moved to
+      // fragments outside it
+      freeList.defragment(0);
+      this.pendingBytes = 0;
+      List<LocalRegion> regions = this.ma.getOffHeapRegions();
+      for (LocalRegion region : regions) {
+        for (RegionEntry re : region.getRegionMap().regionEntries()) {
+          if (re instanceof OffHeapRegionEntry) {
+            long addr = ((OffHeapRegionEntry) re).getAddress();
+            if (isInSpan(addr, span)) {
+              this.pendingBytes += OffHeapStoredObject.getSize(addr);
+            }
+          }
+        }
+      }
+      stats.setRelocationPendingBytes(this.pendingBytes);
+      for (LocalRegion region : regions) {
+        if (!relocateEntries(region, span)) {
+          break;
+        }
+      }
+      if (!this.stopped) {
+        freeList.defragment(0);
+      }
+    } finally {
+      stats.setRelocationPendingBytes(0);
+      stats.endOnlineDefragmentation(start);
+    }
+    return true;
+  }
+
+  private static boolean isInSpan(long addr, long[] span) {
+    return addr >= span[0] && addr < span[1] && OffHeapRegionEntryHelper.isOffHeap(addr);
+  }
+
+  /**
+   * Relocates the values of the region's entries that are in the given span. Returns false if the
+   * defragmenter was stopped or there is no free memory outside the span to move objects to.
+   */
+  private boolean relocateEntries(LocalRegion region, long[] span) {
+    OffHeapMemoryStats stats = this.ma.getStats();
+    for (RegionEntry re : region.getRegionMap().regionEntries()) {
+      if (this.stopped) {
+        return false;
+      }
+      if (!(re instanceof OffHeapRegionEntry)) {
+        continue;
+      }
+      long addr = ((OffHeapRegionEntry) re).getAddress();
+      if (!isInSpan(addr, span)) {
+        continue;
+      }
+      int relocated = relocate((OffHeapRegionEntry) re, addr, span);
+      if (relocated < 0) {
+        return false;
+      }
+      if (relocated > 0) {
+        stats.incRelocatedObjects(1);
+        stats.incRelocatedBytes(relocated);
+        this.pendingBytes = Math.max(0, this.pendingBytes - relocated);
+        stats.setRelocationPendingBytes(this.pendingBytes);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the object at addr, the value of the given entry, to free memory outside the span.
+   * Returns the size of the chunk that was freed, 0 if the entry no longer refers to addr or
+   * something else also refers to the object, or -1 if there is no free memory with room for it.
+   */
+  int relocate(OffHeapRegionEntry re, long addr, long[] span) {
+    synchronized (re) {
+      if (re.getAddress() != addr || OffHeapStoredObject.getRefCount(addr) != 1) {
+        return 0;
+      }
+      OffHeapStoredObject value = new OffHeapStoredObject(addr);
+      int dataSize = value.getDataSize();
+      OffHeapStoredObject copy = this.ma.allocateOutside(dataSize, span[0], span[1]);
+      if (copy == null) {
+        return -1;
+      }
+      AddressableMemoryManager.copyMemory(value.getBaseDataAddress(), copy.getBaseDataAddress(),
+          dataSize);
+      copy.setSerialized(value.isSerialized());
+      copy.setCompressed(value.isCompressed());
+      if (!re.setAddress(addr, copy.getAddress())) {
+        copy.release();
+        return 0;
+      }
+      int size = value.getSize();
+      value.release();
+      return size;
+    }
+  }
+}
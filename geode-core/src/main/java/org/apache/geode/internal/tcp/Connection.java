@@ -30,6 +30,7 @@ import org.apache.geode.distributed.internal.DistributionConfigImpl;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.DistributionStats;
+import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
 import org.apache.geode.distributed.internal.ReplyException;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
@@ -73,6 +74,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.Collections;
 import java.util.HashMap;
@@ -81,6 +84,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -319,6 +323,26 @@ public class Connection implements Runnable {
   /** message reader thread */
   private volatile Thread readerThread;
 
+  /**
+   * The registration of this receiver with the reader event loop, or null if it has its own reader
+   * thread
+   *
+   * @since Geode 1.3
+   */
+  private volatile ReaderEventLoop.Registration eventLoopRegistration;
+
+  /** The reader thread name used by the event loop workers while they read this receiver */
+  private volatile String eventLoopThreadName;
+
+  /** The domino count of the reader of this receiver, from the handshake */
+  private volatile int receiverDominoNumber;
+
+  /**
+   * The thread-owned connections the reader of this receiver sends on, kept here between the reads
+   * of the event loop workers so that they are this receiver's alone, as with a reader thread
+   */
+  private volatile Map eventLoopOwnedConnections;
+
   /** whether the reader thread is, or should be, running */
   volatile boolean stopped = true;
 
@@ -838,6 +862,12 @@ public class Connection implements Runnable {
     // we do the close in a background thread because the operation may hang if
     // there is a problem with the network. See bug #46659
 
+    ReaderEventLoop.Registration registration = this.eventLoopRegistration;
+    if (registration != null) {
+      // stop reading; the event loop cleans up once any read in progress is done
+      registration.close();
+    }
+
     // if simulating sickness, sockets must be closed in-line so that tests know
     // that the vm is sick when the beSick operation completes
     if (beingSick) {
@@ -1175,6 +1205,9 @@ public class Connection implements Runnable {
     if (preserveOrder && BATCH_SENDS) {
       conn.createBatchSendBuffer();
     }
+    if (sharedResource && COALESCE_WRITES) {
+      conn.createWriteCoalescer();
+    }
     conn.finishedConnecting = true;
     return conn;
   }
@@ -1443,6 +1476,38 @@ public class Connection implements Runnable {
     }
   }
 
+  /**
+   * Coalesce the messages sent on shared connections by different threads at about the same time
+   * into gathering writes. See {@link WriteCoalescer}.
+   *
+   * @since Geode 1.3
+   */
+  private static final boolean COALESCE_WRITES = Boolean.getBoolean("p2p.coalesceWrites");
+  /** How long a coalescing writer waits for more messages before writing, 0 not to wait */
+  private static final int COALESCE_WINDOW_MICROS =
+      Integer.getInteger("p2p.coalesceWindowMicros", 0).intValue();
+  /** The number of bytes beyond which a coalesced write takes no more messages */
+  private static final int COALESCE_MAX_BYTES =
+      Integer.getInteger("p2p.coalesceMaxBytes", 256 * 1024).intValue();
+  private WriteCoalescer writeCoalescer;
+
+  /**
+   * The longest a write on a non-blocking channel waits at a time for the channel to become
+   * writable before trying again
+   *
+   * @since Geode 1.3
+   */
+  private static final long NON_BLOCKING_WRITE_WAIT_MILLIS = 1000;
+
+  private void createWriteCoalescer() {
+    // writes are only coalesced on channels
+    if (!this.useNIO) {
+      return;
+    }
+    this.writeCoalescer = new WriteCoalescer(this.outLock, this.owner.getConduit().getStats(),
+        TimeUnit.MICROSECONDS.toNanos(COALESCE_WINDOW_MICROS), COALESCE_MAX_BYTES);
+  }
+
   private void closeBatchBuffer() {
     if (this.batchFlusher != null) {
       this.batchFlusher.close();
@@ -1591,8 +1656,11 @@ public class Connection implements Runnable {
         // we need to be more careful not to join on a thread that belongs
         // to someone else.
         Thread readerThreadSnapshot = this.readerThread;
+        // the threads of the reader event loop are never waited for, since they serve other
+        // connections too
         if (!beingSick && readerThreadSnapshot != null && !isIBM && this.isRunning
-            && !this.readerShuttingDown && readerThreadSnapshot != Thread.currentThread()) {
+            && !this.readerShuttingDown && readerThreadSnapshot != Thread.currentThread()
+            && this.eventLoopRegistration == null) {
           try {
             readerThreadSnapshot.join(500);
             readerThreadSnapshot = this.readerThread;
@@ -1684,43 +1752,61 @@ public class Connection implements Runnable {
     this.readerThread.setName(p2pReaderName());
     ConnectionTable.threadWantsSharedResources();
     makeReaderThread(this.isReceiver);
+    boolean handedOff = false;
     try {
       if (useNIO()) {
-        runNioReader();
+        handedOff = runNioReader();
       } else {
         runOioReader();
       }
     } finally {
-      // bug36060: do the socket close within a finally block
-      if (logger.isDebugEnabled()) {
-        logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
-      }
-      initiateSuspicionIfSharedUnordered();
-      if (this.isReceiver) {
-        if (!this.sharedResource) {
-          this.conduit.getStats().incThreadOwnedReceivers(-1L, dominoCount.get());
+      if (handedOff) {
+        // the reader event loop reads from now on, and cleans up when reading ends
+        Thread.currentThread().setName("unused p2p reader");
+        synchronized (this.stateLock) {
+          if (this.readerThread == Thread.currentThread()) {
+            this.readerThread = null;
+          }
+        }
+      } else {
+        readerStopped();
+        Thread.currentThread().setName("unused p2p reader");
+        synchronized (this.stateLock) {
+          this.isRunning = false;
+          this.readerThread = null;
         }
-        asyncClose(false);
-        this.owner.removeAndCloseThreadOwnedSockets();
-      }
-      ByteBuffer tmp = this.nioInputBuffer;
-      if (tmp != null) {
-        this.nioInputBuffer = null;
-        final DMStats stats = this.owner.getConduit().getStats();
-        Buffers.releaseReceiveBuffer(tmp, stats);
-      }
-      // make sure that if the reader thread exits we notify a thread waiting
-      // for the handshake.
-      // see bug 37524 for an example of listeners hung in waitForHandshake
-      notifyHandshakeWaiter(false);
-      this.readerThread.setName("unused p2p reader");
-      synchronized (this.stateLock) {
-        this.isRunning = false;
-        this.readerThread = null;
       }
     } // finally
   }
 
+  /**
+   * Cleans up once this connection is no longer being read
+   */
+  private void readerStopped() {
+    // bug36060: do the socket close within a finally block of the reader
+    if (logger.isDebugEnabled()) {
+      logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
+    }
+    initiateSuspicionIfSharedUnordered();
+    if (this.isReceiver) {
+      if (!this.sharedResource) {
+        this.conduit.getStats().incThreadOwnedReceivers(-1L, dominoCount.get());
+      }
+      asyncClose(false);
+      this.owner.removeAndCloseThreadOwnedSockets();
+    }
+    ByteBuffer tmp = this.nioInputBuffer;
+    if (tmp != null) {
+      this.nioInputBuffer = null;
+      final DMStats stats = this.owner.getConduit().getStats();
+      Buffers.releaseReceiveBuffer(tmp, stats);
+    }
+    // make sure that if the reader thread exits we notify a thread waiting
+    // for the handshake.
+    // see bug 37524 for an example of listeners hung in waitForHandshake
+    notifyHandshakeWaiter(false);
+  }
+
   private String p2pReaderName() {
     StringBuilder sb = new StringBuilder(64);
     if (this.isReceiver) {
@@ -1735,7 +1821,13 @@ public class Connection implements Runnable {
     return sb.toString();
   }
 
-  private void runNioReader() {
+  /**
+   * Reads messages with this thread until the connection is closed or, for a receiver, until it
+   * has been handed to the reader event loop.
+   *
+   * @return true if the connection was handed to the reader event loop
+   */
+  private boolean runNioReader() {
     // take a snapshot of uniqueId to detect reconnect attempts; see bug 37592
     SocketChannel channel = null;
     try {
@@ -1749,7 +1841,7 @@ public class Connection implements Runnable {
             LocalizedStrings.Connection_RUNNIOREADER_CAUGHT_CLOSED_CHANNEL.toLocalizedString());
       } catch (Exception ignore) {
       }
-      return; // exit loop and thread
+      return false; // exit loop and thread
     } catch (IOException ex) {
       if (stopped || owner.getConduit().getCancelCriterion().isCancelInProgress()) {
         try {
@@ -1757,7 +1849,7 @@ public class Connection implements Runnable {
               LocalizedStrings.Connection_RUNNIOREADER_CAUGHT_SHUTDOWN.toLocalizedString());
         } catch (Exception ignore) {
         }
-        return; // bug37520: exit loop (and thread)
+        return false; // bug37520: exit loop (and thread)
       }
       logger.fatal(LocalizedMessage
           .create(LocalizedStrings.Connection_FAILED_SETTING_CHANNEL_TO_BLOCKING_MODE_0, ex));
@@ -1767,7 +1859,7 @@ public class Connection implements Runnable {
             .toLocalizedString(ex));
       } catch (Exception ignore) {
       }
-      return;
+      return false;
     }
 
     if (!stopped) {
@@ -1776,6 +1868,20 @@ public class Connection implements Runnable {
         logger.debug("Starting {}", p2pReaderName());
       }
     }
+    return readNioMessages(channel, false);
+  }
+
+  /**
+   * Reads and processes messages from the channel until the connection is closed. A receiver's
+   * reader thread stops reading once the handshake has been read, if the connection can be handed
+   * to the reader event loop. When called by the event loop this reads until no more input is
+   * available.
+   *
+   * @param fromEventLoop true if called by the reader event loop, with a non-blocking channel
+   * @return true if reading should continue elsewhere: on the event loop if called by the reader
+   *         thread, or when more input is available if called by the event loop
+   */
+  private boolean readNioMessages(SocketChannel channel, boolean fromEventLoop) {
     // we should not change the state of the connection if we are a handshake reader thread
     // as there is a race between this thread and the application thread doing direct ack
     // fix for #40869
@@ -1811,6 +1917,9 @@ public class Connection implements Runnable {
             connectionState = STATE_IDLE;
           }
           if (amt == 0) {
+            if (fromEventLoop) {
+              return true;
+            }
             continue;
           }
           if (amt < 0) {
@@ -1822,7 +1931,7 @@ public class Connection implements Runnable {
             } catch (Exception e) {
               // ignore - shutting down
             }
-            return;
+            return false;
           }
 
           processNIOBuffer();
@@ -1838,6 +1947,10 @@ public class Connection implements Runnable {
             // Once we have read the handshake the reader can go away
             break;
           }
+          if (this.isReceiver && this.handshakeRead && !fromEventLoop
+              && handOffToEventLoop(channel)) {
+            return true;
+          }
         } catch (CancelException e) {
           if (logger.isDebugEnabled()) {
             logger.debug("{} Terminated <{}> due to cancellation", p2pReaderName(), this, e);
@@ -1848,7 +1961,7 @@ public class Connection implements Runnable {
                 LocalizedStrings.Connection_CACHECLOSED_IN_CHANNEL_READ_0.toLocalizedString(e));
           } catch (Exception ex) {
           }
-          return;
+          return false;
         } catch (ClosedChannelException e) {
           this.readerShuttingDown = true;
           try {
@@ -1856,7 +1969,7 @@ public class Connection implements Runnable {
                 .toLocalizedString(e));
           } catch (Exception ex) {
           }
-          return;
+          return false;
         } catch (IOException e) {
           if (!isSocketClosed() && !"Socket closed".equalsIgnoreCase(e.getMessage()) // needed for
                                                                                      // Solaris jdk
@@ -1879,7 +1992,7 @@ public class Connection implements Runnable {
                 LocalizedStrings.Connection_IOEXCEPTION_IN_CHANNEL_READ_0.toLocalizedString(e));
           } catch (Exception ex) {
           }
-          return;
+          return false;
 
         } catch (Exception e) {
           this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null); // bug 37101
@@ -1893,22 +2006,127 @@ public class Connection implements Runnable {
                 LocalizedStrings.Connection_0_EXCEPTION_IN_CHANNEL_READ.toLocalizedString(e));
           } catch (Exception ex) {
           }
-          return;
+          return false;
         }
       } // for
+      return false;
     } finally {
       if (!isHandShakeReader) {
         synchronized (stateLock) {
           connectionState = STATE_IDLE;
         }
       }
-      if (logger.isDebugEnabled()) {
+      if (logger.isDebugEnabled() && !fromEventLoop) {
         logger.debug("{} runNioReader terminated id={} from {}", p2pReaderName(), conduitIdStr,
             remoteAddr);
       }
     }
   }
 
+  /**
+   * Hands this receiver to the reader event loop, if there is one, so that the reader thread can
+   * exit. The thread-owned connections the reader thread has sent on go with the receiver, so the
+   * messages a thread-owned receiver causes keep being sent on connections of its own, which
+   * cannot deadlock with the messages of other threads.
+   *
+   * @return true if the event loop now reads this connection
+   */
+  private boolean handOffToEventLoop(SocketChannel channel) {
+    ReaderEventLoop eventLoop = this.owner.getReaderEventLoop();
+    if (eventLoop == null || this.stopped) {
+      return false;
+    }
+    this.eventLoopThreadName = Thread.currentThread().getName();
+    this.eventLoopOwnedConnections = this.owner.takeThreadOwnedConnections();
+    try {
+      this.eventLoopRegistration = eventLoop.register(channel, new EventLoopReader(channel));
+    } catch (IOException | ClosedSelectorException e) {
+      // keep reading with this thread
+      if (logger.isDebugEnabled()) {
+        logger.debug("{} unable to use the reader event loop", p2pReaderName(), e);
+      }
+      this.owner.setThreadOwnedConnections(this.eventLoopOwnedConnections);
+      this.eventLoopOwnedConnections = null;
+      try {
+        channel.configureBlocking(true);
+      } catch (IOException ignore) {
+        // the next read will fail
+      }
+      return false;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{} handed to the reader event loop", this.eventLoopThreadName);
+    }
+    return true;
+  }
+
+  /**
+   * Reads a receiver for the reader event loop. Each read runs on a worker thread set up as the
+   * reader thread of this connection was, with its domino count, its preference for thread-owned
+   * or shared connections, and its thread-owned connections.
+   */
+  private class EventLoopReader implements ReaderEventLoop.Reader {
+    private final SocketChannel channel;
+
+    EventLoopReader(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean readAvailable() {
+      String name = beginEventLoopRead();
+      try {
+        return readNioMessages(this.channel, true);
+      } finally {
+        endEventLoopRead(name, false);
+      }
+    }
+
+    @Override
+    public void readerStopped() {
+      String name = beginEventLoopRead();
+      try {
+        Connection.this.readerStopped();
+      } finally {
+        endEventLoopRead(name, true);
+      }
+    }
+  }
+
+  /** Makes the current worker the reader thread of this connection and returns its old name */
+  private String beginEventLoopRead() {
+    Thread thread = Thread.currentThread();
+    String name = thread.getName();
+    thread.setName(this.eventLoopThreadName);
+    if (this.sharedResource) {
+      ConnectionTable.threadWantsSharedResources();
+    } else if (!tipDomino()) {
+      ConnectionTable.threadWantsOwnResources();
+    }
+    makeReaderThread(true);
+    dominoCount.set(this.receiverDominoNumber);
+    this.owner.setThreadOwnedConnections(this.eventLoopOwnedConnections);
+    synchronized (this.stateLock) {
+      this.readerThread = thread;
+    }
+    return name;
+  }
+
+  private void endEventLoopRead(String name, boolean stopped) {
+    this.eventLoopOwnedConnections = this.owner.takeThreadOwnedConnections();
+    ConnectionTable.threadWantsSharedResources();
+    isDominoThread.remove();
+    synchronized (this.stateLock) {
+      if (stopped) {
+        this.isRunning = false;
+      }
+      this.readerThread = null;
+    }
+    // an interrupt meant for this connection must not close the next one the worker reads
+    Thread.interrupted();
+    Thread.currentThread().setName(name);
+  }
+
   /**
    * initiate suspect processing if a shared/ordered connection is lost and we're not shutting down
    */
@@ -3297,6 +3515,11 @@ public class Connection implements Runnable {
     if (!this.sharedResource) {
       stats.incTOSentMsg();
     }
+    if (this.writeCoalescer != null && !forceAsync && this.asyncDistributionTimeout == 0) {
+      // messages are never queued for async distribution, so always written in order
+      this.writeCoalescer.write(channel, buffer);
+      return;
+    }
     if (useSyncWrites(forceAsync)) {
       if (this.asyncQueuingInProgress) {
         if (addToQueue(buffer, msg, false)) {
@@ -3313,17 +3536,34 @@ public class Connection implements Runnable {
           }
           // fall through
         }
-        do {
-          int amtWritten = 0;
-          long start = stats.startSocketWrite(true);
-          try {
-            // this.writerThread = Thread.currentThread();
-            amtWritten = channel.write(buffer);
-          } finally {
-            stats.endSocketWrite(true, start, amtWritten, 0);
-            // this.writerThread = null;
+        Selector writeSelector = null;
+        try {
+          do {
+            int amtWritten = 0;
+            long start = stats.startSocketWrite(true);
+            try {
+              // this.writerThread = Thread.currentThread();
+              amtWritten = channel.write(buffer);
+            } finally {
+              stats.endSocketWrite(true, start, amtWritten, 0);
+              // this.writerThread = null;
+            }
+            if (amtWritten == 0 && !channel.isBlocking()) {
+              // the reader event loop keeps a receiver's channel in non-blocking mode, so wait for
+              // the peer to make room; the wait is bounded in case the channel is closed meanwhile
+              if (writeSelector == null) {
+                writeSelector = Selector.open();
+                channel.register(writeSelector, SelectionKey.OP_WRITE);
+              }
+              writeSelector.select(NON_BLOCKING_WRITE_WAIT_MILLIS);
+              writeSelector.selectedKeys().clear();
+            }
+          } while (buffer.remaining() > 0);
+        } finally {
+          if (writeSelector != null) {
+            writeSelector.close();
           }
-        } while (buffer.remaining() > 0);
+        }
       } // synchronized
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
@@ -3377,6 +3617,17 @@ public class Connection implements Runnable {
    */
   public void readAck(final int msToWait, final long msInterval,
       final DirectReplyProcessor processor) throws SocketTimeoutException, ConnectionException {
+    // the peer may not ack until it has had a message that is queued behind this thread
+    PooledExecutorWithDMStats pool = PooledExecutorWithDMStats.threadWillBlock();
+    try {
+      basicReadAck(msToWait, msInterval, processor);
+    } finally {
+      PooledExecutorWithDMStats.threadUnblocked(pool);
+    }
+  }
+
+  private void basicReadAck(final int msToWait, final long msInterval,
+      final DirectReplyProcessor processor) throws SocketTimeoutException, ConnectionException {
     if (isSocketClosed()) {
       throw new ConnectionException(
           LocalizedStrings.Connection_CONNECTION_IS_CLOSED.toLocalizedString());
@@ -3818,6 +4069,7 @@ public class Connection implements Runnable {
                     dominoNumber = 0;
                   }
                   dominoCount.set(dominoNumber);
+                  this.receiverDominoNumber = dominoNumber;
                   // this.senderName = dis.readUTF();
                 }
                 if (!this.sharedResource) {
@@ -144,6 +144,36 @@ public class ConnectionTable {
   private final static long READER_POOL_KEEP_ALIVE_TIME =
       Long.getLong("p2p.READER_POOL_KEEP_ALIVE_TIME", 120).longValue();
 
+  /**
+   * True if accepted connections are read by a {@link ReaderEventLoop} once their handshake has
+   * been read, instead of each keeping a reader thread.
+   *
+   * @since Geode 1.3
+   */
+  private static final boolean EVENT_LOOP_READERS = Boolean.getBoolean("p2p.eventLoopReaders");
+
+  /**
+   * The number of selector threads of the reader event loop
+   *
+   * @since Geode 1.3
+   */
+  private static final int EVENT_LOOP_SELECTORS =
+      Integer.getInteger("p2p.eventLoopSelectors", 2).intValue();
+
+  /**
+   * The most worker threads of the reader event loop that read at once. Workers that wait for a
+   * reply are not counted.
+   *
+   * @since Geode 1.3
+   */
+  private static final int EVENT_LOOP_MAX_WORKERS =
+      Integer.getInteger("p2p.eventLoopMaxWorkers", 100).intValue();
+
+  /**
+   * Reads the accepted connections if {@link #EVENT_LOOP_READERS} is set, otherwise null
+   */
+  private final ReaderEventLoop readerEventLoop;
+
   private final SocketCloser socketCloser;
 
   /**
@@ -210,9 +240,37 @@ public class ConnectionTable {
     this.threadConnMaps = new ArrayList();
     this.threadConnectionMap = new ConcurrentHashMap();
     this.p2pReaderThreadPool = createThreadPoolForIO(conduit.getDM().getSystem().isShareSockets());
+    this.readerEventLoop = createReaderEventLoop();
     this.socketCloser = new SocketCloser();
   }
 
+  private ReaderEventLoop createReaderEventLoop() {
+    // only connections read with NIO are handed to the event loop
+    if (!EVENT_LOOP_READERS) {
+      return null;
+    }
+    try {
+      return new ReaderEventLoop(EVENT_LOOP_SELECTORS, EVENT_LOOP_MAX_WORKERS,
+          LoggingThreadGroup.createThreadGroup("P2P Reader Threads", logger),
+          READER_POOL_KEEP_ALIVE_TIME);
+    } catch (IOException e) {
+      logger.warn("Unable to create the P2P reader event loop, using a thread per connection", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the event loop that reads accepted connections, or null if each has a reader thread
+   *
+   * @since Geode 1.3
+   */
+  ReaderEventLoop getReaderEventLoop() {
+    if (this.closed) {
+      return null;
+    }
+    return this.readerEventLoop;
+  }
+
   private Executor createThreadPoolForIO(boolean conserveSockets) {
     Executor executor = null;
     final ThreadGroup connectionRWGroup =
@@ -746,6 +804,9 @@ public class ConnectionTable {
       }
     }
     closeReceivers(false);
+    if (this.readerEventLoop != null) {
+      this.readerEventLoop.close();
+    }
 
     Map m = (Map) this.threadOrderedConnMap.get();
     if (m != null) {
@@ -1024,6 +1085,34 @@ public class ConnectionTable {
     lastInstance.set(null);
   }
 
+  /**
+   * Detaches the thread-owned connections of the calling thread from it, so that another thread
+   * can {@link #setThreadOwnedConnections take them over}.
+   *
+   * @return the connections, or null if the thread has none
+   * @since Geode 1.3
+   */
+  Map takeThreadOwnedConnections() {
+    Map m = (Map) this.threadOrderedConnMap.get();
+    this.threadOrderedConnMap.remove();
+    return m;
+  }
+
+  /**
+   * Makes the given thread-owned connections, detached from another thread by
+   * {@link #takeThreadOwnedConnections}, those of the calling thread.
+   *
+   * @param m the connections, or null for none
+   * @since Geode 1.3
+   */
+  void setThreadOwnedConnections(Map m) {
+    if (m == null) {
+      this.threadOrderedConnMap.remove();
+    } else {
+      this.threadOrderedConnMap.set(m);
+    }
+  }
+
   public void removeAndCloseThreadOwnedSockets() {
     Map m = (Map) this.threadOrderedConnMap.get();
     if (m != null) {
@@ -292,8 +292,8 @@ public class MsgStreamer extends OutputStream
   public void realFlush(boolean lastFlushForMessage) {
     if (isOverflowMode()) {
       if (this.overflowBuf == null) {
-        this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+        this.overflowBuf = HeapDataOutputStream.pooled(
+            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT, false, false);
       }
       return;
     }
@@ -906,8 +906,8 @@ public class MsgStreamer extends OutputStream
       if (remainingSpace < 5) {
         // we don't even have room to write the length field so just create
         // the overflowBuf
-        this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+        this.overflowBuf = HeapDataOutputStream.pooled(
+            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT, false, false);
         this.overflowBuf.writeAsSerializedByteArray(v);
         return;
       }
@@ -942,6 +942,7 @@ public class MsgStreamer extends OutputStream
       finished = true;
       if (overBuf != null && !isOverflowMode()) {
         overBuf.sendTo((ByteBufferWriter) this);
+        overBuf.close();
       }
     } finally {
       if (!finished) {
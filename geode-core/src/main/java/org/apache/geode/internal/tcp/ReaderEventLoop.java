@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Reads the peer connections accepted by a member with a few selector threads instead of a thread
+ * per connection.
+ * <p>
+ * Each registered channel is watched by one of the selector threads. When input arrives the
+ * selector thread stops watching the channel and hands its reader to a worker, which reads and
+ * processes everything available and then has the channel watched again. Since a channel is
+ * never watched while its reader is running, each connection is read by at most one thread at a
+ * time and its messages are processed in the order they were sent, just as with a dedicated
+ * thread. The selector threads never process messages themselves, because processing a message
+ * can block, for example while waiting for a reply.
+ * <p>
+ * At most maxWorkers readers run at once; connections with input beyond that wait for a worker.
+ * A worker that waits for a reply or a direct ack does not count, since the message it waits for
+ * may be queued behind it: the pool
+ * {@link PooledExecutorWithDMStats#setCompensateBlockedThreads compensates for blocked threads}.
+ * This keeps the guarantee of a thread per connection that a connection with input is always read
+ * eventually, which thread-owned receivers rely on to avoid distributed deadlocks.
+ *
+ * @since Geode 1.3
+ */
+class ReaderEventLoop {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Reads the input of a registered channel.
+   */
+  interface Reader {
+    /**
+     * Reads and processes the input available on the channel, without blocking for more.
+     *
+     * @return false if reading has ended, for instance because the channel reached end of stream
+     */
+    boolean readAvailable();
+
+    /**
+     * Called once, on a worker thread, when reading has ended, either because
+     * {@link #readAvailable()} returned false or because the registration was closed.
+     */
+    void readerStopped();
+  }
+
+  private final SelectorThread[] selectors;
+  private final PooledExecutorWithDMStats workers;
+  /** Registrations waiting for a worker */
+  private final BlockingQueue<Runnable> backlog = new LinkedBlockingQueue<>();
+  private final AtomicInteger nextSelector = new AtomicInteger();
+  private volatile boolean closed;
+
+  /**
+   * @param selectorCount the number of selector threads
+   * @param maxWorkers the most worker threads that read at once, not counting blocked ones
+   * @param group the thread group of the selector and worker threads
+   * @param keepAliveSeconds how long an idle worker thread is kept
+   */
+  ReaderEventLoop(int selectorCount, int maxWorkers, final ThreadGroup group,
+      long keepAliveSeconds) throws IOException {
+    final AtomicInteger workerCount = new AtomicInteger();
+    this.workers = new PooledExecutorWithDMStats(this.backlog, Math.max(1, maxWorkers), null,
+        command -> {
+          Thread thread =
+              new Thread(group, command, "P2P Reader Worker " + workerCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, (int) Math.min(Integer.MAX_VALUE, keepAliveSeconds * 1000));
+    this.workers.setCompensateBlockedThreads(true);
+    this.selectors = new SelectorThread[Math.max(1, selectorCount)];
+    try {
+      for (int i = 0; i < this.selectors.length; i++) {
+        this.selectors[i] = new SelectorThread(group, "P2P Reader Selector " + i);
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+    for (SelectorThread selector : this.selectors) {
+      selector.thread.start();
+    }
+  }
+
+  /**
+   * Starts reading the given channel, which is put in non-blocking mode, with the given reader.
+   * The reader is called as soon as the channel has input, possibly before this method returns.
+   */
+  Registration register(SocketChannel channel, Reader reader) throws IOException {
+    if (this.closed) {
+      throw new ClosedSelectorException();
+    }
+    channel.configureBlocking(false);
+    SelectorThread selector = this.selectors[Math
+        .floorMod(this.nextSelector.getAndIncrement(), this.selectors.length)];
+    Registration registration = new Registration(selector, channel, reader);
+    selector.arm(registration);
+    return registration;
+  }
+
+  /**
+   * Stops the selector threads. Registrations that have not been closed stop being read, and
+   * their readers are not told, so the connections should be closed first. Readers that are
+   * still running complete normally, and readers still waiting for a worker are stopped by the
+   * calling thread.
+   */
+  void close() {
+    this.closed = true;
+    for (SelectorThread selector : this.selectors) {
+      if (selector != null) {
+        try {
+          selector.selector.close();
+        } catch (IOException ignore) {
+          // closing anyway
+        }
+      }
+    }
+    this.workers.shutdown();
+    Runnable waiting;
+    while ((waiting = this.backlog.poll()) != null) {
+      Registration registration = (Registration) waiting;
+      registration.closeRequested = true;
+      registration.run();
+    }
+  }
+
+  /**
+   * Returns the number of worker threads, for tests
+   */
+  int getWorkerCount() {
+    return this.workers.getPoolSize();
+  }
+
+  /**
+   * A channel being read by this event loop.
+   */
+  class Registration implements Runnable {
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    private static final int STOPPED = 2;
+
+    private final SelectorThread selector;
+    private final SocketChannel channel;
+    private final Reader reader;
+    /** IDLE while the channel is watched, SCHEDULED while the reader is queued or running */
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    /** Only used by the selector thread, and to cancel the key */
+    private volatile SelectionKey key;
+    private volatile boolean closeRequested;
+
+    Registration(SelectorThread selector, SocketChannel channel, Reader reader) {
+      this.selector = selector;
+      this.channel = channel;
+      this.reader = reader;
+    }
+
+    /**
+     * Stops reading the channel. The reader is told once any read in progress has finished. The
+     * channel itself is not closed.
+     */
+    void close() {
+      this.closeRequested = true;
+      schedule();
+    }
+
+    boolean isStopped() {
+      return this.state.get() == STOPPED;
+    }
+
+    /** Called by the selector thread to watch the channel for input */
+    void watch(Selector selector) {
+      if (this.closeRequested) {
+        schedule();
+        return;
+      }
+      try {
+        if (this.key == null) {
+          this.key = this.channel.register(selector, SelectionKey.OP_READ, this);
+        } else {
+          this.key.interestOps(SelectionKey.OP_READ);
+        }
+      } catch (ClosedChannelException | CancelledKeyException e) {
+        // the connection was closed
+        this.closeRequested = true;
+        schedule();
+      }
+    }
+
+    /** Called by the selector thread when the channel has input */
+    void inputAvailable() {
+      try {
+        this.key.interestOps(0);
+      } catch (CancelledKeyException e) {
+        this.closeRequested = true;
+      }
+      schedule();
+    }
+
+    private void schedule() {
+      if (this.state.compareAndSet(IDLE, SCHEDULED)) {
+        try {
+          ReaderEventLoop.this.workers.execute(this);
+        } catch (RejectedExecutionException e) {
+          // the event loop has been closed
+          this.closeRequested = true;
+          run();
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      boolean reading = false;
+      try {
+        reading = !this.closeRequested && this.reader.readAvailable();
+      } finally {
+        if (reading) {
+          this.state.set(IDLE);
+          this.selector.arm(this);
+        } else {
+          this.state.set(STOPPED);
+          SelectionKey k = this.key;
+          if (k != null) {
+            k.cancel();
+          }
+          this.reader.readerStopped();
+        }
+      }
+    }
+  }
+
+  private class SelectorThread implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    /** Registrations to watch, queued by other threads */
+    private final ConcurrentLinkedQueue<Registration> toWatch = new ConcurrentLinkedQueue<>();
+
+    SelectorThread(ThreadGroup group, String name) throws IOException {
+      this.selector = Selector.open();
+      this.thread = new Thread(group, this, name);
+      this.thread.setDaemon(true);
+    }
+
+    void arm(Registration registration) {
+      this.toWatch.add(registration);
+      this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      while (!ReaderEventLoop.this.closed) {
+        try {
+          this.selector.select();
+          Registration registration;
+          while ((registration = this.toWatch.poll()) != null) {
+            registration.watch(this.selector);
+          }
+          Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+          while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            ((Registration) key.attachment()).inputAvailable();
+          }
+        } catch (ClosedSelectorException e) {
+          break;
+        } catch (IOException e) {
+          if (!ReaderEventLoop.this.closed) {
+            logger.warn("{} failed to select", this.thread.getName(), e);
+          }
+        }
+      }
+    }
+  }
+}
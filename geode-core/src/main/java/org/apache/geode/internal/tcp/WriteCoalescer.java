@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionStats;
+
+/**
+ * Coalesces the messages that threads send on a shared connection at about the same time into
+ * gathering writes.
+ * <p>
+ * The first thread to send becomes the writer. Threads that send while it is writing queue their
+ * buffers, and the writer writes all the queued buffers with one gathering write once its previous
+ * write completes, so under load many messages go out with each system call while an idle
+ * connection writes each message at once. The writer can also be configured to wait a short window
+ * for more messages before each write. Each sender waits until its own buffer has been written, so
+ * that, as with an ordinary write, the caller can reuse the buffer and learns of any failure as
+ * soon as the send returns. When its own buffer has been written the writer hands the writing over
+ * to one of the threads still waiting.
+ * <p>
+ * The receiver needs no changes, since the messages are written back to back just as they would be
+ * with separate writes.
+ *
+ * @since Geode 1.3
+ */
+class WriteCoalescer {
+
+  /** The most buffers written by one gathering write */
+  static final int MAX_BUFFERS = 64;
+
+  private final Object outLock;
+  private final DMStats stats;
+  private final long windowNanos;
+  private final int maxBytes;
+
+  /** The writes waiting to be written. Also the lock for all the state of this coalescer. */
+  private final ArrayDeque<PendingWrite> pending = new ArrayDeque<>();
+  /** The number of bytes in the pending writes */
+  private long pendingBytes;
+  /** True while a thread is the writer */
+  private boolean writing;
+
+  private final ByteBuffer[] batch = new ByteBuffer[MAX_BUFFERS];
+
+  /**
+   * @param outLock the lock held while writing to the channel
+   * @param windowNanos how long the writer waits for more messages before each write, if the
+   *        pending messages are smaller than maxBytes
+   * @param maxBytes the number of bytes beyond which the writer stops adding messages to a write
+   */
+  WriteCoalescer(Object outLock, DMStats stats, long windowNanos, int maxBytes) {
+    this.outLock = outLock;
+    this.stats = stats;
+    this.windowNanos = windowNanos;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Writes all the remaining bytes of the given buffer to the channel, possibly together with the
+   * buffers of other threads. Returns once the buffer has been written.
+   */
+  void write(GatheringByteChannel channel, ByteBuffer buffer) throws IOException {
+    final PendingWrite write = new PendingWrite(buffer, DistributionStats.getStatTime());
+    boolean interrupted = false;
+    try {
+      synchronized (this.pending) {
+        this.pending.add(write);
+        this.pendingBytes += buffer.remaining();
+        if (this.writing && this.pendingBytes >= this.maxBytes) {
+          // wake up a writer waiting for more messages
+          this.pending.notifyAll();
+        }
+        while (this.writing && !write.done) {
+          try {
+            this.pending.wait();
+          } catch (InterruptedException e) {
+            // the buffer is queued, so it has to be waited for
+            interrupted = true;
+          }
+        }
+        if (write.done) {
+          write.checkFailure();
+          return;
+        }
+        this.writing = true;
+      }
+      try {
+        while (!write.done) {
+          interrupted |= waitForMoreWrites();
+          writeBatch(channel);
+        }
+        write.checkFailure();
+      } finally {
+        synchronized (this.pending) {
+          this.writing = false;
+          this.pending.notifyAll();
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** Returns the number of writes waiting to be written, for tests */
+  int getPendingCount() {
+    synchronized (this.pending) {
+      return this.pending.size();
+    }
+  }
+
+  /**
+   * Waits up to the window for the pending writes to reach maxBytes.
+   *
+   * @return true if the thread was interrupted
+   */
+  private boolean waitForMoreWrites() {
+    if (this.windowNanos <= 0) {
+      return false;
+    }
+    synchronized (this.pending) {
+      final long end = System.nanoTime() + this.windowNanos;
+      long remaining = this.windowNanos;
+      while (this.pendingBytes < this.maxBytes && remaining > 0) {
+        try {
+          this.pending.wait(remaining / 1000000, (int) (remaining % 1000000));
+        } catch (InterruptedException e) {
+          return true;
+        }
+        remaining = end - System.nanoTime();
+      }
+    }
+    return false;
+  }
+
+  /** Writes the oldest pending writes with one gathering write, and wakes up their threads */
+  private void writeBatch(GatheringByteChannel channel) {
+    final PendingWrite[] writes;
+    int count = 0;
+    long bytes = 0;
+    long waitNanos = 0;
+    final long start = DistributionStats.getStatTime();
+    synchronized (this.pending) {
+      writes = new PendingWrite[Math.min(this.pending.size(), MAX_BUFFERS)];
+      while (count < writes.length && (count == 0 || bytes < this.maxBytes)) {
+        PendingWrite write = this.pending.poll();
+        writes[count] = write;
+        this.batch[count] = write.buffer;
+        bytes += write.buffer.remaining();
+        if (write.startTime != 0) {
+          waitNanos += start - write.startTime;
+        }
+        count++;
+      }
+      this.pendingBytes -= bytes;
+    }
+
+    IOException failure = null;
+    boolean written = false;
+    try {
+      writeFully(channel, count, bytes);
+      written = true;
+      this.stats.incCoalescedWrites(count);
+      this.stats.incCoalesceWaitTime(waitNanos);
+    } catch (IOException e) {
+      failure = e;
+    } finally {
+      for (int i = 0; i < count; i++) {
+        this.batch[i] = null;
+      }
+      if (!written && failure == null) {
+        // an unexpected exception, which the writer throws; fail the other messages
+        failure = new IOException("Unable to write coalesced messages");
+      }
+      synchronized (this.pending) {
+        for (int i = 0; i < count; i++) {
+          writes[i].failure = failure;
+          writes[i].done = true;
+        }
+        this.pending.notifyAll();
+      }
+    }
+  }
+
+  private void writeFully(GatheringByteChannel channel, int count, long bytes) throws IOException {
+    long startLock = this.stats.startSocketLock();
+    synchronized (this.outLock) {
+      this.stats.endSocketLock(startLock);
+      int offset = 0;
+      while (bytes > 0) {
+        long amtWritten = 0;
+        long start = this.stats.startSocketWrite(true);
+        try {
+          amtWritten = channel.write(this.batch, offset, count - offset);
+        } finally {
+          this.stats.endSocketWrite(true, start, (int) amtWritten, 0);
+        }
+        bytes -= amtWritten;
+        while (offset < count && !this.batch[offset].hasRemaining()) {
+          offset++;
+        }
+      }
+    }
+  }
+
+  private static class PendingWrite {
+    final ByteBuffer buffer;
+    final long startTime;
+    /** Set, with failure, by the writer while synchronized on the pending writes */
+    boolean done;
+    IOException failure;
+
+    PendingWrite(ByteBuffer buffer, long startTime) {
+      this.buffer = buffer;
+      this.startTime = startTime;
+    }
+
+    void checkFailure() throws IOException {
+      if (this.failure != null) {
+        IOException e = new IOException(this.failure.getMessage());
+        e.initCause(this.failure);
+        throw e;
+      }
+    }
+  }
+}
@@ -82,7 +82,10 @@ public class StoppableCountDownLatch {
     return latch.await(timeout, unit);
   }
 
-  public synchronized void countDown() {
+  /**
+   * Counts down the latch. Like {@link CountDownLatch#countDown()} this takes no lock.
+   */
+  public void countDown() {
     latch.countDown();
   }
 
@@ -47,6 +47,14 @@ public interface DiskStoreMXBean {
    */
   int getCompactionThreshold();
 
+  /**
+   * Returns the maximum rate, in bytes per second, at which compaction copies live data forward, or
+   * 0 if compaction is not rate limited.
+   *
+   * @since Geode 1.3
+   */
+  long getCompactionMaxBytesPerSecond();
+
   /**
    * Returns whether manual compaction of disk files is allowed.
    * 
@@ -50,6 +50,11 @@ public class DiskStoreMBean extends NotificationBroadcasterSupport implements Di
     return bridge.getCompactionThreshold();
   }
 
+  @Override
+  public long getCompactionMaxBytesPerSecond() {
+    return bridge.getCompactionMaxBytesPerSecond();
+  }
+
   @Override
   public String[] getDiskDirectories() {
     return bridge.getDiskDirectories();
@@ -38,6 +38,8 @@ public class DiskStoreMBeanBridge {
 
   private int compactionThreshold;
 
+  private long compactionMaxBytesPerSecond;
+
   private String[] diskDirectories;
 
   private String name;
@@ -85,6 +87,7 @@ public class DiskStoreMBeanBridge {
   private void initDiskData() {
     this.name = diskStore.getName();
     this.compactionThreshold = diskStore.getCompactionThreshold();
+    this.compactionMaxBytesPerSecond = diskStore.getCompactionMaxBytesPerSecond();
     this.timeInterval = diskStore.getTimeInterval();
     this.writeBufferSize = diskStore.getWriteBufferSize();
     this.maxOpLogSize = diskStore.getMaxOplogSize();
@@ -147,6 +150,10 @@ public class DiskStoreMBeanBridge {
     return compactionThreshold;
   }
 
+  public long getCompactionMaxBytesPerSecond() {
+    return compactionMaxBytesPerSecond;
+  }
+
   public String[] getDiskDirectories() {
     return diskDirectories;
   }
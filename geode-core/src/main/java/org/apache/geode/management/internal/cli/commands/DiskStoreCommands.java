@@ -295,6 +295,9 @@ public class DiskStoreCommands implements GfshCommand {
       @CliOption(key = CliStrings.CREATE_DISK_STORE__COMPACTION_THRESHOLD,
           unspecifiedDefaultValue = "50",
           help = CliStrings.CREATE_DISK_STORE__COMPACTION_THRESHOLD__HELP) int compactionThreshold,
+      @CliOption(key = CliStrings.CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND,
+          unspecifiedDefaultValue = "0",
+          help = CliStrings.CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND__HELP) long compactionMaxBytesPerSecond,
       @CliOption(key = CliStrings.CREATE_DISK_STORE__MAX_OPLOG_SIZE,
           unspecifiedDefaultValue = "1024",
           help = CliStrings.CREATE_DISK_STORE__MAX_OPLOG_SIZE__HELP) int maxOplogSize,
@@ -323,6 +326,7 @@ public class DiskStoreCommands implements GfshCommand {
       diskStoreAttributes.allowForceCompaction = allowForceCompaction;
       diskStoreAttributes.autoCompact = autoCompact;
       diskStoreAttributes.compactionThreshold = compactionThreshold;
+      diskStoreAttributes.compactionMaxBytesPerSecond = compactionMaxBytesPerSecond;
       diskStoreAttributes.maxOplogSizeInBytes = maxOplogSize * (1024 * 1024);
       diskStoreAttributes.queueSize = queueSize;
       diskStoreAttributes.timeInterval = timeInterval;
@@ -913,6 +917,8 @@ public class DiskStoreCommands implements GfshCommand {
     diskStoreSection.addData("Auto Compaction",
         toString(diskStoreDetails.isAutoCompact(), "Yes", "No"));
     diskStoreSection.addData("Compaction Threshold", diskStoreDetails.getCompactionThreshold());
+    diskStoreSection.addData("Compaction Max Bytes Per Second",
+        diskStoreDetails.getCompactionMaxBytesPerSecond());
     diskStoreSection.addData("Max Oplog Size", diskStoreDetails.getMaxOplogSize());
     diskStoreSection.addData("Queue Size", diskStoreDetails.getQueueSize());
     diskStoreSection.addData("Time Interval", diskStoreDetails.getTimeInterval());
@@ -68,6 +68,8 @@ public class DiskStoreDetails implements Comparable<DiskStoreDetails>, MutableId
   private Integer queueSize;
   private Integer writeBufferSize;
 
+  private Long compactionMaxBytesPerSecond;
+
   private Float diskUsageWarningPercentage;
   private Float diskUsageCriticalPercentage;
 
@@ -157,6 +159,14 @@ public class DiskStoreDetails implements Comparable<DiskStoreDetails>, MutableId
     this.compactionThreshold = compactionThreshold;
   }
 
+  public Long getCompactionMaxBytesPerSecond() {
+    return compactionMaxBytesPerSecond;
+  }
+
+  public void setCompactionMaxBytesPerSecond(final Long compactionMaxBytesPerSecond) {
+    this.compactionMaxBytesPerSecond = compactionMaxBytesPerSecond;
+  }
+
   public UUID getId() {
     return id;
   }
@@ -352,6 +362,7 @@ public class DiskStoreDetails implements Comparable<DiskStoreDetails>, MutableId
     buffer.append(", allowForceCompaction = ").append(getAllowForceCompaction());
     buffer.append(", autoCompact = ").append(getAutoCompact());
     buffer.append(", compactionThreshold = ").append(getCompactionThreshold());
+    buffer.append(", compactionMaxBytesPerSecond = ").append(getCompactionMaxBytesPerSecond());
     buffer.append(", maxOplogSize = ").append(getMaxOplogSize());
     buffer.append(", memberId = ").append(getMemberId());
     buffer.append(", memberName = ").append(getMemberName());
@@ -106,6 +106,8 @@ public class DescribeDiskStoreFunction extends FunctionAdapter implements Intern
           diskStoreDetails.setAllowForceCompaction(diskStore.getAllowForceCompaction());
           diskStoreDetails.setAutoCompact(diskStore.getAutoCompact());
           diskStoreDetails.setCompactionThreshold(diskStore.getCompactionThreshold());
+          diskStoreDetails
+              .setCompactionMaxBytesPerSecond(diskStore.getCompactionMaxBytesPerSecond());
           diskStoreDetails.setMaxOplogSize(diskStore.getMaxOplogSize());
           diskStoreDetails.setQueueSize(diskStore.getQueueSize());
           diskStoreDetails.setTimeInterval(diskStore.getTimeInterval());
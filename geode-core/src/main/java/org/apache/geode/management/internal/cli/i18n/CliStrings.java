@@ -690,6 +690,10 @@ public class CliStrings {
   public static final String CREATE_DISK_STORE__COMPACTION_THRESHOLD = "compaction-threshold";
   public static final String CREATE_DISK_STORE__COMPACTION_THRESHOLD__HELP =
       "Percentage of garbage allowed in the file before it is eligible for compaction.";
+  public static final String CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND =
+      "compaction-max-bytes-per-second";
+  public static final String CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND__HELP =
+      "The maximum rate, in bytes per second, at which compaction copies live data forward. 0 means compaction is not rate limited.";
   public static final String CREATE_DISK_STORE__MAX_OPLOG_SIZE = "max-oplog-size";
   public static final String CREATE_DISK_STORE__MAX_OPLOG_SIZE__HELP =
       "The largest size, in megabytes, to allow an operation log to become before automatically rolling to a new file.";
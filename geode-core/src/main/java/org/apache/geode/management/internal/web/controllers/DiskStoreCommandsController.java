@@ -97,6 +97,8 @@ public class DiskStoreCommandsController extends AbstractCommandsController {
           defaultValue = "true") final Boolean autoCompact,
       @RequestParam(value = CliStrings.CREATE_DISK_STORE__COMPACTION_THRESHOLD,
           defaultValue = "50") final Integer compactionThreshold,
+      @RequestParam(value = CliStrings.CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND,
+          defaultValue = "0") final Long compactionMaxBytesPerSecond,
       @RequestParam(value = CliStrings.CREATE_DISK_STORE__MAX_OPLOG_SIZE,
           defaultValue = "1024") final Integer maxOplogSize,
       @RequestParam(value = CliStrings.CREATE_DISK_STORE__QUEUE_SIZE,
@@ -123,6 +125,8 @@ public class DiskStoreCommandsController extends AbstractCommandsController {
         String.valueOf(Boolean.TRUE.equals(autoCompact)));
     command.addOption(CliStrings.CREATE_DISK_STORE__COMPACTION_THRESHOLD,
         String.valueOf(compactionThreshold));
+    command.addOption(CliStrings.CREATE_DISK_STORE__COMPACTION_MAX_BYTES_PER_SECOND,
+        String.valueOf(compactionMaxBytesPerSecond));
     command.addOption(CliStrings.CREATE_DISK_STORE__MAX_OPLOG_SIZE, String.valueOf(maxOplogSize));
     command.addOption(CliStrings.CREATE_DISK_STORE__QUEUE_SIZE, String.valueOf(queueSize));
     command.addOption(CliStrings.CREATE_DISK_STORE__TIME_INTERVAL, String.valueOf(timeInterval));
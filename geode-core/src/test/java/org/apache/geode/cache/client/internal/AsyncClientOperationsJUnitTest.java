@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheWriterException;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.util.CacheWriterAdapter;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests the asynchronous operations of {@link ServerRegionProxy}.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class AsyncClientOperationsJUnitTest {
+
+  private static final int OPERATIONS = 2000;
+
+  private Cache cache;
+
+  private CacheServerImpl server;
+
+  private Region<String, Object> region;
+
+  private PoolImpl pool;
+
+  private ServerRegionProxy proxy;
+
+  @Before
+  public void setUp() {
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    this.region =
+        this.cache.<String, Object>createRegionFactory(RegionShortcut.LOCAL).create("region1");
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(PipelinedConnectionManager.PIPELINING_PROPERTY_NAME);
+    System.clearProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  private void start(boolean pipelining) throws Exception {
+    if (pipelining) {
+      System.setProperty(PipelinedConnectionManager.PIPELINING_PROPERTY_NAME, "true");
+      System.setProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME, "4");
+    }
+    this.server = (CacheServerImpl) this.cache.addCacheServer();
+    this.server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    this.server.start();
+    this.pool = (PoolImpl) PoolManager.createFactory().addServer("localhost", this.server.getPort())
+        .setMinConnections(0).setMaxConnections(8).setReadTimeout(10000).setPingInterval(10000)
+        .setPRSingleHopEnabled(false).create("junitPool");
+    this.proxy = new ServerRegionProxy("/region1", this.pool);
+    // the first operation connects the pool to the server
+    assertThat(this.proxy.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void manyOutstandingOperationsCompleteOnPipelinedConnection() throws Exception {
+    start(true);
+
+    putAndGetAll();
+
+    assertThat(this.pool.getPipelinedConnectionManager()
+        .getConnection(new ServerLocation("localhost", this.server.getPort()), true)).isNotNull();
+    // the pooled connection and the pipelined one
+    assertThat(getStats().getInt("currentClientConnections")).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void operationsRunOnAsyncThreadsWithoutPipelining() throws Exception {
+    start(false);
+
+    putAndGetAll();
+
+    assertThat(this.pool.getPipelinedConnectionManager()).isNull();
+  }
+
+  @Test
+  public void blockingOperationsRunAtOnceWithoutPipelining() throws Exception {
+    start(false);
+    // each put is held by the server until all of them have arrived
+    CountDownLatch arrived = new CountDownLatch(4);
+    this.region.getAttributesMutator().setCacheWriter(new CacheWriterAdapter<String, Object>() {
+      @Override
+      public void beforeCreate(EntryEvent<String, Object> event) throws CacheWriterException {
+        arrived.countDown();
+        try {
+          if (!arrived.await(5, TimeUnit.SECONDS)) {
+            throw new CacheWriterException("not all puts arrived");
+          }
+        } catch (InterruptedException e) {
+          throw new CacheWriterException(e);
+        }
+      }
+    });
+
+    List<CompletableFuture<Object>> puts = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      puts.add(put("key-" + i, "value-" + i, i));
+    }
+    CompletableFuture.allOf(puts.toArray(new CompletableFuture[0])).get();
+
+    assertThat(this.region.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void getAllCompletesWithValuesOfAllKeys() throws Exception {
+    start(true);
+    this.region.put("key-1", "value-1");
+    this.region.put("key-2", "value-2");
+
+    VersionedObjectList results =
+        this.proxy.getAllAsync(Arrays.asList("key-1", "key-2", "key-3"), null).get();
+
+    assertThat(results.getKeys()).containsExactly("key-1", "key-2", "key-3");
+    assertThat(results.getObjects().get(0)).isEqualTo("value-1");
+    assertThat(results.getObjects().get(1)).isEqualTo("value-2");
+  }
+
+  @Test
+  public void futureFailsWithExceptionOfServer() throws Exception {
+    start(true);
+    this.region.getAttributesMutator().setCacheWriter(new CacheWriterAdapter<String, Object>() {
+      @Override
+      public void beforeCreate(EntryEvent<String, Object> event) throws CacheWriterException {
+        throw new CacheWriterException("rejected " + event.getKey());
+      }
+    });
+
+    Throwable thrown = catchThrowable(() -> put("key-1", "value-1", 1).get());
+
+    assertThat(thrown).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ServerOperationException.class);
+    assertThat(this.region.containsKey("key-1")).isFalse();
+    // the connection is still usable
+    this.region.getAttributesMutator().setCacheWriter(null);
+    put("key-2", "value-2", 2).get();
+    assertThat(this.region.get("key-2")).isEqualTo("value-2");
+  }
+
+  private void putAndGetAll() throws Exception {
+    List<CompletableFuture<Object>> puts = new ArrayList<>();
+    for (int i = 0; i < OPERATIONS; i++) {
+      puts.add(put("key-" + i, "value-" + i, i));
+    }
+    CompletableFuture.allOf(puts.toArray(new CompletableFuture[0])).get();
+    assertThat(this.region.size()).isEqualTo(OPERATIONS);
+
+    List<CompletableFuture<Object>> gets = new ArrayList<>();
+    for (int i = 0; i < OPERATIONS; i++) {
+      gets.add(this.proxy.getAsync("key-" + i, null, null));
+    }
+    for (int i = 0; i < OPERATIONS; i++) {
+      assertThat(gets.get(i).get()).isEqualTo("value-" + i);
+    }
+  }
+
+  private CompletableFuture<Object> put(String key, Object value, int sequenceId) {
+    return this.proxy.putAsync(key, value, new EventID(new byte[] {1}, 1, sequenceId), null);
+  }
+
+  private Statistics getStats() {
+    return this.cache.getDistributedSystem()
+        .findStatisticsByType(this.cache.getDistributedSystem().findType("CacheServerStats"))[0];
+  }
+}
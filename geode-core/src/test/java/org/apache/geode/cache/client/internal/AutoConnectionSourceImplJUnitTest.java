@@ -64,9 +64,11 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
@@ -573,6 +575,14 @@ public class AutoConnectionSourceImplJUnitTest {
       return null;
     }
 
+    public CompletableFuture<Object> executeAsync(Op op, ServerLocation server) {
+      return null;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+      return null;
+    }
+
     public Object executeOn(ServerLocation server, Op op, boolean accessed,
         boolean onlyUseExistingCnx) {
       return null;
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests the getAll and putAll of a pool with a bulk op batch size.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class BulkOpBatchingJUnitTest {
+
+  private static final int BATCH_SIZE = 30;
+
+  private static final int KEYS = 250;
+
+  private Cache cache;
+
+  private Region<String, Object> region;
+
+  private PoolImpl pool;
+
+  private ServerRegionProxy proxy;
+
+  @Before
+  public void setUp() throws Exception {
+    System.setProperty(PoolImpl.BULK_OP_BATCH_SIZE_PROPERTY_NAME, String.valueOf(BATCH_SIZE));
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    this.region =
+        this.cache.<String, Object>createRegionFactory(RegionShortcut.LOCAL).create("region1");
+    CacheServerImpl server = (CacheServerImpl) this.cache.addCacheServer();
+    server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    server.start();
+    this.pool = (PoolImpl) PoolManager.createFactory().addServer("localhost", server.getPort())
+        .setMinConnections(0).setReadTimeout(10000).setPingInterval(10000)
+        .setPRSingleHopEnabled(false).create("junitPool");
+    this.proxy = new ServerRegionProxy("/region1", this.pool);
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(PoolImpl.BULK_OP_BATCH_SIZE_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void getAllReturnsValuesOfAllBatchesInOrder() {
+    List<String> keys = putEntries();
+
+    VersionedObjectList results = this.proxy.getAll(keys, null);
+
+    assertThat(results.getKeys()).containsExactlyElementsOf(keys);
+    for (int i = 0; i < KEYS; i++) {
+      assertThat(results.getObjects().get(i)).isEqualTo(i % 5 == 0 ? null : "value-" + i);
+    }
+  }
+
+  @Test
+  public void getAllGivesEveryKeyToHandlerOnce() {
+    List<String> keys = putEntries();
+    List<Object> handledKeys = new ArrayList<>();
+    Map<Object, Object> values = new ConcurrentHashMap<>();
+
+    this.proxy.getAll(keys, null, chunk -> {
+      handledKeys.addAll(chunk.getKeys());
+      for (int i = 0; i < chunk.size(); i++) {
+        if (chunk.getObjects().get(i) != null) {
+          values.put(chunk.getKeys().get(i), chunk.getObjects().get(i));
+        }
+      }
+    });
+
+    assertThat(handledKeys).containsExactlyElementsOf(keys);
+    assertThat(values).hasSize(KEYS - KEYS / 5).containsEntry("key-1", "value-1")
+        .doesNotContainKey("key-0");
+  }
+
+  @Test
+  public void putAllInBatchesGivesEntriesEventIdsOfOneMessage() {
+    Set<Long> sequenceIds = ConcurrentHashMap.newKeySet();
+    this.region.getAttributesMutator().addCacheListener(new CacheListenerAdapter<String, Object>() {
+      @Override
+      public void afterCreate(EntryEvent<String, Object> event) {
+        sequenceIds.add(((EntryEventImpl) event).getEventId().getSequenceID());
+      }
+    });
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      map.put("key-" + i, "value-" + i);
+    }
+
+    PutAllOp.execute(this.pool, this.region, map, new EventID(new byte[] {1}, 1, 1000), false,
+        false, null);
+
+    assertThat(this.region).hasSize(KEYS);
+    assertThat(this.region.get("key-" + (KEYS - 1))).isEqualTo("value-" + (KEYS - 1));
+    assertThat(sequenceIds).hasSize(KEYS);
+    assertThat(sequenceIds).contains(1000L, 1000L + KEYS - 1);
+  }
+
+  @Test
+  public void keysAreSplitIntoBatchesOfAtMostTheBatchSize() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      keys.add("key-" + i);
+    }
+
+    assertThat(GetAllOp.getBatches(keys, 0)).containsExactly(keys);
+    assertThat(GetAllOp.getBatches(keys, 7)).containsExactly(keys);
+    assertThat(GetAllOp.getBatches(keys, 3)).hasSize(3);
+    assertThat(GetAllOp.getBatches(keys, 3).get(2)).containsExactly("key-6");
+  }
+
+  /**
+   * Puts every key but each fifth one, and returns the keys.
+   */
+  private List<String> putEntries() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      keys.add("key-" + i);
+      if (i % 5 != 0) {
+        this.region.put("key-" + i, "value-" + i);
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.NetworkUtils;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.cache.internal.JUnit4CacheTestCase;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+/**
+ * Tests client regions created with {@link ClientRegionFactoryImpl#setNearCache}.
+ */
+@Category({DistributedTest.class, ClientSubscriptionTest.class})
+public class NearCacheDUnitTest extends JUnit4CacheTestCase {
+
+  private static final String REGION_NAME = "NearCacheDUnitTest_region";
+
+  private VM server;
+
+  private VM client;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    disconnectAllFromDS();
+    this.server = Host.getHost(0).getVM(0);
+    this.client = Host.getHost(0).getVM(1);
+  }
+
+  @Test
+  public void serverUpdateInvalidatesCachedKey() {
+    startServerAndClient(100, 0);
+    this.server.invoke(() -> serverPut("key-1", "value-1"));
+
+    this.client.invoke(() -> {
+      assertThat(getRegion().get("key-1")).isEqualTo("value-1");
+      assertThat(getRegion().containsValueForKey("key-1")).isTrue();
+    });
+    this.server.invoke(() -> serverPut("key-1", "value-2"));
+
+    this.client.invoke(() -> {
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> !getRegion().containsValueForKey("key-1"));
+      assertThat(getRegion().get("key-1")).isEqualTo("value-2");
+    });
+  }
+
+  @Test
+  public void interestIsRegisteredInFetchedKeysOnly() {
+    startServerAndClient(100, 0);
+    this.server.invoke(() -> {
+      serverPut("key-1", "value-1");
+      serverPut("key-2", "value-2");
+    });
+
+    this.client.invoke(() -> {
+      assertThat(getRegion().get("key-1")).isEqualTo("value-1");
+      assertThat(getRegion().getInterestList()).containsExactly("key-1");
+      assertThat(getNearCache().getRegisteredKeyCount()).isEqualTo(1);
+    });
+  }
+
+  @Test
+  public void clientPutRegistersInterest() {
+    startServerAndClient(100, 0);
+
+    this.client.invoke(() -> {
+      getRegion().put("key-1", "value-1");
+      assertThat(getRegion().containsValueForKey("key-1")).isTrue();
+    });
+    this.server.invoke(() -> serverPut("key-1", "value-2"));
+
+    this.client.invoke(() -> {
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> !getRegion().containsValueForKey("key-1"));
+      assertThat(getRegion().get("key-1")).isEqualTo("value-2");
+    });
+  }
+
+  @Test
+  public void interestInEvictedKeysIsUnregistered() {
+    int keys = NearCache.UNREGISTER_BATCH_SIZE * 3;
+    startServerAndClient(10, 0);
+    this.server.invoke(() -> {
+      for (int i = 0; i < keys; i++) {
+        serverPut("key-" + i, "value-" + i);
+      }
+    });
+
+    this.client.invoke(() -> {
+      for (int i = 0; i < keys; i++) {
+        assertThat(getRegion().get("key-" + i)).isEqualTo("value-" + i);
+      }
+      assertThat(getRegion().size()).isEqualTo(10);
+      assertThat(getNearCache().getRegisteredKeyCount())
+          .isLessThanOrEqualTo(10 + NearCache.UNREGISTER_BATCH_SIZE);
+      assertThat(getRegion().getInterestList())
+          .hasSize(getNearCache().getRegisteredKeyCount());
+      // the most recent keys are still cached and registered
+      assertThat(getRegion().getInterestList()).contains("key-" + (keys - 1));
+    });
+  }
+
+  @Test
+  public void expiredEntryIsFetchedAgain() {
+    startServerAndClient(100, 1);
+    this.server.invoke(() -> serverPut("key-1", "value-1"));
+
+    this.client.invoke(() -> {
+      assertThat(getRegion().get("key-1")).isEqualTo("value-1");
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> !getRegion().containsKey("key-1"));
+      assertThat(getRegion().get("key-1")).isEqualTo("value-1");
+    });
+  }
+
+  private void startServerAndClient(int maximumEntries, int timeToLive) {
+    int port = this.server.invoke(() -> createServer());
+    String host = NetworkUtils.getServerHostName(this.server.getHost());
+    this.client.invoke(() -> createClient(host, port, maximumEntries, timeToLive));
+  }
+
+  private int createServer() throws Exception {
+    Cache cache = getCache();
+    cache.createRegionFactory(RegionShortcut.REPLICATE).create(REGION_NAME);
+    CacheServer server = cache.addCacheServer();
+    server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    server.start();
+    return server.getPort();
+  }
+
+  private void createClient(String host, int port, int maximumEntries, int timeToLive) {
+    ClientCache cache = getClientCache(new ClientCacheFactory().addPoolServer(host, port)
+        .setPoolSubscriptionEnabled(true).setPoolReadTimeout(10000));
+    ClientRegionFactoryImpl<String, String> factory =
+        (ClientRegionFactoryImpl<String, String>) cache
+            .<String, String>createClientRegionFactory(ClientRegionShortcut.PROXY);
+    factory.setNearCache(maximumEntries, timeToLive).create(REGION_NAME);
+  }
+
+  private void serverPut(String key, String value) {
+    getCache().getRegion(REGION_NAME).put(key, value);
+  }
+
+  private LocalRegion getRegion() {
+    return (LocalRegion) getCache().getRegion(REGION_NAME);
+  }
+
+  private NearCache getNearCache() {
+    return getRegion().getNearCache();
+  }
+}
@@ -15,6 +15,8 @@
 package org.apache.geode.cache.client.internal;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,7 +28,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.junit.Before;
@@ -457,6 +465,45 @@ public class OpExecutorImplJUnitTest {
     assertEquals(0, returns);
   }
 
+  @Test
+  public void supplyAsyncRunsTasksOnCallingThreadOnceQueueIsFull() throws Exception {
+    ExecutorService asyncExecutor = Executors.newSingleThreadExecutor();
+    Semaphore permits = new Semaphore(2);
+    PoolImpl pool = mock(PoolImpl.class);
+    when(pool.getAsyncExecutor()).thenReturn(asyncExecutor);
+    when(pool.getAsyncPermits()).thenReturn(permits);
+    OpExecutorImpl exec = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, 3,
+        10, false, cancelCriterion, pool);
+    CountDownLatch blocked = new CountDownLatch(1);
+    Thread caller = Thread.currentThread();
+    try {
+      CompletableFuture<Thread> running = exec.supplyAsync(() -> {
+        try {
+          blocked.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Thread.currentThread();
+      });
+      CompletableFuture<Thread> queued = exec.supplyAsync(Thread::currentThread);
+      CompletableFuture<Thread> overflow = exec.supplyAsync(Thread::currentThread);
+
+      assertTrue(overflow.isDone());
+      assertSame(caller, overflow.get());
+      assertEquals(0, permits.availablePermits());
+
+      blocked.countDown();
+      assertNotSame(caller, running.get(10, TimeUnit.SECONDS));
+      assertNotSame(caller, queued.get(10, TimeUnit.SECONDS));
+      asyncExecutor.shutdown();
+      assertTrue(asyncExecutor.awaitTermination(10, TimeUnit.SECONDS));
+      assertEquals(2, permits.availablePermits());
+    } finally {
+      blocked.countDown();
+      asyncExecutor.shutdownNow();
+    }
+  }
+
   private class DummyManager implements ConnectionManager {
 
     protected int numServers = Integer.MAX_VALUE;
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.util.CacheWriterAdapter;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.EventIDHolder;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests pools that pipeline operations on one connection to each server.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class PipelinedConnectionJUnitTest {
+
+  private static final int THREADS = 16;
+
+  private static final int OPERATIONS = 100;
+
+  private Cache cache;
+
+  private CacheServerImpl server;
+
+  private Region<String, Object> region;
+
+  private PoolImpl pool;
+
+  @Before
+  public void setUp() {
+    System.setProperty(PipelinedConnectionManager.PIPELINING_PROPERTY_NAME, "true");
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    this.region =
+        this.cache.<String, Object>createRegionFactory(RegionShortcut.LOCAL).create("region1");
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(PipelinedConnectionManager.PIPELINING_PROPERTY_NAME);
+    System.clearProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  private void startServer(int maxThreads) throws Exception {
+    startServer(maxThreads, 10000);
+  }
+
+  private void startServer(int maxThreads, int readTimeout) throws Exception {
+    this.server = (CacheServerImpl) this.cache.addCacheServer();
+    this.server.setMaxThreads(maxThreads);
+    this.server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    this.server.start();
+    this.pool = (PoolImpl) PoolManager.createFactory().addServer("localhost", this.server.getPort())
+        .setMinConnections(0).setMaxConnections(THREADS + 1).setReadTimeout(readTimeout)
+        .setPingInterval(10000).create("junitPool");
+  }
+
+  @Test
+  public void operationsOfManyThreadsArePipelinedOnOneConnection() throws Exception {
+    System.setProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME, "4");
+    startServer(0);
+
+    doOperations();
+
+    assertThat(getPipelinedConnection()).isNotNull();
+    // the pooled connection and the pipelined one
+    assertThat(getStats().getInt("currentClientConnections")).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void operationsArePipelinedOnServerWithSelector() throws Exception {
+    System.setProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME, "4");
+    startServer(2);
+
+    doOperations();
+
+    assertThat(getPipelinedConnection()).isNotNull();
+    assertThat(getStats().getInt("currentClientConnections")).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void operationsUsePooledConnectionsIfServerDoesNotPipeline() throws Exception {
+    startServer(0);
+
+    doOperations();
+
+    assertThat(getPipelinedConnection()).isNull();
+  }
+
+  @Test
+  public void destroyedPipelinedConnectionIsReplaced() throws Exception {
+    System.setProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME, "4");
+    startServer(0);
+    // the first operation connects the pool to the server
+    put("key-1", "value-1", 1);
+    put("key-2", "value-2", 2);
+    PipelinedConnection connection = getPipelinedConnection();
+    assertThat(connection).isNotNull();
+
+    connection.destroy();
+    put("key-3", "value-3", 3);
+
+    assertThat(getPipelinedConnection()).isNotNull().isNotSameAs(connection);
+    assertThat(this.region.get("key-2")).isEqualTo("value-2");
+    assertThat(this.region.get("key-3")).isEqualTo("value-3");
+  }
+
+  @Test
+  public void timedOutOperationLeavesPipelinedConnectionOpen() throws Exception {
+    System.setProperty(AcceptorImpl.PIPELINE_THREADS_PROPERTY_NAME, "4");
+    startServer(0, 2000);
+    put("key-1", "value-1", 1);
+    put("key-2", "value-2", 2);
+    PipelinedConnection connection = getPipelinedConnection();
+    assertThat(connection).isNotNull();
+    AtomicBoolean slow = new AtomicBoolean(true);
+    this.region.getAttributesMutator().setCacheWriter(new CacheWriterAdapter<String, Object>() {
+      @Override
+      public void beforeCreate(EntryEvent<String, Object> event) {
+        if (event.getKey().equals("key-3") && slow.compareAndSet(true, false)) {
+          try {
+            Thread.sleep(3000);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+    });
+
+    // times out on the pipelined connection and is retried on a pooled one
+    put("key-3", "value-3", 3);
+    put("key-4", "value-4", 4);
+
+    assertThat(connection.isDestroyed()).isFalse();
+    assertThat(getPipelinedConnection()).isSameAs(connection);
+    assertThat(this.region.get("key-3")).isEqualTo("value-3");
+    assertThat(this.region.get("key-4")).isEqualTo("value-4");
+  }
+
+  private void doOperations() throws Exception {
+    // the first operation connects the pool to the server
+    assertThat(SizeOp.execute(this.pool, "/region1")).isEqualTo(0);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < OPERATIONS; i++) {
+            String key = thread + "-" + i;
+            put(key, "value-" + i, thread * OPERATIONS + i);
+            assertThat(ContainsKeyOp.execute(this.pool, "/region1", key,
+                ContainsKeyOp.MODE.VALUE_FOR_KEY)).isTrue();
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(this.region.size()).isEqualTo(THREADS * OPERATIONS);
+    assertThat(this.region.get("7-99")).isEqualTo("value-99");
+    assertThat(SizeOp.execute(this.pool, "/region1")).isEqualTo(THREADS * OPERATIONS);
+  }
+
+  private void put(String key, Object value, int sequenceId) {
+    EventIDHolder event = new EventIDHolder(new EventID(new byte[] {1}, 1, sequenceId));
+    PutOp.execute(this.pool, "/region1", key, value, null, event, Operation.CREATE, false, null,
+        null, false, false);
+  }
+
+  private PipelinedConnection getPipelinedConnection() {
+    return this.pool.getPipelinedConnectionManager()
+        .getConnection(new ServerLocation("localhost", this.server.getPort()), true);
+  }
+
+  private Statistics getStats() {
+    return this.cache.getDistributedSystem()
+        .findStatisticsByType(this.cache.getDistributedSystem().findType("CacheServerStats"))[0];
+  }
+}
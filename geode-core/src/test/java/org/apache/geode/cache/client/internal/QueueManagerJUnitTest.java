@@ -42,8 +42,10 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
@@ -331,6 +333,14 @@ public class QueueManagerJUnitTest {
       return null;
     }
 
+    public CompletableFuture<Object> executeAsync(Op op, ServerLocation server) {
+      return null;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+      return null;
+    }
+
     public Object executeOn(ServerLocation server, Op op, boolean accessed,
         boolean onlyUseExistingCnx) {
       return null;
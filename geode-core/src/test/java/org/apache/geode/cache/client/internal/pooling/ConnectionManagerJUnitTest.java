@@ -674,6 +674,75 @@ public class ConnectionManagerJUnitTest {
     Assert.assertEquals(1, factory.closes);
   }
 
+  @Test
+  public void testAdaptiveSizingMovesConnectionsFromHotServer() throws Exception {
+    System.setProperty(ConnectionManagerImpl.ADAPTIVE_SIZING_INTERVAL_PROPERTY, "100");
+    try {
+      manager = new ConnectionManagerImpl("pool", factory, endpointManager, 10, 0, -1, -1, logger,
+          60 * 1000, cancelCriterion, poolStats);
+    } finally {
+      System.clearProperty(ConnectionManagerImpl.ADAPTIVE_SIZING_INTERVAL_PROPERTY);
+    }
+    manager.start(background);
+
+    final ServerLocation hotServer = new ServerLocation("localhost", 1);
+    final ServerLocation coolServer = new ServerLocation("localhost", 2);
+    factory.nextServer = hotServer;
+    Connection conn1 = manager.borrowConnection(0);
+    Connection conn2 = manager.borrowConnection(0);
+    factory.nextServer = coolServer;
+    Connection conn3 = manager.borrowConnection(0);
+    Connection conn4 = manager.borrowConnection(0);
+    manager.returnConnection(conn1);
+    manager.returnConnection(conn2);
+    manager.returnConnection(conn3);
+    manager.returnConnection(conn4);
+    Assert.assertEquals(4, factory.creates);
+
+    // operations on the hot server take much longer than on the other
+    Op op = new Op() {
+      public Object attempt(Connection cnx) throws Exception {
+        if (cnx.getServer().equals(hotServer)) {
+          Thread.sleep(3);
+        }
+        return null;
+      }
+
+      public boolean useThreadLocalConnection() {
+        return false;
+      }
+    };
+    long end = System.currentTimeMillis() + TIMEOUT;
+    boolean moved = false;
+    while (!moved && System.currentTimeMillis() < end) {
+      for (ServerLocation server : new ServerLocation[] {hotServer, coolServer}) {
+        Connection conn;
+        try {
+          conn = manager.borrowConnection(server, 0, true);
+        } catch (AllConnectionsInUseException e) {
+          // no connections left to the hot server
+          moved = true;
+          break;
+        }
+        try {
+          conn.execute(op);
+        } finally {
+          manager.returnConnection(conn);
+        }
+      }
+      // leave the connections idle for a while, so they can be moved
+      Thread.sleep(3);
+    }
+
+    Assert.assertTrue("connections were not moved from the hot server", moved);
+    Assert.assertEquals(6, factory.creates);
+    Assert.assertEquals(2, factory.destroys);
+    Assert.assertEquals(4, manager.getConnectionCount());
+    for (int i = 0; i < 4; i++) {
+      Assert.assertEquals(coolServer, manager.borrowConnection(0).getServer());
+    }
+  }
+
   private class UpdaterThread extends Thread {
 
     private AtomicReference exception;
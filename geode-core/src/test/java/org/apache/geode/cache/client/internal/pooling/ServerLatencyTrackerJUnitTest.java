@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ServerLatencyTrackerJUnitTest {
+
+  private static final long FAST = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private ServerLatencyTracker tracker;
+  private ServerLocation server1;
+  private ServerLocation server2;
+  private ServerLocation server3;
+
+  @Before
+  public void setUp() {
+    this.tracker = new ServerLatencyTracker();
+    this.server1 = new ServerLocation("localhost", 1);
+    this.server2 = new ServerLocation("localhost", 2);
+    this.server3 = new ServerLocation("localhost", 3);
+  }
+
+  @Test
+  public void serverMuchSlowerThanTheOthersIsHot() {
+    record(this.server1, 20, SLOW);
+    record(this.server2, 20, FAST);
+    record(this.server3, 20, FAST);
+
+    assertEquals(Collections.singleton(this.server1), this.tracker.sample());
+    assertEquals(Collections.singleton(this.server1), this.tracker.getHotServers());
+    assertEquals(SLOW, this.tracker.getAverageNanos(this.server1));
+  }
+
+  @Test
+  public void onlyServerInUseIsNotHot() {
+    record(this.server1, 20, SLOW);
+
+    assertTrue(this.tracker.sample().isEmpty());
+  }
+
+  @Test
+  public void smallLatencyDifferencesAreNotHot() {
+    record(this.server1, 20, FAST * 5);
+    record(this.server2, 20, FAST);
+
+    assertTrue(this.tracker.sample().isEmpty());
+  }
+
+  @Test
+  public void serverWithFewOperationsIsNotHot() {
+    record(this.server1, ServerLatencyTracker.MIN_OPERATIONS_PER_SAMPLE - 1, SLOW);
+    record(this.server2, 20, FAST);
+
+    assertTrue(this.tracker.sample().isEmpty());
+  }
+
+  @Test
+  public void averageMovesTowardsTheLatestInterval() {
+    record(this.server1, 20, SLOW);
+    record(this.server2, 20, FAST);
+    this.tracker.sample();
+    record(this.server1, 20, FAST);
+    record(this.server2, 20, FAST);
+    this.tracker.sample();
+
+    long average = this.tracker.getAverageNanos(this.server1);
+    assertTrue(average < SLOW && average > FAST);
+    assertEquals(Collections.singleton(this.server1), this.tracker.getHotServers());
+    for (int i = 0; i < 4; i++) {
+      record(this.server1, 20, FAST);
+      record(this.server2, 20, FAST);
+      this.tracker.sample();
+    }
+    assertTrue(this.tracker.getHotServers().isEmpty());
+  }
+
+  @Test
+  public void serversWithoutOperationsAreForgotten() {
+    record(this.server1, 20, SLOW);
+    record(this.server2, 20, FAST);
+    this.tracker.sample();
+    record(this.server2, 20, FAST);
+
+    assertTrue(this.tracker.sample().isEmpty());
+    assertEquals(-1, this.tracker.getAverageNanos(this.server1));
+    assertEquals(FAST, this.tracker.getAverageNanos(this.server2));
+  }
+
+  @Test
+  public void borrowWaitsAreCountedPerSample() {
+    this.tracker.recordBorrowWait();
+    this.tracker.recordBorrowWait();
+    this.tracker.sample();
+    assertEquals(2, this.tracker.getLastBorrowWaits());
+    this.tracker.sample();
+    assertEquals(0, this.tracker.getLastBorrowWaits());
+  }
+
+  private void record(ServerLocation server, int operations, long nanos) {
+    for (int i = 0; i < operations; i++) {
+      this.tracker.recordOperation(server, nanos);
+    }
+  }
+}
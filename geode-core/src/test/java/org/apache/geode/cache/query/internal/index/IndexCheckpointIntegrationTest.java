@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.DiskStoreImpl;
+import org.apache.geode.internal.cache.DiskStoreStats;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests restoring functional and hash indexes from the index checkpoint written when a persistent
+ * region is closed.
+ */
+@Category(IntegrationTest.class)
+public class IndexCheckpointIntegrationTest {
+
+  private static final int ENTRIES = 100;
+
+  private Cache cache;
+
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    System.setProperty(DiskStoreImpl.INDEX_CHECKPOINT_PROPERTY_NAME, "true");
+    this.diskDir = this.temporaryFolder.newFolder("disk");
+    this.cache = createCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    System.clearProperty(DiskStoreImpl.INDEX_CHECKPOINT_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void indexesAreRestoredFromCheckpoint() throws Exception {
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+    checkQueries();
+
+    restartCache();
+    assertThat(getCheckpointFiles()).hasSize(1);
+    createRegion(false);
+    createIndexes();
+
+    DiskStoreStats stats = getDiskStoreStats();
+    assertThat(stats.getIndexCheckpointMappingsRestored()).isEqualTo(2 * ENTRIES);
+    assertThat(stats.getIndexCheckpointMappingsDiscarded()).isEqualTo(0);
+    // the checkpoint is only used once
+    assertThat(getCheckpointFiles()).isEmpty();
+    checkQueries();
+  }
+
+  @Test
+  public void entriesChangedSinceCheckpointAreEvaluated() throws Exception {
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+
+    restartCache();
+    region = createRegion(false);
+    // change entries before the indexes are restored
+    for (int i = 0; i < 10; i++) {
+      region.put(i, new Portfolio(i + ENTRIES));
+    }
+    region.destroy(10);
+    createIndexes();
+
+    DiskStoreStats stats = getDiskStoreStats();
+    assertThat(stats.getIndexCheckpointMappingsRestored()).isEqualTo(2 * (ENTRIES - 11));
+    assertThat(stats.getIndexCheckpointMappingsDiscarded()).isEqualTo(2 * 11);
+    QueryService qs = this.cache.getQueryService();
+    assertThat(query("select * from /portfolios p where p.ID >= " + ENTRIES)).isEqualTo(10);
+    assertThat(query("select * from /portfolios p where p.ID = 10")).isEqualTo(0);
+    assertThat(query("select * from /portfolios p where p.ID < " + ENTRIES)).isEqualTo(89);
+    assertThat(qs.getIndex(region, "idIndex").getStatistics().getNumberOfValues())
+        .isEqualTo(ENTRIES - 1);
+  }
+
+  @Test
+  public void definedIndexesAreRestoredWithoutFaultingInValues() throws Exception {
+    Region region = createRegion(true);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+
+    restartCache();
+    createRegion(true);
+    QueryService qs = this.cache.getQueryService();
+    qs.defineIndex("idIndex", "p.ID", "/portfolios p");
+    qs.defineHashIndex("statusIndex", "p.status", "/portfolios p");
+    qs.createDefinedIndexes();
+
+    DiskStoreStats stats = getDiskStoreStats();
+    assertThat(stats.getIndexCheckpointMappingsRestored()).isEqualTo(2 * ENTRIES);
+    assertThat(stats.getReads()).isEqualTo(0);
+    checkQueries();
+  }
+
+  @Test
+  public void indexesAreRestoredAfterRegionIsClosed() throws Exception {
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+
+    region.close();
+    assertThat(getCheckpointFiles()).hasSize(1);
+    createRegion(false);
+    createIndexes();
+
+    assertThat(getDiskStoreStats().getIndexCheckpointMappingsRestored()).isEqualTo(2 * ENTRIES);
+    checkQueries();
+  }
+
+  @Test
+  public void checkpointIsIgnoredWhenIndexChanges() throws Exception {
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+
+    restartCache();
+    createRegion(false);
+    QueryService qs = this.cache.getQueryService();
+    qs.createIndex("idIndex", "p.pkid", "/portfolios p");
+
+    assertThat(getDiskStoreStats().getIndexCheckpointMappingsRestored()).isEqualTo(0);
+    assertThat(query("select * from /portfolios p where p.pkid = '5'")).isEqualTo(1);
+  }
+
+  @Test
+  public void indexesWithoutCheckpointsAreRestoredByEvaluation() throws Exception {
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    QueryService qs = this.cache.getQueryService();
+    AbstractIndex rangeIndex = (AbstractIndex) qs.createIndex("secIdIndex", "pos.secId",
+        "/portfolios p, p.positions.values pos");
+    AbstractIndex keyIndex = (AbstractIndex) qs.createKeyIndex("keyIndex", "p.ID", "/portfolios p");
+    assertThat(rangeIndex).isInstanceOf(RangeIndex.class);
+    assertThat(keyIndex).isInstanceOf(PrimaryKeyIndex.class);
+
+    int[] visited = new int[1];
+    for (AbstractIndex index : new AbstractIndex[] {rangeIndex, keyIndex}) {
+      assertThat(index.isCheckpointable()).isFalse();
+      index.forEachMapping((indexKey, entry) -> visited[0]++);
+    }
+    assertThat(visited[0]).isEqualTo(0);
+
+    String secIdQuery =
+        "select * from /portfolios p, p.positions.values pos where pos.secId = 'IBM'";
+    int matches = query(secIdQuery);
+    long values = rangeIndex.getStatistics().getNumberOfValues();
+    RegionEntry entry = ((LocalRegion) region).getRegionEntry(7);
+    rangeIndex.removeMapping(entry, IndexProtocol.OTHER_OP);
+    assertThat(rangeIndex.getStatistics().getNumberOfValues()).isLessThan(values);
+
+    rangeIndex.restoreMapping("not the index key", entry);
+    keyIndex.restoreMapping("not the index key", entry);
+
+    assertThat(rangeIndex.getStatistics().getNumberOfValues()).isEqualTo(values);
+    assertThat(query(secIdQuery)).isEqualTo(matches);
+    assertThat(query("select * from /portfolios p where p.ID = 7")).isEqualTo(1);
+  }
+
+  @Test
+  public void noCheckpointIsWrittenByDefault() throws Exception {
+    System.clearProperty(DiskStoreImpl.INDEX_CHECKPOINT_PROPERTY_NAME);
+    this.cache.close();
+    this.cache = createCache();
+    Region region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    createIndexes();
+
+    restartCache();
+    assertThat(getCheckpointFiles()).isEmpty();
+  }
+
+  private void checkQueries() throws Exception {
+    assertThat(query("select * from /portfolios p where p.ID < 50")).isEqualTo(50);
+    assertThat(query("select * from /portfolios p where p.ID = 7")).isEqualTo(1);
+    assertThat(query("select * from /portfolios p where p.status = 'active'"))
+        .isEqualTo(ENTRIES / 2);
+  }
+
+  private int query(String queryString) throws Exception {
+    return ((SelectResults) this.cache.getQueryService().newQuery(queryString).execute()).size();
+  }
+
+  private void createIndexes() throws Exception {
+    QueryService qs = this.cache.getQueryService();
+    qs.createIndex("idIndex", "p.ID", "/portfolios p");
+    qs.createHashIndex("statusIndex", "p.status", "/portfolios p");
+  }
+
+  private void restartCache() {
+    this.cache.close();
+    this.cache = createCache();
+  }
+
+  private Cache createCache() {
+    Cache cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {this.diskDir}).create("store");
+    return cache;
+  }
+
+  private Region createRegion(boolean overflow) {
+    RegionFactory factory = this.cache.createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName("store");
+    if (overflow) {
+      factory.setEvictionAttributes(
+          EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK));
+    }
+    return factory.create("portfolios");
+  }
+
+  private DiskStoreStats getDiskStoreStats() {
+    return ((DiskStoreImpl) this.cache.findDiskStore("store")).getStats();
+  }
+
+  private File[] getCheckpointFiles() {
+    return this.diskDir.listFiles((dir, name) -> name.endsWith(IndexCheckpoint.FILE_EXT));
+  }
+}
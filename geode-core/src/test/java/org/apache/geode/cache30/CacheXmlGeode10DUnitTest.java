@@ -17,6 +17,7 @@ package org.apache.geode.cache30;
 import static org.apache.geode.distributed.ConfigurationProperties.*;
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.util.List;
 import java.util.Properties;
 
@@ -25,6 +26,8 @@ import org.junit.experimental.categories.Category;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.Declarable;
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.DiskStoreFactory;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.asyncqueue.AsyncEvent;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
@@ -292,6 +295,28 @@ public class CacheXmlGeode10DUnitTest extends CacheXml81DUnitTest {
     c.close();
   }
 
+  @Test
+  public void testDiskStoreCompactionMaxBytesPerSecond() throws Exception {
+    final String diskStoreName = this.testName.getMethodName();
+
+    final CacheCreation cache = new CacheCreation();
+    DiskStoreFactory dsf = cache.createDiskStoreFactory();
+    File[] dirs = new File[] {new File("").getAbsoluteFile()};
+    dsf.setCompactionMaxBytesPerSecond(1024 * 1024).setDiskDirs(dirs).create(diskStoreName);
+    dsf = cache.createDiskStoreFactory();
+    dsf.setDiskDirs(dirs).create(diskStoreName + "Unthrottled");
+
+    testXml(cache);
+
+    final Cache c = getCache();
+    assertNotNull(c);
+    DiskStore throttled = c.findDiskStore(diskStoreName);
+    assertEquals(1024 * 1024, throttled.getCompactionMaxBytesPerSecond());
+    DiskStore unthrottled = c.findDiskStore(diskStoreName + "Unthrottled");
+    assertEquals(DiskStoreFactory.DEFAULT_COMPACTION_MAX_BYTES_PER_SECOND,
+        unthrottled.getCompactionMaxBytesPerSecond());
+  }
+
   public static class MyAsyncEventListenerGeode10 implements AsyncEventListener, Declarable {
 
     @Override
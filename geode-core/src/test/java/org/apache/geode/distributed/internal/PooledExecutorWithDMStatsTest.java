@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PooledExecutorWithDMStatsTest {
+
+  private final PooledExecutorWithDMStats pool = new PooledExecutorWithDMStats(
+      new LinkedBlockingQueue<Runnable>(), 1, Executors.defaultThreadFactory());
+
+  /**
+   * The buffer consumer thread checks for system failures. Load that class up front so that
+   * shutting down a pool cannot interrupt its initialization.
+   */
+  @BeforeClass
+  public static void loadSystemFailure() {
+    SystemFailure.checkFailure();
+  }
+
+  @After
+  public void shutdownPool() {
+    this.pool.shutdownNow();
+  }
+
+  @Test
+  public void blockedThreadDelaysQueuedTasks() throws Exception {
+    CountDownLatch released = new CountDownLatch(1);
+    this.pool.execute(new BlockingTask(released));
+    this.pool.execute(new Release(released));
+
+    assertThat(released.await(200, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void blockedThreadIsCompensated() throws Exception {
+    this.pool.setCompensateBlockedThreads(true);
+    CountDownLatch released = new CountDownLatch(1);
+    this.pool.execute(new BlockingTask(released));
+    this.pool.execute(new Release(released));
+
+    assertThat(released.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void maximumPoolSizeIsRestoredWhenUnblocked() throws Exception {
+    this.pool.setCompensateBlockedThreads(true);
+    CountDownLatch released = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    this.pool.execute(new BlockingTask(released, finished));
+    this.pool.execute(new Release(released));
+
+    assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+    this.pool.shutdown();
+    assertThat(this.pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(this.pool.getMaximumPoolSize()).isEqualTo(1);
+  }
+
+  @Test(timeout = 10000)
+  public void startThreadIsNotBufferedWhenPoolIsFull() throws Exception {
+    PooledExecutorWithDMStats boundedPool = new PooledExecutorWithDMStats(
+        new LinkedBlockingQueue<Runnable>(1), 1, Executors.defaultThreadFactory());
+    CountDownLatch released = new CountDownLatch(1);
+    try {
+      boundedPool.setCompensateBlockedThreads(true);
+      // the only thread is busy without being blocked, so the pool is full
+      boundedPool.execute(() -> {
+        try {
+          released.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      // one task waits in the buffer consumer and one in the full buffer queue
+      boundedPool.execute(new Release(new CountDownLatch(1)));
+      boundedPool.execute(new Release(new CountDownLatch(1)));
+      while (boundedPool.bufferQueue.remainingCapacity() > 0) {
+        Thread.sleep(10);
+      }
+
+      boundedPool.getRejectedExecutionHandler()
+          .rejectedExecution(PooledExecutorWithDMStats.START_THREAD, boundedPool);
+
+      assertThat(boundedPool.bufferQueue).doesNotContain(PooledExecutorWithDMStats.START_THREAD);
+    } finally {
+      released.countDown();
+      boundedPool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void threadOutsidePoolIsNotCompensated() {
+    assertThat(PooledExecutorWithDMStats.threadWillBlock()).isNull();
+    PooledExecutorWithDMStats.threadUnblocked(null);
+  }
+
+  private static class BlockingTask implements Runnable {
+    private final CountDownLatch released;
+    private final CountDownLatch finished;
+
+    BlockingTask(CountDownLatch released) {
+      this(released, new CountDownLatch(1));
+    }
+
+    BlockingTask(CountDownLatch released, CountDownLatch finished) {
+      this.released = released;
+      this.finished = finished;
+    }
+
+    @Override
+    public void run() {
+      PooledExecutorWithDMStats pool = PooledExecutorWithDMStats.threadWillBlock();
+      try {
+        this.released.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        PooledExecutorWithDMStats.threadUnblocked(pool);
+      }
+      this.finished.countDown();
+    }
+  }
+
+  private static class Release implements Runnable {
+    private final CountDownLatch released;
+
+    Release(CountDownLatch released) {
+      this.released = released;
+    }
+
+    @Override
+    public void run() {
+      this.released.countDown();
+    }
+  }
+}
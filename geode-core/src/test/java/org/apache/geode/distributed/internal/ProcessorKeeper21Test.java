@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ProcessorKeeper21Test {
+
+  private final ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+
+  @Test
+  public void retrievesWhatWasPut() {
+    Object processor = new Object();
+
+    int id = this.keeper.put(processor);
+
+    assertThat(id).isGreaterThan(0);
+    assertThat(this.keeper.retrieve(id)).isSameAs(processor);
+  }
+
+  @Test
+  public void removedProcessorIsNotRetrieved() {
+    int id = this.keeper.put(new Object());
+
+    this.keeper.remove(id);
+
+    assertThat(this.keeper.retrieve(id)).isNull();
+    this.keeper.remove(id);
+  }
+
+  @Test
+  public void unknownIdIsNotRetrieved() {
+    assertThat(this.keeper.retrieve(12345)).isNull();
+    assertThat(this.keeper.retrieve(-1)).isNull();
+  }
+
+  @Test
+  public void idsAreUniqueAcrossThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<Integer>>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(() -> {
+          List<Integer> ids = new ArrayList<>();
+          for (int i = 0; i < 1000; i++) {
+            Integer processor = i;
+            int id = this.keeper.put(processor);
+            assertThat(this.keeper.retrieve(id)).isSameAs(processor);
+            ids.add(id);
+          }
+          return ids;
+        }));
+      }
+      Set<Integer> allIds = new HashSet<>();
+      for (Future<List<Integer>> future : futures) {
+        for (int id : future.get()) {
+          assertThat(id).isGreaterThan(0);
+          assertThat(allIds.add(id)).isTrue();
+        }
+      }
+      assertThat(allIds).hasSize(8000);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void weakReferencesAreKept() {
+    ProcessorKeeper21 weakKeeper = new ProcessorKeeper21();
+    Object processor = new Object();
+
+    int id = weakKeeper.put(processor);
+
+    assertThat(weakKeeper.retrieve(id)).isSameAs(processor);
+    weakKeeper.remove(id);
+    assertThat(weakKeeper.retrieve(id)).isNull();
+  }
+}
@@ -14,10 +14,19 @@
  */
 package org.apache.geode.distributed.internal;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.test.junit.categories.UnitTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -35,4 +44,78 @@ public class ReplyProcessor21Test {
     verify(mockReplyProcessor21, times(1)).waitForRepliesUninterruptibly();
     verify(mockReplyProcessor21, times(1)).finished();
   }
+
+  @Test
+  public void finishesWhenAllMembersReplied() throws Exception {
+    InternalDistributedMember member1 = member(1);
+    InternalDistributedMember member2 = member(2);
+    CountingReplyProcessor processor =
+        new CountingReplyProcessor(Arrays.asList(member1, member2, member1));
+
+    assertThat(processor.numMembers()).isEqualTo(3);
+    processor.process(reply(member1));
+    assertThat(processor.numMembers()).isEqualTo(2);
+    assertThat(processor.finishCount.get()).isEqualTo(0);
+    processor.process(reply(member2));
+    processor.process(reply(member1));
+    processor.memberDeparted(member2, false);
+
+    assertThat(processor.numMembers()).isEqualTo(0);
+    assertThat(processor.finishCount.get()).isEqualTo(1);
+    assertThat(processor.waitForReplies(1)).isTrue();
+  }
+
+  @Test
+  public void departedMemberIsNoLongerAwaited() throws Exception {
+    InternalDistributedMember member1 = member(1);
+    InternalDistributedMember member2 = member(2);
+    CountingReplyProcessor processor =
+        new CountingReplyProcessor(Arrays.asList(member1, member2, member1));
+
+    processor.memberDeparted(member1, true);
+    assertThat(processor.numMembers()).isEqualTo(1);
+    processor.process(reply(member2));
+
+    assertThat(processor.finishCount.get()).isEqualTo(1);
+    assertThat(processor.waitForReplies(1)).isTrue();
+  }
+
+  @Test
+  public void isRegisteredUntilCleanedUp() throws Exception {
+    ReplyProcessor21 processor = new ReplyProcessor21(mockDM(), Arrays.asList(member(1)));
+
+    assertThat(ReplyProcessor21.getProcessor(processor.getProcessorId())).isSameAs(processor);
+    processor.cleanup();
+    assertThat(ReplyProcessor21.getProcessor(processor.getProcessorId())).isNull();
+  }
+
+  private static DM mockDM() {
+    DM dm = mock(DM.class);
+    when(dm.getSystem()).thenReturn(mock(InternalDistributedSystem.class));
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    return dm;
+  }
+
+  private static InternalDistributedMember member(int port) throws Exception {
+    return new InternalDistributedMember(InetAddress.getLoopbackAddress(), port);
+  }
+
+  private static ReplyMessage reply(InternalDistributedMember sender) {
+    ReplyMessage reply = new ReplyMessage();
+    reply.setSender(sender);
+    return reply;
+  }
+
+  private static class CountingReplyProcessor extends ReplyProcessor21 {
+    final AtomicInteger finishCount = new AtomicInteger();
+
+    CountingReplyProcessor(Collection members) {
+      super(mockDM(), members);
+    }
+
+    @Override
+    protected void postFinish() {
+      this.finishCount.incrementAndGet();
+    }
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class StreamBufferPoolTest {
+
+  @Test
+  public void capacityIsRoundedUpToPowerOfTwo() {
+    assertThat(StreamBufferPool.acquire(1, false).capacity()).isEqualTo(32);
+    assertThat(StreamBufferPool.acquire(1000, false).capacity()).isEqualTo(1024);
+    assertThat(StreamBufferPool.acquire(1024, false).capacity()).isEqualTo(1024);
+    assertThat(StreamBufferPool.acquire(1025, true).capacity()).isEqualTo(2048);
+  }
+
+  @Test
+  public void releasedBufferIsReusedBySameThread() {
+    ByteBuffer buffer = StreamBufferPool.acquire(100, false);
+    buffer.putInt(7);
+    StreamBufferPool.release(buffer);
+
+    ByteBuffer reused = StreamBufferPool.acquire(128, false);
+
+    assertThat(reused).isSameAs(buffer);
+    assertThat(reused.position()).isEqualTo(0);
+    assertThat(reused.limit()).isEqualTo(reused.capacity());
+  }
+
+  @Test
+  public void heapAndDirectBuffersAreKeptApart() {
+    ByteBuffer direct = StreamBufferPool.acquire(256, true);
+    assertThat(direct.isDirect()).isTrue();
+    StreamBufferPool.release(direct);
+
+    assertThat(StreamBufferPool.acquire(256, false).isDirect()).isFalse();
+    assertThat(StreamBufferPool.acquire(256, true)).isSameAs(direct);
+  }
+
+  @Test
+  public void releasedBufferIsNotSharedWithOtherThreads() throws Exception {
+    ByteBuffer buffer = StreamBufferPool.acquire(512, false);
+    StreamBufferPool.release(buffer);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ByteBuffer other = executor.submit(() -> StreamBufferPool.acquire(512, false)).get();
+      assertThat(other).isNotSameAs(buffer);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void directBuffersAreSharedWithOtherThreads() throws Exception {
+    ByteBuffer buffer = StreamBufferPool.acquire(4096, true);
+    StreamBufferPool.release(buffer);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ByteBuffer other = executor.submit(() -> StreamBufferPool.acquire(4096, true)).get();
+      assertThat(other).isSameAs(buffer);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void cachedDirectBytesAreBounded() {
+    long otherSizes = StreamBufferPool.getCachedDirectBytes();
+    int count = (int) (StreamBufferPool.MAX_CACHED_DIRECT_BYTES
+        / StreamBufferPool.LARGEST_CACHED_SIZE) + 4;
+    ByteBuffer[] buffers = new ByteBuffer[count];
+    for (int i = 0; i < count; i++) {
+      buffers[i] = StreamBufferPool.acquire(StreamBufferPool.LARGEST_CACHED_SIZE, true);
+    }
+    for (ByteBuffer buffer : buffers) {
+      StreamBufferPool.release(buffer);
+    }
+
+    assertThat(StreamBufferPool.getCachedDirectBytes())
+        .isLessThanOrEqualTo(StreamBufferPool.MAX_CACHED_DIRECT_BYTES);
+    for (int i = 0; i < count; i++) {
+      StreamBufferPool.acquire(StreamBufferPool.LARGEST_CACHED_SIZE, true);
+    }
+    assertThat(StreamBufferPool.getCachedDirectBytes()).isEqualTo(otherSizes);
+  }
+
+  @Test
+  public void directBuffersTooLargeToCacheAreHeapBuffers() {
+    ByteBuffer large = StreamBufferPool.acquire(StreamBufferPool.LARGEST_CACHED_SIZE + 1, true);
+
+    assertThat(large.isDirect()).isFalse();
+    assertThat(large.capacity()).isEqualTo(StreamBufferPool.LARGEST_CACHED_SIZE + 1);
+  }
+
+  @Test
+  public void largeBuffersAreNotCached() {
+    ByteBuffer large = StreamBufferPool.acquire(StreamBufferPool.LARGEST_CACHED_SIZE + 1, false);
+    assertThat(large.capacity()).isEqualTo(StreamBufferPool.LARGEST_CACHED_SIZE + 1);
+    StreamBufferPool.release(large);
+
+    assertThat(StreamBufferPool.acquire(StreamBufferPool.LARGEST_CACHED_SIZE + 1, false))
+        .isNotSameAs(large);
+  }
+
+  @Test
+  public void pooledStreamGivesBuffersBackWhenClosed() {
+    HeapDataOutputStream stream = HeapDataOutputStream.createPooled(64, null, false, false);
+    stream.writeInt(0x12345678);
+
+    stream.close();
+
+    assertThat(StreamBufferPool.acquire(64, false).getInt(0)).isEqualTo(0x12345678);
+  }
+
+  @Test
+  public void pooledStreamKeepsContentsAcrossChunks() {
+    HeapDataOutputStream stream = HeapDataOutputStream.createPooled(32, null, false, true);
+    for (int i = 0; i < 100; i++) {
+      stream.writeInt(i);
+    }
+    ByteBuffer out = ByteBuffer.allocate(400);
+
+    stream.sendTo(out);
+    stream.close();
+
+    out.flip();
+    for (int i = 0; i < 100; i++) {
+      assertThat(out.getInt()).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void pooledStreamChunksGrowWithTheStream() {
+    HeapDataOutputStream stream = HeapDataOutputStream.createPooled(1024, null, false, true);
+    byte[] value = new byte[1000];
+    for (int i = 0; i < 1000; i++) {
+      value[0] = (byte) i;
+      stream.write(value, 0, value.length);
+    }
+
+    assertThat(stream.size()).isEqualTo(1000 * 1000);
+    // 1 KB chunks would take a thousand buffers
+    assertThat(stream.getByteBufferCount()).isLessThan(20);
+    byte[] bytes = stream.toByteArray();
+    assertThat(bytes[999 * 1000]).isEqualTo((byte) 999);
+  }
+
+  @Test
+  public void pooledStreamCanBeWrittenAfterClose() {
+    HeapDataOutputStream stream = HeapDataOutputStream.createPooled(32, null, false, false);
+    stream.writeInt(1);
+    stream.close();
+
+    stream.writeInt(2);
+
+    assertThat(ByteBuffer.wrap(stream.toByteArray()).getInt()).isEqualTo(2);
+    assertThat(stream.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void escapedBuffersAreNotGivenBack() {
+    HeapDataOutputStream stream = HeapDataOutputStream.createPooled(64, null, false, false);
+    stream.writeInt(0x12345678);
+    byte[] bytes = stream.toByteArray();
+
+    stream.close();
+    StreamBufferPool.acquire(64, false).putInt(0, 0);
+
+    assertThat(ByteBuffer.wrap(bytes).getInt()).isEqualTo(0x12345678);
+  }
+}
@@ -92,6 +92,8 @@ public class DiskStoreFactoryJUnitTest {
     assertEquals(name, ds.getName());
     assertEquals(DiskStoreFactory.DEFAULT_AUTO_COMPACT, ds.getAutoCompact());
     assertEquals(DiskStoreFactory.DEFAULT_COMPACTION_THRESHOLD, ds.getCompactionThreshold());
+    assertEquals(DiskStoreFactory.DEFAULT_COMPACTION_MAX_BYTES_PER_SECOND,
+        ds.getCompactionMaxBytesPerSecond());
     assertEquals(DiskStoreFactory.DEFAULT_ALLOW_FORCE_COMPACTION, ds.getAllowForceCompaction());
     assertEquals(DiskStoreFactory.DEFAULT_MAX_OPLOG_SIZE, ds.getMaxOplogSize());
     assertEquals(DiskStoreFactory.DEFAULT_TIME_INTERVAL, ds.getTimeInterval());
@@ -149,6 +151,23 @@ public class DiskStoreFactoryJUnitTest {
     }
   }
 
+  @Test
+  public void testCompactionMaxBytesPerSecond() {
+    DiskStoreFactory dsf = cache.createDiskStoreFactory();
+    String name = "testCompactionMaxBytesPerSecond";
+    DiskStore ds = dsf.setCompactionMaxBytesPerSecond(0).create(name);
+    assertEquals(0, ds.getCompactionMaxBytesPerSecond());
+    name = "testCompactionMaxBytesPerSecond2";
+    ds = dsf.setCompactionMaxBytesPerSecond(10 * 1024 * 1024).create(name);
+    assertEquals(10 * 1024 * 1024, ds.getCompactionMaxBytesPerSecond());
+    // check illegal stuff
+    try {
+      dsf.setCompactionMaxBytesPerSecond(-1);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
   @Test
   public void testQueueSize() {
     DiskStoreFactory dsf = cache.createDiskStoreFactory();
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests compacting oplogs with a compaction rate limit and in slices.
+ */
+@Category(IntegrationTest.class)
+public class OplogCompactionRateLimitJUnitTest extends DiskRegionTestingBase {
+
+  private static final int ENTRIES = 1000;
+
+  private static final int LIVE_ENTRIES = 400;
+
+  @Override
+  protected final void postTearDown() throws Exception {
+    System.clearProperty(DiskStoreImpl.COMPACTION_SLICE_SIZE_PROPERTY_NAME);
+  }
+
+  @Test
+  public void compactionWaitsForRateLimit() {
+    Region region = createRegion(200 * 1024);
+    createGarbage(region);
+
+    assertTrue(getDiskStore().forceCompaction());
+
+    DiskStoreStats stats = getDiskStore().getStats();
+    assertTrue(stats.getCompactBytes() >= LIVE_ENTRIES * 1024);
+    assertTrue(stats.getCompactThrottleWaits() > 0);
+    assertTrue(stats.getCompactSlices() > 0);
+    checkEntries(region);
+  }
+
+  @Test
+  public void compactionIsNotThrottledByDefault() {
+    Region region = createRegion(0);
+    createGarbage(region);
+
+    assertTrue(getDiskStore().forceCompaction());
+
+    DiskStoreStats stats = getDiskStore().getStats();
+    assertTrue(stats.getCompactBytes() >= LIVE_ENTRIES * 1024);
+    assertEquals(0, stats.getCompactThrottleWaits());
+    assertEquals(0, stats.getCompactSlices());
+    checkEntries(region);
+  }
+
+  @Test
+  public void compactionReleasesLocksAfterEachSlice() {
+    System.setProperty(DiskStoreImpl.COMPACTION_SLICE_SIZE_PROPERTY_NAME, "10");
+    Region region = createRegion(0);
+    createGarbage(region);
+
+    assertTrue(getDiskStore().forceCompaction());
+
+    DiskStoreStats stats = getDiskStore().getStats();
+    assertTrue(stats.getCompactSlices() >= LIVE_ENTRIES / 10);
+    assertEquals(0, stats.getCompactThrottleWaits());
+    checkEntries(region);
+
+    // the compacted data must also be recoverable
+    cache.close();
+    cache = createCache();
+    region = createRegion(0);
+    checkEntries(region);
+  }
+
+  /**
+   * Writes the entries and then updates all but {@link #LIVE_ENTRIES} of them, leaving the oplog
+   * they were first written to ready to be compacted.
+   */
+  private void createGarbage(Region region) {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value('A'));
+    }
+    getDiskStore().forceRoll();
+    for (int i = LIVE_ENTRIES; i < ENTRIES; i++) {
+      region.put(i, value('B'));
+    }
+    getDiskStore().forceRoll();
+  }
+
+  private void checkEntries(Region region) {
+    assertEquals(ENTRIES, region.size());
+    for (int i = 0; i < ENTRIES; i++) {
+      assertEquals(value(i < LIVE_ENTRIES ? 'A' : 'B'), region.get(i));
+    }
+  }
+
+  private String value(char fill) {
+    char[] chars = new char[1024];
+    Arrays.fill(chars, fill);
+    return new String(chars);
+  }
+
+  private Region createRegion(long compactionMaxBytesPerSecond) {
+    if (cache.findDiskStore("store") == null) {
+      cache.createDiskStoreFactory().setAutoCompact(false).setAllowForceCompaction(true)
+          .setMaxOplogSize(10).setCompactionMaxBytesPerSecond(compactionMaxBytesPerSecond)
+          .setDiskDirs(dirs).create("store");
+    }
+    return cache.createRegionFactory().setDiskStoreName("store")
+        .setDataPolicy(DataPolicy.PERSISTENT_REPLICATE).create("regionName");
+  }
+
+  private DiskStoreImpl getDiskStore() {
+    return (DiskStoreImpl) cache.findDiskStore("store");
+  }
+}
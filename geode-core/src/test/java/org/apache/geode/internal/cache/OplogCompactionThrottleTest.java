@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OplogCompactionThrottleTest {
+
+  @Test
+  public void allowsOneSecondBurstWithoutWaiting() {
+    OplogCompactionThrottle throttle = new OplogCompactionThrottle(1000);
+
+    assertThat(throttle.charge(600)).isEqualTo(0);
+    assertThat(throttle.charge(400)).isEqualTo(0);
+  }
+
+  @Test
+  public void waitIsProportionalToDebt() {
+    OplogCompactionThrottle throttle = new OplogCompactionThrottle(1000);
+    throttle.charge(1000);
+
+    long wait = throttle.charge(500);
+
+    // half a second of debt, less whatever was refilled since the first charge
+    assertThat(wait).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(wait).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(400));
+  }
+
+  @Test
+  public void debtAccumulatesAcrossCharges() {
+    OplogCompactionThrottle throttle = new OplogCompactionThrottle(1000);
+    throttle.charge(1000);
+    throttle.charge(1000);
+
+    long wait = throttle.charge(1000);
+
+    assertThat(wait).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(1900));
+  }
+
+  @Test
+  public void bucketRefillsOverTime() throws Exception {
+    OplogCompactionThrottle throttle = new OplogCompactionThrottle(100000);
+    throttle.charge(100000);
+
+    Thread.sleep(50);
+
+    // at least 5000 bytes have been refilled
+    assertThat(throttle.charge(4000)).isEqualTo(0);
+  }
+
+  @Test
+  public void rejectsNonPositiveRate() {
+    assertThatThrownBy(() -> new OplogCompactionThrottle(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
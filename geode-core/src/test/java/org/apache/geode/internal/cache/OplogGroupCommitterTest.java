@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DiskAccessException;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OplogGroupCommitterTest {
+
+  private DiskStoreStats stats;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    stats = mock(DiskStoreStats.class);
+    executor = Executors.newFixedThreadPool(16);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void waitForCommitFlushesAppendedWrite() {
+    AtomicInteger commits = new AtomicInteger();
+    OplogGroupCommitter committer =
+        new OplogGroupCommitter(() -> commits.incrementAndGet(), stats);
+
+    committer.appended();
+    committer.waitForCommit();
+
+    assertThat(commits.get()).isEqualTo(1);
+    verify(stats).incGroupCommits(1);
+    verify(stats).endGroupCommitWait(anyLong());
+  }
+
+  @Test
+  public void waitForCommitDoesNotFlushWhenNothingIsPending() {
+    AtomicInteger commits = new AtomicInteger();
+    OplogGroupCommitter committer =
+        new OplogGroupCommitter(() -> commits.incrementAndGet(), stats);
+
+    committer.appended();
+    committer.waitForCommit();
+    committer.waitForCommit();
+
+    assertThat(commits.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void concurrentWritersShareCommits() throws Exception {
+    final int writers = 16;
+    final int writesPerWriter = 200;
+    // records appended, and records known flushed, by the fake oplog
+    final AtomicLong appended = new AtomicLong();
+    final AtomicLong flushed = new AtomicLong();
+    final AtomicInteger commits = new AtomicInteger();
+    final Object oplogLock = new Object();
+    final OplogGroupCommitter committer = new OplogGroupCommitter(() -> {
+      synchronized (oplogLock) {
+        commits.incrementAndGet();
+        flushed.set(appended.get());
+      }
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, stats);
+
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < writers; i++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < writesPerWriter; j++) {
+          long mine;
+          synchronized (oplogLock) {
+            mine = appended.incrementAndGet();
+            committer.appended();
+          }
+          committer.waitForCommit();
+          assertThat(flushed.get()).isGreaterThanOrEqualTo(mine);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+
+    assertThat(commits.get()).isLessThan(writers * writesPerWriter);
+  }
+
+  @Test
+  public void failedCommitIsRetriedByNextWaiter() {
+    AtomicInteger attempts = new AtomicInteger();
+    OplogGroupCommitter committer = new OplogGroupCommitter(() -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new DiskAccessException("expected");
+      }
+    }, stats);
+
+    committer.appended();
+    assertThatThrownBy(() -> committer.waitForCommit()).isInstanceOf(DiskAccessException.class);
+    verify(stats, never()).incGroupCommits(anyLong());
+
+    committer.waitForCommit();
+    assertThat(attempts.get()).isEqualTo(2);
+    verify(stats, times(1)).incGroupCommits(1);
+  }
+}
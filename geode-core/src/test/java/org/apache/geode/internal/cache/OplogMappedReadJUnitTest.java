@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests faulting in values, and recovering crfs, through memory mapped read-only oplogs.
+ */
+@Category(IntegrationTest.class)
+public class OplogMappedReadJUnitTest extends DiskRegionTestingBase {
+
+  @Override
+  protected final void postTearDown() throws Exception {
+    System.clearProperty(DiskStoreImpl.MMAP_READ_ONLY_OPLOGS_PROPERTY_NAME);
+  }
+
+  @Test
+  public void valuesAreFaultedInFromMappedOplog() {
+    System.setProperty(DiskStoreImpl.MMAP_READ_ONLY_OPLOGS_PROPERTY_NAME, "true");
+    Region region = createRegion();
+    putEntries(region, 0, 100, "A");
+    DiskStoreImpl store = getDiskStore();
+    store.forceRoll();
+
+    checkEntries(region, 0, 100, "A");
+
+    assertTrue(store.getStats().getMappedOplogReads() > 0);
+    assertTrue(store.getStats().getMappedOplogs() > 0);
+  }
+
+  @Test
+  public void valuesAreReadFromFileWhenMappingIsDisabled() {
+    Region region = createRegion();
+    putEntries(region, 0, 100, "A");
+    DiskStoreImpl store = getDiskStore();
+    store.forceRoll();
+
+    checkEntries(region, 0, 100, "A");
+
+    assertEquals(0, store.getStats().getMappedOplogReads());
+    assertEquals(0, store.getStats().getMappedOplogs());
+    assertTrue(store.getStats().getOplogReads() > 0);
+  }
+
+  @Test
+  public void crfIsRecoveredThroughMapping() {
+    System.setProperty(DiskStoreImpl.MMAP_READ_ONLY_OPLOGS_PROPERTY_NAME, "true");
+    Region region = createRegion();
+    putEntries(region, 0, 100, "A");
+    putEntries(region, 0, 50, "B");
+    removeEntries(region, 90, 100);
+
+    cache.close();
+    // without krfs recovery has to scan the crfs
+    deleteKrfs();
+    cache = createCache();
+
+    region = createRegion();
+    assertEquals(90, region.size());
+    checkEntries(region, 0, 50, "B");
+    checkEntries(region, 50, 90, "A");
+  }
+
+  private Region createRegion() {
+    if (cache.findDiskStore("store") == null) {
+      cache.createDiskStoreFactory().setMaxOplogSize(1).setDiskDirs(dirs).create("store");
+    }
+    return cache.createRegionFactory().setDiskStoreName("store")
+        .setDataPolicy(DataPolicy.PERSISTENT_REPLICATE)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK))
+        .create("regionName");
+  }
+
+  private DiskStoreImpl getDiskStore() {
+    return (DiskStoreImpl) cache.findDiskStore("store");
+  }
+
+  private void deleteKrfs() {
+    for (File dir : dirs) {
+      for (File file : dir.listFiles()) {
+        if (file.getName().endsWith(".krf")) {
+          assertTrue(file.delete());
+        }
+      }
+    }
+  }
+
+  private void putEntries(Region region, int start, int end, String value) {
+    for (int i = start; i < end; i++) {
+      region.put(i, value);
+    }
+  }
+
+  private void removeEntries(Region region, int start, int end) {
+    for (int i = start; i < end; i++) {
+      region.remove(i);
+    }
+  }
+
+  private void checkEntries(Region region, int start, int end, String value) {
+    for (int i = start; i < end; i++) {
+      assertEquals(value, region.get(i));
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests recovering oplogs with more than one recovery thread.
+ */
+@Category(IntegrationTest.class)
+public class OplogParallelRecoveryJUnitTest extends DiskRegionTestingBase {
+
+  @Override
+  protected final void postTearDown() throws Exception {
+    System.clearProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME);
+    System.clearProperty(DiskStoreImpl.RECOVERY_THREAD_PER_DIRECTORY_PROPERTY_NAME);
+  }
+
+  @Test
+  public void recoversFromKrfsWithRecoveryThreads() {
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "4");
+    writeAndRecover(false);
+  }
+
+  @Test
+  public void recoversFromCrfsWithRecoveryThreads() {
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "4");
+    writeAndRecover(true);
+  }
+
+  @Test
+  public void recoversWithRecoveryThreadPerDirectory() {
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "4");
+    System.setProperty(DiskStoreImpl.RECOVERY_THREAD_PER_DIRECTORY_PROPERTY_NAME, "true");
+    writeAndRecover(true);
+  }
+
+  @Test
+  public void recoversWithMoreOplogsThanRecoveryThreads() {
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "2");
+    writeAndRecover(false);
+  }
+
+  private void writeAndRecover(boolean deleteKrfs) {
+    Region region = createRegion();
+    // every put is 1K so that the entries span many 1MB oplogs in all the disk dirs
+    for (int i = 0; i < 4000; i++) {
+      region.put(i, value(i, 'A'));
+    }
+    // only update and remove some of the entries in each oplog so none of them become empty
+    for (int i = 0; i < 4000; i += 4) {
+      region.put(i, value(i, 'B'));
+      region.remove(i + 1);
+    }
+    long oplogEntryId = getOplogSet(region).getOplogEntryId();
+    assertTrue(getOplogSet(region).getAllOplogs().length > 4);
+
+    cache.close();
+    if (deleteKrfs) {
+      deleteKrfs();
+    }
+    cache = createCache();
+
+    region = createRegion();
+    assertEquals(3000, region.size());
+    for (int i = 0; i < 4000; i += 4) {
+      assertEquals(value(i, 'B'), region.get(i));
+      assertNull(region.get(i + 1));
+      assertEquals(value(i + 2, 'A'), region.get(i + 2));
+      assertEquals(value(i + 3, 'A'), region.get(i + 3));
+    }
+    assertTrue(getOplogSet(region).getOplogEntryId() >= oplogEntryId);
+  }
+
+  private String value(int key, char fill) {
+    StringBuilder sb = new StringBuilder(1024).append(key);
+    while (sb.length() < 1024) {
+      sb.append(fill);
+    }
+    return sb.toString();
+  }
+
+  private Region createRegion() {
+    if (cache.findDiskStore("store") == null) {
+      cache.createDiskStoreFactory().setMaxOplogSize(1).setAutoCompact(false).setDiskDirs(dirs)
+          .create("store");
+    }
+    return cache.createRegionFactory().setDiskStoreName("store")
+        .setDataPolicy(DataPolicy.PERSISTENT_REPLICATE).create("regionName");
+  }
+
+  private PersistentOplogSet getOplogSet(Region region) {
+    DiskRegion diskRegion = ((LocalRegion) region).getDiskRegion();
+    return diskRegion.getDiskStore().getPersistentOplogSet(diskRegion);
+  }
+
+  private void deleteKrfs() {
+    for (File dir : dirs) {
+      for (File file : dir.listFiles()) {
+        if (file.getName().endsWith(".krf")) {
+          assertTrue(file.delete());
+        }
+      }
+    }
+  }
+}
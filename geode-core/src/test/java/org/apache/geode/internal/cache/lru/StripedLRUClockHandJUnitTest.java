@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.lru;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.AbstractLRURegionMap;
+import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class StripedLRUClockHandJUnitTest {
+
+  private static final int LIMIT = 100;
+
+  private Cache cache;
+
+  private Region<Integer, String> region;
+
+  private StripedLRUClockHand clock;
+
+  @Before
+  public void setUp() {
+    System.setProperty(StripedLRUClockHand.SEGMENTS_PROPERTY_NAME, "8");
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    this.region = this.cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes(LIMIT))
+        .create("region");
+    EnableLRU helper = ((LocalRegion) this.region).getEvictionController().getLRUHelper();
+    this.clock =
+        new StripedLRUClockHand(this.region, helper, new InternalRegionArguments(), 6);
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(StripedLRUClockHand.SEGMENTS_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void segmentCountIsRoundedUpToAPowerOfTwo() {
+    assertThat(this.clock.getSegmentCount()).isEqualTo(8);
+  }
+
+  @Test
+  public void everyAppendedEntryIsReturnedOnce() {
+    List<TestNode> nodes = appendNodes(1000);
+    assertThat(this.clock.size()).isEqualTo(1000);
+    assertThat(this.clock.getExpensiveListCount()).isEqualTo(1000);
+
+    Set<LRUClockNode> returned = new HashSet<>();
+    for (LRUClockNode aNode = this.clock.getLRUEntry(); aNode != null; aNode =
+        this.clock.getLRUEntry()) {
+      assertThat(returned.add(aNode)).isTrue();
+    }
+
+    assertThat(returned).containsOnlyElementsOf(nodes).hasSize(1000);
+    assertThat(this.clock.size()).isZero();
+  }
+
+  @Test
+  public void recentlyUsedEntryIsReturnedAfterTheOthersOfItsSegment() {
+    List<TestNode> nodes = appendNodes(200);
+    TestNode used = nodes.get(0);
+    used.setRecentlyUsed();
+    int segment = this.clock.segmentIndex(used);
+    int othersInSegment = 0;
+    for (TestNode aNode : nodes) {
+      if (aNode != used && this.clock.segmentIndex(aNode) == segment) {
+        othersInSegment++;
+      }
+    }
+
+    int returnedFromSegment = 0;
+    for (LRUClockNode aNode = this.clock.getLRUEntry(); aNode != used; aNode =
+        this.clock.getLRUEntry()) {
+      assertThat(aNode).isNotNull();
+      if (this.clock.segmentIndex(aNode) == segment) {
+        returnedFromSegment++;
+      }
+    }
+
+    assertThat(returnedFromSegment).isEqualTo(othersInSegment);
+    assertThat(used.testRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void unlinkedEntriesAreNotReturned() {
+    List<TestNode> nodes = appendNodes(100);
+    for (int i = 0; i < 100; i += 2) {
+      assertThat(this.clock.unlinkEntry(nodes.get(i))).isTrue();
+    }
+    assertThat(this.clock.unlinkEntry(nodes.get(0))).isFalse();
+    assertThat(this.clock.size()).isEqualTo(50);
+
+    Set<LRUClockNode> returned = new HashSet<>();
+    for (LRUClockNode aNode = this.clock.getLRUEntry(); aNode != null; aNode =
+        this.clock.getLRUEntry()) {
+      returned.add(aNode);
+    }
+
+    assertThat(returned).hasSize(50);
+    for (int i = 1; i < 100; i += 2) {
+      assertThat(returned).contains(nodes.get(i));
+    }
+  }
+
+  @Test
+  public void clearEmptiesEverySegment() {
+    appendNodes(100);
+
+    this.clock.clear(null);
+
+    assertThat(this.clock.size()).isZero();
+    assertThat(this.clock.getLRUEntry()).isNull();
+  }
+
+  @Test
+  public void concurrentPutsKeepTheRegionAtItsLimit() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 1000; i++) {
+            this.region.put(thread * 1000 + i, "value");
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(this.region.size()).isEqualTo(LIMIT);
+    LRUStatistics stats =
+        ((AbstractLRURegionMap) ((LocalRegion) this.region).getRegionMap()).getLRUStatistics();
+    assertThat(stats.getEvictions()).isEqualTo(8000 - LIMIT);
+  }
+
+  private List<TestNode> appendNodes(int count) {
+    List<TestNode> nodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      TestNode aNode = new TestNode();
+      nodes.add(aNode);
+      this.clock.appendEntry(aNode);
+    }
+    return nodes;
+  }
+
+  private static class TestNode implements LRUClockNode {
+
+    private LRUClockNode next;
+
+    private LRUClockNode prev;
+
+    private boolean recentlyUsed;
+
+    private boolean evicted;
+
+    @Override
+    public void setNextLRUNode(LRUClockNode next) {
+      this.next = next;
+    }
+
+    @Override
+    public void setPrevLRUNode(LRUClockNode prev) {
+      this.prev = prev;
+    }
+
+    @Override
+    public LRUClockNode nextLRUNode() {
+      return this.next;
+    }
+
+    @Override
+    public LRUClockNode prevLRUNode() {
+      return this.prev;
+    }
+
+    @Override
+    public int updateEntrySize(EnableLRU ccHelper) {
+      return 0;
+    }
+
+    @Override
+    public int updateEntrySize(EnableLRU ccHelper, Object value) {
+      return 0;
+    }
+
+    @Override
+    public int getEntrySize() {
+      return 0;
+    }
+
+    @Override
+    public boolean testRecentlyUsed() {
+      return this.recentlyUsed;
+    }
+
+    @Override
+    public void setRecentlyUsed() {
+      this.recentlyUsed = true;
+    }
+
+    @Override
+    public void unsetRecentlyUsed() {
+      this.recentlyUsed = false;
+    }
+
+    @Override
+    public void setEvicted() {
+      this.evicted = true;
+    }
+
+    @Override
+    public void unsetEvicted() {
+      this.evicted = false;
+    }
+
+    @Override
+    public boolean testEvicted() {
+      return this.evicted;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.NetworkUtils;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.cache.internal.JUnit4CacheTestCase;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+/**
+ * Tests the delivery of subscription events to clients in batches, which is enabled with
+ * {@link CacheClientProxy#EVENT_BATCH_SIZE_PROPERTY_NAME}.
+ */
+@Category({DistributedTest.class, ClientSubscriptionTest.class})
+public class ClientEventBatchDUnitTest extends JUnit4CacheTestCase {
+
+  private static final String REGION_NAME = "ClientEventBatchDUnitTest_region";
+
+  private VM server;
+
+  private VM client;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    disconnectAllFromDS();
+    this.server = Host.getHost(0).getVM(0);
+    this.client = Host.getHost(0).getVM(1);
+  }
+
+  @Override
+  public final void preTearDownCacheTestCase() throws Exception {
+    this.server.invoke(() -> {
+      System.clearProperty(CacheClientProxy.EVENT_BATCH_SIZE_PROPERTY_NAME);
+      System.clearProperty(CacheClientProxy.EVENT_BATCH_TIME_PROPERTY_NAME);
+      System.clearProperty(CacheClientProxy.CONFLATE_EVENT_BATCHES_PROPERTY_NAME);
+    });
+  }
+
+  @Test
+  public void clientReceivesAllEventsInBatches() {
+    startServerAndClient(20, 50, false);
+    this.server.invoke(() -> {
+      Region<String, String> region = getCache().getRegion(REGION_NAME);
+      for (int i = 0; i < 200; i++) {
+        region.put("key-" + i, "value-" + i);
+      }
+      for (int i = 0; i < 200; i += 2) {
+        region.destroy("key-" + i);
+      }
+    });
+
+    this.client.invoke(() -> {
+      Region<String, String> region = getCache().getRegion(REGION_NAME);
+      Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> region.size() == 100);
+      for (int i = 1; i < 200; i += 2) {
+        assertThat(region.get("key-" + i)).isEqualTo("value-" + i);
+      }
+    });
+    this.server.invoke(() -> {
+      CacheClientProxyStats stats = getProxyStatistics();
+      assertThat(stats.getMessageBatchesSent()).isGreaterThan(0);
+      assertThat(stats.getBatchedMessagesSent()).isGreaterThanOrEqualTo(300);
+      assertThat(stats.getMessagesConflatedInBatches()).isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void conflatedBatchesDeliverLatestValues() {
+    startServerAndClient(1000, 1000, true);
+    this.server.invoke(() -> {
+      Region<String, String> region = getCache().getRegion(REGION_NAME);
+      for (int round = 0; round < 50; round++) {
+        for (int i = 0; i < 10; i++) {
+          region.put("key-" + i, "value-" + i + "-" + round);
+        }
+      }
+    });
+
+    this.client.invoke(() -> {
+      Region<String, String> region = getCache().getRegion(REGION_NAME);
+      Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> {
+        for (int i = 0; i < 10; i++) {
+          // the entries of the client region are read without fetching them from the server
+          Region.Entry<String, String> entry = region.getEntry("key-" + i);
+          if (entry == null || !("value-" + i + "-49").equals(entry.getValue())) {
+            return false;
+          }
+        }
+        return true;
+      });
+    });
+    this.server.invoke(() -> {
+      CacheClientProxyStats stats = getProxyStatistics();
+      assertThat(stats.getMessagesConflatedInBatches()).isGreaterThan(0);
+      assertThat(stats.getBatchedMessagesSent() + stats.getMessagesConflatedInBatches())
+          .isEqualTo(stats.getMessagesProcessed());
+    });
+  }
+
+  private void startServerAndClient(int batchSize, int batchTime, boolean conflate) {
+    int port = this.server.invoke(() -> {
+      System.setProperty(CacheClientProxy.EVENT_BATCH_SIZE_PROPERTY_NAME, "" + batchSize);
+      System.setProperty(CacheClientProxy.EVENT_BATCH_TIME_PROPERTY_NAME, "" + batchTime);
+      System.setProperty(CacheClientProxy.CONFLATE_EVENT_BATCHES_PROPERTY_NAME, "" + conflate);
+      return createServer();
+    });
+    String host = NetworkUtils.getServerHostName(this.server.getHost());
+    this.client.invoke(() -> createClient(host, port));
+  }
+
+  private int createServer() throws Exception {
+    Cache cache = getCache();
+    cache.createRegionFactory(RegionShortcut.REPLICATE).create(REGION_NAME);
+    CacheServer server = cache.addCacheServer();
+    server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    server.start();
+    return server.getPort();
+  }
+
+  private void createClient(String host, int port) {
+    ClientCache cache = getClientCache(new ClientCacheFactory().addPoolServer(host, port)
+        .setPoolSubscriptionEnabled(true).setPoolReadTimeout(10000));
+    Region<String, String> region = cache
+        .<String, String>createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY)
+        .create(REGION_NAME);
+    region.registerInterest("ALL_KEYS");
+  }
+
+  private CacheClientProxyStats getProxyStatistics() {
+    CacheClientProxy proxy = CacheClientNotifier.getInstance().getClientProxies().iterator().next();
+    return proxy.getStatistics();
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class MessageGatheringWritesIntegrationTest {
+
+  private static final int COMM_BUFFER_SIZE = 1000;
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private ServerSocketChannel serverChannel;
+  private SocketChannel senderChannel;
+  private SocketChannel receiverChannel;
+  private MessageStats senderStats;
+
+  @Before
+  public void setUp() throws Exception {
+    System.setProperty(Message.GATHERING_WRITES_PROPERTY, "true");
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    this.senderChannel = SocketChannel.open(this.serverChannel.getLocalAddress());
+    this.receiverChannel = this.serverChannel.accept();
+    this.senderStats = mock(MessageStats.class);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.senderChannel.close();
+    this.receiverChannel.close();
+    this.serverChannel.close();
+  }
+
+  @Test
+  public void largeHeapPartsAreSentIntact() throws Exception {
+    byte[] small = bytes(10, 1);
+    byte[] large = bytes(64 * 1024, 2);
+    byte[] otherLarge = bytes(COMM_BUFFER_SIZE * 3, 3);
+    Message message = newSender(4);
+    message.addBytesPart(small);
+    message.addBytesPart(large);
+    message.addIntPart(42);
+    message.addBytesPart(otherLarge);
+
+    Message received = sendAndReceive(message);
+
+    assertEquals(4, received.getNumberOfParts());
+    assertArrayEquals(small, received.getPart(0).getSerializedForm());
+    assertArrayEquals(large, received.getPart(1).getSerializedForm());
+    assertEquals(42, received.getPart(2).getInt());
+    assertArrayEquals(otherLarge, received.getPart(3).getSerializedForm());
+    verify(this.senderStats).incSentBytes(anyLong());
+  }
+
+  @Test
+  public void moreLargePartsThanGatheredBuffersAreSentIntact() throws Exception {
+    int numberOfParts = 40;
+    Message message = newSender(numberOfParts);
+    for (int i = 0; i < numberOfParts; i++) {
+      message.addBytesPart(bytes(COMM_BUFFER_SIZE + i, i));
+    }
+
+    Message received = sendAndReceive(message);
+
+    assertEquals(numberOfParts, received.getNumberOfParts());
+    for (int i = 0; i < numberOfParts; i++) {
+      assertArrayEquals(bytes(COMM_BUFFER_SIZE + i, i), received.getPart(i).getSerializedForm());
+    }
+  }
+
+  @Test
+  public void storedObjectPartIsWrittenFromItsDirectBuffer() throws Exception {
+    byte[] value = bytes(16 * 1024, 7);
+    ByteBuffer direct = ByteBuffer.allocateDirect(value.length);
+    direct.put(value);
+    direct.flip();
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.hasRefCount()).thenReturn(true);
+    when(storedObject.getDataSize()).thenReturn(value.length);
+    when(storedObject.createDirectByteBuffer()).thenReturn(direct);
+    Message message = newSender(2);
+    message.addPartInAnyForm(storedObject, false);
+    message.addIntPart(5);
+
+    Message received = sendAndReceive(message);
+
+    assertArrayEquals(value, received.getPart(0).getSerializedForm());
+    assertEquals(5, received.getPart(1).getInt());
+    verify(storedObject, never()).getValueAsHeapByteArray();
+  }
+
+  @Test
+  public void heapPartsLargerThanTheGatheredLimitAreSentThroughTheCommBuffer() throws Exception {
+    byte[] huge = bytes(Message.MAX_GATHERED_HEAP_PART_LENGTH + 1, 9);
+    Message message = newSender(1);
+    message.addBytesPart(huge);
+
+    Message received = sendAndReceive(message);
+
+    assertArrayEquals(huge, received.getPart(0).getSerializedForm());
+  }
+
+  private Message newSender(int numberOfParts) throws Exception {
+    Message message = new Message(numberOfParts, Version.CURRENT);
+    message.setMessageType(MessageType.REQUEST);
+    message.setTransactionId(1);
+    message.setComms(this.senderChannel.socket(), ByteBuffer.allocate(COMM_BUFFER_SIZE),
+        this.senderStats);
+    return message;
+  }
+
+  /**
+   * Sends the message from another thread, since it can be larger than the socket buffers, and
+   * returns the message received for it.
+   */
+  private Message sendAndReceive(Message message) throws Exception {
+    Thread sender = new Thread(() -> {
+      try {
+        message.send();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    sender.start();
+    Message received = new Message(0, Version.CURRENT);
+    received.setComms(this.receiverChannel.socket(), ByteBuffer.allocate(COMM_BUFFER_SIZE),
+        mock(MessageStats.class));
+    received.recv();
+    sender.join(30000);
+    assertFalse(sender.isAlive());
+    return received;
+  }
+
+  private static byte[] bytes(int length, int seed) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (seed + i * 31);
+    }
+    return bytes;
+  }
+}
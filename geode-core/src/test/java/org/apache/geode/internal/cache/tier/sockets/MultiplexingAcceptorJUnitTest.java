@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.client.internal.ServerRegionProxy;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests a cache server whose selector threads read the requests of its client connections.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class MultiplexingAcceptorJUnitTest {
+
+  private static final int MAX_THREADS = 2;
+
+  private static final int CONNECTIONS = 20;
+
+  private static final int SOCKET_BUFFER_SIZE = 32768;
+
+  private Cache cache;
+
+  private CacheServerImpl server;
+
+  private Region<String, Object> region;
+
+  private PoolImpl pool;
+
+  private ServerRegionProxy proxy;
+
+  @Before
+  public void setUp() throws Exception {
+    System.setProperty(AcceptorImpl.SELECTOR_THREADS_PROPERTY_NAME, "2");
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    this.region =
+        this.cache.<String, Object>createRegionFactory(RegionShortcut.LOCAL).create("region1");
+    this.server = (CacheServerImpl) this.cache.addCacheServer();
+    this.server.setMaxThreads(MAX_THREADS);
+    this.server.setSocketBufferSize(SOCKET_BUFFER_SIZE);
+    this.server.setPort(AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET));
+    this.server.start();
+    this.pool = (PoolImpl) PoolManager.createFactory()
+        .addServer("localhost", this.server.getPort()).setMinConnections(0)
+        .setMaxConnections(CONNECTIONS + 1).setReadTimeout(10000).setPingInterval(10000)
+        .setSocketBufferSize(SOCKET_BUFFER_SIZE).create("junitPool");
+    this.proxy = new ServerRegionProxy("region1", this.pool);
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(AcceptorImpl.SELECTOR_THREADS_PROPERTY_NAME);
+    if (this.cache != null) {
+      this.cache.close();
+    }
+  }
+
+  @Test
+  public void requestsOfManyConnectionsAreProcessedByFewThreads() throws Exception {
+    assertThat(this.server.getAcceptor().isMultiplexing()).isTrue();
+    List<Connection> connections = new ArrayList<>();
+    for (int i = 0; i < CONNECTIONS; i++) {
+      connections.add(this.pool.acquireConnection());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(CONNECTIONS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int c = 0; c < CONNECTIONS; c++) {
+        final int connection = c;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 50; i++) {
+            this.proxy.putOnForTestsOnly(connections.get(connection), connection + "-" + i,
+                "value-" + i, new EventID(new byte[] {1}, connection, i), null);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(this.region.size()).isEqualTo(CONNECTIONS * 50);
+    assertThat(this.proxy.size()).isEqualTo(CONNECTIONS * 50);
+    assertThat(this.region.get("7-49")).isEqualTo("value-49");
+    Statistics stats = getStats();
+    assertThat(stats.getInt("currentClientConnections")).isGreaterThanOrEqualTo(CONNECTIONS);
+    assertThat(stats.getInt("connectionThreads")).isLessThanOrEqualTo(MAX_THREADS);
+    assertThat(stats.getInt("selectorLoops")).isGreaterThan(0);
+  }
+
+  @Test
+  public void requestsLargerThanTheBufferAreRead() {
+    Connection connection = this.pool.acquireConnection();
+    byte[] value = new byte[4 * SOCKET_BUFFER_SIZE + 17];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) i;
+    }
+
+    for (int i = 0; i < 3; i++) {
+      this.proxy.putOnForTestsOnly(connection, "key-" + i, value, new EventID(new byte[] {1}, 1, i),
+          null);
+      this.proxy.putOnForTestsOnly(connection, "small-" + i, "small",
+          new EventID(new byte[] {1}, 2, i), null);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(Arrays.equals((byte[]) this.region.get("key-" + i), value)).isTrue();
+      assertThat(this.region.get("small-" + i)).isEqualTo("small");
+    }
+  }
+
+  private Statistics getStats() {
+    return this.cache.getDistributedSystem()
+        .findStatisticsByType(this.cache.getDistributedSystem().findType("CacheServerStats"))[0];
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class PrefetchedMessageChannelJUnitTest {
+
+  private static final int HEADER_LENGTH = 17;
+
+  private SocketChannel client;
+
+  private SocketChannel server;
+
+  private AcceptorImpl acceptor;
+
+  private ByteBuffer commBuffer;
+
+  @Before
+  public void setUp() throws Exception {
+    try (ServerSocketChannel listener = ServerSocketChannel.open()) {
+      listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      this.client = SocketChannel.open(listener.getLocalAddress());
+      this.server = listener.accept();
+    }
+    this.server.configureBlocking(false);
+    this.acceptor = mock(AcceptorImpl.class);
+    this.commBuffer = ByteBuffer.allocate(64);
+    when(this.acceptor.takeCommBuffer()).thenReturn(this.commBuffer);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.client.close();
+    this.server.close();
+  }
+
+  @Test
+  public void closeReleasesPartiallyPrefetchedBuffer() throws Exception {
+    PrefetchedMessageChannel channel =
+        new PrefetchedMessageChannel(this.server, this.acceptor, HEADER_LENGTH);
+    this.client.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    prefetchUntil(channel, 3);
+    assertThat(channel.isMessageReady()).isFalse();
+
+    channel.close();
+
+    assertThat(channel.isOpen()).isFalse();
+    verify(this.acceptor).releaseCommBuffer(this.commBuffer);
+    assertThatThrownBy(channel::prefetch).isInstanceOf(ClosedChannelException.class);
+    channel.close();
+    channel.releaseBufferIfEmpty();
+    verify(this.acceptor, times(1)).releaseCommBuffer(this.commBuffer);
+  }
+
+  @Test
+  public void bufferIsReleasedOnceWhenReadBeforeClose() throws Exception {
+    PrefetchedMessageChannel channel =
+        new PrefetchedMessageChannel(this.server, this.acceptor, HEADER_LENGTH);
+    this.client.write(ByteBuffer.wrap(new byte[] {1, 2}));
+    prefetchUntil(channel, 2);
+
+    ByteBuffer dst = ByteBuffer.allocate(2);
+    assertThat(channel.read(dst)).isEqualTo(2);
+    channel.releaseBufferIfEmpty();
+    verify(this.acceptor).releaseCommBuffer(this.commBuffer);
+
+    channel.close();
+    verify(this.acceptor, times(1)).releaseCommBuffer(this.commBuffer);
+    verify(this.acceptor, never()).releaseCommBuffer(null);
+  }
+
+  private static void prefetchUntil(PrefetchedMessageChannel channel, int expected)
+      throws Exception {
+    int total = 0;
+    long deadline = System.currentTimeMillis() + 10000;
+    while (total < expected && System.currentTimeMillis() < deadline) {
+      total += channel.prefetch();
+    }
+    assertThat(total).isEqualTo(expected);
+  }
+}
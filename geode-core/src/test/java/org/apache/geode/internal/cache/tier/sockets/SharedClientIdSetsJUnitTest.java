@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientSubscriptionTest.class})
+public class SharedClientIdSetsJUnitTest {
+
+  @Test
+  public void equalSetsAreShared() throws Exception {
+    SharedClientIdSets sharedSets = new SharedClientIdSets(10);
+    Set<ClientProxyMembershipID> first = sharedSets.share(ids(1000, 1001, 1002));
+    Set<ClientProxyMembershipID> second = ids(1000, 1001, 1002);
+
+    assertThat(sharedSets.share(second)).isSameAs(first);
+    assertThat(sharedSets.share(ids(1000, 1001))).isNotSameAs(first);
+    assertThat(sharedSets.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void setsAreNotSharedIfDisabled() throws Exception {
+    SharedClientIdSets sharedSets = new SharedClientIdSets(0);
+    Set<ClientProxyMembershipID> first = ids(1000, 1001);
+    Set<ClientProxyMembershipID> second = ids(1000, 1001);
+
+    assertThat(sharedSets.share(first)).isSameAs(first);
+    assertThat(sharedSets.share(second)).isSameAs(second);
+    assertThat(sharedSets.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void setsAreDroppedWhenTheMostAreKept() throws Exception {
+    SharedClientIdSets sharedSets = new SharedClientIdSets(2);
+    sharedSets.share(ids(1000));
+    sharedSets.share(ids(1001));
+    Set<ClientProxyMembershipID> third = ids(1002);
+
+    assertThat(sharedSets.share(third)).isSameAs(third);
+    assertThat(sharedSets.size()).isEqualTo(1);
+    assertThat(sharedSets.share(ids(1002))).isSameAs(third);
+  }
+
+  private Set<ClientProxyMembershipID> ids(int... ports) throws Exception {
+    Set<ClientProxyMembershipID> ids = new HashSet<>();
+    for (int port : ports) {
+      ids.add(new ClientProxyMembershipID(
+          new InternalDistributedMember(InetAddress.getLocalHost(), port)));
+    }
+    return ids;
+  }
+}
@@ -24,6 +24,7 @@ import org.junit.experimental.categories.Category;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.googlecode.catchexception.CatchException.catchException;
@@ -39,6 +40,7 @@ public class FreeListManagerTest {
   private final MemoryAllocatorImpl ma = mock(MemoryAllocatorImpl.class);
   private final OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
   private TestableFreeListManager freeListManager;
+  private FreeListManager threadCachingFreeListManager;
 
   @Before
   public void setUp() throws Exception {
@@ -50,6 +52,9 @@ public class FreeListManagerTest {
     if (this.freeListManager != null) {
       this.freeListManager.freeSlabs();
     }
+    if (this.threadCachingFreeListManager != null) {
+      this.threadCachingFreeListManager.freeSlabs();
+    }
   }
 
   private static TestableFreeListManager createFreeListManager(MemoryAllocatorImpl ma,
@@ -852,6 +857,166 @@ public class FreeListManagerTest {
     assertThat(spy.getFragmentation()).isEqualTo(67); // Math.rint(66.66)
   }
 
+  @Test
+  public void freedTinyChunkIsReusedByTheSameThread() throws Exception {
+    FreeListManager manager = setUpThreadCachingManager(4);
+    OffHeapStoredObject c = manager.allocate(10);
+    OffHeapStoredObject.release(c.getAddress(), manager);
+
+    // other threads do not see the chunk cached by this thread
+    assertThat(allocateInOtherThread(manager, 10)).isNotEqualTo(c.getAddress());
+    assertThat(manager.getFreeTinyMemory()).isEqualTo(c.getSize());
+    OffHeapStoredObject reused = manager.allocate(10);
+
+    assertThat(reused.getAddress()).isEqualTo(c.getAddress());
+    validateChunkSizes(reused, 10);
+    assertThat(manager.getFreeTinyMemory()).isZero();
+    manager.returnThreadCachedChunks();
+    verify(this.stats).incThreadCacheHits(1);
+    // one miss by each thread
+    verify(this.stats, times(2)).incThreadCacheMisses(1);
+  }
+
+  @Test
+  public void fullThreadCacheReturnsHalfToSharedFreeList() throws Exception {
+    FreeListManager manager = setUpThreadCachingManager(4);
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      chunks.add(manager.allocate(10));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), manager);
+    }
+
+    // the first two chunks freed went back to the shared free list
+    long first = allocateInOtherThread(manager, 10);
+    long second = allocateInOtherThread(manager, 10);
+    assertThat(first).isIn(chunks.get(0).getAddress(), chunks.get(1).getAddress());
+    assertThat(second).isIn(chunks.get(0).getAddress(), chunks.get(1).getAddress());
+    assertThat(manager.getFreeTinyMemory()).isEqualTo(3 * chunks.get(0).getSize());
+  }
+
+  @Test
+  public void threadCacheOfOneChunkReturnsItToSharedFreeList() throws Exception {
+    FreeListManager manager = setUpThreadCachingManager(1);
+    OffHeapStoredObject first = manager.allocate(10);
+    OffHeapStoredObject second = manager.allocate(10);
+    OffHeapStoredObject.release(first.getAddress(), manager);
+    OffHeapStoredObject.release(second.getAddress(), manager);
+
+    // the first chunk freed went back to the shared free list, and the second is cached
+    assertThat(allocateInOtherThread(manager, 10)).isEqualTo(first.getAddress());
+    assertThat(manager.allocate(10).getAddress()).isEqualTo(second.getAddress());
+  }
+
+  @Test
+  public void defragmentReclaimsThreadCachedChunks() throws Exception {
+    FreeListManager manager = setUpThreadCachingManager(1024);
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < DEFAULT_SLAB_SIZE / 64; i++) {
+      chunks.add(manager.allocate(64 - OffHeapStoredObject.HEADER_SIZE));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), manager);
+    }
+    assertThat(manager.getUsedMemory()).isZero();
+
+    OffHeapStoredObject c = manager.allocate(DEFAULT_SLAB_SIZE - OffHeapStoredObject.HEADER_SIZE);
+
+    assertThat(c.getSize()).isEqualTo(DEFAULT_SLAB_SIZE);
+    assertThat(manager.getFreeTinyMemory()).isZero();
+  }
+
+  private FreeListManager setUpThreadCachingManager(int threadCacheSize) {
+    this.threadCachingFreeListManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, threadCacheSize);
+    return this.threadCachingFreeListManager;
+  }
+
+  private long allocateInOtherThread(FreeListManager manager, int size) throws Exception {
+    AtomicLong address = new AtomicLong();
+    Thread thread = new Thread(() -> address.set(manager.allocate(size).getAddress()));
+    thread.start();
+    thread.join();
+    return address.get();
+  }
+
+  @Test
+  public void findEvacuationSpanCoversLiveChunksBetweenFreeOnes() {
+    // ten chunks of 1024 bytes fill the slab
+    setUpSingleSlabManager(10 * 1024);
+    OffHeapStoredObject[] chunks = allocateAndFreeOddChunks(10);
+
+    assertThat(this.freeListManager.findEvacuationSpan(2 * 1024))
+        .containsExactly(chunks[1].getAddress(), chunks[6].getAddress());
+    assertThat(this.freeListManager.findEvacuationSpan(1024))
+        .containsExactly(chunks[1].getAddress(), chunks[4].getAddress());
+  }
+
+  @Test
+  public void findEvacuationSpanReturnsNullIfNoSpanIsLargerThanAFragment() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject first = this.freeListManager.allocate(1016);
+    for (int i = 0; i < 9; i++) {
+      this.freeListManager.allocate(1016);
+    }
+    OffHeapStoredObject.release(first.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.findEvacuationSpan(1024)).isNull();
+    assertThat(this.freeListManager.findEvacuationSpan(DEFAULT_SLAB_SIZE))
+        .containsExactly(first.getAddress(), first.getAddress() + DEFAULT_SLAB_SIZE);
+  }
+
+  @Test
+  public void allocateOutsideSkipsFragmentsInTheSpan() {
+    Slab slab1 = new SlabImpl(10 * 1024);
+    Slab slab2 = new SlabImpl(10 * 1024);
+    this.freeListManager = createFreeListManager(ma, new Slab[] {slab1, slab2});
+    long slab1End = slab1.getMemoryAddress() + slab1.getSize();
+
+    OffHeapStoredObject c = this.freeListManager.allocateOutside(1016, slab1.getMemoryAddress(),
+        slab1End);
+
+    assertThat(c.getAddress()).isEqualTo(slab2.getMemoryAddress());
+    validateChunkSizes(c, 1016);
+    assertThat(c.getRefCount()).isEqualTo(1);
+    assertThat(this.freeListManager.getUsedMemory()).isEqualTo(1024);
+    assertThat(this.freeListManager.allocateOutside(1016, slab1.getMemoryAddress(),
+        slab2.getMemoryAddress() + slab2.getSize())).isNull();
+  }
+
+  @Test
+  public void allocationThatDefragmentsIsCountedAsStall() {
+    setUpSingleSlabManager(10 * 1024);
+    OffHeapStoredObject[] chunks = new OffHeapStoredObject[10];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = this.freeListManager.allocate(1016);
+    }
+    for (OffHeapStoredObject chunk : chunks) {
+      OffHeapStoredObject.release(chunk.getAddress(), this.freeListManager);
+    }
+    verify(this.stats, never()).endAllocationStall(anyLong());
+
+    this.freeListManager.allocate(5000);
+
+    verify(this.stats, atLeastOnce()).startAllocationStall();
+    verify(this.stats, atLeastOnce()).endAllocationStall(anyLong());
+  }
+
+  /**
+   * Allocates count chunks of 1024 bytes and frees those at odd indexes.
+   */
+  private OffHeapStoredObject[] allocateAndFreeOddChunks(int count) {
+    OffHeapStoredObject[] chunks = new OffHeapStoredObject[count];
+    for (int i = 0; i < count; i++) {
+      chunks[i] = this.freeListManager.allocate(1024 - OffHeapStoredObject.HEADER_SIZE);
+    }
+    for (int i = 1; i < count; i += 2) {
+      OffHeapStoredObject.release(chunks[i].getAddress(), this.freeListManager);
+    }
+    return chunks;
+  }
+
   @Test
   public void isAdjacentBoundaryConditions() {
     SlabImpl chunk = new SlabImpl(10);
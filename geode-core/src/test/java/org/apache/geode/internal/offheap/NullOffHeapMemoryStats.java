@@ -113,6 +113,90 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
     return 0;
   }
 
+  @Override
+  public void incThreadCacheHits(long value) {}
+
+  @Override
+  public long getThreadCacheHits() {
+    return 0;
+  }
+
+  @Override
+  public void incThreadCacheMisses(long value) {}
+
+  @Override
+  public long getThreadCacheMisses() {
+    return 0;
+  }
+
+  @Override
+  public void incThreadCacheFreeMemory(long value) {}
+
+  @Override
+  public long getThreadCacheFreeMemory() {
+    return 0;
+  }
+
+  @Override
+  public long startOnlineDefragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void endOnlineDefragmentation(long start) {}
+
+  @Override
+  public int getOnlineDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public long getOnlineDefragmentationTime() {
+    return 0;
+  }
+
+  @Override
+  public void setRelocationPendingBytes(long value) {}
+
+  @Override
+  public long getRelocationPendingBytes() {
+    return 0;
+  }
+
+  @Override
+  public void incRelocatedObjects(long value) {}
+
+  @Override
+  public long getRelocatedObjects() {
+    return 0;
+  }
+
+  @Override
+  public void incRelocatedBytes(long value) {}
+
+  @Override
+  public long getRelocatedBytes() {
+    return 0;
+  }
+
+  @Override
+  public long startAllocationStall() {
+    return 0;
+  }
+
+  @Override
+  public void endAllocationStall(long start) {}
+
+  @Override
+  public long getAllocationStalls() {
+    return 0;
+  }
+
+  @Override
+  public long getAllocationStallTime() {
+    return 0;
+  }
+
   @Override
   public void close() {
     this.isClosed = true;
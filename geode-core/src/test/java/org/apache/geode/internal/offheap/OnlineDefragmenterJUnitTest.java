@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.OffHeapRegionEntry;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OnlineDefragmenterJUnitTest {
+
+  private static final int VALUE_SIZE = 100;
+
+  private Cache cache;
+
+  private Region<Integer, byte[]> region;
+
+  private MemoryAllocatorImpl ma;
+
+  private int keyCount;
+
+  @Before
+  public void setUp() {
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "")
+        .set(OFF_HEAP_MEMORY_SIZE, "4m").create();
+    this.region = this.cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL)
+        .setOffHeap(true).create("region");
+    this.ma = MemoryAllocatorImpl.getAllocator();
+    fillAndFragmentMemory();
+  }
+
+  @After
+  public void tearDown() {
+    if (this.cache != null) {
+      this.cache.close();
+    }
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void defragmentMovesLiveObjectsOutOfTheLargestSpan() {
+    OffHeapMemoryStats stats = this.ma.getStats();
+    this.ma.getFreeListManager().defragment(0);
+    int largestFragmentBefore = stats.getLargestFragment();
+    OnlineDefragmenter defragmenter = new OnlineDefragmenter(this.ma, 0, 50, 1024 * 1024);
+
+    assertThat(defragmenter.isDefragmentationNeeded()).isTrue();
+    assertThat(defragmenter.defragment()).isTrue();
+
+    assertThat(stats.getOnlineDefragmentations()).isEqualTo(1);
+    assertThat(stats.getRelocatedObjects()).isGreaterThan(0);
+    assertThat(stats.getRelocatedBytes()).isGreaterThan(stats.getRelocatedObjects() * VALUE_SIZE);
+    assertThat(stats.getRelocationPendingBytes()).isZero();
+    assertThat(stats.getLargestFragment()).isGreaterThan(2 * largestFragmentBefore);
+    assertValuesAreIntact();
+  }
+
+  @Test
+  public void defragmentDoesNotMoveRetainedObjects() {
+    List<Long> addresses = new ArrayList<>();
+    for (int i = 0; i < this.keyCount; i += 3) {
+      long addr = getEntry(i).getAddress();
+      assertThat(OffHeapStoredObject.retain(addr)).isTrue();
+      addresses.add(addr);
+    }
+    OnlineDefragmenter defragmenter = new OnlineDefragmenter(this.ma, 0, 50, 1024 * 1024);
+
+    defragmenter.defragment();
+
+    assertThat(this.ma.getStats().getRelocatedObjects()).isZero();
+    for (int i = 0; i < this.keyCount; i += 3) {
+      assertThat(getEntry(i).getAddress()).isEqualTo(addresses.get(i / 3));
+      OffHeapStoredObject.release(addresses.get(i / 3));
+    }
+    assertValuesAreIntact();
+  }
+
+  @Test
+  public void backgroundThreadDefragmentsUntilStopped() {
+    OnlineDefragmenter defragmenter = new OnlineDefragmenter(this.ma, 10, 50, 1024 * 1024);
+    defragmenter.start();
+    try {
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> this.ma.getStats().getOnlineDefragmentations() > 0);
+    } finally {
+      defragmenter.stop();
+    }
+
+    assertThat(defragmenter.isDefragmentationNeeded()).isFalse();
+    assertValuesAreIntact();
+  }
+
+  /**
+   * Fills most of the off-heap memory and then destroys two of every three entries, so that the
+   * objects left are spread out between small free chunks.
+   */
+  private void fillAndFragmentMemory() {
+    while (this.ma.getFreeMemory() > 256 * 1024) {
+      this.region.put(this.keyCount, value(this.keyCount));
+      this.keyCount++;
+    }
+    for (int i = 0; i < this.keyCount; i++) {
+      if (i % 3 != 0) {
+        this.region.destroy(i);
+      }
+    }
+  }
+
+  private void assertValuesAreIntact() {
+    for (int i = 0; i < this.keyCount; i += 3) {
+      assertThat(Arrays.equals(this.region.get(i), value(i))).isTrue();
+    }
+  }
+
+  private OffHeapRegionEntry getEntry(int key) {
+    return (OffHeapRegionEntry) ((LocalRegion) this.region).getRegionEntry(key);
+  }
+
+  private static byte[] value(int key) {
+    byte[] value = new byte[VALUE_SIZE];
+    Arrays.fill(value, (byte) key);
+    return value;
+  }
+}
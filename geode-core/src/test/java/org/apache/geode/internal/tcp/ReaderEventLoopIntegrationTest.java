@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class ReaderEventLoopIntegrationTest {
+
+  private static final int MAX_WORKERS = 4;
+
+  private ReaderEventLoop eventLoop;
+  private ServerSocketChannel serverChannel;
+  private final List<SocketChannel> channels = new ArrayList<>();
+
+  @Before
+  public void setUp() throws IOException {
+    this.eventLoop = new ReaderEventLoop(2, MAX_WORKERS, new ThreadGroup("ReaderEventLoopTest"), 60);
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.eventLoop.close();
+    for (SocketChannel channel : this.channels) {
+      channel.close();
+    }
+    this.serverChannel.close();
+  }
+
+  @Test
+  public void readsManyConnectionsInOrder() throws Exception {
+    int connectionCount = 20;
+    int writeCount = 50;
+    SocketChannel[] clients = new SocketChannel[connectionCount];
+    RecordingReader[] readers = new RecordingReader[connectionCount];
+    for (int i = 0; i < connectionCount; i++) {
+      clients[i] = connect();
+      readers[i] = new RecordingReader(accept());
+      this.eventLoop.register(readers[i].channel, readers[i]);
+    }
+    for (int n = 0; n < writeCount; n++) {
+      for (SocketChannel client : clients) {
+        write(client, new byte[] {(byte) n});
+      }
+    }
+
+    for (RecordingReader reader : readers) {
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> reader.getBytes().length == writeCount);
+      byte[] bytes = reader.getBytes();
+      for (int n = 0; n < writeCount; n++) {
+        assertThat(bytes[n]).isEqualTo((byte) n);
+      }
+      assertThat(reader.maxConcurrentReads.get()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void readerStoppedAtEndOfStream() throws Exception {
+    SocketChannel client = connect();
+    RecordingReader reader = new RecordingReader(accept());
+    ReaderEventLoop.Registration registration = this.eventLoop.register(reader.channel, reader);
+    write(client, new byte[] {1, 2, 3});
+    client.close();
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> reader.stopCount.get() == 1);
+    assertThat(reader.getBytes()).containsExactly(1, 2, 3);
+    assertThat(registration.isStopped()).isTrue();
+  }
+
+  @Test
+  public void closeStopsReadingWithoutClosingTheChannel() throws Exception {
+    connect();
+    RecordingReader reader = new RecordingReader(accept());
+    ReaderEventLoop.Registration registration = this.eventLoop.register(reader.channel, reader);
+
+    registration.close();
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> reader.stopCount.get() == 1);
+    assertThat(reader.channel.isOpen()).isTrue();
+    registration.close();
+    assertThat(reader.stopCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void closingTheChannelStopsTheReader() throws Exception {
+    connect();
+    RecordingReader reader = new RecordingReader(accept());
+    ReaderEventLoop.Registration registration = this.eventLoop.register(reader.channel, reader);
+
+    reader.channel.close();
+    registration.close();
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> reader.stopCount.get() == 1);
+  }
+
+  @Test
+  public void runsAtMostMaxWorkersReadersAtOnce() throws Exception {
+    int connectionCount = MAX_WORKERS * 3;
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger done = new AtomicInteger();
+    for (int i = 0; i < connectionCount; i++) {
+      SocketChannel client = connect();
+      SocketChannel channel = accept();
+      this.eventLoop.register(channel, new BlockingReader(channel, () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          release.await();
+        } finally {
+          running.decrementAndGet();
+          done.incrementAndGet();
+        }
+      }));
+      write(client, new byte[] {1});
+    }
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> running.get() == MAX_WORKERS);
+    Thread.sleep(200);
+    assertThat(maxRunning.get()).isEqualTo(MAX_WORKERS);
+    assertThat(this.eventLoop.getWorkerCount()).isLessThanOrEqualTo(MAX_WORKERS);
+
+    release.countDown();
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> done.get() == connectionCount);
+  }
+
+  @Test
+  public void workersBlockedWaitingForOtherConnectionsDoNotStopThemBeingRead() throws Exception {
+    int connectionCount = MAX_WORKERS * 3;
+    CountDownLatch allRunning = new CountDownLatch(connectionCount);
+    AtomicInteger done = new AtomicInteger();
+    for (int i = 0; i < connectionCount; i++) {
+      SocketChannel client = connect();
+      SocketChannel channel = accept();
+      this.eventLoop.register(channel, new BlockingReader(channel, () -> {
+        allRunning.countDown();
+        // like a reply wait, which may be for a message on one of the other connections
+        PooledExecutorWithDMStats pool = PooledExecutorWithDMStats.threadWillBlock();
+        try {
+          allRunning.await();
+        } finally {
+          PooledExecutorWithDMStats.threadUnblocked(pool);
+          done.incrementAndGet();
+        }
+      }));
+      write(client, new byte[] {1});
+    }
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> done.get() == connectionCount);
+  }
+
+  @Test
+  public void registerFailsOnceClosed() throws Exception {
+    connect();
+    RecordingReader reader = new RecordingReader(accept());
+    this.eventLoop.close();
+
+    assertThatThrownBy(() -> this.eventLoop.register(reader.channel, reader))
+        .isInstanceOf(ClosedSelectorException.class);
+  }
+
+  private SocketChannel connect() throws IOException {
+    SocketChannel channel = SocketChannel.open(this.serverChannel.getLocalAddress());
+    this.channels.add(channel);
+    return channel;
+  }
+
+  private SocketChannel accept() throws IOException {
+    SocketChannel channel = this.serverChannel.accept();
+    this.channels.add(channel);
+    return channel;
+  }
+
+  private static void write(SocketChannel channel, byte[] bytes) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private interface Blocker {
+    void block() throws InterruptedException;
+  }
+
+  /** Reads one byte and then blocks */
+  private static class BlockingReader implements ReaderEventLoop.Reader {
+    private final SocketChannel channel;
+    private final Blocker blocker;
+
+    BlockingReader(SocketChannel channel, Blocker blocker) {
+      this.channel = channel;
+      this.blocker = blocker;
+    }
+
+    @Override
+    public boolean readAvailable() {
+      try {
+        if (this.channel.read(ByteBuffer.allocate(1)) <= 0) {
+          return true;
+        }
+        this.blocker.block();
+        return true;
+      } catch (IOException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    @Override
+    public void readerStopped() {}
+  }
+
+  private static class RecordingReader implements ReaderEventLoop.Reader {
+    final SocketChannel channel;
+    final AtomicInteger stopCount = new AtomicInteger();
+    final AtomicInteger concurrentReads = new AtomicInteger();
+    final AtomicInteger maxConcurrentReads = new AtomicInteger();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final ByteBuffer buffer = ByteBuffer.allocate(16);
+
+    RecordingReader(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    synchronized byte[] getBytes() {
+      return this.bytes.toByteArray();
+    }
+
+    @Override
+    public boolean readAvailable() {
+      int reads = this.concurrentReads.incrementAndGet();
+      this.maxConcurrentReads.accumulateAndGet(reads, Math::max);
+      try {
+        for (;;) {
+          this.buffer.clear();
+          int amount = this.channel.read(this.buffer);
+          if (amount < 0) {
+            return false;
+          }
+          if (amount == 0) {
+            return true;
+          }
+          synchronized (this) {
+            this.bytes.write(this.buffer.array(), 0, amount);
+          }
+        }
+      } catch (IOException e) {
+        return false;
+      } finally {
+        this.concurrentReads.decrementAndGet();
+      }
+    }
+
+    @Override
+    public void readerStopped() {
+      this.stopCount.incrementAndGet();
+    }
+  }
+}
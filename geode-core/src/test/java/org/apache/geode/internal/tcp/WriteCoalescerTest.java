@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class WriteCoalescerTest {
+
+  private DMStats stats;
+  private TestChannel channel;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    this.stats = mock(DMStats.class);
+    this.channel = new TestChannel();
+    this.executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    this.channel.release();
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void singleMessageIsWrittenAtOnce() throws Exception {
+    WriteCoalescer coalescer = new WriteCoalescer(new Object(), this.stats, 0, 1024);
+
+    coalescer.write(this.channel, buffer(1, 10));
+
+    assertThat(this.channel.writes).isEqualTo(1);
+    assertThat(this.channel.bytes.toByteArray()).isEqualTo(bytes(1, 10));
+    verify(this.stats).incCoalescedWrites(1);
+  }
+
+  @Test
+  public void messagesSentDuringAWriteAreWrittenTogether() throws Exception {
+    WriteCoalescer coalescer = new WriteCoalescer(new Object(), this.stats, 0, 1024);
+    this.channel.block();
+    Future<?> first = this.executor.submit(() -> write(coalescer, buffer(1, 10)));
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> this.channel.blocked);
+    List<Future<?>> others = new ArrayList<>();
+    for (int i = 2; i <= 4; i++) {
+      ByteBuffer buffer = buffer(i, 10);
+      others.add(this.executor.submit(() -> write(coalescer, buffer)));
+    }
+    awaitQueued(coalescer, 3);
+
+    this.channel.release();
+    first.get(30, TimeUnit.SECONDS);
+    for (Future<?> other : others) {
+      other.get(30, TimeUnit.SECONDS);
+    }
+
+    assertThat(this.channel.writes).isEqualTo(2);
+    assertThat(this.channel.bytes.size()).isEqualTo(40);
+    verify(this.stats).incCoalescedWrites(1);
+    verify(this.stats).incCoalescedWrites(3);
+  }
+
+  @Test
+  public void partialWritesAreCompleted() throws Exception {
+    WriteCoalescer coalescer = new WriteCoalescer(new Object(), this.stats, 0, 1024);
+    this.channel.maxBytesPerWrite = 3;
+
+    coalescer.write(this.channel, buffer(1, 10));
+
+    assertThat(this.channel.bytes.toByteArray()).isEqualTo(bytes(1, 10));
+    assertThat(this.channel.writes).isEqualTo(4);
+  }
+
+  @Test
+  public void failedWriteFailsEveryCoalescedMessage() throws Exception {
+    WriteCoalescer coalescer = new WriteCoalescer(new Object(), this.stats, 0, 1024);
+    this.channel.block();
+    Future<?> first = this.executor.submit(() -> write(coalescer, buffer(1, 10)));
+    Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> this.channel.blocked);
+    List<Future<?>> others = new ArrayList<>();
+    for (int i = 2; i <= 3; i++) {
+      ByteBuffer buffer = buffer(i, 10);
+      others.add(this.executor.submit(() -> write(coalescer, buffer)));
+    }
+    awaitQueued(coalescer, 2);
+
+    this.channel.failure = new IOException("closed");
+    this.channel.release();
+    first.get(30, TimeUnit.SECONDS);
+    for (Future<?> other : others) {
+      assertThatThrownBy(() -> other.get(30, TimeUnit.SECONDS))
+          .hasRootCauseInstanceOf(IOException.class).hasStackTraceContaining("closed");
+    }
+    verify(this.stats, never()).incCoalescedWrites(2);
+  }
+
+  @Test
+  public void writerDoesNotWaitForMoreOnceMaxBytesArePending() throws Exception {
+    WriteCoalescer coalescer =
+        new WriteCoalescer(new Object(), this.stats, TimeUnit.MINUTES.toNanos(1), 10);
+
+    Future<?> write = this.executor.submit(() -> write(coalescer, buffer(1, 16)));
+
+    write.get(30, TimeUnit.SECONDS);
+    assertThat(this.channel.bytes.toByteArray()).isEqualTo(bytes(1, 16));
+  }
+
+  @Test
+  public void writerWaitsForMoreWithinTheWindow() throws Exception {
+    WriteCoalescer coalescer =
+        new WriteCoalescer(new Object(), this.stats, TimeUnit.MINUTES.toNanos(1), 20);
+
+    Future<?> first = this.executor.submit(() -> write(coalescer, buffer(1, 10)));
+    awaitQueued(coalescer, 1);
+    coalescer.write(this.channel, buffer(2, 10));
+    first.get(30, TimeUnit.SECONDS);
+
+    assertThat(this.channel.writes).isEqualTo(1);
+    verify(this.stats).incCoalescedWrites(2);
+  }
+
+  private void awaitQueued(WriteCoalescer coalescer, int count) {
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> coalescer.getPendingCount() == count);
+  }
+
+  private Void write(WriteCoalescer coalescer, ByteBuffer buffer) throws IOException {
+    coalescer.write(this.channel, buffer);
+    return null;
+  }
+
+  private static ByteBuffer buffer(int value, int length) {
+    return ByteBuffer.wrap(bytes(value, length));
+  }
+
+  private static byte[] bytes(int value, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) value;
+    }
+    return bytes;
+  }
+
+  /**
+   * A channel that records what is written to it, and can block writes until released or fail
+   * them.
+   */
+  private static class TestChannel implements GatheringByteChannel {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    volatile int writes;
+    volatile int maxBytesPerWrite = Integer.MAX_VALUE;
+    volatile IOException failure;
+    volatile boolean blocked;
+    private volatile CountDownLatch latch = new CountDownLatch(0);
+
+    void block() {
+      this.latch = new CountDownLatch(1);
+    }
+
+    void release() {
+      this.latch.countDown();
+    }
+
+    @Override
+    public synchronized long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      if (this.latch.getCount() > 0) {
+        this.blocked = true;
+        try {
+          this.latch.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      } else if (this.failure != null) {
+        throw this.failure;
+      }
+      this.writes++;
+      long written = 0;
+      for (int i = offset; i < offset + length && written < this.maxBytesPerWrite; i++) {
+        while (srcs[i].hasRemaining() && written < this.maxBytesPerWrite) {
+          this.bytes.write(srcs[i].get());
+          written++;
+        }
+      }
+      return written;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      return (int) write(new ByteBuffer[] {src}, 0, 1);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -248,6 +248,8 @@ public class DescribeDiskStoreFunctionJUnitTest {
         will(returnValue(autoCompact));
         oneOf(mockDiskStore).getCompactionThreshold();
         will(returnValue(compactionThreshold));
+        allowing(mockDiskStore).getCompactionMaxBytesPerSecond();
+        will(returnValue(0l));
         atLeast(1).of(mockDiskStore).getDiskStoreUUID();
         will(returnValue(diskStoreId));
         oneOf(mockDiskStore).getMaxOplogSize();
@@ -554,6 +556,7 @@ public class DescribeDiskStoreFunctionJUnitTest {
     assertTrue(diskStoreDetails.getAllowForceCompaction());
     assertFalse(diskStoreDetails.getAutoCompact());
     assertEquals(75, diskStoreDetails.getCompactionThreshold().intValue());
+    assertEquals(0l, diskStoreDetails.getCompactionMaxBytesPerSecond().longValue());
     assertEquals(8192l, diskStoreDetails.getMaxOplogSize().longValue());
     assertFalse(diskStoreDetails.isPdxSerializationMetaDataStored());
     assertEquals(500, diskStoreDetails.getQueueSize().intValue());
@@ -0,0 +1,408 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.cq;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledID;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledJunction;
+import org.apache.geode.cache.query.internal.CompiledLiteral;
+import org.apache.geode.cache.query.internal.CompiledPath;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.PathUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * An inverted index over the WHERE clauses of the CQs on this server, used to find the queries an
+ * event value can satisfy without evaluating every one of them.
+ * <p>
+ * Each query contributes its leading predicate: the whole WHERE clause, or the first operand of a
+ * top level AND, when that predicate compares one attribute of the iterator with a string, boolean
+ * or numeric literal. Equality predicates are kept in hash maps and numeric range predicates in
+ * sorted maps, per region and attribute, so an event value is looked up once per indexed attribute
+ * rather than once per query.
+ * <p>
+ * The index is conservative. A query that is not indexed, or whose attribute cannot be read from
+ * the value or compared with its literal exactly as the query engine would, is reported as a
+ * possible match and evaluated in full. Since the leading operand is evaluated first and a false
+ * operand ends the AND, a query ruled out here could neither have matched nor failed.
+ *
+ * @since Geode 1.3
+ */
+class CqPredicateIndex {
+
+  /** The largest magnitude up to which every integral value has an exact double */
+  private static final long MAX_EXACT_INTEGRAL = 1L << 53;
+
+  private enum Kind {
+    STRING, BOOLEAN, NUMBER
+  }
+
+  /** Region full path to the predicates of the queries on that region */
+  private final ConcurrentMap<String, ConcurrentMap<String, AttributePredicates>> regions =
+      new ConcurrentHashMap<>();
+
+  /** Query string to its indexed predicate; present only once the predicate is fully indexed */
+  private final ConcurrentMap<String, Predicate> queries = new ConcurrentHashMap<>();
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * Indexes the leading predicate of the given query. Queries whose predicate cannot be indexed
+   * are ignored and will always be evaluated.
+   *
+   * @return true if the query was indexed
+   */
+  synchronized boolean add(String regionPath, String queryString, CompiledSelect select) {
+    if (queries.containsKey(queryString)) {
+      return true;
+    }
+    Predicate predicate = Predicate.of(regionPath, select);
+    if (predicate == null) {
+      return false;
+    }
+    regions.computeIfAbsent(regionPath, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(predicate.attribute, k -> new AttributePredicates())
+        .add(predicate, queryString);
+    // publish the query only after its predicate is reachable by lookups
+    predicate.sequence = sequence.incrementAndGet();
+    queries.put(queryString, predicate);
+    return true;
+  }
+
+  /**
+   * Removes the given query from the index.
+   */
+  synchronized void remove(String queryString) {
+    Predicate predicate = queries.remove(queryString);
+    if (predicate == null) {
+      return;
+    }
+    Map<String, AttributePredicates> attributes = regions.get(predicate.regionPath);
+    AttributePredicates predicates = attributes.get(predicate.attribute);
+    if (predicates.remove(predicate, queryString)) {
+      attributes.remove(predicate.attribute);
+      if (attributes.isEmpty()) {
+        regions.remove(predicate.regionPath);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of indexed queries.
+   */
+  int size() {
+    return queries.size();
+  }
+
+  /**
+   * Looks the given value up against the predicates of the queries on the given region.
+   */
+  Candidates getCandidates(String regionPath, Object value) {
+    long snapshot = sequence.get();
+    Set<String> matches = new HashSet<>();
+    Map<String, AttributePredicates> attributes = regions.get(regionPath);
+    if (attributes != null && value != null) {
+      for (Map.Entry<String, AttributePredicates> entry : attributes.entrySet()) {
+        entry.getValue().addCandidates(readAttribute(value, entry.getKey()), matches);
+      }
+    }
+    return new Candidates(snapshot, matches);
+  }
+
+  private static Object readAttribute(Object value, String attribute) {
+    try {
+      return PathUtils.evaluateAttribute(value, attribute);
+    } catch (Exception e) {
+      // the query will be evaluated and report the failure itself
+      return QueryService.UNDEFINED;
+    }
+  }
+
+  /**
+   * Returns the key under which the given value is compared, or null if it cannot be compared
+   * exactly as the query engine compares it. Integral values and doubles are compared as doubles,
+   * which is what the engine does whenever a double is involved and agrees with it otherwise as
+   * long as the integral value is exactly representable. The engine compares -0.0 equal to 0.0
+   * and NaN unequal to every value, so -0.0 is keyed as 0.0 and NaN is not keyed at all.
+   */
+  static Object getKey(Object value) {
+    if (value instanceof String || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Double) {
+      double d = (Double) value;
+      if (Double.isNaN(d)) {
+        return null;
+      }
+      return d == 0.0d ? 0.0d : value;
+    }
+    if (value instanceof PdxString) {
+      return value.toString();
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      long l = ((Number) value).longValue();
+      if (l >= -MAX_EXACT_INTEGRAL && l <= MAX_EXACT_INTEGRAL) {
+        return (double) l;
+      }
+    }
+    return null;
+  }
+
+  private static Kind getKind(Object key) {
+    if (key instanceof String) {
+      return Kind.STRING;
+    }
+    if (key instanceof Boolean) {
+      return Kind.BOOLEAN;
+    }
+    return Kind.NUMBER;
+  }
+
+  /**
+   * The result of looking an event value up in the index.
+   */
+  class Candidates {
+    private final long snapshot;
+    private final Set<String> matches;
+
+    private Candidates(long snapshot, Set<String> matches) {
+      this.snapshot = snapshot;
+      this.matches = matches;
+    }
+
+    /**
+     * Returns false only if the query with the given string cannot be satisfied by the value.
+     */
+    boolean mayMatch(String queryString) {
+      Predicate predicate = queries.get(queryString);
+      // queries indexed after the lookup started were not looked at
+      return predicate == null || predicate.sequence > snapshot
+          || matches.contains(queryString);
+    }
+  }
+
+  /**
+   * The leading predicate of a query: attribute operator literal.
+   */
+  static class Predicate {
+    final String regionPath;
+    final String attribute;
+    final int operator;
+    final Object key;
+    volatile long sequence;
+
+    private Predicate(String regionPath, String attribute, int operator, Object key) {
+      this.regionPath = regionPath;
+      this.attribute = attribute;
+      this.operator = operator;
+      this.key = key;
+    }
+
+    /**
+     * Extracts the indexable leading predicate of the given query, or returns null if it has none.
+     */
+    static Predicate of(String regionPath, CompiledSelect select) {
+      List iterators = select.getIterators();
+      if (iterators == null || iterators.size() != 1 || select.getWhereClause() == null) {
+        return null;
+      }
+      String iteratorName = ((CompiledIteratorDef) iterators.get(0)).getName();
+      CompiledValue leading = select.getWhereClause();
+      while (leading instanceof CompiledJunction
+          && ((CompiledJunction) leading).getOperator() == OQLLexerTokenTypes.LITERAL_and) {
+        leading = (CompiledValue) leading.getChildren().get(0);
+      }
+      if (!(leading instanceof CompiledComparison)) {
+        return null;
+      }
+      CompiledComparison comparison = (CompiledComparison) leading;
+      int operator = comparison.getOperator();
+      String attribute = getAttribute(comparison._left, iteratorName);
+      CompiledValue literal = comparison._right;
+      if (attribute == null) {
+        attribute = getAttribute(comparison._right, iteratorName);
+        literal = comparison._left;
+        operator = reverse(operator);
+      }
+      if (attribute == null || !(literal instanceof CompiledLiteral)) {
+        return null;
+      }
+      Object key = getKey(getLiteral((CompiledLiteral) literal));
+      if (key == null || operator == -1
+          || (operator != OQLLexerTokenTypes.TOK_EQ && getKind(key) != Kind.NUMBER)) {
+        return null;
+      }
+      return new Predicate(regionPath, attribute, operator, key);
+    }
+
+    private static String getAttribute(CompiledValue value, String iteratorName) {
+      if (value instanceof CompiledPath) {
+        CompiledValue receiver = ((CompiledPath) value).getReceiver();
+        if (iteratorName != null && receiver instanceof CompiledID
+            && iteratorName.equals(((CompiledID) receiver).getId())) {
+          return ((CompiledPath) value).getTailID();
+        }
+      } else if (value instanceof CompiledID) {
+        // an identifier other than the iterator is an implicit attribute of it
+        String id = ((CompiledID) value).getId();
+        if (!id.equals(iteratorName)) {
+          return id;
+        }
+      }
+      return null;
+    }
+
+    private static Object getLiteral(CompiledLiteral literal) {
+      try {
+        return literal.evaluate((ExecutionContext) null);
+      } catch (Exception e) {
+        return null;
+      }
+    }
+
+    /**
+     * Returns the operator that gives the same result with the operands swapped, or -1 if the
+     * operator is not indexed.
+     */
+    private static int reverse(int operator) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_EQ:
+          return OQLLexerTokenTypes.TOK_EQ;
+        case OQLLexerTokenTypes.TOK_LT:
+          return OQLLexerTokenTypes.TOK_GT;
+        case OQLLexerTokenTypes.TOK_LE:
+          return OQLLexerTokenTypes.TOK_GE;
+        case OQLLexerTokenTypes.TOK_GT:
+          return OQLLexerTokenTypes.TOK_LT;
+        case OQLLexerTokenTypes.TOK_GE:
+          return OQLLexerTokenTypes.TOK_LE;
+        default:
+          return -1;
+      }
+    }
+  }
+
+  /**
+   * The predicates of the queries on one attribute of a region. Modified only while holding the
+   * index's lock; read concurrently by lookups.
+   */
+  private static class AttributePredicates {
+    /** All queries on the attribute by the kind of their literal */
+    private final ConcurrentMap<Kind, Set<String>> byKind = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Set<String>> equal = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Double, Set<String>> greater =
+        new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Double, Set<String>> greaterOrEqual =
+        new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Double, Set<String>> less = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Double, Set<String>> lessOrEqual =
+        new ConcurrentSkipListMap<>();
+
+    void add(Predicate predicate, String queryString) {
+      getMap(predicate.operator)
+          .computeIfAbsent(predicate.key, k -> ConcurrentHashMap.newKeySet()).add(queryString);
+      byKind.computeIfAbsent(getKind(predicate.key), k -> ConcurrentHashMap.newKeySet())
+          .add(queryString);
+    }
+
+    /**
+     * @return true if no queries remain on the attribute
+     */
+    boolean remove(Predicate predicate, String queryString) {
+      removeQuery(getMap(predicate.operator), predicate.key, queryString);
+      removeQuery(byKind, getKind(predicate.key), queryString);
+      return byKind.isEmpty();
+    }
+
+    private static <K> void removeQuery(Map<K, Set<String>> map, K key, String queryString) {
+      Set<String> queries = map.get(key);
+      if (queries != null) {
+        queries.remove(queryString);
+        if (queries.isEmpty()) {
+          map.remove(key);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Set<String>> getMap(int operator) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_GT:
+          return (Map) greater;
+        case OQLLexerTokenTypes.TOK_GE:
+          return (Map) greaterOrEqual;
+        case OQLLexerTokenTypes.TOK_LT:
+          return (Map) less;
+        case OQLLexerTokenTypes.TOK_LE:
+          return (Map) lessOrEqual;
+        default:
+          return equal;
+      }
+    }
+
+    void addCandidates(Object value, Set<String> matches) {
+      Object key = getKey(value);
+      if (key == null) {
+        // null, UNDEFINED or a type the index does not compare: let the queries decide
+        for (Set<String> queries : byKind.values()) {
+          matches.addAll(queries);
+        }
+        return;
+      }
+      Kind kind = getKind(key);
+      for (Map.Entry<Kind, Set<String>> entry : byKind.entrySet()) {
+        if (entry.getKey() != kind) {
+          // comparing different kinds may fail; let the queries report it
+          matches.addAll(entry.getValue());
+        }
+      }
+      Set<String> queries = equal.get(key);
+      if (queries != null) {
+        matches.addAll(queries);
+      }
+      if (kind == Kind.NUMBER) {
+        Double number = (Double) key;
+        addAll(greater.headMap(number, false), matches);
+        addAll(greaterOrEqual.headMap(number, true), matches);
+        addAll(less.tailMap(number, false), matches);
+        addAll(lessOrEqual.tailMap(number, true), matches);
+      }
+    }
+
+    private static void addAll(NavigableMap<Double, Set<String>> map, Set<String> matches) {
+      for (Collection<String> queries : map.values()) {
+        matches.addAll(queries);
+      }
+    }
+  }
+}
@@ -100,6 +100,15 @@ public class CqServiceImpl implements CqService {
   public static boolean EXECUTE_QUERY_DURING_INIT = Boolean.valueOf(System
       .getProperty(DistributionConfig.GEMFIRE_PREFIX + "cq.EXECUTE_QUERY_DURING_INIT", "true"));
 
+  /**
+   * System property to index the leading predicates of the server's CQs so that an event is only
+   * evaluated against the CQs it can satisfy.
+   *
+   * @since Geode 1.3
+   */
+  public static final String INDEX_PREDICATES_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "cq.INDEX_PREDICATES";
+
   private static final String CQ_NAME_PREFIX = "GfCq";
 
   private final InternalCache cache;
@@ -129,6 +138,9 @@ public class CqServiceImpl implements CqService {
   // With query as key and Set of CQs as values.
   private final ConcurrentHashMap matchingCqMap;
 
+  // Index over the predicates of the queries in matchingCqMap; null if not enabled.
+  private final CqPredicateIndex predicateIndex;
+
   // CQ Service statistics
   private final CqServiceStatisticsImpl cqServiceStats;
   private final CqServiceVsdStats stats;
@@ -163,6 +175,8 @@ public class CqServiceImpl implements CqService {
 
     // Initialize the Map which maintains the matching cqs.
     this.matchingCqMap = new ConcurrentHashMap<String, HashSet<String>>();
+    this.predicateIndex =
+        Boolean.getBoolean(INDEX_PREDICATES_PROPERTY_NAME) ? new CqPredicateIndex() : null;
 
     // Initialize the VSD statistics
     StatisticsFactory factory = this.cache.getDistributedSystem();
@@ -1271,6 +1285,9 @@ public class CqServiceImpl implements CqService {
         || (event.getOperation().isCreate() && isDupEvent));
 
     HashMap<String, Integer> matchedCqs = new HashMap<>();
+    CqPredicateIndex.Candidates newValueCandidates = null;
+    CqPredicateIndex.Candidates oldValueCandidates = null;
+    int skippedExecutions = 0;
     long executionStartTime;
     for (int i = -1; i < profiles.length; i++) {
       CacheProfile cf;
@@ -1345,14 +1362,22 @@ public class CqServiceImpl implements CqService {
           boolean error = false;
           {
             try {
+              if (newValueCandidates == null && !cqUnfilteredEventsSet_newValue.isEmpty()) {
+                newValueCandidates =
+                    getCandidates(cQuery, cqUnfilteredEventsSet_newValue.iterator().next());
+              }
               synchronized (cQuery) {
                 // Apply query on new value.
                 if (!cqUnfilteredEventsSet_newValue.isEmpty()) {
-                  executionStartTime = this.stats.startCqQueryExecution();
-
-                  b_cqResults_newValue =
-                      evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_newValue});
-                  this.stats.endCqQueryExecution(executionStartTime);
+                  if (mayMatch(newValueCandidates, cQuery)) {
+                    executionStartTime = this.stats.startCqQueryExecution();
+
+                    b_cqResults_newValue =
+                        evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_newValue});
+                    this.stats.endCqQueryExecution(executionStartTime);
+                  } else {
+                    skippedExecutions++;
+                  }
                 }
               }
 
@@ -1387,14 +1412,22 @@ public class CqServiceImpl implements CqService {
                       cqUnfilteredEventsSet_oldValue.add(oldValue);
                     }
                   }
+                  if (oldValueCandidates == null && !cqUnfilteredEventsSet_oldValue.isEmpty()) {
+                    oldValueCandidates =
+                        getCandidates(cQuery, cqUnfilteredEventsSet_oldValue.iterator().next());
+                  }
 
                   synchronized (cQuery) {
                     // Apply query on old value.
                     if (!cqUnfilteredEventsSet_oldValue.isEmpty()) {
-                      executionStartTime = this.stats.startCqQueryExecution();
-                      b_cqResults_oldValue =
-                          evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_oldValue});
-                      this.stats.endCqQueryExecution(executionStartTime);
+                      if (mayMatch(oldValueCandidates, cQuery)) {
+                        executionStartTime = this.stats.startCqQueryExecution();
+                        b_cqResults_oldValue =
+                            evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_oldValue});
+                        this.stats.endCqQueryExecution(executionStartTime);
+                      } else {
+                        skippedExecutions++;
+                      }
                     } else {
                       if (isDebugEnabled) {
                         logger.debug(
@@ -1446,7 +1479,7 @@ public class CqServiceImpl implements CqService {
           // synchronized (this.matchingCqMap){
           String query = cQuery.getQueryString();
           Set matchingCqs = (Set) matchingCqMap.get(query);
-          if (matchingCqs != null) {
+          if (matchingCqs != null && matchingCqs.size() > 1) {
             Iterator iter = matchingCqs.iterator();
             while (iter.hasNext()) {
               String matchingCqName = (String) iter.next();
@@ -1487,6 +1520,28 @@ public class CqServiceImpl implements CqService {
         }
       }
     } // iteration over Profiles.
+    if (skippedExecutions > 0) {
+      this.stats.incCqQueryExecutionsSkipped(skippedExecutions);
+    }
+  }
+
+  /**
+   * Looks the given event value up in the predicate index, returning null if the index is not
+   * enabled.
+   */
+  private CqPredicateIndex.Candidates getCandidates(ServerCQImpl cQuery, Object value) {
+    if (this.predicateIndex == null || cQuery.getCqBaseRegion() == null) {
+      return null;
+    }
+    return this.predicateIndex.getCandidates(cQuery.getCqBaseRegion().getFullPath(), value);
+  }
+
+  /**
+   * Returns false if the predicate index shows the event value cannot satisfy the given CQ, so
+   * that the query need not be evaluated.
+   */
+  private boolean mayMatch(CqPredicateIndex.Candidates candidates, ServerCQImpl cQuery) {
+    return candidates == null || candidates.mayMatch(cQuery.getQueryString());
   }
 
   private Integer generateCqRegionEvent(CacheEvent event) {
@@ -1551,6 +1606,11 @@ public class CqServiceImpl implements CqService {
         matchingCQs = Collections.newSetFromMap(new ConcurrentHashMap());
         matchingCqMap.put(cqQuery, matchingCQs);
         this.stats.incUniqueCqQuery();
+        if (this.predicateIndex != null && cq instanceof ServerCQImpl
+            && cq.getCqBaseRegion() != null) {
+          this.predicateIndex.add(cq.getCqBaseRegion().getFullPath(), cqQuery,
+              ((DefaultQuery) cq.getQuery()).getSelect());
+        }
       } else {
         matchingCQs = (Set) matchingCqMap.get(cqQuery);
       }
@@ -1579,6 +1639,9 @@ public class CqServiceImpl implements CqService {
         if (matchingCQs.isEmpty()) {
           matchingCqMap.remove(cqQuery);
           this.stats.decUniqueCqQuery();
+          if (this.predicateIndex != null) {
+            this.predicateIndex.remove(cqQuery);
+          }
         }
       }
     }
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.cq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.QCompiler;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CqPredicateIndexJUnitTest {
+
+  private static final String REGION = "/orders";
+
+  private CqPredicateIndex index;
+
+  @Before
+  public void setUp() {
+    index = new CqPredicateIndex();
+  }
+
+  @Test
+  public void equalityPredicatesMatchOnlyEqualValues() {
+    String active = add("SELECT * FROM /orders o WHERE o.status = 'active'");
+    String closed = add("SELECT * FROM /orders WHERE status = 'closed'");
+
+    CqPredicateIndex.Candidates candidates = index.getCandidates(REGION, new Order("active", 1));
+
+    assertThat(candidates.mayMatch(active)).isTrue();
+    assertThat(candidates.mayMatch(closed)).isFalse();
+  }
+
+  @Test
+  public void rangePredicatesMatchValuesInRange() {
+    String greater = add("SELECT * FROM /orders o WHERE o.price > 10");
+    String atMost = add("SELECT * FROM /orders o WHERE o.price <= 10");
+    String reversed = add("SELECT * FROM /orders o WHERE 20.5 < o.price");
+    String equal = add("SELECT * FROM /orders o WHERE o.price = 10.0");
+
+    CqPredicateIndex.Candidates ten = index.getCandidates(REGION, new Order("a", 10));
+    assertThat(ten.mayMatch(greater)).isFalse();
+    assertThat(ten.mayMatch(atMost)).isTrue();
+    assertThat(ten.mayMatch(reversed)).isFalse();
+    assertThat(ten.mayMatch(equal)).isTrue();
+
+    CqPredicateIndex.Candidates high = index.getCandidates(REGION, new Order("a", 21L));
+    assertThat(high.mayMatch(greater)).isTrue();
+    assertThat(high.mayMatch(atMost)).isFalse();
+    assertThat(high.mayMatch(reversed)).isTrue();
+    assertThat(high.mayMatch(equal)).isFalse();
+  }
+
+  @Test
+  public void onlyTheOperandAConjunctionEvaluatesFirstIsIndexed() {
+    // the compiler keeps the operands of an AND in reverse order
+    String query = add("SELECT * FROM /orders o WHERE o.status = 'active' AND o.price > 100");
+
+    assertThat(index.getCandidates(REGION, new Order("closed", 500)).mayMatch(query)).isTrue();
+    assertThat(index.getCandidates(REGION, new Order("active", 1)).mayMatch(query)).isFalse();
+  }
+
+  @Test
+  public void unindexedQueriesAlwaysMayMatch() {
+    String disjunction = add("SELECT * FROM /orders o WHERE o.status = 'a' OR o.price > 1");
+    String notEqual = add("SELECT * FROM /orders o WHERE o.status != 'a'");
+    String nested = add("SELECT * FROM /orders o WHERE o.customer.name = 'a'");
+    String stringRange = add("SELECT * FROM /orders o WHERE o.status > 'a'");
+
+    assertThat(index.size()).isEqualTo(0);
+    CqPredicateIndex.Candidates candidates = index.getCandidates(REGION, new Order("a", 0));
+    assertThat(candidates.mayMatch(disjunction)).isTrue();
+    assertThat(candidates.mayMatch(notEqual)).isTrue();
+    assertThat(candidates.mayMatch(nested)).isTrue();
+    assertThat(candidates.mayMatch(stringRange)).isTrue();
+  }
+
+  @Test
+  public void valuesTheIndexCannotCompareMayMatch() {
+    String status = add("SELECT * FROM /orders o WHERE o.status = 'active'");
+    String price = add("SELECT * FROM /orders o WHERE o.price > 10");
+
+    // null, a different kind of value and an unreadable attribute are left to the query
+    assertThat(index.getCandidates(REGION, new Order(null, 1)).mayMatch(status)).isTrue();
+    assertThat(index.getCandidates(REGION, new Order(5, 1)).mayMatch(status)).isTrue();
+    assertThat(index.getCandidates(REGION, new Order("a", 1.5f)).mayMatch(price)).isTrue();
+    assertThat(index.getCandidates(REGION, "not an order").mayMatch(status)).isTrue();
+  }
+
+  @Test
+  public void negativeZeroMatchesPredicatesOnZero() {
+    String equal = add("SELECT * FROM /orders o WHERE o.price = 0");
+    String atLeast = add("SELECT * FROM /orders o WHERE o.price >= 0");
+    String negativeEqual = add("SELECT * FROM /orders o WHERE o.price = -0.0");
+
+    CqPredicateIndex.Candidates negativeZero = index.getCandidates(REGION, new Order("a", -0.0d));
+    assertThat(negativeZero.mayMatch(equal)).isTrue();
+    assertThat(negativeZero.mayMatch(atLeast)).isTrue();
+    assertThat(negativeZero.mayMatch(negativeEqual)).isTrue();
+
+    CqPredicateIndex.Candidates zero = index.getCandidates(REGION, new Order("a", 0));
+    assertThat(zero.mayMatch(negativeEqual)).isTrue();
+  }
+
+  @Test
+  public void notANumberIsLeftToTheQuery() {
+    String greater = add("SELECT * FROM /orders o WHERE o.price > 5");
+    String atMost = add("SELECT * FROM /orders o WHERE o.price <= 5");
+
+    assertThat(CqPredicateIndex.getKey(Double.NaN)).isNull();
+    CqPredicateIndex.Candidates nan = index.getCandidates(REGION, new Order("a", Double.NaN));
+    assertThat(nan.mayMatch(greater)).isTrue();
+    assertThat(nan.mayMatch(atMost)).isTrue();
+  }
+
+  @Test
+  public void candidatesAreScopedToTheRegion() {
+    String query = add("SELECT * FROM /orders o WHERE o.status = 'active'");
+
+    assertThat(index.getCandidates("/other", new Order("closed", 1)).mayMatch(query)).isFalse();
+  }
+
+  @Test
+  public void removedAndNewlyAddedQueriesMayMatch() {
+    String query = add("SELECT * FROM /orders o WHERE o.status = 'active'");
+    CqPredicateIndex.Candidates candidates = index.getCandidates(REGION, new Order("closed", 1));
+    String later = add("SELECT * FROM /orders o WHERE o.status = 'pending'");
+
+    assertThat(candidates.mayMatch(query)).isFalse();
+    assertThat(candidates.mayMatch(later)).isTrue();
+
+    index.remove(query);
+
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(candidates.mayMatch(query)).isTrue();
+  }
+
+  private String add(String queryString) {
+    index.add(REGION, queryString, (CompiledSelect) new QCompiler().compileQuery(queryString));
+    return queryString;
+  }
+
+  public static class Order {
+    private final Object status;
+    private final Number price;
+
+    Order(Object status, Number price) {
+      this.status = status;
+      this.price = price;
+    }
+
+    public Object getStatus() {
+      return status;
+    }
+
+    public Number getPrice() {
+      return price;
+    }
+  }
+}